@@ -2,8 +2,10 @@ package teammates.common.datatransfer;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 import teammates.common.util.Const;
@@ -43,11 +45,22 @@ public class CommentSearchResultBundle extends SearchResultBundle {
         }
         
         List<ScoredDocument> filteredResults = filterOutCourseId(results, instructors);
+        List<CommentAttributes> resultComments = new ArrayList<CommentAttributes>();
+        Set<Long> commentIds = new HashSet<Long>();
         for (ScoredDocument doc : filteredResults) {
             CommentAttributes comment = new Gson().fromJson(
                     doc.getOnlyField(Const.SearchDocumentField.COMMENT_ATTRIBUTE).getText(),
                     CommentAttributes.class);
-            if (commentsLogic.getComment(comment.getCommentId()) == null) {
+            resultComments.add(comment);
+            commentIds.add(comment.getCommentId());
+        }
+        
+        // verifies all the comments with a single batch get instead of a read per comment
+        Set<Long> existingCommentIds = commentsLogic.getExistingCommentIds(commentIds);
+        for (int i = 0; i < filteredResults.size(); i++) {
+            ScoredDocument doc = filteredResults.get(i);
+            CommentAttributes comment = resultComments.get(i);
+            if (!existingCommentIds.contains(comment.getCommentId())) {
                 commentsLogic.deleteDocument(comment);
                 continue;
             }
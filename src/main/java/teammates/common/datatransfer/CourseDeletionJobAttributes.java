@@ -0,0 +1,114 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import teammates.common.util.Const;
+import teammates.common.util.FieldValidator;
+import teammates.common.util.Utils;
+import teammates.storage.entity.CourseDeletionJob;
+
+/**
+ * The data transfer object for CourseDeletionJob entities.
+ */
+public class CourseDeletionJobAttributes extends EntityAttributes {
+
+    /**
+     * The stages of a course deletion, in the order they are done.
+     * Each stage deletes one kind of entities of the course, starting with the course itself.
+     */
+    public enum Stage {
+        COURSE,
+        STUDENTS,
+        INSTRUCTORS,
+        COMMENTS,
+        FEEDBACK_RESPONSE_COMMENTS,
+        FEEDBACK_RESPONSES,
+        FEEDBACK_QUESTIONS,
+        FEEDBACK_SESSIONS,
+        COMPLETED;
+
+        /**
+         * @return the stage after this stage, or {@code COMPLETED} if this is the last stage
+         */
+        public Stage next() {
+            return this == COMPLETED ? COMPLETED : values()[ordinal() + 1];
+        }
+    }
+
+    public String courseId;
+    public Stage stage;
+    public long deletedEntitiesCount;
+    public Date createdAt;
+    public Date updatedAt;
+
+    public CourseDeletionJobAttributes(String courseId) {
+        this.courseId = courseId;
+        this.stage = Stage.values()[0];
+        this.deletedEntitiesCount = 0;
+        this.createdAt = new Date();
+        this.updatedAt = this.createdAt;
+    }
+
+    public CourseDeletionJobAttributes(CourseDeletionJob job) {
+        this.courseId = job.getCourseId();
+        this.stage = Stage.valueOf(job.getStage());
+        this.deletedEntitiesCount = job.getDeletedEntitiesCount();
+        this.createdAt = job.getCreatedAt();
+        this.updatedAt = job.getUpdatedAt();
+    }
+
+    public boolean isCompleted() {
+        return stage == Stage.COMPLETED;
+    }
+
+    @Override
+    public List<String> getInvalidityInfo() {
+        FieldValidator validator = new FieldValidator();
+        List<String> errors = new ArrayList<String>();
+
+        String error = validator.getInvalidityInfoForCourseId(courseId);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        return errors;
+    }
+
+    @Override
+    public CourseDeletionJob toEntity() {
+        return new CourseDeletionJob(courseId, stage.name(), deletedEntitiesCount, createdAt);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + CourseDeletionJobAttributes.class.getSimpleName() + "] courseId: " + courseId
+               + " stage: " + stage + " deletedEntitiesCount: " + deletedEntitiesCount;
+    }
+
+    @Override
+    public String getIdentificationString() {
+        return courseId;
+    }
+
+    @Override
+    public String getEntityTypeAsString() {
+        return "Course Deletion Job";
+    }
+
+    @Override
+    public String getBackupIdentifier() {
+        return Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId;
+    }
+
+    @Override
+    public String getJsonString() {
+        return Utils.getTeammatesGson().toJson(this, CourseDeletionJobAttributes.class);
+    }
+
+    @Override
+    public void sanitizeForSaving() {
+        // the course ID is that of an existing course, hence no sanitization is needed
+    }
+}
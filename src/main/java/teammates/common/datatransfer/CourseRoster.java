@@ -1,7 +1,7 @@
 package teammates.common.datatransfer;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -12,8 +12,8 @@ import java.util.Map;
  */
 public class CourseRoster {
     
-    Map<String, StudentAttributes> studentListByEmail = new HashMap<String, StudentAttributes>();
-    Map<String, InstructorAttributes> instructorListByEmail = new HashMap<String, InstructorAttributes>();
+    Map<String, StudentAttributes> studentListByEmail = new LinkedHashMap<String, StudentAttributes>();
+    Map<String, InstructorAttributes> instructorListByEmail = new LinkedHashMap<String, InstructorAttributes>();
     
     public CourseRoster(List<StudentAttributes> students, List<InstructorAttributes> instructors) {
         populateStuentListByEmail(students);
@@ -53,6 +53,19 @@ public class CourseRoster {
                && student1.team != null && student1.team.equals(student2.team);
     }
     
+    /**
+     * @return the students in the team, in the order they were given, or an empty list if there are none
+     */
+    public List<StudentAttributes> getStudentsForTeam(String teamName) {
+        List<StudentAttributes> studentsInTeam = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : studentListByEmail.values()) {
+            if (teamName.equals(student.team)) {
+                studentsInTeam.add(student);
+            }
+        }
+        return studentsInTeam;
+    }
+    
     public StudentAttributes getStudentForEmail(String email) {
         return studentListByEmail.get(email);
     }
@@ -0,0 +1,28 @@
+package teammates.common.datatransfer;
+
+import java.util.List;
+
+/**
+ * A chunk of the entities returned by a query, with the cursor from which the next chunk can be read,
+ * possibly in another request.
+ */
+public class EntitiesChunk<T> {
+
+    public List<T> entities;
+
+    /** The web-safe cursor after the last entity of the chunk, or null if there are no more entities */
+    public String cursor;
+
+    public EntitiesChunk(List<T> entities, String cursor) {
+        this.entities = entities;
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return true if there may be more entities after this chunk
+     */
+    public boolean hasMore() {
+        return cursor != null;
+    }
+
+}
@@ -70,15 +70,47 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
         
         cursor = results.getCursor();
         List<ScoredDocument> filteredResults = filterOutCourseId(results, instructors);
+        List<FeedbackResponseCommentAttributes> resultComments = new ArrayList<FeedbackResponseCommentAttributes>();
+        List<FeedbackResponseAttributes> resultResponses = new ArrayList<FeedbackResponseAttributes>();
+        List<FeedbackQuestionAttributes> resultQuestions = new ArrayList<FeedbackQuestionAttributes>();
+        List<FeedbackSessionAttributes> resultSessions = new ArrayList<FeedbackSessionAttributes>();
         for (ScoredDocument doc : filteredResults) {
-            //get FeedbackResponseComment from results
-            FeedbackResponseCommentAttributes comment = new Gson().fromJson(
+            resultComments.add(new Gson().fromJson(
                     doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_RESPONSE_COMMENT_ATTRIBUTE).getText(),
-                    FeedbackResponseCommentAttributes.class);
-            if (frcLogic.getFeedbackResponseComment(comment.getId()) == null) {
+                    FeedbackResponseCommentAttributes.class));
+            resultResponses.add(new Gson().fromJson(
+                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_RESPONSE_ATTRIBUTE).getText(),
+                    FeedbackResponseAttributes.class));
+            resultQuestions.add(new Gson().fromJson(
+                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_QUESTION_ATTRIBUTE).getText(),
+                    FeedbackQuestionAttributes.class));
+            resultSessions.add(new Gson().fromJson(
+                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_SESSION_ATTRIBUTE).getText(),
+                    FeedbackSessionAttributes.class));
+        }
+        
+        // verifies the comments, responses, questions and sessions of all the results with
+        // one batch get each instead of four reads per result
+        Set<Long> existingCommentIds = getExistingCommentIds(resultComments);
+        Set<String> existingResponseIds = getExistingResponseIds(resultResponses);
+        Set<String> existingQuestionIds = getExistingQuestionIds(resultQuestions);
+        Set<String> existingSessions = fsLogic.getExistingFeedbackSessions(resultSessions);
+        
+        for (int i = 0; i < filteredResults.size(); i++) {
+            ScoredDocument doc = filteredResults.get(i);
+            FeedbackResponseCommentAttributes comment = resultComments.get(i);
+            FeedbackResponseAttributes response = resultResponses.get(i);
+            FeedbackQuestionAttributes question = resultQuestions.get(i);
+            FeedbackSessionAttributes session = resultSessions.get(i);
+            if (!existingCommentIds.contains(comment.getId())
+                    || !existingResponseIds.contains(response.getId())
+                    || !existingQuestionIds.contains(question.getId())
+                    || !existingSessions.contains(session.getIdentificationString())) {
                 frcLogic.deleteDocument(comment);
                 continue;
             }
+            
+            //get FeedbackResponseComment from results
             comment.sendingState = CommentSendingState.SENT;
             List<FeedbackResponseCommentAttributes> commentList = comments.get(comment.feedbackResponseId);
             if (commentList == null) {
@@ -88,13 +120,6 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
             commentList.add(comment);
             
             //get related response from results
-            FeedbackResponseAttributes response = new Gson().fromJson(
-                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_RESPONSE_ATTRIBUTE).getText(),
-                    FeedbackResponseAttributes.class);
-            if (frLogic.getFeedbackResponse(response.getId()) == null) {
-                frcLogic.deleteDocument(comment);
-                continue;
-            }
             List<FeedbackResponseAttributes> responseList = responses.get(response.feedbackQuestionId);
             if (responseList == null) {
                 responseList = new ArrayList<FeedbackResponseAttributes>();
@@ -106,13 +131,6 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
             }
             
             //get related question from results
-            FeedbackQuestionAttributes question = new Gson().fromJson(
-                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_QUESTION_ATTRIBUTE).getText(),
-                    FeedbackQuestionAttributes.class);
-            if (fqLogic.getFeedbackQuestion(question.getId()) == null) {
-                frcLogic.deleteDocument(comment);
-                continue;
-            }
             List<FeedbackQuestionAttributes> questionList = questions.get(question.feedbackSessionName);
             if (questionList == null) {
                 questionList = new ArrayList<FeedbackQuestionAttributes>();
@@ -124,13 +142,6 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
             }
             
             //get related session from results
-            FeedbackSessionAttributes session = new Gson().fromJson(
-                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_SESSION_ATTRIBUTE).getText(),
-                    FeedbackSessionAttributes.class);
-            if (fsLogic.getFeedbackSession(session.getSessionName(), session.getCourseId()) == null) {
-                frcLogic.deleteDocument(comment);
-                continue;
-            }
             if (!isAdded.contains(session.getFeedbackSessionName())) {
                 isAdded.add(session.getFeedbackSessionName());
                 sessions.put(session.getSessionName(), session);
@@ -167,6 +178,30 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
         return this;
     }
     
+    private Set<Long> getExistingCommentIds(List<FeedbackResponseCommentAttributes> resultComments) {
+        Set<Long> commentIds = new HashSet<Long>();
+        for (FeedbackResponseCommentAttributes comment : resultComments) {
+            commentIds.add(comment.getId());
+        }
+        return frcLogic.getExistingFeedbackResponseCommentIds(commentIds);
+    }
+    
+    private Set<String> getExistingResponseIds(List<FeedbackResponseAttributes> resultResponses) {
+        Set<String> responseIds = new HashSet<String>();
+        for (FeedbackResponseAttributes response : resultResponses) {
+            responseIds.add(response.getId());
+        }
+        return frLogic.getExistingFeedbackResponseIds(responseIds);
+    }
+    
+    private Set<String> getExistingQuestionIds(List<FeedbackQuestionAttributes> resultQuestions) {
+        Set<String> questionIds = new HashSet<String>();
+        for (FeedbackQuestionAttributes question : resultQuestions) {
+            questionIds.add(question.getId());
+        }
+        return fqLogic.getExistingFeedbackQuestionIds(questionIds);
+    }
+    
     private String getFilteredCommentGiverName(FeedbackResponseAttributes response,
                                                FeedbackResponseCommentAttributes comment, String name) {
         return isCommentGiverNameVisibleToInstructor(response, comment) ? name : "Anonymous";
@@ -4,9 +4,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 
 import teammates.common.util.Const;
-import teammates.common.util.StringHelper;
 import teammates.logic.core.InstructorsLogic;
 
 import com.google.appengine.api.search.Cursor;
@@ -36,12 +36,18 @@ public class InstructorSearchResultBundle extends SearchResultBundle {
         
         cursor = results.getCursor();
         
+        List<InstructorAttributes> instructors = new ArrayList<InstructorAttributes>();
         for (ScoredDocument doc : results) {
             InstructorAttributes instructor =
                     new Gson().fromJson(doc.getOnlyField(Const.SearchDocumentField.INSTRUCTOR_ATTRIBUTE).getText(),
                                                          InstructorAttributes.class);
-            
-            if (instructorsLogic.getInstructorForRegistrationKey(StringHelper.encrypt(instructor.key)) == null) {
+            instructors.add(instructor);
+        }
+        
+        // verifies the instructors with a query per chunk of registration keys instead of a read per instructor
+        Set<String> existingKeys = instructorsLogic.getExistingInstructorRegistrationKeys(instructors);
+        for (InstructorAttributes instructor : instructors) {
+            if (instructor.key == null || !existingKeys.contains(instructor.key)) {
                 instructorsLogic.deleteDocument(instructor);
                 continue;
             }
@@ -0,0 +1,84 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import teammates.common.util.Utils;
+import teammates.storage.entity.LogCompilationWatermark;
+
+/**
+ * The data transfer object for LogCompilationWatermark entities.
+ */
+public class LogCompilationWatermarkAttributes extends EntityAttributes {
+
+    public String name;
+    public long endTimeUsec;
+    public List<String> requestIds;
+    public Date updatedAt;
+
+    public LogCompilationWatermarkAttributes(String name, long endTimeUsec, List<String> requestIds) {
+        this.name = name;
+        this.endTimeUsec = endTimeUsec;
+        this.requestIds = requestIds;
+        this.updatedAt = new Date();
+    }
+
+    public LogCompilationWatermarkAttributes(LogCompilationWatermark watermark) {
+        this.name = watermark.getName();
+        this.endTimeUsec = watermark.getEndTimeUsec();
+        // the datastore does not keep an empty list
+        this.requestIds = watermark.getRequestIds() == null
+                          ? new ArrayList<String>()
+                          : new ArrayList<String>(watermark.getRequestIds());
+        this.updatedAt = watermark.getUpdatedAt();
+    }
+
+    @Override
+    public List<String> getInvalidityInfo() {
+        List<String> errors = new ArrayList<String>();
+        if (name == null || name.trim().isEmpty()) {
+            errors.add("The name of a log compilation watermark cannot be empty");
+        }
+        if (endTimeUsec < 0) {
+            errors.add("The end time of a log compilation watermark cannot be negative");
+        }
+        return errors;
+    }
+
+    @Override
+    public LogCompilationWatermark toEntity() {
+        return new LogCompilationWatermark(name, endTimeUsec, requestIds, updatedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + LogCompilationWatermarkAttributes.class.getSimpleName() + "] name: " + name
+               + " endTimeUsec: " + endTimeUsec + " requestIds: " + requestIds;
+    }
+
+    @Override
+    public String getIdentificationString() {
+        return name;
+    }
+
+    @Override
+    public String getEntityTypeAsString() {
+        return "Log Compilation Watermark";
+    }
+
+    @Override
+    public String getBackupIdentifier() {
+        return "Log Compilation Watermark";
+    }
+
+    @Override
+    public String getJsonString() {
+        return Utils.getTeammatesGson().toJson(this, LogCompilationWatermarkAttributes.class);
+    }
+
+    @Override
+    public void sanitizeForSaving() {
+        // the name is set by the application, hence no sanitization is needed
+    }
+}
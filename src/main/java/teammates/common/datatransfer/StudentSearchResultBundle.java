@@ -4,11 +4,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import teammates.common.util.Const;
-import teammates.common.util.StringHelper;
 import teammates.logic.core.StudentsLogic;
 
 import com.google.appengine.api.search.Cursor;
@@ -42,22 +43,8 @@ public class StudentSearchResultBundle extends SearchResultBundle {
         }
         
         List<ScoredDocument> filteredResults = filterOutCourseId(results, instructors);
-        for (ScoredDocument doc : filteredResults) {
-            StudentAttributes student = new Gson().fromJson(
-                    doc.getOnlyField(Const.SearchDocumentField.STUDENT_ATTRIBUTE).getText(),
-                    StudentAttributes.class);
-            if (student.key == null) {
-                studentsLogic.deleteDocument(student);
-                continue;
-            }
-            if (studentsLogic.getStudentForRegistrationKey(StringHelper.encrypt(student.key)) == null) {
-                studentsLogic.deleteDocument(student);
-                continue;
-            }
-            
-            studentList.add(student);
-            numberOfResults++;
-        }
+        studentList.addAll(getExistingStudents(filteredResults));
+        numberOfResults = studentList.size();
         
         sortStudentResultList();
         
@@ -79,25 +66,45 @@ public class StudentSearchResultBundle extends SearchResultBundle {
         
         cursor = results.getCursor();
         
-        for (ScoredDocument doc : results) {
-            StudentAttributes student =
-                    new Gson().fromJson(doc.getOnlyField(Const.SearchDocumentField.STUDENT_ATTRIBUTE).getText(),
-                                                         StudentAttributes.class);
-            
-            if (studentsLogic.getStudentForRegistrationKey(StringHelper.encrypt(student.key)) == null) {
-                studentsLogic.deleteDocument(student);
-                continue;
-            }
-            
-            studentList.add(student);
-            numberOfResults++;
-        }
+        studentList.addAll(getExistingStudents(results));
+        numberOfResults = studentList.size();
         
         sortStudentResultList();
         
         return this;
     }
 
+    /**
+     * Gets the students of the documents, verifying that they still exist with a single batch get
+     * instead of a read per document. The documents of students that do not exist are deleted.
+     */
+    private List<StudentAttributes> getExistingStudents(Iterable<ScoredDocument> docs) {
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        Set<String> keys = new HashSet<String>();
+        for (ScoredDocument doc : docs) {
+            StudentAttributes student = new Gson().fromJson(
+                    doc.getOnlyField(Const.SearchDocumentField.STUDENT_ATTRIBUTE).getText(),
+                    StudentAttributes.class);
+            if (student.key == null) {
+                studentsLogic.deleteDocument(student);
+                continue;
+            }
+            students.add(student);
+            keys.add(student.key);
+        }
+        
+        Set<String> existingKeys = studentsLogic.getExistingStudentKeys(keys);
+        List<StudentAttributes> existingStudents = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : students) {
+            if (existingKeys.contains(student.key)) {
+                existingStudents.add(student);
+            } else {
+                studentsLogic.deleteDocument(student);
+            }
+        }
+        return existingStudents;
+    }
+    
     private void sortStudentResultList() {
         
         Collections.sort(studentList, new Comparator<StudentAttributes>() {
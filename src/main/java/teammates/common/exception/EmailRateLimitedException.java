@@ -0,0 +1,20 @@
+package teammates.common.exception;
+
+import java.util.List;
+
+import teammates.common.util.EmailWrapper;
+
+/**
+ * Thrown when the email service rejects emails because it is sent emails faster than it accepts.
+ */
+@SuppressWarnings("serial")
+public class EmailRateLimitedException extends EmailSendingException {
+    
+    /** The emails which were not sent, including the rejected ones */
+    public List<EmailWrapper> unsentEmails;
+    
+    public EmailRateLimitedException(String message, List<EmailWrapper> unsentEmails) {
+        super(message);
+        this.unsentEmails = unsentEmails;
+    }
+}
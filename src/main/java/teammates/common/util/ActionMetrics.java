@@ -0,0 +1,251 @@
+package teammates.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Aggregates the latency, errors and datastore calls and operations of the requests served by this instance
+ * of the app, per action URI, without locking.<br>
+ * The metrics are kept in memory: they are per instance and lost when the instance is shut down.
+ */
+public final class ActionMetrics {
+
+    /** The key under which the requests whose URI is not mapped to an action are recorded */
+    public static final String UNKNOWN_ACTION = "unknown";
+
+    /** The maximum number of call sites with N+1 queries kept per action */
+    private static final int MAX_CALL_SITES_KEPT = 20;
+
+    private static final ConcurrentMap<String, Metrics> METRICS_BY_ACTION = new ConcurrentHashMap<String, Metrics>();
+
+    private ActionMetrics() {
+        // utility class
+    }
+
+    /**
+     * Records a request served by an action.
+     * @param actionUri the URI of the action, or {@link #UNKNOWN_ACTION}
+     * @param isError whether the request failed with an exception
+     * @param datastoreCalls the number of datastore calls made by the request
+     */
+    public static void record(String actionUri, long timeTakenMillis, boolean isError, int datastoreCalls) {
+        record(actionUri, timeTakenMillis, isError, datastoreCalls, null);
+    }
+
+    /**
+     * Records a request served by an action, with the datastore operations profiled during the request.
+     * @param profile the profile of the datastore operations of the request, or null if they were not profiled
+     * @see #record(String, long, boolean, int)
+     */
+    public static void record(String actionUri, long timeTakenMillis, boolean isError, int datastoreCalls,
+                              DatastoreOperationProfile profile) {
+        Metrics metrics = METRICS_BY_ACTION.get(actionUri);
+        if (metrics == null) {
+            Metrics newMetrics = new Metrics();
+            metrics = METRICS_BY_ACTION.putIfAbsent(actionUri, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        metrics.latency.record(timeTakenMillis);
+        metrics.datastoreCalls.addAndGet(datastoreCalls);
+        if (isError) {
+            metrics.errors.incrementAndGet();
+        }
+        if (profile != null) {
+            recordDatastoreOperations(metrics, profile);
+        }
+    }
+
+    private static void recordDatastoreOperations(Metrics metrics, DatastoreOperationProfile profile) {
+        for (DatastoreOperationProfile.OperationType type : DatastoreOperationProfile.OperationType.values()) {
+            metrics.datastoreOperations.addAndGet(type.ordinal(), profile.getCount(type));
+        }
+        List<String> nPlusOneCallSites = profile.getNPlusOneCallSites();
+        if (!nPlusOneCallSites.isEmpty()) {
+            metrics.nPlusOneRequests.incrementAndGet();
+            for (String callSite : nPlusOneCallSites) {
+                if (metrics.nPlusOneCallSites.size() < MAX_CALL_SITES_KEPT) {
+                    metrics.nPlusOneCallSites.put(callSite, Boolean.TRUE);
+                }
+            }
+        }
+        if (!profile.getDuplicateQueryCallSites().isEmpty()) {
+            metrics.duplicateQueryRequests.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the metrics of each action recorded so far, from the action with the highest 99th percentile latency
+     */
+    public static List<Summary> getSummaries() {
+        List<Summary> summaries = new ArrayList<Summary>();
+        for (Map.Entry<String, Metrics> entry : METRICS_BY_ACTION.entrySet()) {
+            summaries.add(new Summary(entry.getKey(), entry.getValue()));
+        }
+        Collections.sort(summaries, new Comparator<Summary>() {
+            @Override
+            public int compare(Summary summary1, Summary summary2) {
+                return Long.valueOf(summary2.p99Millis).compareTo(summary1.p99Millis);
+            }
+        });
+        return summaries;
+    }
+
+    /**
+     * Discards the metrics recorded so far.
+     */
+    public static void clear() {
+        METRICS_BY_ACTION.clear();
+    }
+
+    private static class Metrics {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong datastoreCalls = new AtomicLong();
+
+        /** The number of datastore operations profiled, by {@link DatastoreOperationProfile.OperationType} */
+        final AtomicLongArray datastoreOperations =
+                new AtomicLongArray(DatastoreOperationProfile.OperationType.values().length);
+
+        final AtomicLong nPlusOneRequests = new AtomicLong();
+        final AtomicLong duplicateQueryRequests = new AtomicLong();
+        final ConcurrentMap<String, Boolean> nPlusOneCallSites = new ConcurrentHashMap<String, Boolean>();
+
+    }
+
+    /**
+     * The metrics of an action at the time they are read.
+     */
+    public static class Summary {
+
+        private final String actionUri;
+        private final long requests;
+        private final long errors;
+        private final long meanMillis;
+        private final long p50Millis;
+        private final long p95Millis;
+        private final long p99Millis;
+        private final long maxMillis;
+        private final long datastoreCalls;
+        private final long queries;
+        private final long gets;
+        private final long puts;
+        private final long deletes;
+        private final long nPlusOneRequests;
+        private final long duplicateQueryRequests;
+        private final List<String> nPlusOneCallSites;
+
+        Summary(String actionUri, Metrics metrics) {
+            this.actionUri = actionUri;
+            this.requests = metrics.latency.getTotalCount();
+            this.errors = metrics.errors.get();
+            this.meanMillis = metrics.latency.getMeanMillis();
+            this.p50Millis = metrics.latency.getValueAtPercentile(50);
+            this.p95Millis = metrics.latency.getValueAtPercentile(95);
+            this.p99Millis = metrics.latency.getValueAtPercentile(99);
+            this.maxMillis = metrics.latency.getMaxMillis();
+            this.datastoreCalls = metrics.datastoreCalls.get();
+            this.queries = metrics.datastoreOperations.get(DatastoreOperationProfile.OperationType.QUERY.ordinal());
+            this.gets = metrics.datastoreOperations.get(DatastoreOperationProfile.OperationType.GET.ordinal());
+            this.puts = metrics.datastoreOperations.get(DatastoreOperationProfile.OperationType.PUT.ordinal());
+            this.deletes = metrics.datastoreOperations.get(DatastoreOperationProfile.OperationType.DELETE.ordinal());
+            this.nPlusOneRequests = metrics.nPlusOneRequests.get();
+            this.duplicateQueryRequests = metrics.duplicateQueryRequests.get();
+            this.nPlusOneCallSites = new ArrayList<String>(metrics.nPlusOneCallSites.keySet());
+            Collections.sort(this.nPlusOneCallSites);
+        }
+
+        public String getActionUri() {
+            return actionUri;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getMeanMillis() {
+            return meanMillis;
+        }
+
+        public long getP50Millis() {
+            return p50Millis;
+        }
+
+        public long getP95Millis() {
+            return p95Millis;
+        }
+
+        public long getP99Millis() {
+            return p99Millis;
+        }
+
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        public long getDatastoreCalls() {
+            return datastoreCalls;
+        }
+
+        public long getDatastoreCallsPerRequest() {
+            return getPerRequest(datastoreCalls);
+        }
+
+        public long getQueriesPerRequest() {
+            return getPerRequest(queries);
+        }
+
+        public long getGetsPerRequest() {
+            return getPerRequest(gets);
+        }
+
+        public long getPutsPerRequest() {
+            return getPerRequest(puts);
+        }
+
+        public long getDeletesPerRequest() {
+            return getPerRequest(deletes);
+        }
+
+        /**
+         * @return the number of requests which ran the same query at least
+         *         {@link DatastoreOperationProfile#N_PLUS_ONE_THRESHOLD} times from the same call site
+         */
+        public long getNPlusOneRequests() {
+            return nPlusOneRequests;
+        }
+
+        /**
+         * @return the number of requests which ran the same query with the same parameters more than once
+         */
+        public long getDuplicateQueryRequests() {
+            return duplicateQueryRequests;
+        }
+
+        /**
+         * @return the call sites which ran N+1 queries, up to {@link ActionMetrics#MAX_CALL_SITES_KEPT}
+         */
+        public List<String> getNPlusOneCallSites() {
+            return nPlusOneCallSites;
+        }
+
+        private long getPerRequest(long total) {
+            return requests == 0 ? 0 : total / requests;
+        }
+
+    }
+
+}
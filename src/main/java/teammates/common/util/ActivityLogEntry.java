@@ -32,7 +32,8 @@ public class ActivityLogEntry {
     
     // The following constants describe the positions of the attributes
     // in the log message. i.e
-    // TEAMMATESLOG|||SERVLET_NAME|||ACTION|||TO_SHOW|||ROLE|||NAME|||GOOGLE_ID|||EMAIL|||MESSAGE(IN HTML)|||URL|||TIME_TAKEN
+    // TEAMMATESLOG|||SERVLET_NAME|||ACTION|||TO_SHOW|||ROLE|||NAME|||GOOGLE_ID|||EMAIL|||MESSAGE(IN HTML)|||URL|||ID
+    // |||TIME_TAKEN|||DATASTORE_SUMMARY
     public static final int POSITION_OF_SERVLETNAME = 1;
     public static final int POSITION_OF_ACTION = 2;
     public static final int POSITION_OF_TOSHOW = 3;
@@ -44,8 +45,11 @@ public class ActivityLogEntry {
     public static final int POSITION_OF_URL = 9;
     public static final int POSITION_OF_ID = 10;
     public static final int POSITION_OF_TIMETAKEN = 11;
+    public static final int POSITION_OF_DATASTORE_SUMMARY = 12;
     
     private static final int POSITION_OF_TIMETAKEN_IN_OLD_LOGS = 10;
+    
+    private static final String FIELD_SEPARATOR = "|||";
 
     private static final int TIME_TAKEN_WARNING_LOWER_RANGE = 10000;
     private static final int TIME_TAKEN_WARNING_UPPER_RANGE = 20000;
@@ -63,6 +67,9 @@ public class ActivityLogEntry {
     private String url;
     private Long timeTaken;
     
+    /** The summary of the datastore operations of the request, absent from logs of earlier versions */
+    private String datastoreSummary;
+    
     // id can be in the form of <googleId>%<time> e.g. bamboo3250%20151103170618465
     // or <studentemail>%<courseId>%<time> (for unregistered students)
     //     e.g. bamboo@gmail.tmt%instructor.ema-demo%20151103170618465
@@ -70,7 +77,7 @@ public class ActivityLogEntry {
     
     private boolean isFirstRow;
     
-    @SuppressWarnings("unused") // used by js
+    @SuppressWarnings({"unused", "PMD.SingularField"}) // used by js
     private String logInfoAsHtml;
     
     private String[] keyStringsToHighlight;
@@ -104,14 +111,13 @@ public class ActivityLogEntry {
         time = appLog.getTimeUsec() / 1000;
         
         try {
-            String[] tokens = appLog.getLogMessage().split("\\|\\|\\|", -1);
+            String[] tokens = splitLogMessage(appLog.getLogMessage());
             initUsingAppLogMessage(tokens);
         } catch (ArrayIndexOutOfBoundsException e) {
             initAsFailure(appLog, e);
         }
         
         keyStringsToHighlight = null;
-        logInfoAsHtml = getLogInfoForTableRowAsHtml();
     }
 
     /**
@@ -218,6 +224,56 @@ public class ActivityLogEntry {
         id = generateLogId(googleId, unregisteredStudent, time);
     }
     
+    /**
+     * Splits the log message into its fields at every {@link #FIELD_SEPARATOR}, keeping empty fields.
+     * This gives the same fields as {@code logMessage.split("\\|\\|\\|", -1)} by scanning the message
+     * with {@link String#indexOf(String, int)}, as compiling the regular expression for every log line
+     * dominates the time taken to parse the log lines searched in the admin activity log page.
+     */
+    private static String[] splitLogMessage(String logMessage) {
+        int numberOfFields = 1;
+        int separatorIndex = logMessage.indexOf(FIELD_SEPARATOR);
+        while (separatorIndex != -1) {
+            numberOfFields++;
+            separatorIndex = logMessage.indexOf(FIELD_SEPARATOR, separatorIndex + FIELD_SEPARATOR.length());
+        }
+        
+        String[] fields = new String[numberOfFields];
+        int fieldStart = 0;
+        for (int i = 0; i < numberOfFields - 1; i++) {
+            int fieldEnd = logMessage.indexOf(FIELD_SEPARATOR, fieldStart);
+            fields[i] = logMessage.substring(fieldStart, fieldEnd);
+            fieldStart = fieldEnd + FIELD_SEPARATOR.length();
+        }
+        fields[numberOfFields - 1] = logMessage.substring(fieldStart);
+        return fields;
+    }
+    
+    /**
+     * Splits only the leading fields of the log message, up to {@code lastPosition}, so that a log line
+     * can be checked against the fields a filter needs before it is parsed in full.
+     * @param lastPosition the position of the last field needed, before {@link #POSITION_OF_URL}
+     * @return the fields up to {@code lastPosition}, or null if the log message has fewer fields
+     *         than an entry needs, i.e. if it is parsed as a failure
+     */
+    public static String[] getLeadingFieldsOfLogMessage(String logMessage, int lastPosition) {
+        Assumption.assertTrue(lastPosition < POSITION_OF_URL);
+        
+        String[] fields = new String[lastPosition + 1];
+        int fieldStart = 0;
+        for (int i = 0; i < POSITION_OF_URL; i++) {
+            int fieldEnd = logMessage.indexOf(FIELD_SEPARATOR, fieldStart);
+            if (fieldEnd == -1) {
+                return null;
+            }
+            if (i <= lastPosition) {
+                fields[i] = logMessage.substring(fieldStart, fieldEnd);
+            }
+            fieldStart = fieldEnd + FIELD_SEPARATOR.length();
+        }
+        return fields;
+    }
+    
     private void initUsingAppLogMessage(String[] tokens) {
         servletName = tokens[POSITION_OF_SERVLETNAME];
         action = tokens[POSITION_OF_ACTION];
@@ -241,10 +297,14 @@ public class ActivityLogEntry {
                 timeTaken = Long.parseLong(tokens[POSITION_OF_TIMETAKEN_IN_OLD_LOGS].trim());
             } else {
                 // TEAMMATESLOG|||SERVLET_NAME|||ACTION|||TO_SHOW|||ROLE|||NAME|||GOOGLE_ID|||EMAIL|||
-                // MESSAGE(IN HTML)|||URL|||ID|||TIME_TAKEN
+                // MESSAGE(IN HTML)|||URL|||ID|||TIME_TAKEN|||DATASTORE_SUMMARY
                 id = tokens[POSITION_OF_ID];
-                timeTaken = tokens.length == 12 ? Long.parseLong(tokens[POSITION_OF_TIMETAKEN].trim())
-                                                : null;
+                timeTaken = tokens.length > POSITION_OF_TIMETAKEN
+                          ? Long.parseLong(tokens[POSITION_OF_TIMETAKEN].trim())
+                          : null;
+                datastoreSummary = tokens.length > POSITION_OF_DATASTORE_SUMMARY
+                                 ? tokens[POSITION_OF_DATASTORE_SUMMARY]
+                                 : null;
             }
         }
     }
@@ -485,6 +545,13 @@ public class ActivityLogEntry {
         return timeTaken;
     }
     
+    /**
+     * @return the summary of the datastore operations of the request, or null if the log does not have one
+     */
+    public String getDatastoreSummary() {
+        return datastoreSummary;
+    }
+    
     /**
      * Generates the ID for the log. If the googleId is unknown or unregistered,
      * the email and course of the {@code student} will be used to construct the id.
@@ -589,6 +656,10 @@ public class ActivityLogEntry {
                      + "<p class=\"" + getColorCode(getTimeTaken()) + "\">"
                          + "<strong>" + TimeHelper.convertToStandardDuration(getTimeTaken()) + "</strong>"
                      + "</p>"
+                     + (datastoreSummary == null
+                        ? ""
+                        : "<p class=\"text-muted\"><small>" + Sanitizer.sanitizeForHtml(datastoreSummary)
+                          + "</small></p>")
                  + "</td>"
                  + "<td class=\"" + getTableCellColorCode(timeTaken) + "\">"
                      + "<form method=\"get\" action=\"" + Const.ActionURIs.ADMIN_ACTIVITY_LOG_PAGE + "\">"
@@ -639,9 +710,14 @@ public class ActivityLogEntry {
                 message = message.replace(realStringToHighlight, "<mark>" + realStringToHighlight + "</mark>");
             }
         }
-        
+    }
+    
+    /**
+     * Generates the HTML of the entry as a table row for the js, which only uses the entries shown.
+     * The HTML is not generated when the entry is created as most entries parsed are filtered out.
+     */
+    public void renderLogInfoAsHtml() {
         logInfoAsHtml = getLogInfoForTableRowAsHtml();
-        
     }
     
     public void setFirstRow() {
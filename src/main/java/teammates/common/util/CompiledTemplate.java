@@ -0,0 +1,135 @@
+package teammates.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template whose placeholders, i.e. {@code ${name}}, are located once when it is compiled,
+ * so that it can be rendered many times, each in one pass into a buffer of the exact size.<br>
+ * Unlike {@link Templates#populateTemplate(String, String...)}, placeholders in the values
+ * are not replaced, and placeholders without values are left in the output as they are.
+ */
+public final class CompiledTemplate {
+
+    private static final String PLACEHOLDER_START = "${";
+    private static final String PLACEHOLDER_END = "}";
+
+    /** The text between the placeholders; there is one more literal than placeholders */
+    private final String[] literals;
+
+    /** The placeholders, including their delimiters, e.g. {@code ${userName}} */
+    private final String[] placeholders;
+
+    private final int literalsLength;
+
+    public CompiledTemplate(String template) {
+        List<String> literalList = new ArrayList<String>();
+        List<String> placeholderList = new ArrayList<String>();
+
+        int literalStart = 0;
+        int placeholderStart = template.indexOf(PLACEHOLDER_START);
+        while (placeholderStart != -1) {
+            int placeholderEnd = template.indexOf(PLACEHOLDER_END, placeholderStart + PLACEHOLDER_START.length());
+            if (placeholderEnd == -1) {
+                break;
+            }
+            placeholderEnd += PLACEHOLDER_END.length();
+            literalList.add(template.substring(literalStart, placeholderStart));
+            placeholderList.add(template.substring(placeholderStart, placeholderEnd));
+            literalStart = placeholderEnd;
+            placeholderStart = template.indexOf(PLACEHOLDER_START, literalStart);
+        }
+        literalList.add(template.substring(literalStart));
+
+        this.literals = literalList.toArray(new String[literalList.size()]);
+        this.placeholders = placeholderList.toArray(new String[placeholderList.size()]);
+        this.literalsLength = getTotalLength(literals);
+    }
+
+    private CompiledTemplate(List<String> literals, List<String> placeholders) {
+        this.literals = literals.toArray(new String[literals.size()]);
+        this.placeholders = placeholders.toArray(new String[placeholders.size()]);
+        this.literalsLength = getTotalLength(this.literals);
+    }
+
+    /**
+     * Renders the template, replacing its placeholders with the given values.
+     * @param values Array of a variable, even number of placeholder-value pairs:
+     *                   { "${key1}", "val1", "${key2}", "val2", ... }
+     * @return The rendered template
+     */
+    public String render(String... values) {
+        Assumption.assertTrue("The number of values passed in must be even", values.length % 2 == 0);
+
+        String[] valuesOfPlaceholders = getValuesOfPlaceholders(values);
+        int length = literalsLength;
+        for (int i = 0; i < placeholders.length; i++) {
+            length += valuesOfPlaceholders[i].length();
+        }
+
+        StringBuilder rendered = new StringBuilder(length);
+        for (int i = 0; i < placeholders.length; i++) {
+            rendered.append(literals[i]).append(valuesOfPlaceholders[i]);
+        }
+        rendered.append(literals[placeholders.length]);
+        return rendered.toString();
+    }
+
+    /**
+     * Renders the placeholders of the template that have values, e.g. those which are the same
+     * for all emails of a batch, and keeps the others to be rendered later.
+     * @param values Array of a variable, even number of placeholder-value pairs:
+     *                   { "${key1}", "val1", "${key2}", "val2", ... }
+     * @return The template with the given placeholders rendered
+     */
+    public CompiledTemplate renderPartially(String... values) {
+        Assumption.assertTrue("The number of values passed in must be even", values.length % 2 == 0);
+
+        List<String> newLiterals = new ArrayList<String>();
+        List<String> newPlaceholders = new ArrayList<String>();
+        StringBuilder literal = new StringBuilder(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            String value = getValue(placeholders[i], values);
+            if (value == null) {
+                newLiterals.add(literal.toString());
+                newPlaceholders.add(placeholders[i]);
+                literal.setLength(0);
+            } else {
+                literal.append(value);
+            }
+            literal.append(literals[i + 1]);
+        }
+        newLiterals.add(literal.toString());
+        return new CompiledTemplate(newLiterals, newPlaceholders);
+    }
+
+    private String[] getValuesOfPlaceholders(String... values) {
+        String[] valuesOfPlaceholders = new String[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            String value = getValue(placeholders[i], values);
+            valuesOfPlaceholders[i] = value == null ? placeholders[i] : value;
+        }
+        return valuesOfPlaceholders;
+    }
+
+    /**
+     * @return the value paired with the {@code placeholder}, or null if there is none
+     */
+    private static String getValue(String placeholder, String... values) {
+        for (int i = 0; i < values.length; i += 2) {
+            if (values[i].equals(placeholder)) {
+                return values[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private static int getTotalLength(String[] strings) {
+        int length = 0;
+        for (String string : strings) {
+            length += string.length();
+        }
+        return length;
+    }
+
+}
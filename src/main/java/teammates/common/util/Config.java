@@ -59,6 +59,12 @@ public final class Config {
     /** The value of the "app.mailjet.secretkey" in build.properties file */
     public static final String MAILJET_SECRETKEY;
     
+    /** The value of the "app.search.service" in build.properties file */
+    public static final String SEARCH_SERVICE;
+    
+    /** The value of the "app.datastore.profile.callsites" in build.properties file */
+    public static final boolean DATASTORE_PROFILE_CALL_SITES;
+    
     static {
         Properties properties = new Properties();
         try {
@@ -82,6 +88,8 @@ public final class Config {
         MAILGUN_DOMAINNAME = properties.getProperty("app.mailgun.domainname");
         MAILJET_APIKEY = properties.getProperty("app.mailjet.apikey");
         MAILJET_SECRETKEY = properties.getProperty("app.mailjet.secretkey");
+        SEARCH_SERVICE = properties.getProperty("app.search.service");
+        DATASTORE_PROFILE_CALL_SITES = Boolean.parseBoolean(properties.getProperty("app.datastore.profile.callsites"));
     }
     
     private Config() {
@@ -131,9 +139,25 @@ public final class Config {
                 && MAILGUN_DOMAINNAME != null && !MAILGUN_DOMAINNAME.isEmpty();
     }
     
+    /**
+     * @return true if emails are only recorded by a fake service instead of being sent,
+     *         e.g. to test the sending of emails offline
+     */
+    public static boolean isUsingFakeEmailService() {
+        return "fake".equalsIgnoreCase(EMAIL_SERVICE);
+    }
+    
     public static boolean isUsingMailjet() {
         return "mailjet".equalsIgnoreCase(EMAIL_SERVICE) && MAILJET_APIKEY != null && !MAILJET_APIKEY.isEmpty()
                 && MAILJET_SECRETKEY != null && !MAILJET_SECRETKEY.isEmpty();
     }
     
+    /**
+     * @return true if the search indexes are embedded in the application instead of
+     *         provided by the App Engine Search API, e.g. to benchmark searching offline
+     */
+    public static boolean isUsingLocalSearchService() {
+        return "local".equalsIgnoreCase(SEARCH_SERVICE);
+    }
+    
 }
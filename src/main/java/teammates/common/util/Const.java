@@ -147,14 +147,26 @@ public final class Const {
         public static final String EMAIL_TASK_QUEUE = "configure-and-prepare-email-queue";
         public static final String ADMIN_EMAIL_TASK_QUEUE = "admin-send-email-queue";
         public static final String ADMIN_PREPARE_EMAIL_TASK_QUEUE = "admin-prepare-email-task-queue";
+        public static final int MAX_RECEIVERS_PER_ADMIN_EMAIL_TASK = 50;
+        
+        /** Maximum number of students which can be enrolled at once */
+        public static final int SIZE_LIMIT_PER_ENROLLMENT = 150;
         
         public static final String FEEDBACK_SUBMISSION_ADJUSTMENT_TASK_QUEUE =
                                 "feedback-submission-adjust-queue";
         
+        public static final String STUDENT_UPDATE_CASCADE_TASK_QUEUE = "student-update-cascade-queue";
+        
+        public static final String COURSE_DELETION_TASK_QUEUE = "course-deletion-queue";
+        
+        public static final String COURSE_EXPORT_TASK_QUEUE = "course-export-queue";
+        
         public static final String FEEDBACK_REMIND_EMAIL_TASK_QUEUE = "feedback-remind-email-queue";
         public static final String FEEDBACK_REMIND_EMAIL_PARTICULAR_USERS_TASK_QUEUE =
                 "feedback-remind-email-particular-users-queue";
         public static final String SEND_EMAIL_TASK_QUEUE = "send-email-queue";
+        public static final String SEND_EMAIL_PRIORITY_TASK_QUEUE = "send-email-priority-queue";
+        public static final int MAX_EMAILS_PER_SEND_EMAIL_TASK = 20;
         
         public static final String QUEUE_XML_PATH = "src/main/webapp/WEB-INF/queue.xml";
         public static final String DEFAULT_PROFILE_PICTURE_PATH = "/images/profile_picture_default.png";
@@ -538,6 +550,12 @@ public final class Const {
         
         public static final String COURSE_ID = "courseid";
         public static final String COURSE_NAME = "coursename";
+        public static final String COURSES_MODIFIED_SINCE = "since";
+        public static final String COURSE_DELETION_JOB_CREATED_AT = "deletionjobcreatedat";
+        public static final String COURSE_EXPORT_ID = "exportid";
+        public static final String COURSE_EXPORT_STAGE = "exportstage";
+        public static final String COURSE_EXPORT_CURSOR = "exportcursor";
+        public static final String COURSE_EXPORT_PART = "exportpart";
         public static final String COURSE_INDEX = "courseidx";
         public static final String COURSE_EDIT_MAIN_INDEX = "courseeditmainindex";
         public static final String INSTRUCTOR_SHORT_NAME = "instructorshortname";
@@ -592,8 +610,7 @@ public final class Const {
         public static final String ADMIN_EMAIL_EMPTY_TRASH_BIN = "emptytrashbin";
         public static final String ADMIN_EMAIL_TRASH_ACTION_REDIRECT = "redirect";
         
-        public static final String ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX = "emaillistindex";
-        public static final String ADMIN_GROUP_RECEIVER_EMAIL_INDEX = "emailindex";
+        public static final String ADMIN_GROUP_RECEIVER_LIST_OFFSET = "receiverlistoffset";
     
         public static final String FEEDBACK_SESSION_NAME = "fsname";
         public static final String FEEDBACK_SESSION_INDEX = "fsindex";
@@ -743,6 +760,9 @@ public final class Const {
         public static final String EMAIL_SENDERNAME = "sendername";
         public static final String EMAIL_SUBJECT = "subject";
         public static final String EMAIL_REPLY_TO_ADDRESS = "reply";
+        public static final String EMAIL_BATCH = "emails";
+        public static final String EMAIL_PRIORITY = "emailpriority";
+        public static final String EMAIL_ENQUEUED_TIME = "emailenqueuedtime";
         
         public static final String COMMENT_EDITTYPE = "commentedittype";
         public static final String COMMENT_ID = "commentid";
@@ -910,6 +930,9 @@ public final class Const {
         public static final String STUDENT_PROFILE_CREATEUPLOADFORMURL = "/page/studentProfileCreateFormUrl";
         
         public static final String ADMIN_EMAIL_LOG_PAGE = "/admin/adminEmailLogPage";
+        public static final String ADMIN_EMAIL_SENDING_METRICS = "/admin/adminEmailSendingMetrics";
+        public static final String ADMIN_ACTION_METRICS_PAGE = "/admin/adminActionMetricsPage";
+        public static final String ADMIN_ACTION_METRICS = "/admin/adminActionMetrics";
         public static final String ADMIN_HOME_PAGE = "/admin/adminHomePage";
         public static final String ADMIN_INSTRUCTORACCOUNT_ADD = "/admin/adminInstructorAccountAdd";
         public static final String ADMIN_ACCOUNT_MANAGEMENT_PAGE = "/admin/adminAccountManagementPage";
@@ -941,6 +964,7 @@ public final class Const {
         public static final String AUTOMATED_FEEDBACK_OPENING_REMINDERS = "/feedbackSessionOpeningReminders";
         public static final String AUTOMATED_FEEDBACK_CLOSING_REMINDERS = "/feedbackSessionClosingReminders";
         public static final String AUTOMATED_FEEDBACK_PUBLISHED_REMINDERS = "/feedbackSessionPublishedReminders";
+        public static final String AUTOMATED_COURSE_EXPORTS = "/courseExports";
         
         public static final String BACKDOOR = "/backdoor";
         
@@ -950,6 +974,9 @@ public final class Const {
         public static final String ADMIN_EMAIL_PREPARE_TASK_QUEUE_WORKER = "/adminEmailPrepareTaskQueueWorker";
         public static final String FEEDBACK_SUBMISSION_ADJUSTMENT_WORKER =
                                     "/feedbackSubmissionAdjustmentWorker";
+        public static final String STUDENT_UPDATE_CASCADE_WORKER = "/studentUpdateCascadeWorker";
+        public static final String COURSE_DELETION_WORKER = "/courseDeletionWorker";
+        public static final String COURSE_EXPORT_WORKER = "/courseExportWorker";
         public static final String FEEDBACK_REMIND_EMAIL_WORKER = "/feedbackRemindEmailWorker";
         public static final String FEEDBACK_REMIND_EMAIL_PARTICULAR_USERS_WORKER =
                                     "/feedbackRemindEmailParticularUsersWorker";
@@ -1043,6 +1070,7 @@ public final class Const {
         public static final String ADMIN_ACCOUNT_DETAILS = "/jsp/adminAccountDetails.jsp";
         public static final String ADMIN_SESSIONS = "/jsp/adminSessions.jsp";
         public static final String ADMIN_EMAIL_LOG = "/jsp/adminEmailLog.jsp";
+        public static final String ADMIN_ACTION_METRICS = "/jsp/adminActionMetrics.jsp";
         
         public static final String GOOGLE_ACCOUNT_HINT = "/googleAccountHint.jsp";
         
@@ -1135,6 +1163,8 @@ public final class Const {
         public static final String SECTION_QUOTA_EXCEED =
                 "You are trying enroll more than 100 students in section \"%s\". "
                 + "To avoid performance problems, please do not enroll more than 100 students in a single section.<br>";
+        public static final String STUDENT_EMAIL_DUPLICATED_IN_ENROLL_LIST =
+                "The email address \"%s\" is used by more than one student in the enroll list.<br>";
         public static final String QUOTA_PER_ENROLLMENT_EXCEED =
                 "You are trying to enroll more than 100 students. "
                 + "To avoid performance problems, please enroll no more than 100 students at a time.";
@@ -0,0 +1,100 @@
+package teammates.common.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.apphosting.api.ApiProxy;
+import com.google.apphosting.api.ApiProxy.ApiConfig;
+import com.google.apphosting.api.ApiProxy.ApiProxyException;
+import com.google.apphosting.api.ApiProxy.Environment;
+import com.google.apphosting.api.ApiProxy.LogRecord;
+
+/**
+ * Counts the calls made to the datastore by each request, whether through JDO or the low-level API,
+ * by wrapping the delegate which makes the API calls of the app, as Appstats does.
+ */
+public final class DatastoreCallCounter implements ApiProxy.Delegate<Environment> {
+
+    private static final String DATASTORE_PACKAGE = "datastore_v3";
+    private static final String CALLS_ATTRIBUTE = DatastoreCallCounter.class.getName() + ".calls";
+
+    private final ApiProxy.Delegate<Environment> delegate;
+
+    private DatastoreCallCounter(ApiProxy.Delegate<Environment> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Starts counting the datastore calls, if they are not counted yet.
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized void install() {
+        ApiProxy.Delegate<Environment> delegate = ApiProxy.getDelegate();
+        if (delegate == null || delegate instanceof DatastoreCallCounter) {
+            return;
+        }
+        ApiProxy.setDelegate(new DatastoreCallCounter(delegate));
+    }
+
+    /**
+     * @return the number of datastore calls made so far by the current request,
+     *         or 0 if they are not counted
+     */
+    public static int getNumberOfCalls() {
+        Environment environment = ApiProxy.getCurrentEnvironment();
+        if (environment == null) {
+            return 0;
+        }
+        AtomicInteger calls = (AtomicInteger) environment.getAttributes().get(CALLS_ATTRIBUTE);
+        return calls == null ? 0 : calls.get();
+    }
+
+    @Override
+    public byte[] makeSyncCall(Environment environment, String packageName, String methodName, byte[] request)
+            throws ApiProxyException {
+        countCall(environment, packageName);
+        return delegate.makeSyncCall(environment, packageName, methodName, request);
+    }
+
+    @Override
+    public Future<byte[]> makeAsyncCall(Environment environment, String packageName, String methodName,
+                                        byte[] request, ApiConfig apiConfig) {
+        countCall(environment, packageName);
+        return delegate.makeAsyncCall(environment, packageName, methodName, request, apiConfig);
+    }
+
+    @Override
+    public void log(Environment environment, LogRecord record) {
+        delegate.log(environment, record);
+    }
+
+    @Override
+    public void flushLogs(Environment environment) {
+        delegate.flushLogs(environment);
+    }
+
+    @Override
+    public List<Thread> getRequestThreads(Environment environment) {
+        return delegate.getRequestThreads(environment);
+    }
+
+    private static void countCall(Environment environment, String packageName) {
+        if (environment == null || !DATASTORE_PACKAGE.equals(packageName)) {
+            return;
+        }
+        // the attributes are shared by the threads of the request
+        Map<String, Object> attributes = environment.getAttributes();
+        AtomicInteger calls;
+        synchronized (attributes) {
+            calls = (AtomicInteger) attributes.get(CALLS_ATTRIBUTE);
+            if (calls == null) {
+                calls = new AtomicInteger();
+                attributes.put(CALLS_ATTRIBUTE, calls);
+            }
+        }
+        calls.incrementAndGet();
+    }
+
+}
@@ -0,0 +1,228 @@
+package teammates.common.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.apphosting.api.ApiProxy;
+import com.google.apphosting.api.ApiProxy.Environment;
+
+/**
+ * Counts and times the datastore operations of a request, grouped by the call site in the storage layer
+ * which runs them, or by query if the call sites are not captured, and detects the queries the request repeats:
+ * <ul>
+ * <li>the same query with the same parameters, whose result could be reused</li>
+ * <li>the same query with different parameters run at least {@link #N_PLUS_ONE_THRESHOLD} times
+ *     from the same call site, typically once per entity of a list (N+1 pattern),
+ *     which could be replaced by a batch query</li>
+ * </ul>
+ * The profile is kept in the attributes of the request, so it is shared by the threads of the request
+ * and discarded with it.
+ */
+public class DatastoreOperationProfile {
+
+    /** The number of times the same query can run from the same call site before it is flagged as N+1 */
+    public static final int N_PLUS_ONE_THRESHOLD = 10;
+
+    private static final String PROFILE_ATTRIBUTE = DatastoreOperationProfile.class.getName();
+
+    /** The kinds of datastore operations profiled */
+    public enum OperationType {
+        QUERY("queries"), GET("gets"), PUT("puts"), DELETE("deletes");
+
+        private final String pluralName;
+
+        OperationType(String pluralName) {
+            this.pluralName = pluralName;
+        }
+
+        public String getPluralName() {
+            return pluralName;
+        }
+    }
+
+    private final Map<String, CallSiteStats> statsByCallSite = new LinkedHashMap<String, CallSiteStats>();
+
+    /**
+     * @return the profile of the current request, or null if there is no request,
+     *         e.g. in a thread which does not serve requests
+     */
+    public static DatastoreOperationProfile getCurrent() {
+        Environment environment = ApiProxy.getCurrentEnvironment();
+        if (environment == null) {
+            return null;
+        }
+        Map<String, Object> attributes = environment.getAttributes();
+        synchronized (attributes) {
+            DatastoreOperationProfile profile = (DatastoreOperationProfile) attributes.get(PROFILE_ATTRIBUTE);
+            if (profile == null) {
+                profile = new DatastoreOperationProfile();
+                attributes.put(PROFILE_ATTRIBUTE, profile);
+            }
+            return profile;
+        }
+    }
+
+    /**
+     * Records an operation other than a query.
+     */
+    public synchronized void record(OperationType type, String callSite, long durationNanos) {
+        getCallSiteStats(callSite).record(type, durationNanos);
+    }
+
+    /**
+     * Records a query.
+     * @param query the template of the query, which does not depend on its parameters
+     * @param parametersHash a hash of the parameters of the query, so that the parameters are not kept
+     */
+    public synchronized void recordQuery(String callSite, String query, int parametersHash, long durationNanos) {
+        CallSiteStats stats = getCallSiteStats(callSite);
+        stats.record(OperationType.QUERY, durationNanos);
+
+        QueryStats queryStats = stats.statsByQuery.get(query);
+        if (queryStats == null) {
+            queryStats = new QueryStats();
+            stats.statsByQuery.put(query, queryStats);
+        }
+        queryStats.record(parametersHash);
+    }
+
+    private CallSiteStats getCallSiteStats(String callSite) {
+        CallSiteStats stats = statsByCallSite.get(callSite);
+        if (stats == null) {
+            stats = new CallSiteStats();
+            statsByCallSite.put(callSite, stats);
+        }
+        return stats;
+    }
+
+    public synchronized int getCount(OperationType type) {
+        int count = 0;
+        for (CallSiteStats stats : statsByCallSite.values()) {
+            count += stats.counts[type.ordinal()];
+        }
+        return count;
+    }
+
+    public synchronized long getDurationMillis(OperationType type) {
+        long durationNanos = 0;
+        for (CallSiteStats stats : statsByCallSite.values()) {
+            durationNanos += stats.durationNanos[type.ordinal()];
+        }
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    /**
+     * @return the call sites which ran the same query at least {@link #N_PLUS_ONE_THRESHOLD} times
+     */
+    public synchronized List<String> getNPlusOneCallSites() {
+        List<String> callSites = new ArrayList<String>();
+        for (Map.Entry<String, CallSiteStats> entry : statsByCallSite.entrySet()) {
+            if (entry.getValue().getMaxQueryCount(false) >= N_PLUS_ONE_THRESHOLD) {
+                callSites.add(entry.getKey());
+            }
+        }
+        return callSites;
+    }
+
+    /**
+     * @return the call sites which ran the same query with the same parameters more than once
+     */
+    public synchronized List<String> getDuplicateQueryCallSites() {
+        List<String> callSites = new ArrayList<String>();
+        for (Map.Entry<String, CallSiteStats> entry : statsByCallSite.entrySet()) {
+            if (entry.getValue().getMaxQueryCount(true) > 1) {
+                callSites.add(entry.getKey());
+            }
+        }
+        return callSites;
+    }
+
+    public synchronized boolean isEmpty() {
+        return statsByCallSite.isEmpty();
+    }
+
+    /**
+     * @return a one-line summary of the operations and of the repeated queries, e.g. <br>
+     *         {@code queries: 12 (85ms), gets: 1 (3ms), puts: 0 (0ms), deletes: 0 (0ms);
+     *         N+1: StudentsDb.getStudentForEmail x11; duplicates: CoursesDb.getCourse x2}
+     */
+    public synchronized String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (OperationType type : OperationType.values()) {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(type.getPluralName()).append(": ").append(getCount(type))
+                   .append(" (").append(getDurationMillis(type)).append("ms)");
+        }
+
+        appendRepeatedQueries(summary, "N+1", getNPlusOneCallSites(), false);
+        appendRepeatedQueries(summary, "duplicates", getDuplicateQueryCallSites(), true);
+        return summary.toString();
+    }
+
+    private void appendRepeatedQueries(StringBuilder summary, String label, List<String> callSites,
+                                       boolean isWithParameters) {
+        if (callSites.isEmpty()) {
+            return;
+        }
+        summary.append("; ").append(label).append(':');
+        for (String callSite : callSites) {
+            int maxCount = statsByCallSite.get(callSite).getMaxQueryCount(isWithParameters);
+            summary.append(' ').append(callSite).append(" x").append(maxCount);
+        }
+    }
+
+    private static class CallSiteStats {
+
+        final int[] counts = new int[OperationType.values().length];
+        final long[] durationNanos = new long[OperationType.values().length];
+
+        /** The statistics of each query template run from the call site */
+        final Map<String, QueryStats> statsByQuery = new LinkedHashMap<String, QueryStats>();
+
+        void record(OperationType type, long durationNanos) {
+            counts[type.ordinal()]++;
+            this.durationNanos[type.ordinal()] += durationNanos;
+        }
+
+        /**
+         * @return the largest number of times a query ran, with the same parameters if {@code isWithParameters}
+         */
+        int getMaxQueryCount(boolean isWithParameters) {
+            int maxCount = 0;
+            for (QueryStats queryStats : statsByQuery.values()) {
+                maxCount = Math.max(maxCount, isWithParameters ? queryStats.maxCountWithSameParameters
+                                                               : queryStats.count);
+            }
+            return maxCount;
+        }
+
+    }
+
+    private static class QueryStats {
+
+        /** The number of times the query ran, regardless of its parameters */
+        int count;
+
+        /** The number of times the query ran with each set of parameters, by hash of the parameters */
+        final Map<Integer, Integer> countsByParametersHash = new HashMap<Integer, Integer>();
+
+        /** The largest number of times the query ran with the same parameters */
+        int maxCountWithSameParameters;
+
+        void record(int parametersHash) {
+            count++;
+            Integer countWithParameters = countsByParametersHash.get(parametersHash);
+            int newCountWithParameters = countWithParameters == null ? 1 : countWithParameters + 1;
+            countsByParametersHash.put(parametersHash, newCountWithParameters);
+            maxCountWithSameParameters = Math.max(maxCountWithSameParameters, newCountWithParameters);
+        }
+
+    }
+
+}
@@ -0,0 +1,31 @@
+package teammates.common.util;
+
+import teammates.common.util.Const.SystemParams;
+
+/**
+ * The lane in which queued emails are sent. Emails in the {@link #HIGH} lane have their own queue
+ * and may use up all of the sending quota of the email service, while emails in the {@link #BULK} lane
+ * leave part of the quota to the {@link #HIGH} lane.
+ */
+public enum EmailPriority {
+    
+    /** Emails the recipients are waiting for or must act on soon, e.g. join links and closing reminders */
+    HIGH(SystemParams.SEND_EMAIL_PRIORITY_TASK_QUEUE),
+    
+    /** Announcements sent to many recipients, e.g. session opening and results published emails */
+    BULK(SystemParams.SEND_EMAIL_TASK_QUEUE);
+    
+    private final String queueName;
+    
+    EmailPriority(String queueName) {
+        this.queueName = queueName;
+    }
+    
+    /**
+     * Gets the name of the queue of the tasks sending the emails of this priority.
+     */
+    public String getQueueName() {
+        return queueName;
+    }
+    
+}
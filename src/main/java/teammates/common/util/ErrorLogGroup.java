@@ -0,0 +1,84 @@
+package teammates.common.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.appengine.api.log.AppLogLine;
+
+/**
+ * A group of severe log lines with the same signature, i.e. the same log level, the same first line
+ * regardless of the numbers in it, and the same top stack frames, which are most likely logged
+ * for the same error.
+ */
+public final class ErrorLogGroup {
+
+    /** The number of top stack frames which are part of the signature */
+    private static final int SIGNATURE_STACK_FRAMES = 3;
+
+    private final AppLogLine firstLogLine;
+    private int occurrences;
+
+    private ErrorLogGroup(AppLogLine firstLogLine) {
+        this.firstLogLine = firstLogLine;
+    }
+
+    /**
+     * @return the groups of the log lines with the same signature, in the order of their first log line
+     */
+    public static List<ErrorLogGroup> groupBySignature(List<AppLogLine> logLines) {
+        Map<String, ErrorLogGroup> groupsBySignature = new LinkedHashMap<String, ErrorLogGroup>();
+        for (AppLogLine logLine : logLines) {
+            String signature = getSignature(logLine);
+            ErrorLogGroup group = groupsBySignature.get(signature);
+            if (group == null) {
+                group = new ErrorLogGroup(logLine);
+                groupsBySignature.put(signature, group);
+            }
+            group.occurrences++;
+        }
+        return new ArrayList<ErrorLogGroup>(groupsBySignature.values());
+    }
+
+    /**
+     * @return the signature of the log line, e.g. <br>
+     *         {@code ERROR|Trying to get non-existent Student: #|at teammates.storage.api.StudentsDb.getStudent}
+     */
+    public static String getSignature(AppLogLine logLine) {
+        StringBuilder signature = new StringBuilder(String.valueOf(logLine.getLogLevel()));
+        boolean isFirstLineFound = false;
+        int stackFrames = 0;
+        for (String line : logLine.getLogMessage().split("\n")) {
+            String trimmedLine = line.trim();
+            if (trimmedLine.isEmpty()) {
+                continue;
+            }
+            if (isFirstLineFound) {
+                if (trimmedLine.startsWith("at ") && stackFrames < SIGNATURE_STACK_FRAMES) {
+                    // the line number is left out, so that the same error stays grouped across versions
+                    int lineNumberStart = trimmedLine.indexOf('(');
+                    signature.append('|').append(lineNumberStart < 0 ? trimmedLine
+                                                                     : trimmedLine.substring(0, lineNumberStart));
+                    stackFrames++;
+                }
+            } else {
+                signature.append('|').append(trimmedLine.replaceAll("[0-9]+", "#"));
+                isFirstLineFound = true;
+            }
+        }
+        return signature.toString();
+    }
+
+    /**
+     * @return the first log line of the group, which represents the group
+     */
+    public AppLogLine getFirstLogLine() {
+        return firstLogLine;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+}
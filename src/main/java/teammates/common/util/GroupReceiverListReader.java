@@ -0,0 +1,79 @@
+package teammates.common.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the email addresses of a group receiver list, i.e. a txt file of comma-separated
+ * email addresses, one at a time, so that lists of any size can be read in constant memory.<br>
+ * The reader keeps the byte offset in the file just after the last address read,
+ * from which a new reader can resume reading, e.g. in a new task.
+ */
+public class GroupReceiverListReader implements Closeable {
+
+    private static final char SEPARATOR = ',';
+
+    /** Longest email address allowed by RFC 5321, beyond which the file is considered corrupted */
+    private static final int MAX_ADDRESS_LENGTH = 254;
+
+    private final InputStream in;
+    private final ByteArrayOutputStream address = new ByteArrayOutputStream(MAX_ADDRESS_LENGTH);
+    private long offset;
+
+    /**
+     * @param in the content of the file from {@code offset} onwards
+     * @param offset the byte offset in the file at which {@code in} starts
+     */
+    public GroupReceiverListReader(InputStream in, long offset) {
+        this.in = new BufferedInputStream(in);
+        this.offset = offset;
+    }
+
+    /**
+     * @return the next email address with the surrounding whitespace removed, skipping empty entries,
+     *         or null if there are no more addresses
+     * @throws IOException if the file cannot be read or contains an entry too long to be an email address
+     */
+    public String next() throws IOException {
+        while (true) {
+            address.reset();
+            int b = in.read();
+            while (b != -1 && b != SEPARATOR) {
+                if (address.size() >= MAX_ADDRESS_LENGTH) {
+                    throw new IOException("Entry at byte " + offset + " of group receiver list is too long "
+                                          + "to be an email address");
+                }
+                address.write(b);
+                b = in.read();
+            }
+
+            int bytesRead = address.size() + (b == -1 ? 0 : 1);
+            if (bytesRead == 0) {
+                return null;
+            }
+
+            String trimmedAddress = address.toString(Const.SystemParams.ENCODING).trim();
+            offset += bytesRead;
+            if (!trimmedAddress.isEmpty()) {
+                return trimmedAddress;
+            }
+        }
+    }
+
+    /**
+     * @return the byte offset in the file just after the last email address read,
+     *         from which reading can be resumed
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
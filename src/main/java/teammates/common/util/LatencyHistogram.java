@@ -0,0 +1,100 @@
+package teammates.common.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in milliseconds which can be recorded from multiple threads without locking.<br>
+ * Like an HDR histogram, the values are counted in buckets whose width grows with the value, so that
+ * every value is kept with a precision of 2 significant digits (an error below 1%) in a fixed memory:
+ * values below {@link #SUB_BUCKET_COUNT} are counted exactly, and each following power of 2 is divided into
+ * {@link #SUB_BUCKET_COUNT} / 2 buckets. Values above {@link #MAX_TRACKABLE_MILLIS} are counted as that value.
+ */
+public class LatencyHistogram {
+
+    /** The maximum latency tracked, slightly above an hour, which is the longest a task can run */
+    public static final long MAX_TRACKABLE_MILLIS = (1L << 22) - 1;
+
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+    private final AtomicLongArray counts = new AtomicLongArray(getBucketIndex(MAX_TRACKABLE_MILLIS) + 1);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    public void record(long latencyMillis) {
+        long value = Math.min(Math.max(latencyMillis, 0), MAX_TRACKABLE_MILLIS);
+        counts.incrementAndGet(getBucketIndex(value));
+        totalCount.incrementAndGet();
+        totalMillis.addAndGet(value);
+
+        long max = maxMillis.get();
+        while (value > max && !maxMillis.compareAndSet(max, value)) {
+            max = maxMillis.get();
+        }
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getMaxMillis() {
+        return maxMillis.get();
+    }
+
+    public long getMeanMillis() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : totalMillis.get() / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the latency under which the given percentage of the latencies recorded fall,
+     *         as the highest value of its bucket (but not above the maximum recorded), or 0 if none is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        // the counts are read one by one while others may be recorded, so their total is counted again here
+        long[] snapshot = new long[counts.length()];
+        long count = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            long bucketCount = counts.get(i);
+            snapshot[i] = bucketCount;
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long countAtPercentile = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            cumulativeCount += snapshot[i];
+            if (cumulativeCount >= countAtPercentile) {
+                return Math.min(getHighestValueInBucket(i), maxMillis.get());
+            }
+        }
+        return maxMillis.get();
+    }
+
+    private static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // the number of bits to drop so that the value falls in the upper half of the sub-buckets
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + subBucket - SUB_BUCKET_HALF_COUNT;
+    }
+
+    private static long getHighestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
@@ -0,0 +1,319 @@
+package teammates.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.appengine.api.ThreadManager;
+import com.google.appengine.api.log.AppLogLine;
+import com.google.appengine.api.log.LogQuery;
+import com.google.appengine.api.log.LogService;
+import com.google.appengine.api.log.LogServiceFactory;
+import com.google.appengine.api.log.RequestLogs;
+
+/**
+ * Searches the application logs of some versions backward in time from an end time, in windows of
+ * a fixed length, for up to a maximum number of windows.<br>
+ * Each window of each version is fetched in a thread of its own, up to {@link #MAX_CONCURRENT_FETCHES}
+ * at the same time, most recent windows first. The request logs are filtered while they are streamed,
+ * so only the relevant log lines are kept, and the search stops as soon as enough relevant log lines
+ * are found in the most recent windows. The search can be resumed from where it stopped with the
+ * continuation token of its result.
+ * @param <T> the type of the relevant log lines, as parsed by the {@link LogLineFilter}
+ */
+public class LogSearchEngine<T> {
+
+    /** Maximum number of windows and versions fetched at the same time */
+    private static final int MAX_CONCURRENT_FETCHES = 10;
+
+    private final LogService logService;
+    private final List<String> versions;
+    private final long windowUsec;
+    private final int maxWindows;
+    private final int maxRelevantLogs;
+
+    /**
+     * Selects the relevant log lines while they are fetched.
+     * It is called from multiple threads at the same time.
+     */
+    public interface LogLineFilter<T> {
+
+        /**
+         * @return the log line parsed as relevant, or null if the log line is not relevant
+         */
+        T filter(AppLogLine appLogLine);
+
+    }
+
+    /**
+     * @param versions the versions to search the logs of
+     * @param windowMillis the length of the windows in milliseconds
+     * @param maxWindows the maximum number of windows to search
+     * @param maxRelevantLogs the number of relevant log lines after which the search stops,
+     *        i.e. after the end of the request containing that many relevant log lines
+     */
+    public LogSearchEngine(List<String> versions, long windowMillis, int maxWindows, int maxRelevantLogs) {
+        this(LogServiceFactory.getLogService(), versions, windowMillis, maxWindows, maxRelevantLogs);
+    }
+
+    /**
+     * Creates an engine which fetches the logs from the given {@code logService}, e.g. to test the engine.
+     * @see #LogSearchEngine(List, long, int, int)
+     */
+    public LogSearchEngine(LogService logService, List<String> versions, long windowMillis, int maxWindows,
+                           int maxRelevantLogs) {
+        Assumption.assertNotNull(versions);
+        Assumption.assertTrue("The length of the windows must be positive", windowMillis > 0);
+        this.logService = logService;
+        this.versions = versions;
+        this.windowUsec = windowMillis * 1000;
+        this.maxWindows = maxWindows;
+        this.maxRelevantLogs = maxRelevantLogs;
+    }
+
+    /**
+     * Searches the logs of requests which ended before the given time.
+     */
+    public Result<T> search(long endTimeMillis, LogLineFilter<T> filter) {
+        return searchBefore(endTimeMillis * 1000, filter);
+    }
+
+    /**
+     * Resumes a search from where it stopped.
+     * @param continuationToken the continuation token of the result of the search
+     */
+    public Result<T> resume(String continuationToken, LogLineFilter<T> filter) {
+        return searchBefore(Long.parseLong(continuationToken), filter);
+    }
+
+    private Result<T> searchBefore(long endTimeUsec, LogLineFilter<T> filter) {
+        AtomicBoolean isStopped = new AtomicBoolean(false);
+        int numberOfThreads = Math.max(1, Math.min(MAX_CONCURRENT_FETCHES, maxWindows * versions.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads,
+                                                                 ThreadManager.currentRequestThreadFactory());
+        try {
+            List<List<WindowFetch>> fetchesByWindow = new ArrayList<List<WindowFetch>>();
+            List<List<Future<List<RelevantLog<T>>>>> futuresByWindow =
+                    new ArrayList<List<Future<List<RelevantLog<T>>>>>();
+            for (int i = 0; i < maxWindows; i++) {
+                long windowEndUsec = endTimeUsec - i * windowUsec;
+                List<WindowFetch> fetches = new ArrayList<WindowFetch>();
+                List<Future<List<RelevantLog<T>>>> futures = new ArrayList<Future<List<RelevantLog<T>>>>();
+                for (String version : versions) {
+                    WindowFetch fetch = new WindowFetch(version, windowEndUsec - windowUsec, windowEndUsec,
+                                                        filter, isStopped);
+                    fetches.add(fetch);
+                    futures.add(executor.submit(fetch));
+                }
+                fetchesByWindow.add(fetches);
+                futuresByWindow.add(futures);
+            }
+
+            List<RelevantLog<T>> relevantLogs = new ArrayList<RelevantLog<T>>();
+            int numberOfLogsSearched = 0;
+            for (int i = 0; i < maxWindows; i++) {
+                List<RelevantLog<T>> windowLogs = new ArrayList<RelevantLog<T>>();
+                for (Future<List<RelevantLog<T>>> future : futuresByWindow.get(i)) {
+                    windowLogs.addAll(getFetchedLogs(future));
+                }
+                for (WindowFetch fetch : fetchesByWindow.get(i)) {
+                    numberOfLogsSearched += fetch.numberOfLogsSearched;
+                }
+                relevantLogs.addAll(mergeVersions(windowLogs));
+
+                if (relevantLogs.size() >= maxRelevantLogs) {
+                    return getResultStoppedAt(relevantLogs, numberOfLogsSearched);
+                }
+            }
+            return new Result<T>(getEntries(relevantLogs), numberOfLogsSearched,
+                                 String.valueOf(endTimeUsec - maxWindows * windowUsec));
+        } finally {
+            isStopped.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    private List<RelevantLog<T>> getFetchedLogs(Future<List<RelevantLog<T>>> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Failed to fetch logs", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching logs", e);
+        }
+    }
+
+    /**
+     * Merges the logs of the versions in the same window, each ordered from the most recent request,
+     * into one list ordered from the most recent request. The log lines of a request stay together.
+     */
+    private List<RelevantLog<T>> mergeVersions(List<RelevantLog<T>> windowLogs) {
+        if (versions.size() > 1) {
+            // the sort is stable, so the log lines of a request keep their order
+            Collections.sort(windowLogs, new Comparator<RelevantLog<T>>() {
+                @Override
+                public int compare(RelevantLog<T> log1, RelevantLog<T> log2) {
+                    return Long.valueOf(log2.requestEndTimeUsec).compareTo(log1.requestEndTimeUsec);
+                }
+            });
+        }
+        return windowLogs;
+    }
+
+    /**
+     * Keeps the first {@link #maxRelevantLogs} relevant log lines, and the following ones of the same request,
+     * so that the search can be resumed from the end time of that request.
+     */
+    private Result<T> getResultStoppedAt(List<RelevantLog<T>> relevantLogs, int numberOfLogsSearched) {
+        int end = maxRelevantLogs;
+        RelevantLog<T> lastLog = relevantLogs.get(end - 1);
+        while (end < relevantLogs.size() && relevantLogs.get(end).isOfSameRequestAs(lastLog)) {
+            end++;
+        }
+        return new Result<T>(getEntries(relevantLogs.subList(0, end)), numberOfLogsSearched,
+                             String.valueOf(lastLog.requestEndTimeUsec));
+    }
+
+    private List<T> getEntries(List<RelevantLog<T>> relevantLogs) {
+        List<T> entries = new ArrayList<T>();
+        for (RelevantLog<T> relevantLog : relevantLogs) {
+            entries.add(relevantLog.entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Fetches the logs of a version for requests which ended in a window, keeping the relevant log lines.
+     * It stops early if the search is stopped, or at the end of the request containing
+     * {@link #maxRelevantLogs} relevant log lines, as the search cannot return more from the window.
+     */
+    private class WindowFetch implements Callable<List<RelevantLog<T>>> {
+
+        private final String version;
+        private final long startTimeUsec;
+        private final long endTimeUsec;
+        private final LogLineFilter<T> filter;
+        private final AtomicBoolean isStopped;
+
+        private volatile int numberOfLogsSearched;
+
+        WindowFetch(String version, long startTimeUsec, long endTimeUsec, LogLineFilter<T> filter,
+                    AtomicBoolean isStopped) {
+            this.version = version;
+            this.startTimeUsec = startTimeUsec;
+            this.endTimeUsec = endTimeUsec;
+            this.filter = filter;
+            this.isStopped = isStopped;
+        }
+
+        @Override
+        public List<RelevantLog<T>> call() {
+            List<RelevantLog<T>> relevantLogs = new ArrayList<RelevantLog<T>>();
+            if (isStopped.get()) {
+                return relevantLogs;
+            }
+
+            LogQuery query = new AdminLogQuery(Collections.singletonList(version), null, null).getQuery();
+            query.startTimeUsec(startTimeUsec);
+            query.endTimeUsec(endTimeUsec);
+
+            int numberOfLogs = 0;
+            for (RequestLogs record : logService.fetch(query)) {
+                if (isStopped.get() || relevantLogs.size() >= maxRelevantLogs) {
+                    break;
+                }
+                if (record.getEndTimeUsec() >= endTimeUsec) {
+                    // belongs to the more recent window
+                    continue;
+                }
+                for (AppLogLine appLogLine : record.getAppLogLines()) {
+                    numberOfLogs++;
+                    T entry = filter.filter(appLogLine);
+                    if (entry != null) {
+                        relevantLogs.add(new RelevantLog<T>(entry, record.getRequestId(), record.getEndTimeUsec()));
+                    }
+                }
+            }
+            numberOfLogsSearched = numberOfLogs;
+            return relevantLogs;
+        }
+
+    }
+
+    private static class RelevantLog<T> {
+
+        final T entry;
+        final String requestId;
+        final long requestEndTimeUsec;
+
+        RelevantLog(T entry, String requestId, long requestEndTimeUsec) {
+            this.entry = entry;
+            this.requestId = requestId;
+            this.requestEndTimeUsec = requestEndTimeUsec;
+        }
+
+        boolean isOfSameRequestAs(RelevantLog<T> other) {
+            boolean isSameRequestId = requestId == null ? other.requestId == null : requestId.equals(other.requestId);
+            return isSameRequestId && requestEndTimeUsec == other.requestEndTimeUsec;
+        }
+
+    }
+
+    /**
+     * The result of a search.
+     */
+    public static class Result<T> {
+
+        private final List<T> relevantLogs;
+        private final int numberOfLogsSearched;
+        private final String continuationToken;
+
+        Result(List<T> relevantLogs, int numberOfLogsSearched, String continuationToken) {
+            this.relevantLogs = relevantLogs;
+            this.numberOfLogsSearched = numberOfLogsSearched;
+            this.continuationToken = continuationToken;
+        }
+
+        /**
+         * @return the relevant log lines found, from the most recent request
+         */
+        public List<T> getRelevantLogs() {
+            return relevantLogs;
+        }
+
+        /**
+         * @return the number of log lines gone through to find the relevant ones
+         */
+        public int getNumberOfLogsSearched() {
+            return numberOfLogsSearched;
+        }
+
+        /**
+         * @return the token with which to resume the search from where it stopped,
+         *         i.e. the end time in microseconds of the logs still to be searched
+         */
+        public String getContinuationToken() {
+            return continuationToken;
+        }
+
+        /**
+         * @return the time in milliseconds of the earliest logs searched, i.e. where the search stopped
+         */
+        public long getEarliestSearchTimeMillis() {
+            return Long.parseLong(continuationToken) / 1000;
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package teammates.common.util;
+
+import com.google.apphosting.api.ApiProxy;
+
+/**
+ * Tells whether the deadline of the current request is near, so that long running work
+ * can be continued in a task queue before the request is aborted.<br>
+ * A request from a user has a deadline of {@link #FRONT_END_REQUEST_DEADLINE_MILLIS}, while
+ * task queue and cron requests have a much longer one. A request with more time left than
+ * a user request can have is hence a task queue or cron request, which keeps a larger margin
+ * for the writes done after the last check.
+ */
+public final class RequestDeadline {
+
+    /** Deadline of a request from a user, in milliseconds. */
+    public static final long FRONT_END_REQUEST_DEADLINE_MILLIS = 60 * 1000;
+
+    /** Remaining time in milliseconds at or below which the deadline of a user request is near. */
+    public static final long FRONT_END_REQUEST_MIN_REMAINING_MILLIS = 15 * 1000;
+
+    /** Remaining time in milliseconds at or below which the deadline of a task queue or cron request is near. */
+    public static final long TASK_REQUEST_MIN_REMAINING_MILLIS = 100 * 1000;
+
+    private RequestDeadline() {
+        // utility class
+    }
+
+    public static long getRemainingMillis() {
+        return ApiProxy.getCurrentEnvironment().getRemainingMillis();
+    }
+
+    /**
+     * @return true if the remaining time of the current request is at or below the margin
+     *         of its request type
+     */
+    public static boolean isNear() {
+        long remainingMillis = getRemainingMillis();
+        long minRemainingMillis = remainingMillis > FRONT_END_REQUEST_DEADLINE_MILLIS
+                                  ? TASK_REQUEST_MIN_REMAINING_MILLIS
+                                  : FRONT_END_REQUEST_MIN_REMAINING_MILLIS;
+        return remainingMillis <= minRemainingMillis;
+    }
+
+    /**
+     * @return true if the remaining time of the current request is at or below {@code minRemainingMillis}
+     */
+    public static boolean isNear(long minRemainingMillis) {
+        return getRemainingMillis() <= minRemainingMillis;
+    }
+
+}
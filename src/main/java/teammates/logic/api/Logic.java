@@ -1,5 +1,6 @@
 package teammates.logic.api;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -13,6 +14,7 @@ import teammates.common.datatransfer.CommentParticipantType;
 import teammates.common.datatransfer.CommentSearchResultBundle;
 import teammates.common.datatransfer.CommentSendingState;
 import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseDeletionJobAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
 import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.CourseSummaryBundle;
@@ -46,6 +48,7 @@ import teammates.common.util.EmailWrapper;
 import teammates.logic.core.AccountsLogic;
 import teammates.logic.core.AdminEmailsLogic;
 import teammates.logic.core.CommentsLogic;
+import teammates.logic.core.CourseDeletionJobsLogic;
 import teammates.logic.core.CoursesLogic;
 import teammates.logic.core.EmailGenerator;
 import teammates.logic.core.EmailSender;
@@ -85,6 +88,7 @@ public class Logic {
     protected static FeedbackResponsesLogic feedbackResponsesLogic = FeedbackResponsesLogic.inst();
     protected static FeedbackResponseCommentsLogic feedbackResponseCommentsLogic = FeedbackResponseCommentsLogic.inst();
     protected static AdminEmailsLogic adminEmailsLogic = AdminEmailsLogic.inst();
+    protected static CourseDeletionJobsLogic courseDeletionJobsLogic = CourseDeletionJobsLogic.inst();
     
 
     /**
@@ -174,6 +178,30 @@ public class Logic {
         return accountsLogic.getAccount(googleId, retrieveStudentProfile);
     }
     
+    /**
+     * Gets many accounts at once, without their student profiles. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the accounts found; accounts that do not exist are absent
+     */
+    public List<AccountAttributes> getAccounts(Collection<String> googleIds) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, googleIds);
+        
+        return accountsLogic.getAccounts(googleIds);
+    }
+    
+    /**
+     * Gets the institutes of many accounts at once. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the institutes by Google ID; accounts that do not exist are absent
+     */
+    public Map<String, String> getInstitutesForGoogleIds(Collection<String> googleIds) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, googleIds);
+        
+        return accountsLogic.getInstitutesForGoogleIds(googleIds);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -432,6 +460,33 @@ public class Logic {
         return instructorsLogic.getInstructorsForCourse(courseId);
     }
     
+    /**
+     * Gets the instructors of many courses at once. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the instructors of the courses, by course ID; courses without instructors are absent
+     */
+    public Map<String, List<InstructorAttributes>> getInstructorsForCourses(Collection<String> courseIds) {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseIds);
+        
+        return instructorsLogic.getInstructorsForCourses(courseIds);
+    }
+    
+    /**
+     * Gets the Google ID of a registered instructor of each of many courses at once,
+     * e.g. to find the institutes of the courses. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the Google ID of a registered instructor by course ID; courses without one are absent
+     */
+    public Map<String, String> getRegisteredInstructorGoogleIdsForCourses(Collection<String> courseIds) {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseIds);
+        
+        return instructorsLogic.getRegisteredInstructorGoogleIdsForCourses(courseIds);
+    }
+    
     /**
      * Get the encrypted registration key for the instructor.
      * Preconditions: <br>
@@ -652,6 +707,19 @@ public class Logic {
         return coursesLogic.getCourse(courseId);
     }
 
+    /**
+     * Gets many courses at once. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the courses found; courses that do not exist are absent
+     */
+    public List<CourseAttributes> getCourses(List<String> courseIds) {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseIds);
+        
+        return coursesLogic.getCourses(courseIds);
+    }
+
     /**
      * Returns a detailed version of course data. <br>
      * Preconditions: <br>
@@ -849,6 +917,29 @@ public class Logic {
         coursesLogic.deleteCourseCascade(courseId);
     }
 
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return null if the course has no deletion job, i.e. the course is not being deleted
+     */
+    public CourseDeletionJobAttributes getCourseDeletionJob(String courseId) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        return courseDeletionJobsLogic.getCourseDeletionJob(courseId);
+    }
+
+    /**
+     * @return the deletion jobs of all courses being deleted, with their progress
+     */
+    public List<CourseDeletionJobAttributes> getCourseDeletionJobs() {
+        return courseDeletionJobsLogic.getCourseDeletionJobs();
+    }
+
+    /**
+     * @return the metrics of the emails sent through the task queues, keyed by email priority
+     */
+    public Map<String, Map<String, Long>> getEmailSendingMetrics() {
+        return new EmailSender().getSendingMetrics();
+    }
 
     /**
      * Creates a student. <br>
@@ -1363,6 +1454,17 @@ public class Logic {
         return feedbackSessionsLogic.getFeedbackSessionsForCourse(courseId);
     }
     
+    /**
+     * Gets the sessions of many courses at once. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the sessions of the courses, by course ID; courses without sessions are absent
+     */
+    public Map<String, List<FeedbackSessionAttributes>> getFeedbackSessionsForCourses(Collection<String> courseIds) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseIds);
+        return feedbackSessionsLogic.getFeedbackSessionsForCourses(courseIds);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -1719,6 +1821,25 @@ public class Logic {
                                                            courseId, instructorEmail);
     }
     
+    /**
+     * Copies the questions to the end of the given session in one batch.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public List<FeedbackQuestionAttributes> copyFeedbackQuestions(List<String> feedbackQuestionIds,
+                                                                  String feedbackSessionName, String courseId,
+                                                                  String instructorEmail)
+            throws InvalidParametersException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackQuestionIds);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, instructorEmail);
+
+        return feedbackQuestionsLogic.copyFeedbackQuestions(feedbackQuestionIds, feedbackSessionName,
+                                                            courseId, instructorEmail);
+    }
+    
     /**
      * Updates the question number of a Feedback Question.<br>
      * Preconditions: <br>
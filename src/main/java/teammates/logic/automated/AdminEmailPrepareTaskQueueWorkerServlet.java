@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -15,11 +16,14 @@ import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.SystemParams;
 import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.common.util.GroupReceiverListReader;
 import teammates.common.util.HttpRequestHelper;
 import teammates.logic.core.AdminEmailsLogic;
+import teammates.logic.core.TaskBatch;
 import teammates.logic.core.TaskQueuesLogic;
 
 import com.google.appengine.api.blobstore.BlobKey;
+import com.google.appengine.api.taskqueue.QueueConstants;
 import com.google.apphosting.api.ApiProxy;
 
 /**
@@ -32,7 +36,8 @@ import com.google.apphosting.api.ApiProxy;
 @SuppressWarnings("serial")
 public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
     
-    private List<List<String>> processedReceiverEmails = new ArrayList<List<String>>();
+    /** Maximum number of email tasks buffered before they are added to the queue */
+    private static final int MAX_PENDING_TASKS = 10 * QueueConstants.maxTasksPerAdd();
     
     //param needed for sending small number of emails
     private String addressReceiverListString;
@@ -74,24 +79,16 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
                             req, ParamsNames.ADMIN_EMAIL_GROUP_RECEIVER_LIST_FILE_KEY);
             Assumption.assertNotNull(groupReceiverListFileKey);
             
-            String indexOfEmailListToResumeAsString =
+            String offsetToResumeAsString =
                     HttpRequestHelper.getValueFromRequestParameterMap(
-                            req, ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX);
-            String indexOfEmailToResumeAsString =
-                    HttpRequestHelper.getValueFromRequestParameterMap(
-                            req, ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_INDEX);
+                            req, ParamsNames.ADMIN_GROUP_RECEIVER_LIST_OFFSET);
             
-            int indexOfEmailListToResume = indexOfEmailListToResumeAsString == null
-                                           ? 0
-                                           : Integer.parseInt(indexOfEmailListToResumeAsString);
-            int indexOfEmailToResume = indexOfEmailToResumeAsString == null
-                                       ? 0
-                                       : Integer.parseInt(indexOfEmailToResumeAsString);
+            long offsetToResume = offsetToResumeAsString == null
+                                  ? 0
+                                  : Long.parseLong(offsetToResumeAsString);
   
             try {
-                processedReceiverEmails =
-                        GoogleCloudStorageHelper.getGroupReceiverList(new BlobKey(groupReceiverListFileKey));
-                addAdminEmailToTaskQueue(emailId, indexOfEmailListToResume, indexOfEmailToResume);
+                addAdminEmailToTaskQueue(emailId, offsetToResume);
     
             } catch (IOException e) {
                 log.severe("Unexpected error while adding admin email tasks" + e.getMessage());
@@ -106,14 +103,13 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
         return timeLeftInMillis / 1000 < 100;
     }
     
-    private void pauseAndCreateAnNewTask(int indexOfEmailList, int indexOfEmail) {
+    private void pauseAndCreateAnNewTask(long offset) {
         TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
         
         HashMap<String, String> paramMap = new HashMap<String, String>();
         paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
         paramMap.put(ParamsNames.ADMIN_EMAIL_GROUP_RECEIVER_LIST_FILE_KEY, groupReceiverListFileKey);
-        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX, Integer.toString(indexOfEmailList));
-        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_INDEX, Integer.toString(indexOfEmail));
+        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_LIST_OFFSET, Long.toString(offset));
         paramMap.put(ParamsNames.ADMIN_EMAIL_TASK_QUEUE_MODE, Const.ADMIN_EMAIL_TASK_QUEUE_GROUP_MODE);
         
         taskQueueLogic.createAndAddTask(SystemParams.ADMIN_PREPARE_EMAIL_TASK_QUEUE,
@@ -125,7 +121,7 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
         
         AdminEmailAttributes adminEmail = AdminEmailsLogic.inst().getAdminEmailById(emailId);
         Assumption.assertNotNull(adminEmail);
-        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        TaskBatch taskBatch = TaskQueuesLogic.inst().createTaskBatch(true);
         List<String> addressList = new ArrayList<String>();
         
         if (addressReceiverListString.contains(",")) {
@@ -134,82 +130,84 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
             addressList.add(addressReceiverListString);
         }
         
+        List<String> receiverBatch = new ArrayList<String>();
         for (String emailAddress : addressList) {
-            HashMap<String, String> paramMap = new HashMap<String, String>();
-            paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
-            paramMap.put(ParamsNames.ADMIN_EMAIL_RECEIVER, emailAddress);
-            paramMap.put(ParamsNames.ADMIN_EMAIL_SUBJECT, adminEmail.getSubject());
-            paramMap.put(ParamsNames.ADMIN_EMAIL_CONTENT, adminEmail.getContent().getValue());
-            
-            try {
-                taskQueueLogic.createAndAddTask(SystemParams.ADMIN_EMAIL_TASK_QUEUE,
-                                                Const.ActionURIs.ADMIN_EMAIL_WORKER, paramMap);
-            } catch (IllegalArgumentException e) {
-                if (e.getMessage().toLowerCase().contains("task size too large")) {
-                    log.info("Email task size exceeds max limit. Switching to large email task mode.");
-                    paramMap.remove(ParamsNames.ADMIN_EMAIL_SUBJECT);
-                    paramMap.remove(ParamsNames.ADMIN_EMAIL_CONTENT);
-                    taskQueueLogic.createAndAddTask(SystemParams.ADMIN_EMAIL_TASK_QUEUE,
-                                                    Const.ActionURIs.ADMIN_EMAIL_WORKER, paramMap);
-                }
+            receiverBatch.add(emailAddress);
+            if (receiverBatch.size() >= SystemParams.MAX_RECEIVERS_PER_ADMIN_EMAIL_TASK) {
+                addAdminEmailTask(taskBatch, receiverBatch);
             }
-               
         }
+        addAdminEmailTask(taskBatch, receiverBatch);
+        taskBatch.flush();
 
     }
     
-    private void addAdminEmailToTaskQueue(String emailId, int indexOfEmailListToResume, int indexOfEmailToResume) {
+    /**
+     * Adds a task for each receiver in the group receiver list from the byte {@code offsetToResume} onwards.
+     * The receivers are read one at a time and their tasks are added in batches, so that only
+     * a bounded number of them is held in memory however long the list is.
+     */
+    private void addAdminEmailToTaskQueue(String emailId, long offsetToResume) throws IOException {
         
         AdminEmailAttributes adminEmail = AdminEmailsLogic.inst().getAdminEmailById(emailId);
         Assumption.assertNotNull(adminEmail);
-        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
-        
-        log.info("Resume Adding group mail tasks for mail with id " + emailId + "from list index: "
-                + indexOfEmailListToResume + " email index: " + indexOfEmailToResume);
-        
-        int indexOfLastEmailList = 0;
-        int indexOfLastEmail = 0;
-        
-        for (int i = indexOfEmailListToResume; i < processedReceiverEmails.size(); i++) {
-            
-            List<String> currentEmailList = processedReceiverEmails.get(i);
-            
-            for (int j = indexOfEmailToResume; j < currentEmailList.size(); j++) {
-                String receiverEmail = currentEmailList.get(j);
-                
-                HashMap<String, String> paramMap = new HashMap<String, String>();
-                paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
-                paramMap.put(ParamsNames.ADMIN_EMAIL_RECEIVER, receiverEmail);
-                paramMap.put(ParamsNames.ADMIN_EMAIL_SUBJECT, adminEmail.getSubject());
-                paramMap.put(ParamsNames.ADMIN_EMAIL_CONTENT, adminEmail.getContent().getValue());
-                
-                try {
-                    taskQueueLogic.createAndAddTask(SystemParams.ADMIN_EMAIL_TASK_QUEUE,
-                                                    Const.ActionURIs.ADMIN_EMAIL_WORKER, paramMap);
-                } catch (IllegalArgumentException e) {
-                    if (e.getMessage().toLowerCase().contains("task size too large")) {
-                        log.info("Email task size exceeds max limit. Switching to large email task mode.");
-                        paramMap.remove(ParamsNames.ADMIN_EMAIL_SUBJECT);
-                        paramMap.remove(ParamsNames.ADMIN_EMAIL_CONTENT);
-                        taskQueueLogic.createAndAddTask(SystemParams.ADMIN_EMAIL_TASK_QUEUE,
-                                                        Const.ActionURIs.ADMIN_EMAIL_WORKER, paramMap);
-                    }
+        TaskBatch taskBatch = TaskQueuesLogic.inst().createTaskBatch(true);
+        
+        log.info("Resume Adding group mail tasks for mail with id " + emailId + " from byte offset: "
+                 + offsetToResume);
+        
+        GroupReceiverListReader reader =
+                GoogleCloudStorageHelper.openGroupReceiverList(new BlobKey(groupReceiverListFileKey), offsetToResume);
+        List<String> receiverBatch = new ArrayList<String>();
+        try {
+            String receiverEmail = reader.next();
+            while (receiverEmail != null) {
+                receiverBatch.add(receiverEmail);
+                if (receiverBatch.size() >= SystemParams.MAX_RECEIVERS_PER_ADMIN_EMAIL_TASK) {
+                    addAdminEmailTask(taskBatch, receiverBatch);
+                }
+                if (taskBatch.getNumberOfPendingTasks() >= MAX_PENDING_TASKS) {
+                    taskBatch.flush();
                 }
                 
                 if (isNearDeadline()) {
-                    pauseAndCreateAnNewTask(i, j);
+                    // the reader stops just after the last receiver whose task is added
+                    addAdminEmailTask(taskBatch, receiverBatch);
+                    taskBatch.flush();
+                    pauseAndCreateAnNewTask(reader.getOffset());
                     log.info("Adding group mail tasks for mail with id " + emailId
-                             + " have been paused with list index: " + i + " email index: " + j);
+                             + " have been paused at byte offset: " + reader.getOffset());
                     return;
                 }
                 
-                indexOfLastEmail = j;
+                receiverEmail = reader.next();
             }
-            indexOfLastEmailList = i;
+            addAdminEmailTask(taskBatch, receiverBatch);
+            taskBatch.flush();
+        } finally {
+            reader.close();
         }
         
         log.info("Adding Group mail tasks for mail with id " + emailId
-                + "was complete. List index : " + indexOfLastEmailList
-                + " Email index: " + indexOfLastEmail);
+                 + " was complete at byte offset: " + reader.getOffset());
+    }
+    
+    /**
+     * Adds the task to send the admin email to the {@code receivers} to the batch, and clears the receivers.<br>
+     * The task only carries the email ID, so that the content of the email is not copied into every task;
+     * the worker fetches the email once for all the receivers.
+     */
+    private void addAdminEmailTask(TaskBatch taskBatch, List<String> receivers) {
+        if (receivers.isEmpty()) {
+            return;
+        }
+        
+        Map<String, String[]> paramMap = new HashMap<String, String[]>();
+        paramMap.put(ParamsNames.ADMIN_EMAIL_ID, new String[] { emailId });
+        paramMap.put(ParamsNames.ADMIN_EMAIL_RECEIVER, receivers.toArray(new String[receivers.size()]));
+        
+        taskBatch.addTaskMultisetParam(SystemParams.ADMIN_EMAIL_TASK_QUEUE, Const.ActionURIs.ADMIN_EMAIL_WORKER,
+                                       paramMap);
+        receivers.clear();
     }
 }
@@ -1,5 +1,8 @@
 package teammates.logic.automated;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -7,6 +10,7 @@ import teammates.common.datatransfer.AdminEmailAttributes;
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.EmailPriority;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.StringHelper;
@@ -15,7 +19,9 @@ import teammates.logic.core.EmailGenerator;
 import teammates.logic.core.EmailSender;
 
 /**
- * Retrieves admin email content and subject by email id and sends email to the receiver
+ * Retrieves admin email content and subject by email id and sends the email to a batch of receivers.<br>
+ * The email is retrieved and its content is recovered once for all the receivers,
+ * and the emails are sent together with as few calls to the email service as possible.
  */
 @SuppressWarnings("serial")
 public class AdminEmailWorkerServlet extends WorkerServlet {
@@ -23,20 +29,18 @@ public class AdminEmailWorkerServlet extends WorkerServlet {
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp) {
         
-        
         String emailId = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.ADMIN_EMAIL_ID);
         Assumption.assertNotNull(emailId);
         
-        String receiverEmail = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.ADMIN_EMAIL_RECEIVER);
-        Assumption.assertNotNull(receiverEmail);
-        
-
+        String[] receiverEmails =
+                HttpRequestHelper.getValuesFromRequestParameterMap(req, ParamsNames.ADMIN_EMAIL_RECEIVER);
+        Assumption.assertNotNull(receiverEmails);
         
+        // tasks added before the tasks carried only the email ID may still carry the email itself
         String emailContent = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.ADMIN_EMAIL_CONTENT);
         String emailSubject = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.ADMIN_EMAIL_SUBJECT);
         
         if (emailContent == null || emailSubject == null) {
-            log.info("Sending large email. Going to retrieve email content and subject from datastore.");
             AdminEmailAttributes adminEmail = AdminEmailsLogic.inst().getAdminEmailById(emailId);
             Assumption.assertNotNull(adminEmail);
 
@@ -48,11 +52,16 @@ public class AdminEmailWorkerServlet extends WorkerServlet {
         Assumption.assertNotNull(emailSubject);
         
         try {
-            EmailWrapper email =
-                    new EmailGenerator().generateAdminEmail(StringHelper.recoverFromSanitizedText(emailContent),
-                                                            emailSubject, receiverEmail);
-            new EmailSender().sendEmail(email);
-            log.info("Email sent to " + receiverEmail);
+            String recoveredContent = StringHelper.recoverFromSanitizedText(emailContent);
+            EmailGenerator emailGenerator = new EmailGenerator();
+            List<EmailWrapper> emails = new ArrayList<EmailWrapper>();
+            for (String receiverEmail : receiverEmails) {
+                emails.add(emailGenerator.generateAdminEmail(recoveredContent, emailSubject, receiverEmail));
+            }
+            
+            // emails the token bucket cannot grant yet are put back in the send email queue in tasks it can grant
+            new EmailSender().sendQueuedEmails(emails, EmailPriority.BULK, System.currentTimeMillis());
+            log.info("Email " + emailId + " sent or queued to " + receiverEmails.length + " receivers");
         } catch (Exception e) {
             log.severe("Unexpected error while sending admin emails: " + TeammatesException.toStringWithStackTrace(e));
         }
@@ -1,12 +1,19 @@
 package teammates.logic.automated;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
 
+import teammates.common.datatransfer.LogCompilationWatermarkAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
 import teammates.common.util.EmailWrapper;
+import teammates.common.util.Utils;
 import teammates.logic.core.EmailGenerator;
 import teammates.logic.core.EmailSender;
+import teammates.storage.api.LogCompilationWatermarksDb;
 
 import com.google.appengine.api.log.AppLogLine;
 import com.google.appengine.api.log.LogQuery;
@@ -15,46 +22,136 @@ import com.google.appengine.api.log.LogService.LogLevel;
 import com.google.appengine.api.log.LogServiceFactory;
 import com.google.appengine.api.log.RequestLogs;
 
+/**
+ * Compiles the severe logs of the requests which ended since the previous compilation into one email.<br>
+ * The end time of the most recent request compiled is kept in a watermark. As the logs of a request
+ * may become available some time after it ends, each compilation goes through the requests which ended
+ * up to {@link #OVERLAP_USEC} before the watermark again, and the watermark keeps the IDs of the requests
+ * compiled in that period, so that each request is compiled once even if the compilations are late or overlap.
+ */
 public class CompileLogs {
-    
-    public List<AppLogLine> doLogExam() {
-        LogService logService = LogServiceFactory.getLogService();
 
-        long endTime = new java.util.Date().getTime();
-        // Sets the range to 6 minutes to slightly overlap the 5 minute email timer
-        long queryRange = 1000 * 60 * 6;
-        long startTime = endTime - queryRange;
+    /** The name of the watermark of the compilation of severe logs */
+    public static final String WATERMARK_NAME = "severeLogs";
+
+    /** The period before the watermark whose requests are compiled again if not compiled yet */
+    public static final long OVERLAP_USEC = 2 * 60 * 1000 * 1000L;
+
+    /** The time range compiled when there is no watermark yet, slightly more than the 5 minute email timer */
+    private static final long DEFAULT_RANGE_USEC = 6 * 60 * 1000 * 1000L;
+
+    /** The longest time range compiled, so that a compilation after a long pause does not run out of time */
+    private static final long MAX_RANGE_USEC = 60 * 60 * 1000 * 1000L;
+
+    private static final Logger log = Utils.getLogger();
+
+    private static final LogCompilationWatermarksDb watermarksDb = new LogCompilationWatermarksDb();
+
+    private final LogService logService;
+
+    /** The watermark after the logs compiled by {@link #doLogExam()}, or null if no request was compiled */
+    private LogCompilationWatermarkAttributes newWatermark;
+
+    public CompileLogs() {
+        this(LogServiceFactory.getLogService());
+    }
+
+    /**
+     * Creates a compilation which fetches the logs from the given {@code logService}, e.g. to test it.
+     */
+    public CompileLogs(LogService logService) {
+        this.logService = logService;
+    }
+
+    /**
+     * Fetches the severe logs of the requests which ended after the watermark, or shortly before it
+     * and were not compiled yet.
+     * The watermark is only moved past these requests by {@link #saveWatermark()}.
+     * @return the ERROR and FATAL log lines, from the most recent request
+     */
+    public List<AppLogLine> doLogExam() {
+        long endTimeUsec = System.currentTimeMillis() * 1000;
+        LogCompilationWatermarkAttributes watermark = watermarksDb.getWatermark(WATERMARK_NAME);
+        long startTimeUsec = watermark == null
+                           ? endTimeUsec - DEFAULT_RANGE_USEC
+                           : Math.max(watermark.endTimeUsec - OVERLAP_USEC, endTimeUsec - MAX_RANGE_USEC);
 
+        // only the requests with a severe log line are returned
         LogQuery q = LogQuery.Builder.withDefaults()
                                      .includeAppLogs(true)
-                                     .startTimeMillis(startTime)
-                                     .endTimeMillis(endTime)
+                                     .startTimeUsec(startTimeUsec)
+                                     .endTimeUsec(endTimeUsec)
                                      .minLogLevel(LogLevel.ERROR);
-        
-        Iterator<RequestLogs> logIterator = logService.fetch(q).iterator();
-        List<AppLogLine> errorLogs = new ArrayList<AppLogLine>();
 
-        while (logIterator.hasNext()) {
-            RequestLogs requestLogs = logIterator.next();
-            List<AppLogLine> logList = requestLogs.getAppLogLines();
+        List<AppLogLine> errorLogs = new ArrayList<AppLogLine>();
+        Map<String, Long> endTimesOfRequestsFetched = new LinkedHashMap<String, Long>();
+        long newWatermarkEndTimeUsec = watermark == null ? 0 : watermark.endTimeUsec;
+        boolean isAnyRequestCompiled = false;
+        for (RequestLogs requestLogs : logService.fetch(q)) {
+            endTimesOfRequestsFetched.put(requestLogs.getRequestId(), requestLogs.getEndTimeUsec());
+            if (isCompiled(requestLogs, watermark)) {
+                continue;
+            }
+            isAnyRequestCompiled = true;
+            newWatermarkEndTimeUsec = Math.max(newWatermarkEndTimeUsec, requestLogs.getEndTimeUsec());
 
-            for (AppLogLine currentLog : logList) {
+            for (AppLogLine currentLog : requestLogs.getAppLogLines()) {
                 LogLevel logLevel = currentLog.getLogLevel();
-                
+
                 if (LogLevel.FATAL == logLevel || LogLevel.ERROR == logLevel) {
                     errorLogs.add(currentLog);
                 }
             }
         }
 
+        if (isAnyRequestCompiled) {
+            // the requests compiled before which ended in the overlap are fetched again, hence kept too
+            List<String> requestIdsInOverlap = new ArrayList<String>();
+            for (Map.Entry<String, Long> request : endTimesOfRequestsFetched.entrySet()) {
+                if (request.getKey() != null && request.getValue() >= newWatermarkEndTimeUsec - OVERLAP_USEC) {
+                    requestIdsInOverlap.add(request.getKey());
+                }
+            }
+            newWatermark = new LogCompilationWatermarkAttributes(WATERMARK_NAME, newWatermarkEndTimeUsec,
+                                                                 requestIdsInOverlap);
+        }
+
         return errorLogs;
     }
 
-    public void sendEmail(List<AppLogLine> logs) {
+    /**
+     * @return true if the request is one of the requests compiled in the overlap of the watermark
+     */
+    private static boolean isCompiled(RequestLogs requestLogs, LogCompilationWatermarkAttributes watermark) {
+        return watermark != null && watermark.requestIds.contains(requestLogs.getRequestId());
+    }
+
+    /**
+     * Sends the compiled {@code logs} in one email, unless there are none.
+     * @return true if the logs are sent or there are none, i.e. if the watermark can be saved
+     */
+    public boolean sendEmail(List<AppLogLine> logs) {
         // Do not send any emails if there are no severe logs; prevents spamming
-        if (!logs.isEmpty()) {
-            EmailWrapper message = new EmailGenerator().generateCompiledLogsEmail(logs);
-            new EmailSender().sendLogReport(message);
+        if (logs.isEmpty()) {
+            return true;
+        }
+        EmailWrapper message = new EmailGenerator().generateCompiledLogsEmail(logs);
+        return new EmailSender().sendLogReport(message);
+    }
+
+    /**
+     * Moves the watermark past the requests whose logs were fetched by {@link #doLogExam()},
+     * so that they are not compiled again. To be called once their logs are sent.
+     */
+    public void saveWatermark() {
+        if (newWatermark == null) {
+            return;
+        }
+        try {
+            watermarksDb.putWatermark(newWatermark);
+        } catch (InvalidParametersException e) {
+            Assumption.fail("Invalid log compilation watermark: " + newWatermark);
         }
+        log.info("Compiled the severe logs of requests up to " + newWatermark.endTimeUsec + "us");
     }
 }
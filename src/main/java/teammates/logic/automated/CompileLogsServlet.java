@@ -17,6 +17,9 @@ public class CompileLogsServlet extends AutomatedRemindersServlet {
         logMessage(req, message);
         
         CompileLogs compileLog = new CompileLogs();
-        compileLog.sendEmail(compileLog.doLogExam());
+        // the logs which fail to send are compiled again with the next compilation
+        if (compileLog.sendEmail(compileLog.doLogExam())) {
+            compileLog.saveWatermark();
+        }
     }
 }
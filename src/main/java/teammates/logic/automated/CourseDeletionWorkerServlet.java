@@ -0,0 +1,31 @@
+package teammates.logic.automated;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.core.CourseDeletionJobsLogic;
+
+/**
+ * Continues the deletion of a course that could not be completed
+ * before the deadline of the request that deleted the course.
+ */
+@SuppressWarnings("serial")
+public class CourseDeletionWorkerServlet extends WorkerServlet {
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+
+        String courseId = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.COURSE_ID);
+        Assumption.assertNotNull(courseId);
+        String jobCreatedAt = HttpRequestHelper.getValueFromRequestParameterMap(
+                req, ParamsNames.COURSE_DELETION_JOB_CREATED_AT);
+        Assumption.assertNotNull(jobCreatedAt);
+
+        log.info("Continuing the deletion of course " + courseId);
+
+        CourseDeletionJobsLogic.inst().continueCourseDeletion(courseId, Long.parseLong(jobCreatedAt));
+    }
+}
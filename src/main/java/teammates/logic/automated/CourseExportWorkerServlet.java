@@ -0,0 +1,50 @@
+package teammates.logic.automated;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.core.CourseExportLogic;
+import teammates.logic.core.CourseExportLogic.Stage;
+
+/**
+ * Exports a course to the Google Cloud Storage, or continues an export that could not be completed
+ * before the deadline of its request.
+ */
+@SuppressWarnings("serial")
+public class CourseExportWorkerServlet extends WorkerServlet {
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+
+        String courseId = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.COURSE_ID);
+        Assumption.assertNotNull(courseId);
+
+        String exportId = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.COURSE_EXPORT_ID);
+        Assumption.assertNotNull(exportId);
+
+        String stage = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.COURSE_EXPORT_STAGE);
+        String cursor = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.COURSE_EXPORT_CURSOR);
+        String part = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.COURSE_EXPORT_PART);
+
+        try {
+            if (stage == null) {
+                log.info("Exporting course " + courseId + " in export " + exportId);
+                CourseExportLogic.inst().exportCourse(courseId, exportId);
+            } else {
+                log.info("Continuing the export of course " + courseId + " in export " + exportId
+                         + " from stage " + stage);
+                CourseExportLogic.inst().continueCourseExport(courseId, exportId, Stage.valueOf(stage), cursor,
+                                                              Integer.parseInt(part));
+            }
+        } catch (Exception e) {
+            log.severe("Error while exporting course " + courseId + ": " + TeammatesException.toStringWithStackTrace(e));
+
+            // Sets an arbitrary retry code outside of the range 200-299 so GAE will automatically retry upon failure
+            resp.setStatus(100);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package teammates.logic.automated;
+
+import java.util.Date;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.core.CourseExportLogic;
+
+/**
+ * Schedules the export of the courses whose data was modified since a given time, e.g. for nightly backups.<br>
+ * The time is given in milliseconds since the epoch in {@link ParamsNames#COURSES_MODIFIED_SINCE},
+ * and defaults to 25 hours ago, so that the daily exports overlap slightly. After a missed run,
+ * the time of the previous run should be given to export all the courses modified since.
+ */
+@SuppressWarnings("serial")
+public class CourseExportsServlet extends AutomatedRemindersServlet {
+
+    private static final long DEFAULT_RANGE_MILLIS = 1000 * 60 * 60 * 25;
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        servletName = "courseExports";
+        action = "schedules the export of the courses modified";
+
+        String message = "Scheduling the export of modified courses";
+        logMessage(req, message);
+
+        String sinceParam = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.COURSES_MODIFIED_SINCE);
+        long now = System.currentTimeMillis();
+        long since = sinceParam == null ? now - DEFAULT_RANGE_MILLIS : Long.parseLong(sinceParam);
+
+        CourseExportLogic.inst().scheduleExportsOfCoursesModifiedSince(new Date(since), String.valueOf(now));
+    }
+}
@@ -14,6 +14,7 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.ActivityLogEntry;
+import teammates.common.util.EmailPriority;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Utils;
@@ -47,7 +48,7 @@ public abstract class EmailAction {
             emailsToBeSent = prepareMailToBeSent();
             
             //actually send the mail
-            new EmailSender().sendEmails(emailsToBeSent);
+            new EmailSender().sendEmails(emailsToBeSent, getEmailPriority());
             doPostProcessingForSuccesfulSend();
             
             //carry this out if mail is successfully sent
@@ -93,6 +94,13 @@ public abstract class EmailAction {
     
     protected abstract List<EmailWrapper> prepareMailToBeSent();
     
+    /**
+     * Gets the priority of the emails of this action, which decides the task queue they are sent through.
+     */
+    protected EmailPriority getEmailPriority() {
+        return EmailPriority.BULK;
+    }
+    
     protected void logActivitySuccess(HttpServletRequest req, List<EmailWrapper> emails) {
         String url = HttpRequestHelper.getRequestedUrl(req);
         String message;
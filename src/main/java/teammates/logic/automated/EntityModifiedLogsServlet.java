@@ -2,61 +2,53 @@ package teammates.logic.automated;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Date;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import teammates.common.exception.TeammatesException;
-
-import com.google.appengine.api.log.AppLogLine;
-import com.google.appengine.api.log.LogQuery;
-import com.google.appengine.api.log.LogService;
-import com.google.appengine.api.log.LogServiceFactory;
-import com.google.appengine.api.log.RequestLogs;
-
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.core.CoursesLogic;
+
+/**
+ * Lists the IDs of the courses whose data was modified since a given time, one per line,
+ * from the journal of course modifications, e.g. to back them up.<br>
+ * The time is given in milliseconds since the epoch in {@link ParamsNames#COURSES_MODIFIED_SINCE},
+ * and defaults to 24 hours ago; any other value of the parameter is rejected with a 400 response.
+ */
 @SuppressWarnings("serial")
 public class EntityModifiedLogsServlet extends AutomatedRemindersServlet {
 
+    private static final long DEFAULT_RANGE_MILLIS = 1000 * 60 * 60 * 24;
+
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp) {
         servletName = "entityModifiedLogs";
-        action = "extracts entities that were modified from logs";
+        action = "extracts entities that were modified from the course modification journal";
 
-        String message = "Compiling logs for email notification";
+        String message = "Listing courses modified for backup";
         logMessage(req, message);
 
         resp.setContentType("application/json");
    
         try {
-            PrintWriter writer = resp.getWriter();
-
-            LogService logService = LogServiceFactory.getLogService();
-
-            long endTime = new java.util.Date().getTime();
-            // Sets the range to 6 minutes to slightly overlap the 5 minute scheduled task timer
-            long queryRange = 1000 * 60 * 60 * 24;
-            long startTime = endTime - queryRange;
-
-            LogQuery q = LogQuery.Builder.withDefaults().includeAppLogs(true)
-                    .startTimeMillis(startTime).endTimeMillis(endTime);
-            Iterator<RequestLogs> logIterator = logService.fetch(q).iterator();
+            String sinceParam = HttpRequestHelper.getValueFromRequestParameterMap(
+                    req, ParamsNames.COURSES_MODIFIED_SINCE);
+            long since;
+            try {
+                since = sinceParam == null ? new Date().getTime() - DEFAULT_RANGE_MILLIS
+                                           : Long.parseLong(sinceParam);
+            } catch (NumberFormatException e) {
+                resp.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                               ParamsNames.COURSES_MODIFIED_SINCE + " must be a time in milliseconds: " + sinceParam);
+                return;
+            }
 
-            while (logIterator.hasNext()) {
-                RequestLogs requestLogs = logIterator.next();
-                List<AppLogLine> logList = requestLogs.getAppLogLines();
-                
-                for (int i = 0; i < logList.size(); i++) {
-                    AppLogLine currentLog = logList.get(i);
-                    String logMessage = currentLog.getLogMessage();
-                    if (logMessage.contains("modified course::")) {
-                        String[] tokens = logMessage.split("::");
-                        String courseId = tokens[1];
-                      
-                        writer.println(courseId);
-                    }
-                }
+            PrintWriter writer = resp.getWriter();
+            for (String courseId : CoursesLogic.inst().getCourseIdsModifiedSince(new Date(since))) {
+                writer.println(courseId);
             }
         } catch (IOException e) {
             log.severe(TeammatesException.toStringWithStackTrace(e));
@@ -9,6 +9,7 @@ import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.EmailPriority;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.HttpRequestHelper;
 import teammates.logic.core.EmailGenerator;
@@ -73,6 +74,14 @@ public class FeedbackSessionClosingMailAction extends EmailAction {
 
     }
     
+    /**
+     * Closing reminders are time-sensitive, so they are not held up by bulk emails.
+     */
+    @Override
+    protected EmailPriority getEmailPriority() {
+        return EmailPriority.HIGH;
+    }
+    
     private void initializeNameAndDescription() {
         actionName = Const.AutomatedActionNames.AUTOMATED_FEEDBACKSESSION_CLOSING_MAIL_ACTION;
         actionDescription = "send closing reminders";
@@ -1,20 +1,60 @@
 package teammates.logic.automated;
 
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.EmailPriority;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.HttpRequestHelper;
+import teammates.common.util.Utils;
 import teammates.logic.core.EmailSender;
 
+import com.google.gson.reflect.TypeToken;
+
 @SuppressWarnings("serial")
 public class SendEmailWorkerServlet extends WorkerServlet {
     
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        String emailBatch = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_BATCH);
+        List<EmailWrapper> messages = emailBatch == null
+                                      ? Arrays.asList(getEmail(req))
+                                      : getEmails(emailBatch);
+        
+        String priorityName = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_PRIORITY);
+        EmailPriority priority = priorityName == null ? EmailPriority.BULK : EmailPriority.valueOf(priorityName);
+        
+        String enqueuedTime = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_ENQUEUED_TIME);
+        long enqueuedTimeMillis = enqueuedTime == null ? System.currentTimeMillis() : Long.parseLong(enqueuedTime);
+        
+        try {
+            new EmailSender().sendQueuedEmails(messages, priority, enqueuedTimeMillis);
+        } catch (Exception e) {
+            log.severe("Error while sending email via servlet: " + TeammatesException.toStringWithStackTrace(e));
+            
+            // Sets an arbitrary retry code outside of the range 200-299 so GAE will automatically retry upon failure.
+            // No email of the task is sent then, as sendQueuedEmails puts back the emails not sent after others are.
+            resp.setStatus(100);
+        }
+    }
+    
+    private List<EmailWrapper> getEmails(String emailBatch) {
+        Type listType = new TypeToken<List<EmailWrapper>>() { }.getType();
+        return Utils.getTeammatesGson().fromJson(emailBatch, listType);
+    }
+    
+    /**
+     * Gets the email of a task which carries one email as separate parameters,
+     * e.g. a task added before emails were sent in batches.
+     */
+    private EmailWrapper getEmail(HttpServletRequest req) {
         String emailSubject = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_SUBJECT);
         Assumption.assertNotNull(emailSubject);
         
@@ -41,14 +81,6 @@ public class SendEmailWorkerServlet extends WorkerServlet {
         message.setContent(emailContent);
         message.setSubject(emailSubject);
         message.setReplyTo(emailReply);
-        
-        try {
-            new EmailSender().sendEmail(message);
-        } catch (Exception e) {
-            log.severe("Error while sending email via servlet: " + TeammatesException.toStringWithStackTrace(e));
-            
-            // Sets an arbitrary retry code outside of the range 200-299 so GAE will automatically retry upon failure
-            resp.setStatus(100);
-        }
+        return message;
     }
 }
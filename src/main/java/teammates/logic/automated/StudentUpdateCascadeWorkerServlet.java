@@ -0,0 +1,46 @@
+package teammates.logic.automated;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.datatransfer.StudentEnrollDetails;
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.common.util.Utils;
+import teammates.logic.core.StudentUpdateCascadeExecutor;
+
+/**
+ * Continues the update cascade of a student that could not be completed
+ * before the deadline of the request that updated the student.
+ */
+@SuppressWarnings("serial")
+public class StudentUpdateCascadeWorkerServlet extends WorkerServlet {
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+
+        String originalEmail = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.STUDENT_EMAIL);
+        Assumption.assertNotNull(originalEmail);
+
+        String enrollmentDetails =
+                HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.ENROLLMENT_DETAILS);
+        Assumption.assertNotNull(enrollmentDetails);
+
+        StudentEnrollDetails updateDetails =
+                Utils.getTeammatesGson().fromJson(enrollmentDetails, StudentEnrollDetails.class);
+
+        log.info("Continuing the update cascade of student " + originalEmail + " in course " + updateDetails.course);
+
+        try {
+            new StudentUpdateCascadeExecutor(originalEmail, updateDetails).execute();
+        } catch (InvalidParametersException | EntityDoesNotExistException e) {
+            log.severe("Error encountered while continuing the update cascade of student " + originalEmail
+                       + " in course " + updateDetails.course + " : " + e.getMessage());
+            //Retry task if failed
+            resp.setStatus(100);
+        }
+    }
+}
@@ -5,7 +5,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 
@@ -31,6 +33,7 @@ import teammates.common.util.GoogleCloudStorageHelper;
 import teammates.common.util.ThreadHelper;
 import teammates.common.util.Utils;
 import teammates.logic.api.Logic;
+import teammates.logic.core.CourseDeletionJobsLogic;
 import teammates.storage.api.AccountsDb;
 import teammates.storage.api.CommentsDb;
 import teammates.storage.api.CoursesDb;
@@ -59,11 +62,11 @@ public class BackDoorLogic extends Logic {
     private static final int MAX_RETRY_COUNT_FOR_DELETE_CHECKING = 20;
     
     public String putDocumentsForStudents(DataBundle dataBundle) {
+        List<StudentAttributes> studentsInDb = new ArrayList<StudentAttributes>();
         for (StudentAttributes student : dataBundle.students.values()) {
-            student = getStudentForEmail(student.course, student.email);
-            putDocument(student);
-            ThreadHelper.waitFor(50);
+            studentsInDb.add(getStudentForEmail(student.course, student.email));
         }
+        studentsDb.putDocuments(studentsInDb);
         
         return Const.StatusCodes.BACKDOOR_STATUS_SUCCESS;
     }
@@ -156,18 +159,7 @@ public class BackDoorLogic extends Logic {
             response = injectRealIds(response);
         }
         frDb.createFeedbackResponses(responses.values());
-
-        Set<String> sessionIds = new HashSet<>();
-        
-        for (FeedbackResponseAttributes response : responses.values()) {
-            
-            String sessionId = response.feedbackSessionName + "%" + response.courseId;
-            
-            if (!sessionIds.contains(sessionId)) {
-                updateRespondants(response.feedbackSessionName, response.courseId);
-                sessionIds.add(sessionId);
-            }
-        }
+        updateRespondantsOfSessions(responses.values());
         
         HashMap<String, FeedbackResponseCommentAttributes> responseComments = dataBundle.feedbackResponseComments;
         for (FeedbackResponseCommentAttributes responseComment : responseComments.values()) {
@@ -187,6 +179,186 @@ public class BackDoorLogic extends Logic {
         return Const.StatusCodes.BACKDOOR_STATUS_SUCCESS;
     }
 
+    /**
+     * Persists the given data in bulk, e.g. to load a large data bundle for load testing quickly.<br>
+     * Each kind of entities is created in batches of at most
+     * {@link teammates.storage.api.EntitiesDb#MAX_ENTITIES_PER_BATCH}, without checking whether the entities
+     * exist, in the order in which the entities depend on one another.
+     * The search documents of the created students and comments are then put in batches as a separate phase.<br>
+     * Preconditions: <br>
+     * * The courses of the data bundle hold no data, e.g. after {@link #removeDataBundleInBulk}.
+     * @return status of the request, as for {@link #persistDataBundle}
+     */
+    public String persistDataBundleInBulk(DataBundle dataBundle)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        
+        if (dataBundle == null) {
+            throw new InvalidParametersException(
+                    Const.StatusCodes.NULL_PARAMETER, "Null data bundle");
+        }
+        
+        accountsDb.createEntitiesWithoutExistenceCheck(getAccountsToCreate(dataBundle));
+        coursesDb.createEntitiesWithoutExistenceCheck(dataBundle.courses.values());
+        
+        for (InstructorAttributes instructor : dataBundle.instructors.values()) {
+            validateInstructorPrivileges(instructor);
+        }
+        instructorsDb.createEntitiesWithoutExistenceCheck(dataBundle.instructors.values());
+        
+        for (StudentAttributes student : dataBundle.students.values()) {
+            student.section = (student.section == null) ? "None" : student.section;
+        }
+        List<StudentAttributes> students = studentsDb.createStudentsWithoutExistenceCheck(dataBundle.students.values());
+        
+        for (FeedbackSessionAttributes session : dataBundle.feedbackSessions.values()) {
+            cleanSessionData(session);
+        }
+        fbDb.createEntitiesWithoutExistenceCheck(dataBundle.feedbackSessions.values());
+        
+        for (FeedbackQuestionAttributes question : dataBundle.feedbackQuestions.values()) {
+            question.removeIrrelevantVisibilityOptions();
+        }
+        // the IDs of the created questions replace the question numbers in the responses and their comments,
+        // instead of querying each question again
+        Map<String, String> questionIds = new HashMap<String, String>();
+        for (FeedbackQuestionAttributes question
+                : fqDb.createFeedbackQuestionsWithoutExistenceCheck(dataBundle.feedbackQuestions.values())) {
+            questionIds.put(question.feedbackSessionName + "%" + question.courseId + "%" + question.questionNumber,
+                            question.getId());
+        }
+        
+        for (FeedbackResponseAttributes response : dataBundle.feedbackResponses.values()) {
+            response.feedbackQuestionId = getQuestionId(questionIds, response.feedbackSessionName,
+                                                        response.courseId, response.feedbackQuestionId);
+        }
+        frDb.createEntitiesWithoutExistenceCheck(dataBundle.feedbackResponses.values());
+        updateRespondantsOfSessions(dataBundle.feedbackResponses.values());
+        
+        for (FeedbackResponseCommentAttributes responseComment : dataBundle.feedbackResponseComments.values()) {
+            responseComment.feedbackQuestionId = getQuestionId(questionIds, responseComment.feedbackSessionName,
+                                                               responseComment.courseId,
+                                                               responseComment.feedbackQuestionId);
+            String[] responseIdParam = responseComment.feedbackResponseId.split("%");
+            responseComment.feedbackResponseId =
+                    responseComment.feedbackQuestionId + "%" + responseIdParam[1] + "%" + responseIdParam[2];
+        }
+        List<FeedbackResponseCommentAttributes> responseComments =
+                fcDb.createFeedbackResponseCommentsWithoutExistenceCheck(dataBundle.feedbackResponseComments.values());
+        
+        List<CommentAttributes> comments = commentsDb.createCommentsWithoutExistenceCheck(dataBundle.comments.values());
+        
+        accountsDb.commitOutstandingChanges();
+        
+        // search indexing phase, from the created entities instead of reading them again
+        putDocumentsForStudentsByCourse(dataBundle, students);
+        fcDb.putDocuments(responseComments);
+        commentsDb.putDocuments(comments);
+        
+        return Const.StatusCodes.BACKDOOR_STATUS_SUCCESS;
+    }
+    
+    /**
+     * @return the accounts of the data bundle, followed by the accounts of its registered instructors
+     *         and students that neither are in the data bundle nor exist already
+     */
+    private List<AccountAttributes> getAccountsToCreate(DataBundle dataBundle) {
+        Map<String, AccountAttributes> accounts = new LinkedHashMap<String, AccountAttributes>();
+        for (AccountAttributes account : dataBundle.accounts.values()) {
+            if (account.studentProfile == null) {
+                account.studentProfile = new StudentProfileAttributes();
+                account.studentProfile.googleId = account.googleId;
+            }
+            accounts.put(account.googleId, account);
+        }
+        
+        Map<String, AccountAttributes> participantAccounts = new LinkedHashMap<String, AccountAttributes>();
+        for (InstructorAttributes instructor : dataBundle.instructors.values()) {
+            addParticipantAccount(participantAccounts, instructor.googleId, instructor.name, true, instructor.email);
+        }
+        for (StudentAttributes student : dataBundle.students.values()) {
+            addParticipantAccount(participantAccounts, student.googleId, student.name, false, student.email);
+        }
+        participantAccounts.keySet().removeAll(accounts.keySet());
+        // existing accounts of participants are kept as they are, as in persistDataBundle
+        for (AccountAttributes existingAccount : accountsDb.getAccounts(participantAccounts.keySet())) {
+            participantAccounts.remove(existingAccount.googleId);
+        }
+        
+        List<AccountAttributes> accountsToCreate = new ArrayList<AccountAttributes>(accounts.values());
+        accountsToCreate.addAll(participantAccounts.values());
+        return accountsToCreate;
+    }
+    
+    private void addParticipantAccount(Map<String, AccountAttributes> participantAccounts, String googleId,
+                                       String name, boolean isInstructor, String email) {
+        if (googleId == null || googleId.isEmpty() || participantAccounts.containsKey(googleId)) {
+            return;
+        }
+        AccountAttributes account = new AccountAttributes(googleId, name, isInstructor, email,
+                                                          "TEAMMATES Test Institute 1");
+        account.studentProfile = new StudentProfileAttributes();
+        account.studentProfile.googleId = googleId;
+        participantAccounts.put(googleId, account);
+    }
+    
+    /**
+     * @return the ID of the question given either by its ID or by its number in the session
+     */
+    private String getQuestionId(Map<String, String> questionIds, String feedbackSessionName, String courseId,
+                                 String questionIdOrNumber) throws EntityDoesNotExistException {
+        try {
+            int qnNumber = Integer.parseInt(questionIdOrNumber);
+            String questionId = questionIds.get(feedbackSessionName + "%" + courseId + "%" + qnNumber);
+            if (questionId == null) {
+                throw new EntityDoesNotExistException("question has not persisted yet");
+            }
+            return questionId;
+        } catch (NumberFormatException e) {
+            // Correct question ID was already given.
+            return questionIdOrNumber;
+        }
+    }
+    
+    private void updateRespondantsOfSessions(Collection<FeedbackResponseAttributes> responses)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        Set<String> sessionIds = new HashSet<>();
+        
+        for (FeedbackResponseAttributes response : responses) {
+            
+            String sessionId = response.feedbackSessionName + "%" + response.courseId;
+            
+            if (!sessionIds.contains(sessionId)) {
+                updateRespondants(response.feedbackSessionName, response.courseId);
+                sessionIds.add(sessionId);
+            }
+        }
+    }
+    
+    /**
+     * Puts the search documents of the students course by course, so that each course is read at most once.
+     */
+    private void putDocumentsForStudentsByCourse(DataBundle dataBundle, List<StudentAttributes> students) {
+        Map<String, List<StudentAttributes>> studentsByCourse = new HashMap<String, List<StudentAttributes>>();
+        for (StudentAttributes student : students) {
+            List<StudentAttributes> studentsOfCourse = studentsByCourse.get(student.course);
+            if (studentsOfCourse == null) {
+                studentsOfCourse = new ArrayList<StudentAttributes>();
+                studentsByCourse.put(student.course, studentsOfCourse);
+            }
+            studentsOfCourse.add(student);
+        }
+        
+        Map<String, CourseAttributes> courses = new HashMap<String, CourseAttributes>();
+        for (CourseAttributes course : dataBundle.courses.values()) {
+            courses.put(course.getId(), course);
+        }
+        for (Map.Entry<String, List<StudentAttributes>> entry : studentsByCourse.entrySet()) {
+            CourseAttributes course = courses.containsKey(entry.getKey()) ? courses.get(entry.getKey())
+                                                                           : coursesDb.getCourse(entry.getKey());
+            studentsDb.putDocuments(course, entry.getValue());
+        }
+    }
+
     /**
      * Checks if the role of {@code instructor} matches its privileges
      * 
@@ -238,6 +410,26 @@ public class BackDoorLogic extends Logic {
         deleteExistingData(dataBundle);
     }
     
+    /**
+     * Removes the data of the given data bundle in bulk, e.g. to remove a large data bundle loaded
+     * by {@link #persistDataBundleInBulk}. All the data of each course of the data bundle is deleted in batches
+     * of at most {@link teammates.storage.api.EntitiesDb#MAX_ENTITIES_PER_BATCH}, mostly with keys-only queries,
+     * followed by the accounts of the data bundle.
+     */
+    public void removeDataBundleInBulk(DataBundle dataBundle) {
+        for (CourseAttributes course : dataBundle.courses.values()) {
+            CourseDeletionJobsLogic.inst().deleteCourseWithinRequest(course.getId());
+        }
+        
+        for (AccountAttributes account : dataBundle.accounts.values()) {
+            if (account.studentProfile == null) {
+                account.studentProfile = new StudentProfileAttributes();
+                account.studentProfile.googleId = account.googleId;
+            }
+        }
+        accountsDb.deleteAccounts(dataBundle.accounts.values());
+    }
+    
     /**
      * create document for entities that have document--searchable
      * @param dataBundle
@@ -248,25 +440,25 @@ public class BackDoorLogic extends Logic {
     public String putDocuments(DataBundle dataBundle) {
         // query the entity in db first to get the actual data and create document for actual entity
         
-        HashMap<String, StudentAttributes> students = dataBundle.students;
-        for (StudentAttributes student : students.values()) {
-            StudentAttributes studentInDb = studentsDb.getStudentForEmail(student.course, student.email);
-            studentsDb.putDocument(studentInDb);
-            ThreadHelper.waitFor(50);
+        List<StudentAttributes> studentsInDb = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : dataBundle.students.values()) {
+            studentsInDb.add(studentsDb.getStudentForEmail(student.course, student.email));
         }
+        studentsDb.putDocuments(studentsInDb);
         
-        HashMap<String, FeedbackResponseCommentAttributes> responseComments = dataBundle.feedbackResponseComments;
-        for (FeedbackResponseCommentAttributes responseComment : responseComments.values()) {
-            FeedbackResponseCommentAttributes fcInDb = fcDb.getFeedbackResponseComment(
-                    responseComment.courseId, responseComment.createdAt, responseComment.giverEmail);
-            fcDb.putDocument(fcInDb);
+        List<FeedbackResponseCommentAttributes> responseCommentsInDb =
+                new ArrayList<FeedbackResponseCommentAttributes>();
+        for (FeedbackResponseCommentAttributes responseComment : dataBundle.feedbackResponseComments.values()) {
+            responseCommentsInDb.add(fcDb.getFeedbackResponseComment(
+                    responseComment.courseId, responseComment.createdAt, responseComment.giverEmail));
         }
+        fcDb.putDocuments(responseCommentsInDb);
         
-        HashMap<String, CommentAttributes> comments = dataBundle.comments;
-        for (CommentAttributes comment : comments.values()) {
-            CommentAttributes commentInDb = commentsDb.getComment(comment);
-            commentsDb.putDocument(commentInDb);
+        List<CommentAttributes> commentsInDb = new ArrayList<CommentAttributes>();
+        for (CommentAttributes comment : dataBundle.comments.values()) {
+            commentsInDb.add(commentsDb.getComment(comment));
         }
+        commentsDb.putDocuments(commentsInDb);
         
         return Const.StatusCodes.BACKDOOR_STATUS_SUCCESS;
     }
@@ -70,6 +70,8 @@ public class BackDoorServlet extends HttpServlet {
 
     public static final String OPERATION_PERSIST_DATABUNDLE = "OPERATION_PERSIST_DATABUNDLE";
     public static final String OPERATION_REMOVE_DATABUNDLE = "OPERATION_REMOVE_DATABUNDLE";
+    public static final String OPERATION_PERSIST_DATABUNDLE_IN_BULK = "OPERATION_PERSIST_DATABUNDLE_IN_BULK";
+    public static final String OPERATION_REMOVE_DATABUNDLE_IN_BULK = "OPERATION_REMOVE_DATABUNDLE_IN_BULK";
     public static final String OPERATION_REMOVE_AND_RESTORE_DATABUNDLE = "OPERATION_REMOVE_AND_RESTORE_DATABUNDLE";
     public static final String OPERATION_SYSTEM_ACTIVATE_AUTOMATED_REMINDER = "activate_auto_reminder";
     public static final String OPERATION_PUT_DOCUMENTS = "OPERATION_PUT_DOCUMENTS";
@@ -198,6 +200,18 @@ public class BackDoorServlet extends HttpServlet {
             DataBundle dataBundle = Utils.getTeammatesGson().fromJson(
                     dataBundleJsonString, DataBundle.class);
             backDoorLogic.removeDataBundle(dataBundle);
+        } else if (action.equals(OPERATION_PERSIST_DATABUNDLE_IN_BULK)) {
+            String dataBundleJsonString = req
+                    .getParameter(PARAMETER_DATABUNDLE_JSON);
+            DataBundle dataBundle = Utils.getTeammatesGson().fromJson(
+                    dataBundleJsonString, DataBundle.class);
+            backDoorLogic.persistDataBundleInBulk(dataBundle);
+        } else if (action.equals(OPERATION_REMOVE_DATABUNDLE_IN_BULK)) {
+            String dataBundleJsonString = req
+                    .getParameter(PARAMETER_DATABUNDLE_JSON);
+            DataBundle dataBundle = Utils.getTeammatesGson().fromJson(
+                    dataBundleJsonString, DataBundle.class);
+            backDoorLogic.removeDataBundleInBulk(dataBundle);
         } else if (action.equals(OPERATION_PUT_DOCUMENTS_FOR_STUDENTS)) {
             String dataBundleJsonString = req
                     .getParameter(PARAMETER_DATABUNDLE_JSON);
@@ -1,6 +1,8 @@
 package teammates.logic.core;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import teammates.common.datatransfer.AccountAttributes;
@@ -64,6 +66,20 @@ public class AccountsLogic {
         return accountsDb.getAccount(googleId, retrieveStudentProfile);
     }
     
+    /**
+     * @return the accounts found, without their student profiles
+     */
+    public List<AccountAttributes> getAccounts(Collection<String> googleIds) {
+        return accountsDb.getAccounts(googleIds);
+    }
+    
+    /**
+     * @return the institutes by Google ID; accounts that do not exist are absent
+     */
+    public Map<String, String> getInstitutesForGoogleIds(Collection<String> googleIds) {
+        return accountsDb.getInstitutesForGoogleIds(googleIds);
+    }
+    
     public boolean isAccountPresent(String googleId) {
         return accountsDb.getAccount(googleId) != null;
     }
@@ -1,6 +1,7 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -16,6 +17,7 @@ import teammates.common.datatransfer.CommentSearchResultBundle;
 import teammates.common.datatransfer.CommentSendingState;
 import teammates.common.datatransfer.CommentStatus;
 import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.EntitiesChunk;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
@@ -72,6 +74,10 @@ public class CommentsLogic {
     public CommentAttributes getComment(Long commentId) {
         return commentsDb.getComment(commentId);
     }
+    
+    public Set<Long> getExistingCommentIds(Collection<Long> commentIds) {
+        return commentsDb.getExistingCommentIds(commentIds);
+    }
 
     public List<CommentAttributes> getCommentsForGiver(String courseId, String giverEmail)
            throws EntityDoesNotExistException {
@@ -212,6 +218,22 @@ public class CommentsLogic {
         commentsDb.deleteCommentsForSection(courseId, sectionName);
     }
     
+    /**
+     * Gets up to {@code limit} comments of the course, starting after the comments of a previous chunk.
+     * @param cursor the cursor of the previous chunk, or null to start from the first comment
+     */
+    public EntitiesChunk<CommentAttributes> getCommentsForCourseInChunk(String courseId, String cursor, int limit) {
+        return commentsDb.getCommentsForCourseInChunk(courseId, cursor, limit);
+    }
+
+    /**
+     * Deletes up to {@code limit} comments of the course in one batch.
+     * @return the number of comments deleted, 0 if there is no more comment to delete
+     */
+    public int deleteCommentsForCourseInBatch(String courseId, int limit) {
+        return commentsDb.deleteCommentsForCourseInBatch(courseId, limit);
+    }
+    
     public void deleteCommentsForCourse(String courseId) {
         commentsDb.deleteCommentsForCourse(courseId);
     }
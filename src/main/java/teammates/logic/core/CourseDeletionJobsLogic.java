@@ -0,0 +1,202 @@
+package teammates.logic.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import teammates.common.datatransfer.CourseDeletionJobAttributes;
+import teammates.common.datatransfer.CourseDeletionJobAttributes.Stage;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
+import teammates.common.util.RequestDeadline;
+import teammates.common.util.Utils;
+import teammates.storage.api.CourseDeletionJobsDb;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.api.EntitiesDb;
+
+/**
+ * Handles the deletion of a course and all its data.<br>
+ * The course entity is deleted first, so that the course is no longer shown while its data is deleted.
+ * Each kind of entities of the course is then deleted in batches of at most
+ * {@link EntitiesDb#MAX_ENTITIES_PER_BATCH}, mostly with keys-only queries. The progress is
+ * recorded in a course deletion job, so that the deletion can be continued by a task on
+ * {@link SystemParams#COURSE_DELETION_TASK_QUEUE} when the request deadline approaches,
+ * and its status can be shown to the admin. The job is removed when the deletion is completed;
+ * until then, no course with the same ID can be created.
+ */
+public class CourseDeletionJobsLogic {
+
+    private static CourseDeletionJobsLogic instance;
+    private static final Logger log = Utils.getLogger();
+
+    private static final CourseDeletionJobsDb courseDeletionJobsDb = new CourseDeletionJobsDb();
+    private static final CoursesDb coursesDb = new CoursesDb();
+
+    /** Null to continue the deletion when the deadline of the request type is near. */
+    private Long minRemainingMillis;
+
+    public static CourseDeletionJobsLogic inst() {
+        if (instance == null) {
+            instance = new CourseDeletionJobsLogic();
+        }
+        return instance;
+    }
+
+    /**
+     * Sets the remaining request time in milliseconds at or below which the deletion
+     * is continued in a new task, e.g. to test the continuation, or null to use the margin
+     * of the request type given by {@link RequestDeadline#isNear()}.
+     */
+    public void setMinRemainingMillis(Long minRemainingMillis) {
+        this.minRemainingMillis = minRemainingMillis;
+    }
+
+    /**
+     * Starts the deletion of the course and all its data, replacing any previous
+     * deletion job of the course, and runs it until it is done or the request deadline approaches.
+     * @return true if the course is deleted, false if a continuation task was scheduled
+     */
+    public boolean startCourseDeletion(String courseId) {
+        CourseDeletionJobAttributes job = new CourseDeletionJobAttributes(courseId);
+        try {
+            courseDeletionJobsDb.createOrReplaceCourseDeletionJob(job);
+        } catch (InvalidParametersException e) {
+            // no entity can belong to a course with an invalid ID
+            log.warning("Trying to delete a course with an invalid ID: " + courseId);
+            return true;
+        }
+        return runCourseDeletion(job);
+    }
+
+    /**
+     * Continues the deletion of the course from where its deletion job stopped.
+     * Silently succeeds if the course has no deletion job, e.g. as the deletion is completed,
+     * or if the job was replaced by a later deletion of the course, which is continued by its own tasks.
+     * @param jobCreatedAtMillis the creation time of the job to continue, in milliseconds
+     * @return true if the course is deleted, false if a continuation task was scheduled
+     */
+    public boolean continueCourseDeletion(String courseId, long jobCreatedAtMillis) {
+        Assumption.assertNotNull(courseId);
+
+        CourseDeletionJobAttributes job = courseDeletionJobsDb.getCourseDeletionJob(courseId);
+        if (job == null) {
+            log.info("Trying to continue the deletion of a course without deletion job: " + courseId);
+            return true;
+        }
+        if (job.createdAt.getTime() != jobCreatedAtMillis) {
+            log.info("Trying to continue a replaced deletion job of course " + courseId);
+            return true;
+        }
+        return runCourseDeletion(job);
+    }
+
+    /**
+     * @return null if the course has no deletion job, i.e. the course is not being deleted
+     */
+    public CourseDeletionJobAttributes getCourseDeletionJob(String courseId) {
+        Assumption.assertNotNull(courseId);
+        return courseDeletionJobsDb.getCourseDeletionJob(courseId);
+    }
+
+    /**
+     * @return the deletion jobs of all courses being deleted
+     */
+    public List<CourseDeletionJobAttributes> getCourseDeletionJobs() {
+        return courseDeletionJobsDb.getCourseDeletionJobs();
+    }
+
+    /**
+     * Deletes the course and all its data in batches within the current request, without recording
+     * a deletion job or continuing in a task, e.g. to remove test data in bulk.
+     * @return the number of entities deleted
+     */
+    public long deleteCourseWithinRequest(String courseId) {
+        Assumption.assertNotNull(courseId);
+
+        long deletedEntitiesCount = 0;
+        Stage stage = Stage.values()[0];
+        while (stage != Stage.COMPLETED) {
+            int numberOfDeletedEntities = deleteBatch(courseId, stage);
+            deletedEntitiesCount += numberOfDeletedEntities;
+            if (numberOfDeletedEntities < EntitiesDb.MAX_ENTITIES_PER_BATCH) {
+                stage = stage.next();
+            }
+        }
+        return deletedEntitiesCount;
+    }
+
+    private boolean runCourseDeletion(CourseDeletionJobAttributes job) {
+        while (!job.isCompleted()) {
+            int numberOfDeletedEntities = deleteBatch(job.courseId, job.stage);
+            job.deletedEntitiesCount += numberOfDeletedEntities;
+            if (numberOfDeletedEntities < EntitiesDb.MAX_ENTITIES_PER_BATCH) {
+                job.stage = job.stage.next();
+            }
+
+            if (!job.isCompleted()) {
+                courseDeletionJobsDb.updateCourseDeletionJob(job);
+                if (isNearDeadline()) {
+                    return scheduleContinuation(job);
+                }
+            }
+        }
+
+        courseDeletionJobsDb.deleteCourseDeletionJob(job.courseId);
+        log.info("Deleted course " + job.courseId + " with " + job.deletedEntitiesCount + " entities");
+        return true;
+    }
+
+    /**
+     * Deletes one batch of the entities of the course deleted in the given stage.
+     * @return the number of entities deleted
+     */
+    private int deleteBatch(String courseId, Stage stage) {
+        int limit = EntitiesDb.MAX_ENTITIES_PER_BATCH;
+        switch (stage) {
+        case COURSE:
+            if (coursesDb.getCourse(courseId) == null) {
+                return 0;
+            }
+            coursesDb.deleteCourse(courseId);
+            return 1;
+        case STUDENTS:
+            return StudentsLogic.inst().deleteStudentsForCourseInBatch(courseId, limit);
+        case INSTRUCTORS:
+            return InstructorsLogic.inst().deleteInstructorsForCourseInBatch(courseId, limit);
+        case COMMENTS:
+            return CommentsLogic.inst().deleteCommentsForCourseInBatch(courseId, limit);
+        case FEEDBACK_RESPONSE_COMMENTS:
+            return FeedbackResponseCommentsLogic.inst().deleteFeedbackResponseCommentsForCourseInBatch(courseId, limit);
+        case FEEDBACK_RESPONSES:
+            return FeedbackResponsesLogic.inst().deleteFeedbackResponsesForCourseInBatch(courseId, limit);
+        case FEEDBACK_QUESTIONS:
+            return FeedbackQuestionsLogic.inst().deleteFeedbackQuestionsForCourseInBatch(courseId, limit);
+        case FEEDBACK_SESSIONS:
+            return FeedbackSessionsLogic.inst().deleteFeedbackSessionsForCourseInBatch(courseId, limit);
+        default:
+            return 0;
+        }
+    }
+
+    private boolean isNearDeadline() {
+        return minRemainingMillis == null ? RequestDeadline.isNear() : RequestDeadline.isNear(minRemainingMillis);
+    }
+
+    private boolean scheduleContinuation(CourseDeletionJobAttributes job) {
+        log.info("Continuing the deletion of course " + job.courseId + " from stage " + job.stage
+                 + " in a new task as the request deadline is near");
+
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.COURSE_ID, job.courseId);
+        paramMap.put(ParamsNames.COURSE_DELETION_JOB_CREATED_AT, String.valueOf(job.createdAt.getTime()));
+
+        TaskQueuesLogic.inst().createAndAddTask(SystemParams.COURSE_DELETION_TASK_QUEUE,
+                                                Const.ActionURIs.COURSE_DELETION_WORKER, paramMap);
+        return false;
+    }
+
+}
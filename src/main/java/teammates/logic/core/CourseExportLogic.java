@@ -0,0 +1,339 @@
+package teammates.logic.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.datatransfer.CommentAttributes;
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.EntitiesChunk;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
+import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.common.util.Utils;
+import teammates.storage.api.EntitiesDb;
+
+import com.google.apphosting.api.ApiProxy;
+
+/**
+ * Handles the export of the data of a course to the Google Cloud Storage, e.g. for backups.<br>
+ * The data is exported in parts, each a gzipped {@link DataBundle} in JSON, the format read by
+ * {@code BackDoorLogic#persistDataBundle}, so that a course can be restored from its parts alone.
+ * The first part holds the course, its instructors and their accounts, and its feedback sessions and
+ * questions. Each of the other parts holds up to {@link EntitiesDb#MAX_ENTITIES_PER_BATCH} students,
+ * feedback responses, feedback response comments or comments of the course, read with datastore cursors.
+ * When the request deadline approaches, the export is continued by a task on
+ * {@link SystemParams#COURSE_EXPORT_TASK_QUEUE} from the cursor where it stopped.
+ */
+public class CourseExportLogic {
+
+    /**
+     * The stages of a course export, in the order they are done.
+     * Each stage after {@code COURSE} exports one kind of entities of the course.
+     */
+    public enum Stage {
+        COURSE,
+        STUDENTS,
+        FEEDBACK_RESPONSES,
+        FEEDBACK_RESPONSE_COMMENTS,
+        COMMENTS,
+        COMPLETED;
+
+        /**
+         * @return the stage after this stage, or {@code COMPLETED} if this is the last stage
+         */
+        public Stage next() {
+            return this == COMPLETED ? COMPLETED : values()[ordinal() + 1];
+        }
+    }
+
+    /** The folder of the Google Cloud Storage bucket holding the exports of all courses. */
+    public static final String EXPORTS_FOLDER = "courseExports";
+
+    /** Remaining request time in milliseconds at or below which the export is continued in a new task. */
+    private static final long MIN_REMAINING_MILLIS = 60 * 1000;
+
+    private static final String MIME_TYPE = "application/gzip";
+
+    private static CourseExportLogic instance;
+    private static final Logger log = Utils.getLogger();
+
+    private long minRemainingMillis = MIN_REMAINING_MILLIS;
+
+    public static CourseExportLogic inst() {
+        if (instance == null) {
+            instance = new CourseExportLogic();
+        }
+        return instance;
+    }
+
+    /**
+     * Sets the remaining request time in milliseconds at or below which the export
+     * is continued in a new task, e.g. to test the continuation.
+     */
+    public void setMinRemainingMillis(long minRemainingMillis) {
+        this.minRemainingMillis = minRemainingMillis;
+    }
+
+    /**
+     * Schedules the export of every course whose data was modified since the given time,
+     * according to the journal of course modifications. Courses which were not modified are skipped,
+     * so that the cost of an export of all courses scales with the data modified rather than all data.
+     * The export tasks are added to the queue in batches rather than one by one.
+     * @param exportId the ID shared by the exports, e.g. the time they were started
+     * @return the number of courses whose export was scheduled
+     */
+    public int scheduleExportsOfCoursesModifiedSince(Date since, String exportId) {
+        Assumption.assertNotNull(since);
+        Assumption.assertNotNull(exportId);
+
+        List<String> courseIds = CoursesLogic.inst().getCourseIdsModifiedSince(since);
+        TaskBatch taskBatch = TaskQueuesLogic.inst().createTaskBatch(false);
+        for (String courseId : courseIds) {
+            Map<String, String> paramMap = new HashMap<String, String>();
+            paramMap.put(ParamsNames.COURSE_ID, courseId);
+            paramMap.put(ParamsNames.COURSE_EXPORT_ID, exportId);
+
+            taskBatch.addTask(SystemParams.COURSE_EXPORT_TASK_QUEUE, Const.ActionURIs.COURSE_EXPORT_WORKER, paramMap);
+        }
+        taskBatch.flush();
+        log.info("Scheduled the export " + exportId + " of " + courseIds.size() + " courses modified since " + since);
+        return courseIds.size();
+    }
+
+    /**
+     * Exports the course and all its data until it is done or the request deadline approaches.
+     * A course that does not exist, e.g. a deleted one, is exported as an empty first part.
+     * @return true if the course is exported, false if a continuation task was scheduled
+     */
+    public boolean exportCourse(String courseId, String exportId) throws IOException {
+        return continueCourseExport(courseId, exportId, Stage.COURSE, null, 0);
+    }
+
+    /**
+     * Continues the export of the course from the given stage and cursor, as scheduled
+     * by an export that could not be completed before its request deadline.
+     * @param cursor the cursor after the entities of the stage exported so far, or null to start the stage
+     * @param part the number of the next part to write
+     * @return true if the course is exported, false if a continuation task was scheduled
+     */
+    public boolean continueCourseExport(String courseId, String exportId, Stage stage, String cursor, int part)
+            throws IOException {
+        Assumption.assertNotNull(courseId);
+        Assumption.assertNotNull(exportId);
+        Assumption.assertNotNull(stage);
+
+        CourseExport export = new CourseExport(courseId, exportId, stage, cursor, part);
+        Map<String, String> questionNumbers = getQuestionNumbers(courseId);
+
+        while (export.stage != Stage.COMPLETED) {
+            DataBundle dataBundle = exportNextPart(export, questionNumbers);
+            if (dataBundle != null) {
+                writePart(export, dataBundle);
+                export.part++;
+            }
+
+            if (export.stage != Stage.COMPLETED && isNearDeadline()) {
+                return scheduleContinuation(export);
+            }
+        }
+
+        log.info("Exported course " + courseId + " in " + export.part + " parts to "
+                 + getExportFolderName(courseId, exportId));
+        return true;
+    }
+
+    /**
+     * @return the name of the file in the Google Cloud Storage bucket of the part of the export of the course
+     */
+    public static String getExportPartFileName(String courseId, String exportId, int part) {
+        return getExportFolderName(courseId, exportId) + "/" + String.format("part-%05d.json.gz", part);
+    }
+
+    private static String getExportFolderName(String courseId, String exportId) {
+        return EXPORTS_FOLDER + "/" + courseId + "/" + exportId;
+    }
+
+    /**
+     * Reads the entities of the next part of the export, and moves the export to the stage and cursor after them.
+     * @return the entities, or null if there are no entities to write in the stage
+     */
+    private DataBundle exportNextPart(CourseExport export, Map<String, String> questionNumbers) {
+        DataBundle dataBundle = new DataBundle();
+        int limit = EntitiesDb.MAX_ENTITIES_PER_BATCH;
+        EntitiesChunk<?> chunk;
+
+        switch (export.stage) {
+        case COURSE:
+            addCourse(dataBundle, export.courseId);
+            export.stage = export.stage.next();
+            // the first part is written even if the course does not exist, to record its deletion
+            return dataBundle;
+        case STUDENTS:
+            EntitiesChunk<StudentAttributes> students =
+                    StudentsLogic.inst().getStudentsForCourseInChunk(export.courseId, export.cursor, limit);
+            for (StudentAttributes student : students.entities) {
+                dataBundle.students.put(student.email, student);
+            }
+            chunk = students;
+            break;
+        case FEEDBACK_RESPONSES:
+            EntitiesChunk<FeedbackResponseAttributes> responses = FeedbackResponsesLogic.inst()
+                    .getFeedbackResponsesForCourseInChunk(export.courseId, export.cursor, limit);
+            for (FeedbackResponseAttributes response : responses.entities) {
+                String responseId = response.getId();
+                response.feedbackQuestionId = getQuestionNumber(questionNumbers, response.feedbackQuestionId);
+                dataBundle.feedbackResponses.put(responseId, response);
+            }
+            chunk = responses;
+            break;
+        case FEEDBACK_RESPONSE_COMMENTS:
+            EntitiesChunk<FeedbackResponseCommentAttributes> responseComments = FeedbackResponseCommentsLogic.inst()
+                    .getFeedbackResponseCommentsForCourseInChunk(export.courseId, export.cursor, limit);
+            for (FeedbackResponseCommentAttributes responseComment : responseComments.entities) {
+                responseComment.feedbackQuestionId =
+                        getQuestionNumber(questionNumbers, responseComment.feedbackQuestionId);
+                dataBundle.feedbackResponseComments.put(String.valueOf(responseComment.getId()), responseComment);
+            }
+            chunk = responseComments;
+            break;
+        case COMMENTS:
+            EntitiesChunk<CommentAttributes> comments =
+                    CommentsLogic.inst().getCommentsForCourseInChunk(export.courseId, export.cursor, limit);
+            for (CommentAttributes comment : comments.entities) {
+                dataBundle.comments.put(String.valueOf(comment.getCommentId()), comment);
+            }
+            chunk = comments;
+            break;
+        default:
+            return null;
+        }
+
+        export.cursor = chunk.cursor;
+        if (!chunk.hasMore()) {
+            export.stage = export.stage.next();
+        }
+        return chunk.entities.isEmpty() ? null : dataBundle;
+    }
+
+    private static void addCourse(DataBundle dataBundle, String courseId) {
+        CourseAttributes course = CoursesLogic.inst().getCourse(courseId);
+        if (course == null) {
+            return;
+        }
+        dataBundle.courses.put(course.getId(), course);
+
+        for (InstructorAttributes instructor : InstructorsLogic.inst().getInstructorsForCourse(courseId)) {
+            dataBundle.instructors.put(instructor.email, instructor);
+            if (instructor.googleId == null || instructor.googleId.isEmpty()) {
+                continue;
+            }
+            AccountAttributes account = AccountsLogic.inst().getAccount(instructor.googleId);
+            if (account != null) {
+                dataBundle.accounts.put(account.googleId, account);
+            }
+        }
+        for (FeedbackSessionAttributes session : FeedbackSessionsLogic.inst().getFeedbackSessionsForCourse(courseId)) {
+            dataBundle.feedbackSessions.put(session.getFeedbackSessionName(), session);
+        }
+        for (FeedbackQuestionAttributes question
+                : FeedbackQuestionsLogic.inst().getFeedbackQuestionsForCourse(courseId)) {
+            dataBundle.feedbackQuestions.put(question.getId(), question);
+        }
+    }
+
+    /**
+     * @return the question numbers of the questions of the course, by question ID
+     */
+    private static Map<String, String> getQuestionNumbers(String courseId) {
+        Map<String, String> questionNumbers = new HashMap<String, String>();
+        for (FeedbackQuestionAttributes question
+                : FeedbackQuestionsLogic.inst().getFeedbackQuestionsForCourse(courseId)) {
+            questionNumbers.put(question.getId(), String.valueOf(question.questionNumber));
+        }
+        return questionNumbers;
+    }
+
+    /**
+     * Responses and response comments refer to their question by its number in the data bundle,
+     * as the question gets a new ID when the data bundle is persisted.
+     * @return the question number, or the question ID if the question no longer exists
+     */
+    private static String getQuestionNumber(Map<String, String> questionNumbers, String questionId) {
+        String questionNumber = questionNumbers.get(questionId);
+        return questionNumber == null ? questionId : questionNumber;
+    }
+
+    private static void writePart(CourseExport export, DataBundle dataBundle) throws IOException {
+        String json = Utils.getTeammatesGson().toJson(dataBundle);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+        try {
+            gzip.write(json.getBytes(SystemParams.ENCODING));
+        } finally {
+            gzip.close();
+        }
+
+        GoogleCloudStorageHelper.writeDataToGcs(getExportPartFileName(export.courseId, export.exportId, export.part),
+                                                bytes.toByteArray(), MIME_TYPE);
+    }
+
+    private boolean isNearDeadline() {
+        return ApiProxy.getCurrentEnvironment().getRemainingMillis() <= minRemainingMillis;
+    }
+
+    private boolean scheduleContinuation(CourseExport export) {
+        log.info("Continuing the export of course " + export.courseId + " from stage " + export.stage
+                 + " in a new task as the request deadline is near");
+
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.COURSE_ID, export.courseId);
+        paramMap.put(ParamsNames.COURSE_EXPORT_ID, export.exportId);
+        paramMap.put(ParamsNames.COURSE_EXPORT_STAGE, export.stage.name());
+        if (export.cursor != null) {
+            paramMap.put(ParamsNames.COURSE_EXPORT_CURSOR, export.cursor);
+        }
+        paramMap.put(ParamsNames.COURSE_EXPORT_PART, String.valueOf(export.part));
+
+        TaskQueuesLogic.inst().createAndAddTask(SystemParams.COURSE_EXPORT_TASK_QUEUE,
+                                                Const.ActionURIs.COURSE_EXPORT_WORKER, paramMap);
+        return false;
+    }
+
+    /**
+     * The progress of the export of a course within a request.
+     */
+    private static class CourseExport {
+
+        final String courseId;
+        final String exportId;
+        Stage stage;
+        String cursor;
+        int part;
+
+        CourseExport(String courseId, String exportId, Stage stage, String cursor, int part) {
+            this.courseId = courseId;
+            this.exportId = exportId;
+            this.stage = stage;
+            this.cursor = cursor;
+            this.part = part;
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package teammates.logic.core;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -30,6 +31,7 @@ import teammates.common.util.FieldValidator;
 import teammates.common.util.Sanitizer;
 import teammates.common.util.StringHelper;
 import teammates.common.util.Utils;
+import teammates.storage.api.CourseModificationsDb;
 import teammates.storage.api.CoursesDb;
 
 /**
@@ -56,12 +58,12 @@ public class CoursesLogic {
      */
 
     private static final CoursesDb coursesDb = new CoursesDb();
+    private static final CourseModificationsDb courseModificationsDb = new CourseModificationsDb();
     
     private static final StudentsLogic studentsLogic = StudentsLogic.inst();
     private static final InstructorsLogic instructorsLogic = InstructorsLogic.inst();
     private static final AccountsLogic accountsLogic = AccountsLogic.inst();
     private static final FeedbackSessionsLogic feedbackSessionsLogic = FeedbackSessionsLogic.inst();
-    private static final CommentsLogic commentsLogic = CommentsLogic.inst();
 
     public static CoursesLogic inst() {
         if (instance == null) {
@@ -73,6 +75,11 @@ public class CoursesLogic {
     public void createCourse(String courseId, String courseName) throws InvalidParametersException,
                                                                         EntityAlreadyExistsException {
         
+        // the data of a course being deleted would otherwise be deleted with that of the new course
+        if (courseId != null && CourseDeletionJobsLogic.inst().getCourseDeletionJob(courseId) != null) {
+            throw new EntityAlreadyExistsException("Course " + courseId + " is still being deleted");
+        }
+        
         CourseAttributes courseToAdd = new CourseAttributes(courseId, courseName);
         coursesDb.createEntity(courseToAdd);
     }
@@ -125,6 +132,22 @@ public class CoursesLogic {
         return coursesDb.getCourse(courseId);
     }
 
+    /**
+     * @return the IDs of the courses whose data may have been modified at or after the given time,
+     *         including deleted courses
+     * @see CourseModificationsDb#getCourseIdsModifiedSince(Date)
+     */
+    public List<String> getCourseIdsModifiedSince(Date since) {
+        return courseModificationsDb.getCourseIdsModifiedSince(since);
+    }
+
+    /**
+     * @return the courses found; courses that do not exist are absent
+     */
+    public List<CourseAttributes> getCourses(List<String> courseIds) {
+        return coursesDb.getCourses(courseIds);
+    }
+
     /**
      * Checks whether course is present using courseId.
      * @param courseId
@@ -792,14 +815,12 @@ public class CoursesLogic {
 
     /**
      * Delete a course from its given corresponding ID
-     * This will also cascade the data in other databases which are related to this course
+     * This will also cascade the data in other databases which are related to this course.<br>
+     * The data is deleted in batches; if the request deadline approaches before the deletion
+     * is done, the rest of the deletion is continued in a task queue.
      */
     public void deleteCourseCascade(String courseId) {
-        studentsLogic.deleteStudentsForCourse(courseId);
-        instructorsLogic.deleteInstructorsForCourse(courseId);
-        commentsLogic.deleteCommentsForCourse(courseId);
-        feedbackSessionsLogic.deleteFeedbackSessionsForCourseCascade(courseId);
-        coursesDb.deleteCourse(courseId);
+        CourseDeletionJobsLogic.inst().startCourseDeletion(courseId);
     }
     
     private HashMap<String, CourseSummaryBundle> getCourseSummaryWithoutStatsForInstructor(
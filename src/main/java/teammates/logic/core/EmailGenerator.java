@@ -15,12 +15,13 @@ import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.UserType;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.TeammatesException;
+import teammates.common.util.CompiledTemplate;
 import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.EmailType;
 import teammates.common.util.EmailWrapper;
+import teammates.common.util.ErrorLogGroup;
 import teammates.common.util.StringHelper;
-import teammates.common.util.Templates;
 import teammates.common.util.TimeHelper;
 import teammates.common.util.Templates.EmailTemplates;
 import teammates.common.util.Utils;
@@ -40,13 +41,41 @@ public class EmailGenerator {
     private static final InstructorsLogic instructorsLogic = InstructorsLogic.inst();
     private static final StudentsLogic studentsLogic = StudentsLogic.inst();
     
+    private static final CompiledTemplate FEEDBACK_SESSION_OPENING_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.USER_FEEDBACK_SESSION.replace("${status}", "is now open"));
+    private static final CompiledTemplate FEEDBACK_SESSION_REMINDER_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.USER_FEEDBACK_SESSION.replace("${status}",
+                                                                              "is still open for submissions"));
+    private static final CompiledTemplate FEEDBACK_SESSION_CLOSING_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.USER_FEEDBACK_SESSION_CLOSING.replace("${status}", "is closing soon"));
+    private static final CompiledTemplate FEEDBACK_SESSION_PUBLISHED_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.USER_FEEDBACK_SESSION_PUBLISHED);
+    private static final CompiledTemplate PENDING_COMMENTS_CLEARED_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.USER_PENDING_COMMENTS_CLEARED.replace("${joinFragment}", ""));
+    private static final CompiledTemplate PENDING_COMMENTS_CLEARED_WITH_STUDENT_JOIN_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.USER_PENDING_COMMENTS_CLEARED.replace(
+                    "${joinFragment}", EmailTemplates.FRAGMENT_STUDENT_COURSE_JOIN));
+    private static final CompiledTemplate STUDENT_COURSE_JOIN_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.USER_COURSE_JOIN.replace(
+                    "${joinFragment}", EmailTemplates.FRAGMENT_STUDENT_COURSE_JOIN));
+    private static final CompiledTemplate STUDENT_COURSE_REJOIN_AFTER_GOOGLE_ID_RESET_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.USER_COURSE_JOIN.replace(
+                    "${joinFragment}", EmailTemplates.FRAGMENT_STUDENT_COURSE_REJOIN_AFTER_GOOGLE_ID_RESET));
+    private static final CompiledTemplate INSTRUCTOR_COURSE_JOIN_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.USER_COURSE_JOIN.replace(
+                    "${joinFragment}", EmailTemplates.FRAGMENT_INSTRUCTOR_COURSE_JOIN));
+    private static final CompiledTemplate NEW_INSTRUCTOR_ACCOUNT_WELCOME_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.NEW_INSTRUCTOR_ACCOUNT_WELCOME);
+    private static final CompiledTemplate SYSTEM_ERROR_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.SYSTEM_ERROR);
+    private static final CompiledTemplate SEVERE_ERROR_LOG_LINE_TEMPLATE =
+            new CompiledTemplate(EmailTemplates.SEVERE_ERROR_LOG_LINE);
+    
     /**
      * Generates the feedback session opening emails for the given {@code session}.
      */
     public List<EmailWrapper> generateFeedbackSessionOpeningEmails(FeedbackSessionAttributes session) {
         
-        String template = EmailTemplates.USER_FEEDBACK_SESSION;
-        
         CourseAttributes course = coursesLogic.getCourse(session.getCourseId());
         boolean isEmailNeeded = fsLogic.isFeedbackSessionForStudentsToAnswer(session);
         List<InstructorAttributes> instructors = isEmailNeeded
@@ -56,12 +85,9 @@ public class EmailGenerator {
                                            ? studentsLogic.getStudentsForCourse(session.getCourseId())
                                            : new ArrayList<StudentAttributes>();
         
-        List<EmailWrapper> emails = generateFeedbackSessionEmailBases(course, session, students, instructors, template,
-                                                                      EmailType.FEEDBACK_OPENING.getSubject());
-        for (EmailWrapper email : emails) {
-            email.setContent(email.getContent().replace("${status}", "is now open"));
-        }
-        return emails;
+        return generateFeedbackSessionEmailBases(course, session, students, instructors,
+                                                 FEEDBACK_SESSION_OPENING_TEMPLATE,
+                                                 EmailType.FEEDBACK_OPENING.getSubject());
     }
     
     /**
@@ -73,34 +99,34 @@ public class EmailGenerator {
             List<InstructorAttributes> instructorsToRemind, List<InstructorAttributes> instructorsToNotify) {
         
         CourseAttributes course = coursesLogic.getCourse(session.getCourseId());
-        String template = EmailTemplates.USER_FEEDBACK_SESSION;
+        CompiledTemplate template = FEEDBACK_SESSION_REMINDER_TEMPLATE;
         List<EmailWrapper> emails =
                 generateFeedbackSessionEmailBasesForInstructorReminders(course, session, instructorsToRemind, template,
                                                                         EmailType.FEEDBACK_SESSION_REMINDER.getSubject());
         emails.addAll(generateFeedbackSessionEmailBases(course, session, students, instructorsToNotify, template,
                                                         EmailType.FEEDBACK_SESSION_REMINDER.getSubject()));
-        
-        for (EmailWrapper email : emails) {
-            email.setContent(email.getContent().replace("${status}", "is still open for submissions"));
-        }
         return emails;
     }
     
     private List<EmailWrapper> generateFeedbackSessionEmailBasesForInstructorReminders(
             CourseAttributes course, FeedbackSessionAttributes session, List<InstructorAttributes> instructors,
-            String template, String subject) {
+            CompiledTemplate template, String subject) {
+        
+        CompiledTemplate instructorTemplate = renderFeedbackSessionFragments(course, session, template)
+                .renderPartially("${instructorFragment}", "");
+        String emailSubject = String.format(subject, course.getName(), session.getFeedbackSessionName());
         
         List<EmailWrapper> emails = new ArrayList<EmailWrapper>();
         for (InstructorAttributes instructor : instructors) {
             emails.add(generateFeedbackSessionEmailBaseForInstructorReminders(course, session, instructor,
-                                                                              template, subject));
+                                                                              instructorTemplate, emailSubject));
         }
         return emails;
     }
     
     private EmailWrapper generateFeedbackSessionEmailBaseForInstructorReminders(
             CourseAttributes course, FeedbackSessionAttributes session, InstructorAttributes instructor,
-            String template, String subject) {
+            CompiledTemplate template, String subject) {
         
         String submitUrl = Config.getAppUrl(Const.ActionURIs.INSTRUCTOR_FEEDBACK_SUBMISSION_EDIT_PAGE)
                                  .withCourseId(course.getId())
@@ -112,19 +138,13 @@ public class EmailGenerator {
                                  .withSessionName(session.getFeedbackSessionName())
                                  .toAbsoluteString();
         
-        String emailBody = Templates.populateTemplate(template,
+        String emailBody = template.render(
                 "${userName}", instructor.name,
-                "${courseName}", course.getName(),
-                "${courseId}", course.getId(),
-                "${feedbackSessionName}", session.getFeedbackSessionName(),
-                "${deadline}", TimeHelper.formatTime12H(session.getEndTime()),
-                "${instructorFragment}", "",
                 "${submitUrl}", submitUrl,
-                "${reportUrl}", reportUrl,
-                "${supportEmail}", Config.SUPPORT_EMAIL);
+                "${reportUrl}", reportUrl);
         
         EmailWrapper email = getEmptyEmailAddressedToEmail(instructor.email);
-        email.setSubject(String.format(subject, course.getName(), session.getFeedbackSessionName()));
+        email.setSubject(subject);
         email.setContent(emailBody);
         return email;
     }
@@ -156,18 +176,14 @@ public class EmailGenerator {
             }
         }
         
-        String template = EmailTemplates.USER_FEEDBACK_SESSION_CLOSING;
         CourseAttributes course = coursesLogic.getCourse(session.getCourseId());
         List<InstructorAttributes> instructors = isEmailNeeded
                                                  ? instructorsLogic.getInstructorsForCourse(session.getCourseId())
                                                  : new ArrayList<InstructorAttributes>();
         
-        List<EmailWrapper> emails = generateFeedbackSessionEmailBases(course, session, students, instructors, template,
-                                                                      EmailType.FEEDBACK_CLOSING.getSubject());
-        for (EmailWrapper email : emails) {
-            email.setContent(email.getContent().replace("${status}", "is closing soon"));
-        }
-        return emails;
+        return generateFeedbackSessionEmailBases(course, session, students, instructors,
+                                                 FEEDBACK_SESSION_CLOSING_TEMPLATE,
+                                                 EmailType.FEEDBACK_CLOSING.getSubject());
     }
     
     /**
@@ -175,8 +191,6 @@ public class EmailGenerator {
      */
     public List<EmailWrapper> generateFeedbackSessionPublishedEmails(FeedbackSessionAttributes session) {
         
-        String template = EmailTemplates.USER_FEEDBACK_SESSION_PUBLISHED;
-        
         CourseAttributes course = coursesLogic.getCourse(session.getCourseId());
         boolean isEmailNeeded = fsLogic.isFeedbackSessionViewableToStudents(session);
         List<InstructorAttributes> instructors = isEmailNeeded
@@ -186,28 +200,53 @@ public class EmailGenerator {
                                            ? studentsLogic.getStudentsForCourse(session.getCourseId())
                                            : new ArrayList<StudentAttributes>();
         
-        List<EmailWrapper> emails = generateFeedbackSessionEmailBases(course, session, students, instructors, template,
-                                                                      EmailType.FEEDBACK_PUBLISHED.getSubject());
-        return emails;
+        return generateFeedbackSessionEmailBases(course, session, students, instructors,
+                                                 FEEDBACK_SESSION_PUBLISHED_TEMPLATE,
+                                                 EmailType.FEEDBACK_PUBLISHED.getSubject());
     }
     
+    /**
+     * Generates the emails of a feedback session to {@code students} and {@code instructors}.
+     * The parts of the {@code template} that are the same for all of them are rendered only once.
+     */
     private List<EmailWrapper> generateFeedbackSessionEmailBases(
             CourseAttributes course, FeedbackSessionAttributes session, List<StudentAttributes> students,
-            List<InstructorAttributes> instructors, String template, String subject) {
+            List<InstructorAttributes> instructors, CompiledTemplate template, String subject) {
+        
+        CompiledTemplate sessionTemplate = renderFeedbackSessionFragments(course, session, template);
+        CompiledTemplate studentTemplate = sessionTemplate.renderPartially("${instructorFragment}", "");
+        CompiledTemplate instructorTemplate = sessionTemplate.renderPartially(
+                "${instructorFragment}",
+                        "The email below has been sent to students of course: " + course.getId()
+                        + ".<p/><br><br>=== Email message as seen by the students ===<br>",
+                "${submitUrl}", "{in the actual email sent to the students, this will be the unique link}",
+                "${reportUrl}", "{in the actual email sent to the students, this will be the unique link}");
+        String emailSubject = String.format(subject, course.getName(), session.getFeedbackSessionName());
         
         List<EmailWrapper> emails = new ArrayList<EmailWrapper>();
         for (StudentAttributes student : students) {
-            emails.add(generateFeedbackSessionEmailBaseForStudents(course, session, student, template, subject));
+            emails.add(generateFeedbackSessionEmailBaseForStudents(course, session, student, studentTemplate,
+                                                                   emailSubject));
         }
         for (InstructorAttributes instructor : instructors) {
-            emails.add(generateFeedbackSessionEmailBaseForInstructors(course, session, instructor, template, subject));
+            emails.add(generateFeedbackSessionEmailBaseForInstructors(instructor, instructorTemplate, emailSubject));
         }
         return emails;
     }
     
+    private CompiledTemplate renderFeedbackSessionFragments(CourseAttributes course, FeedbackSessionAttributes session,
+                                                            CompiledTemplate template) {
+        return template.renderPartially(
+                "${courseName}", course.getName(),
+                "${courseId}", course.getId(),
+                "${feedbackSessionName}", session.getFeedbackSessionName(),
+                "${deadline}", TimeHelper.formatTime12H(session.getEndTime()),
+                "${supportEmail}", Config.SUPPORT_EMAIL);
+    }
+    
     private EmailWrapper generateFeedbackSessionEmailBaseForStudents(
-            CourseAttributes course, FeedbackSessionAttributes session, StudentAttributes student, String template,
-            String subject) {
+            CourseAttributes course, FeedbackSessionAttributes session, StudentAttributes student,
+            CompiledTemplate template, String subject) {
         
         String submitUrl = Config.getAppUrl(Const.ActionURIs.STUDENT_FEEDBACK_SUBMISSION_EDIT_PAGE)
                                  .withCourseId(course.getId())
@@ -223,42 +262,24 @@ public class EmailGenerator {
                                  .withStudentEmail(student.email)
                                  .toAbsoluteString();
         
-        String emailBody = Templates.populateTemplate(template,
+        String emailBody = template.render(
                 "${userName}", student.name,
-                "${courseName}", course.getName(),
-                "${courseId}", course.getId(),
-                "${feedbackSessionName}", session.getFeedbackSessionName(),
-                "${deadline}", TimeHelper.formatTime12H(session.getEndTime()),
-                "${instructorFragment}", "",
                 "${submitUrl}", submitUrl,
-                "${reportUrl}", reportUrl,
-                "${supportEmail}", Config.SUPPORT_EMAIL);
+                "${reportUrl}", reportUrl);
         
         EmailWrapper email = getEmptyEmailAddressedToEmail(student.email);
-        email.setSubject(String.format(subject, course.getName(), session.getFeedbackSessionName()));
+        email.setSubject(subject);
         email.setContent(emailBody);
         return email;
     }
     
     private EmailWrapper generateFeedbackSessionEmailBaseForInstructors(
-            CourseAttributes course, FeedbackSessionAttributes session, InstructorAttributes instructor,
-            String template, String subject) {
+            InstructorAttributes instructor, CompiledTemplate template, String subject) {
         
-        String emailBody = Templates.populateTemplate(template,
-                "${userName}", instructor.name,
-                "${courseName}", course.getName(),
-                "${courseId}", course.getId(),
-                "${feedbackSessionName}", session.getFeedbackSessionName(),
-                "${deadline}", TimeHelper.formatTime12H(session.getEndTime()),
-                "${instructorFragment}",
-                        "The email below has been sent to students of course: " + course.getId()
-                        + ".<p/><br><br>=== Email message as seen by the students ===<br>",
-                "${submitUrl}", "{in the actual email sent to the students, this will be the unique link}",
-                "${reportUrl}", "{in the actual email sent to the students, this will be the unique link}",
-                "${supportEmail}", Config.SUPPORT_EMAIL);
+        String emailBody = template.render("${userName}", instructor.name);
         
         EmailWrapper email = getEmptyEmailAddressedToEmail(instructor.email);
-        email.setSubject(String.format(subject, course.getName(), session.getFeedbackSessionName()));
+        email.setSubject(subject);
         email.setContent(emailBody);
         return email;
     }
@@ -278,38 +299,42 @@ public class EmailGenerator {
         
         List<EmailWrapper> emails = new ArrayList<EmailWrapper>();
         CourseAttributes course = coursesLogic.getCourse(courseId);
-        String template = EmailTemplates.USER_PENDING_COMMENTS_CLEARED;
+        String commentsPageUrl = Config.getAppUrl(Const.ActionURIs.STUDENT_COMMENTS_PAGE)
+                                       .withCourseId(course.getId())
+                                       .toAbsoluteString();
+        String[] courseValues = {
+                "${courseName}", course.getName(),
+                "${courseId}", course.getId(),
+                "${commentsPageUrl}", commentsPageUrl,
+                "${supportEmail}", Config.SUPPORT_EMAIL
+        };
+        CompiledTemplate template = PENDING_COMMENTS_CLEARED_TEMPLATE.renderPartially(courseValues);
+        CompiledTemplate templateWithJoinFragment =
+                PENDING_COMMENTS_CLEARED_WITH_STUDENT_JOIN_TEMPLATE.renderPartially(courseValues);
+        String subject = String.format(EmailType.PENDING_COMMENT_CLEARED.getSubject(),
+                                       course.getName(), course.getId());
         
         for (String recipientEmail : recipients) {
             StudentAttributes student = studentsLogic.getStudentForEmail(courseId, recipientEmail);
             if (student == null) {
                 continue;
             }
-            EmailWrapper email = generatePendingCommentsClearedEmailBaseForStudent(course, student, template);
+            EmailWrapper email = generatePendingCommentsClearedEmailBaseForStudent(
+                    student, isYetToJoinCourse(student) ? templateWithJoinFragment : template, subject);
             emails.add(email);
         }
         return emails;
     }
     
     private EmailWrapper generatePendingCommentsClearedEmailBaseForStudent(
-            CourseAttributes course, StudentAttributes student, String template) {
-        
-        String commentsPageUrl = Config.getAppUrl(Const.ActionURIs.STUDENT_COMMENTS_PAGE)
-                                       .withCourseId(course.getId())
-                                       .toAbsoluteString();
+            StudentAttributes student, CompiledTemplate template, String subject) {
         
-        String emailBody = Templates.populateTemplate(
-                isYetToJoinCourse(student) ? fillUpStudentJoinFragment(student, template)
-                                           : template.replace("${joinFragment}", ""),
+        String emailBody = template.render(
                 "${userName}", student.name,
-                "${courseName}", course.getName(),
-                "${courseId}", course.getId(),
-                "${commentsPageUrl}", commentsPageUrl,
-                "${supportEmail}", Config.SUPPORT_EMAIL);
+                "${joinUrl}", getStudentJoinUrl(student));
         
         EmailWrapper email = getEmptyEmailAddressedToEmail(student.email);
-        email.setSubject(String.format(EmailType.PENDING_COMMENT_CLEARED.getSubject(),
-                                       course.getName(), course.getId()));
+        email.setSubject(subject);
         email.setContent(emailBody);
         return email;
     }
@@ -326,7 +351,7 @@ public class EmailGenerator {
         
         String joinUrl = generateNewInstructorAccountJoinLink(instructor, institute);
         
-        String emailBody = Templates.populateTemplate(EmailTemplates.NEW_INSTRUCTOR_ACCOUNT_WELCOME,
+        String emailBody = NEW_INSTRUCTOR_ACCOUNT_WELCOME_TEMPLATE.render(
                 "${userName}", shortName,
                 "${joinUrl}", joinUrl);
         
@@ -352,8 +377,8 @@ public class EmailGenerator {
      */
     public EmailWrapper generateStudentCourseJoinEmail(CourseAttributes course, StudentAttributes student) {
         
-        String emailBody = Templates.populateTemplate(
-                fillUpStudentJoinFragment(student, EmailTemplates.USER_COURSE_JOIN),
+        String emailBody = STUDENT_COURSE_JOIN_TEMPLATE.render(
+                "${joinUrl}", getStudentJoinUrl(student),
                 "${userName}", student.name,
                 "${courseName}", course.getName(),
                 "${supportEmail}", Config.SUPPORT_EMAIL);
@@ -371,8 +396,8 @@ public class EmailGenerator {
     public EmailWrapper generateStudentCourseRejoinEmailAfterGoogleIdReset(
             CourseAttributes course, StudentAttributes student) {
         
-        String emailBody = Templates.populateTemplate(
-                fillUpStudentRejoinAfterGoogleIdResetFragment(student, EmailTemplates.USER_COURSE_JOIN),
+        String emailBody = STUDENT_COURSE_REJOIN_AFTER_GOOGLE_ID_RESET_TEMPLATE.render(
+                "${joinUrl}", getStudentJoinUrl(student),
                 "${userName}", student.name,
                 "${courseName}", course.getName(),
                 "${supportEmail}", Config.SUPPORT_EMAIL);
@@ -389,8 +414,8 @@ public class EmailGenerator {
      */
     public EmailWrapper generateInstructorCourseJoinEmail(CourseAttributes course, InstructorAttributes instructor) {
         
-        String emailBody = Templates.populateTemplate(
-                fillUpInstructorJoinFragment(instructor, EmailTemplates.USER_COURSE_JOIN),
+        String emailBody = INSTRUCTOR_COURSE_JOIN_TEMPLATE.render(
+                "${joinUrl}", getInstructorJoinUrl(instructor),
                 "${userName}", instructor.name,
                 "${courseName}", course.getName(),
                 "${supportEmail}", Config.SUPPORT_EMAIL);
@@ -402,31 +427,14 @@ public class EmailGenerator {
         return email;
     }
     
-    private String fillUpStudentJoinFragment(StudentAttributes student, String emailBody) {
-        String joinUrl = Config.getAppUrl(student.getRegistrationUrl()).toAbsoluteString();
-        
-        return Templates.populateTemplate(emailBody,
-                "${joinFragment}", EmailTemplates.FRAGMENT_STUDENT_COURSE_JOIN,
-                "${joinUrl}", joinUrl);
+    private String getStudentJoinUrl(StudentAttributes student) {
+        return Config.getAppUrl(student.getRegistrationUrl()).toAbsoluteString();
     }
     
-    private String fillUpStudentRejoinAfterGoogleIdResetFragment(StudentAttributes student, String emailBody) {
-        String joinUrl = Config.getAppUrl(student.getRegistrationUrl()).toAbsoluteString();
-        
-        return Templates.populateTemplate(emailBody,
-                "${joinFragment}", EmailTemplates.FRAGMENT_STUDENT_COURSE_REJOIN_AFTER_GOOGLE_ID_RESET,
-                "${joinUrl}", joinUrl,
-                "${supportEmail}", Config.SUPPORT_EMAIL);
-    }
-    
-    private String fillUpInstructorJoinFragment(InstructorAttributes instructor, String emailBody) {
-        String joinUrl = Config.getAppUrl(Const.ActionURIs.INSTRUCTOR_COURSE_JOIN)
-                               .withRegistrationKey(StringHelper.encrypt(instructor.key))
-                               .toAbsoluteString();
-        
-        return Templates.populateTemplate(emailBody,
-                "${joinFragment}", EmailTemplates.FRAGMENT_INSTRUCTOR_COURSE_JOIN,
-                "${joinUrl}", joinUrl);
+    private String getInstructorJoinUrl(InstructorAttributes instructor) {
+        return Config.getAppUrl(Const.ActionURIs.INSTRUCTOR_COURSE_JOIN)
+                     .withRegistrationKey(StringHelper.encrypt(instructor.key))
+                     .toAbsoluteString();
     }
     
     /**
@@ -452,7 +460,7 @@ public class EmailGenerator {
         
         String actualUser = userType == null || userType.id == null ? "Not logged in" : userType.id;
         
-        String emailBody = Templates.populateTemplate(EmailTemplates.SYSTEM_ERROR,
+        String emailBody = SYSTEM_ERROR_TEMPLATE.render(
                 "${actualUser}", actualUser,
                 "${requestMethod}", requestMethod,
                 "${requestUserAgent}", requestUserAgent,
@@ -469,12 +477,14 @@ public class EmailGenerator {
     }
     
     /**
-     * Generates the logs compilation email for the given {@code logs}.
+     * Generates the logs compilation email for the given {@code logs},
+     * in which the logs most likely of the same error are shown once with their number of occurrences.
      */
     public EmailWrapper generateCompiledLogsEmail(List<AppLogLine> logs) {
+        List<ErrorLogGroup> groups = ErrorLogGroup.groupBySignature(logs);
         StringBuilder emailBody = new StringBuilder();
-        for (int i = 0; i < logs.size(); i++) {
-            emailBody.append(generateSevereErrorLogLine(i, logs.get(i)));
+        for (int i = 0; i < groups.size(); i++) {
+            emailBody.append(generateSevereErrorLogLine(i, groups.get(i)));
         }
         
         EmailWrapper email = getEmptyEmailAddressedToEmail(Config.SUPPORT_EMAIL);
@@ -483,11 +493,12 @@ public class EmailGenerator {
         return email;
     }
     
-    private String generateSevereErrorLogLine(int index, AppLogLine logLine) {
-        return Templates.populateTemplate(
-                EmailTemplates.SEVERE_ERROR_LOG_LINE,
+    private String generateSevereErrorLogLine(int index, ErrorLogGroup group) {
+        AppLogLine logLine = group.getFirstLogLine();
+        return SEVERE_ERROR_LOG_LINE_TEMPLATE.render(
                 "${index}", String.valueOf(index),
                 "${errorType}", logLine.getLogLevel().toString(),
+                "${occurrences}", String.valueOf(group.getOccurrences()),
                 "${errorMessage}", logLine.getLogMessage().replace("\n", "<br>"));
     }
     
@@ -1,10 +1,12 @@
 package teammates.logic.core;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
+import teammates.common.exception.EmailRateLimitedException;
 import teammates.common.exception.EmailSendingException;
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Config;
@@ -12,9 +14,12 @@ import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.SystemParams;
 import teammates.common.util.EmailLogEntry;
+import teammates.common.util.EmailPriority;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.Utils;
 
+import com.google.appengine.api.taskqueue.QueueConstants;
+
 /**
  * Handles operations related to sending emails.
  */
@@ -22,10 +27,22 @@ public class EmailSender {
     
     private static final Logger log = Utils.getLogger();
     
+    /**
+     * Maximum total size of the messages packed into one task. The messages are URL-encoded
+     * when added to the task, which may make them a few times larger.
+     */
+    private static final int MAX_SEND_EMAIL_TASK_PAYLOAD_SIZE = QueueConstants.maxPushTaskSizeBytes() / 4;
+    
+    /** Delay before the emails of a task which fail to send after some of them are sent are sent again */
+    private static final long SEND_RETRY_DELAY_MILLIS = 60 * 1000;
+    
     private final EmailSenderService service;
+    private final EmailSendingMetrics metrics = new EmailSendingMetrics();
     
     public EmailSender() {
-        if (Config.isUsingSendgrid()) {
+        if (Config.isUsingFakeEmailService()) {
+            service = new FakeEmailService();
+        } else if (Config.isUsingSendgrid()) {
             service = new SendgridService();
         } else if (Config.isUsingMailgun()) {
             service = new MailgunService();
@@ -37,53 +54,199 @@ public class EmailSender {
     }
     
     /**
-     * Sends the given list of {@code messages}.
+     * Creates a sender which sends emails through the given {@code service} regardless of configuration.
+     */
+    public EmailSender(EmailSenderService service) {
+        this.service = service;
+    }
+    
+    /**
+     * Sends the given list of {@code messages} as {@link EmailPriority#BULK} emails.
+     * @see #sendEmails(List, EmailPriority)
      */
     public void sendEmails(List<EmailWrapper> messages) {
+        sendEmails(messages, EmailPriority.BULK);
+    }
+    
+    /**
+     * Sends the given list of {@code messages} through the task queue of the given {@code priority}.<br>
+     * The messages are packed into tasks of up to {@link SystemParams#MAX_EMAILS_PER_SEND_EMAIL_TASK}
+     * messages each, and each task sends its messages with as few calls to the email service as possible,
+     * as fast as the {@link EmailTokenBucket} of the email service allows.
+     */
+    public void sendEmails(List<EmailWrapper> messages, EmailPriority priority) {
         if (messages.isEmpty()) {
             return;
         }
         
-        // Equally spread out the emails to be sent over 1 hour
-        // Sets interval to a maximum of 5 seconds if the interval is too large
-        int oneHourInMillis = 60 * 60 * 1000;
-        int emailIntervalMillis = Math.min(5000, oneHourInMillis / messages.size());
+        TaskBatch taskBatch = TaskQueuesLogic.inst().createTaskBatch(true);
+        addEmailTasksToTaskBatch(taskBatch, messages, priority, System.currentTimeMillis(), 0);
         
-        int numberOfEmailsSent = 0;
-        for (EmailWrapper m : messages) {
-            long emailDelayTimer = numberOfEmailsSent * emailIntervalMillis;
-            addEmailToTaskQueue(m, emailDelayTimer);
-            numberOfEmailsSent++;
+        try {
+            taskBatch.flush();
+            metrics.recordQueued(priority, messages.size());
+        } catch (Exception e) {
+            log.severe("Error when adding " + messages.size() + " emails to task queue: "
+                       + TeammatesException.toStringWithStackTrace(e));
         }
     }
     
-    private void addEmailToTaskQueue(EmailWrapper message, long emailDelayTimer) {
-        String emailSubject = message.getSubject();
-        String emailSenderName = message.getSenderName();
-        String emailSender = message.getSenderEmail();
-        String emailReceiver = message.getRecipient();
-        String emailReplyToAddress = message.getReplyTo();
-        try {
-            Map<String, String> paramMap = new HashMap<String, String>();
-            paramMap.put(ParamsNames.EMAIL_SUBJECT, emailSubject);
-            paramMap.put(ParamsNames.EMAIL_CONTENT, message.getContent());
-            paramMap.put(ParamsNames.EMAIL_SENDER, emailSender);
-            if (emailSenderName != null && !emailSenderName.isEmpty()) {
-                paramMap.put(ParamsNames.EMAIL_SENDERNAME, emailSenderName);
+    /**
+     * Sends the given {@code messages} taken from the task queue of the given {@code priority}
+     * if the {@link EmailTokenBucket} of the email service has enough tokens for them.<br>
+     * Otherwise, or if the email service rejects some of the messages as sent too fast,
+     * the messages not sent are put back in the queue to be sent when there will be enough tokens.<br>
+     * As retrying the task would send the messages already sent again, once some of the messages are sent,
+     * the messages not sent because of an error are put back in the queue after {@link #SEND_RETRY_DELAY_MILLIS},
+     * and an error in putting them back is only logged. An error before any message is sent is thrown,
+     * so that the task is retried.
+     * @param enqueuedTimeMillis the time the messages were first queued, to measure the send latency
+     */
+    public void sendQueuedEmails(List<EmailWrapper> messages, EmailPriority priority, long enqueuedTimeMillis)
+            throws EmailSendingException {
+        EmailTokenBucket tokenBucket = new EmailTokenBucket(service);
+        int maxEmailsPerBatch = getMaxEmailsPerTask(tokenBucket, priority);
+        
+        // messages from outside a send email task, e.g. those of an admin email, may be more than the bucket holds
+        for (int start = 0; start < messages.size(); start += maxEmailsPerBatch) {
+            int end = Math.min(start + maxEmailsPerBatch, messages.size());
+            List<EmailWrapper> batch = messages.subList(start, end);
+            
+            long waitMillis = tokenBucket.acquire(batch.size(), priority);
+            if (waitMillis > 0) {
+                List<EmailWrapper> unsentEmails = messages.subList(start, messages.size());
+                requeueUnsentEmails(unsentEmails, start, priority, enqueuedTimeMillis, waitMillis);
+                metrics.recordDeferred(priority, unsentEmails.size());
+                return;
             }
-            paramMap.put(ParamsNames.EMAIL_RECEIVER, emailReceiver);
-            paramMap.put(ParamsNames.EMAIL_REPLY_TO_ADDRESS, emailReplyToAddress);
             
-            TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
-            taskQueueLogic.createAndAddDeferredTask(SystemParams.SEND_EMAIL_TASK_QUEUE,
-                    Const.ActionURIs.SEND_EMAIL_WORKER, paramMap, emailDelayTimer);
-        } catch (Exception e) {
-            log.severe("Error when adding email to task queue: " + e.getMessage() + "\n"
-                       + "Email sender: " + emailSender + "\n"
-                       + "Email sender name: " + emailSenderName + "\n"
-                       + "Email receiver: " + emailReceiver + "\n"
-                       + "Email subject: " + emailSubject + "\n"
-                       + "Email reply to address: " + emailReplyToAddress);
+            try {
+                sendEmailBatch(batch);
+            } catch (EmailRateLimitedException e) {
+                long backoffMillis = tokenBucket.throttle();
+                List<EmailWrapper> unsentEmails = new ArrayList<EmailWrapper>(e.unsentEmails);
+                unsentEmails.addAll(messages.subList(end, messages.size()));
+                int numberOfEmailsSent = batch.size() - e.unsentEmails.size();
+                requeueUnsentEmails(unsentEmails, start + numberOfEmailsSent, priority, enqueuedTimeMillis,
+                                    backoffMillis);
+                metrics.recordThrottled(priority, unsentEmails.size());
+                
+                if (numberOfEmailsSent > 0) {
+                    metrics.recordSent(priority, numberOfEmailsSent, System.currentTimeMillis() - enqueuedTimeMillis);
+                }
+                return;
+            } catch (EmailSendingException | RuntimeException e) {
+                if (start == 0) {
+                    throw e;
+                }
+                log.warning("Error when sending " + batch.size() + " " + priority + " emails after " + start
+                            + " emails were sent: " + TeammatesException.toStringWithStackTrace(e));
+                requeueUnsentEmails(messages.subList(start, messages.size()), start, priority, enqueuedTimeMillis,
+                                    SEND_RETRY_DELAY_MILLIS);
+                return;
+            }
+            
+            tokenBucket.resetThrottling();
+            metrics.recordSent(priority, batch.size(), System.currentTimeMillis() - enqueuedTimeMillis);
+        }
+    }
+    
+    /**
+     * Puts the {@code unsentEmails} back in the queue. If {@code numberOfEmailsSent} emails of the task
+     * are sent already, an error in doing so is logged with the emails lost instead of being thrown.
+     */
+    private void requeueUnsentEmails(List<EmailWrapper> unsentEmails, int numberOfEmailsSent, EmailPriority priority,
+                                     long enqueuedTimeMillis, long delayMillis) {
+        try {
+            requeueEmails(unsentEmails, priority, enqueuedTimeMillis, delayMillis);
+        } catch (RuntimeException e) {
+            if (numberOfEmailsSent == 0) {
+                throw e;
+            }
+            StringBuilder lostEmails = new StringBuilder();
+            for (EmailWrapper message : unsentEmails) {
+                lostEmails.append('\n').append(message.getInfoForLogging());
+            }
+            log.severe("Error when putting back " + unsentEmails.size() + " " + priority + " emails in the queue after "
+                       + numberOfEmailsSent + " emails were sent, the emails are not sent:" + lostEmails
+                       + "\nCause: " + TeammatesException.toStringWithStackTrace(e));
+        }
+    }
+    
+    /**
+     * Gets the metrics of the emails sent through the task queues.
+     * @see EmailSendingMetrics#getMetrics()
+     */
+    public Map<String, Map<String, Long>> getSendingMetrics() {
+        return metrics.getMetrics();
+    }
+    
+    private void requeueEmails(List<EmailWrapper> messages, EmailPriority priority,
+                               long enqueuedTimeMillis, long delayMillis) {
+        log.info("Putting back " + messages.size() + " " + priority + " emails in the queue for "
+                 + delayMillis + " ms to keep within the rate limit of " + service.getClass().getSimpleName());
+        
+        TaskBatch taskBatch = TaskQueuesLogic.inst().createTaskBatch(false);
+        addEmailTasksToTaskBatch(taskBatch, messages, priority, enqueuedTimeMillis, delayMillis);
+        taskBatch.flush();
+    }
+    
+    /**
+     * Packs the {@code messages} into tasks of up to {@link SystemParams#MAX_EMAILS_PER_SEND_EMAIL_TASK}
+     * messages, no more than the {@link EmailTokenBucket} of the email service grants at once,
+     * and of at most {@link #MAX_SEND_EMAIL_TASK_PAYLOAD_SIZE} characters of messages.
+     */
+    private void addEmailTasksToTaskBatch(TaskBatch taskBatch, List<EmailWrapper> messages, EmailPriority priority,
+                                          long enqueuedTimeMillis, long delayMillis) {
+        int maxEmailsPerTask = getMaxEmailsPerTask(new EmailTokenBucket(service), priority);
+        List<EmailWrapper> messagesInTask = new ArrayList<EmailWrapper>();
+        int taskPayloadSize = 0;
+        for (EmailWrapper m : messages) {
+            int messageSize = getPayloadSize(m);
+            if (!messagesInTask.isEmpty()
+                    && (messagesInTask.size() >= maxEmailsPerTask
+                        || taskPayloadSize + messageSize > MAX_SEND_EMAIL_TASK_PAYLOAD_SIZE)) {
+                addEmailTaskToTaskBatch(taskBatch, messagesInTask, priority, enqueuedTimeMillis, delayMillis);
+                messagesInTask = new ArrayList<EmailWrapper>();
+                taskPayloadSize = 0;
+            }
+            messagesInTask.add(m);
+            taskPayloadSize += messageSize;
+        }
+        if (!messagesInTask.isEmpty()) {
+            addEmailTaskToTaskBatch(taskBatch, messagesInTask, priority, enqueuedTimeMillis, delayMillis);
+        }
+    }
+    
+    private void addEmailTaskToTaskBatch(TaskBatch taskBatch, List<EmailWrapper> messages, EmailPriority priority,
+                                         long enqueuedTimeMillis, long delayMillis) {
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.EMAIL_BATCH, Utils.getTeammatesGson().toJson(messages));
+        paramMap.put(ParamsNames.EMAIL_PRIORITY, priority.name());
+        paramMap.put(ParamsNames.EMAIL_ENQUEUED_TIME, String.valueOf(enqueuedTimeMillis));
+        
+        taskBatch.addDeferredTask(priority.getQueueName(), Const.ActionURIs.SEND_EMAIL_WORKER,
+                                  paramMap, delayMillis);
+    }
+    
+    private static int getMaxEmailsPerTask(EmailTokenBucket tokenBucket, EmailPriority priority) {
+        return Math.min(SystemParams.MAX_EMAILS_PER_SEND_EMAIL_TASK, tokenBucket.getMaxEmailsPerAcquire(priority));
+    }
+    
+    private static int getPayloadSize(EmailWrapper message) {
+        return Utils.getTeammatesGson().toJson(message).length();
+    }
+    
+    /**
+     * Sends the given {@code messages} immediately, with as few calls to the email service as possible,
+     * and generates a log report for each message.
+     */
+    public void sendEmailBatch(List<EmailWrapper> messages) throws EmailSendingException {
+        service.sendEmails(messages);
+        
+        for (EmailWrapper message : messages) {
+            EmailLogEntry newEntry = new EmailLogEntry(message);
+            log.info(newEntry.generateLogMessage());
         }
     }
     
@@ -139,15 +302,22 @@ public class EmailSender {
     }
     
     /**
-     * Sends the given {@code logReport}.
+     * Sends the given {@code logReport}, and a copy of it with Javamail.
+     * @return true if the log report is sent, even if its copy fails to send
      */
-    public void sendLogReport(EmailWrapper logReport) {
+    public boolean sendLogReport(EmailWrapper logReport) {
         try {
             sendEmail(logReport);
-            sendEmailCopyWithJavamail(logReport);
         } catch (Exception e) {
             logSevereForErrorInSendingItem("log report", logReport, e);
+            return false;
+        }
+        try {
+            sendEmailCopyWithJavamail(logReport);
+        } catch (Exception e) {
+            logSevereForErrorInSendingItem("copy of log report", logReport, e);
         }
+        return true;
     }
     
     private void logSevereForErrorInSendingItem(String itemType, EmailWrapper message, Exception e) {
@@ -1,7 +1,14 @@
 package teammates.logic.core;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
+import teammates.common.exception.EmailRateLimitedException;
 import teammates.common.exception.EmailSendingException;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.Utils;
@@ -13,6 +20,12 @@ public abstract class EmailSenderService {
     
     protected static final int SUCCESS_CODE = 200;
     
+    /** The status code with which the services reject emails sent faster than they accept */
+    protected static final int TOO_MANY_REQUESTS_CODE = 429;
+    
+    /** Maximum number of recipients the services accept in one batch sending call */
+    protected static final int MAX_RECIPIENTS_PER_CALL = 1000;
+    
     protected static final Logger log = Utils.getLogger();
     
     /**
@@ -30,12 +43,109 @@ public abstract class EmailSenderService {
         try {
             sendEmailWithService(wrapper);
         } catch (Exception e) {
-            throw new EmailSendingException(e);
+            throw toEmailSendingException(e);
+        }
+    }
+    
+    /**
+     * Sends the emails packaged as {@code wrappers}, using as few calls to the service as it allows.
+     * @throws EmailRateLimitedException if the service rejects some of the emails because they are
+     *         sent faster than it accepts; the exception carries the emails not sent
+     */
+    public void sendEmails(List<EmailWrapper> wrappers) throws EmailSendingException {
+        if (wrappers.isEmpty()) {
+            return;
+        }
+        try {
+            sendEmailsWithService(wrappers);
+        } catch (Exception e) {
+            throw toEmailSendingException(e);
         }
     }
     
+    /**
+     * Gets the number of emails per second the service accepts in the long run.
+     */
+    public abstract double getMaxEmailsPerSecond();
+    
+    /**
+     * Gets the number of emails the service accepts in a short burst.
+     */
+    public abstract int getMaxEmailsPerBurst();
+    
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
     // accounts for the many different Exceptions from different email services
     protected abstract void sendEmailWithService(EmailWrapper wrapper) throws Exception;
     
+    /**
+     * Sends the emails one at a time.
+     * Services which can send multiple emails in one call override this.
+     */
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    // accounts for the many different Exceptions from different email services
+    protected void sendEmailsWithService(List<EmailWrapper> wrappers) throws Exception {
+        for (EmailWrapper wrapper : wrappers) {
+            sendEmailWithService(wrapper);
+        }
+    }
+    
+    private static EmailSendingException toEmailSendingException(Exception e) {
+        if (e instanceof EmailSendingException) {
+            // e.g. an EmailRateLimitedException, which carries the emails to send again
+            return (EmailSendingException) e;
+        }
+        return new EmailSendingException(e);
+    }
+    
+    /**
+     * Creates the exception thrown when the service rejects the batch at {@code indexOfRejectedBatch}
+     * of the {@code batches} sent in order because they are sent faster than it accepts.
+     */
+    protected static EmailRateLimitedException getRateLimitedException(List<List<EmailWrapper>> batches,
+                                                                       int indexOfRejectedBatch) {
+        List<EmailWrapper> unsentEmails = new ArrayList<EmailWrapper>();
+        for (List<EmailWrapper> batch : batches.subList(indexOfRejectedBatch, batches.size())) {
+            unsentEmails.addAll(batch);
+        }
+        return new EmailRateLimitedException("Email service rejected " + unsentEmails.size()
+                                             + " emails as too many were sent", unsentEmails);
+    }
+    
+    /**
+     * Groups the emails which can be sent in one batch sending call, i.e. emails with the same sender
+     * and reply-to address and without BCC, which the services send as one personalized email per recipient.
+     * A group has at most {@link #MAX_RECIPIENTS_PER_CALL} emails, with distinct recipients.
+     * Emails with BCC are put in groups of their own.
+     */
+    protected static List<List<EmailWrapper>> groupForBatchSending(List<EmailWrapper> wrappers) {
+        List<List<EmailWrapper>> groups = new ArrayList<List<EmailWrapper>>();
+        Map<String, List<EmailWrapper>> openGroups = new LinkedHashMap<String, List<EmailWrapper>>();
+        Map<String, Set<String>> openGroupRecipients = new LinkedHashMap<String, Set<String>>();
+        
+        for (EmailWrapper wrapper : wrappers) {
+            if (wrapper.getBcc() != null && !wrapper.getBcc().isEmpty()) {
+                List<EmailWrapper> group = new ArrayList<EmailWrapper>();
+                group.add(wrapper);
+                groups.add(group);
+                continue;
+            }
+            
+            String groupKey = wrapper.getSenderEmail() + "|" + wrapper.getSenderName() + "|" + wrapper.getReplyTo();
+            List<EmailWrapper> group = openGroups.get(groupKey);
+            Set<String> recipients = openGroupRecipients.get(groupKey);
+            if (group == null || group.size() >= MAX_RECIPIENTS_PER_CALL
+                    || recipients.contains(wrapper.getRecipient())) {
+                group = new ArrayList<EmailWrapper>();
+                recipients = new HashSet<String>();
+                groups.add(group);
+                openGroups.put(groupKey, group);
+                openGroupRecipients.put(groupKey, recipients);
+            }
+            group.add(wrapper);
+            recipients.add(wrapper.getRecipient());
+        }
+        
+        return groups;
+    }
+    
 }
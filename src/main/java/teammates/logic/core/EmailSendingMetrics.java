@@ -0,0 +1,133 @@
+package teammates.logic.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import teammates.common.util.EmailPriority;
+import teammates.common.util.Utils;
+
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheServiceException;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import com.google.appengine.api.taskqueue.QueueFactory;
+
+/**
+ * Counts the queued emails per {@link EmailPriority} and how long they wait before they are sent,
+ * shared by all instances of the app through memcache.<br>
+ * The counters are best-effort: they are lost when memcache evicts them.
+ */
+public class EmailSendingMetrics {
+    
+    /** Upper bounds in milliseconds of the buckets of the send latency histogram; the last bucket is unbounded */
+    private static final long[] LATENCY_BUCKET_BOUNDS_MILLIS = {
+            10 * 1000, 60 * 1000, 10 * 60 * 1000, 60 * 60 * 1000
+    };
+    
+    private static final String[] LATENCY_BUCKET_NAMES = {
+            "latencyUnder10s", "latencyUnder1m", "latencyUnder10m", "latencyUnder1h", "latencyOver1h"
+    };
+    
+    private static final String QUEUED = "queued";
+    private static final String SENT = "sent";
+    private static final String DEFERRED = "deferred";
+    private static final String THROTTLED = "throttled";
+    private static final String TOTAL_LATENCY_MILLIS = "totalLatencyMillis";
+    
+    private static final Logger log = Utils.getLogger();
+    
+    private final MemcacheService memcache = MemcacheServiceFactory.getMemcacheService();
+    
+    /**
+     * Records that {@code numberOfEmails} emails are queued.
+     */
+    public void recordQueued(EmailPriority priority, int numberOfEmails) {
+        increment(priority, QUEUED, numberOfEmails);
+    }
+    
+    /**
+     * Records that {@code numberOfEmails} emails are sent {@code latencyMillis} after they were queued.
+     */
+    public void recordSent(EmailPriority priority, int numberOfEmails, long latencyMillis) {
+        increment(priority, SENT, numberOfEmails);
+        increment(priority, TOTAL_LATENCY_MILLIS, latencyMillis * numberOfEmails);
+        increment(priority, LATENCY_BUCKET_NAMES[getLatencyBucket(latencyMillis)], numberOfEmails);
+    }
+    
+    /**
+     * Records that {@code numberOfEmails} emails are put back in the queue because the token bucket is empty.
+     */
+    public void recordDeferred(EmailPriority priority, int numberOfEmails) {
+        increment(priority, DEFERRED, numberOfEmails);
+    }
+    
+    /**
+     * Records that {@code numberOfEmails} emails are rejected by the email service as sent too fast.
+     */
+    public void recordThrottled(EmailPriority priority, int numberOfEmails) {
+        increment(priority, THROTTLED, numberOfEmails);
+    }
+    
+    /**
+     * Gets the metrics of each priority: the counters, the average send latency in milliseconds
+     * and the number of tasks in its queue (-1 if it cannot be fetched).
+     */
+    public Map<String, Map<String, Long>> getMetrics() {
+        Map<String, Map<String, Long>> metrics = new LinkedHashMap<String, Map<String, Long>>();
+        for (EmailPriority priority : EmailPriority.values()) {
+            Map<String, Long> priorityMetrics = new LinkedHashMap<String, Long>();
+            for (String counter : new String[] { QUEUED, SENT, DEFERRED, THROTTLED, TOTAL_LATENCY_MILLIS }) {
+                priorityMetrics.put(counter, getCounter(priority, counter));
+            }
+            for (String latencyBucket : LATENCY_BUCKET_NAMES) {
+                priorityMetrics.put(latencyBucket, getCounter(priority, latencyBucket));
+            }
+            long sent = priorityMetrics.get(SENT);
+            priorityMetrics.put("averageLatencyMillis", sent == 0 ? 0 : priorityMetrics.get(TOTAL_LATENCY_MILLIS) / sent);
+            priorityMetrics.put("queueDepth", getQueueDepth(priority));
+            metrics.put(priority.name(), priorityMetrics);
+        }
+        return metrics;
+    }
+    
+    private static int getLatencyBucket(long latencyMillis) {
+        for (int i = 0; i < LATENCY_BUCKET_BOUNDS_MILLIS.length; i++) {
+            if (latencyMillis < LATENCY_BUCKET_BOUNDS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKET_BOUNDS_MILLIS.length;
+    }
+    
+    private static long getQueueDepth(EmailPriority priority) {
+        try {
+            return QueueFactory.getQueue(priority.getQueueName()).fetchStatistics().getNumTasks();
+        } catch (RuntimeException e) {
+            log.warning("Could not fetch the statistics of queue " + priority.getQueueName() + ": " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    private void increment(EmailPriority priority, String counter, long delta) {
+        try {
+            memcache.increment(getKey(priority, counter), delta, 0L);
+        } catch (MemcacheServiceException | IllegalArgumentException e) {
+            log.warning("Could not update email sending metric " + getKey(priority, counter) + ": " + e.getMessage());
+        }
+    }
+    
+    private long getCounter(EmailPriority priority, String counter) {
+        try {
+            Object value = memcache.get(getKey(priority, counter));
+            return value == null ? 0 : ((Number) value).longValue();
+        } catch (MemcacheServiceException | IllegalArgumentException e) {
+            log.warning("Could not read email sending metric " + getKey(priority, counter) + ": " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    private static String getKey(EmailPriority priority, String counter) {
+        return EmailSendingMetrics.class.getSimpleName() + ":" + priority.name() + ":" + counter;
+    }
+    
+}
@@ -0,0 +1,199 @@
+package teammates.logic.core;
+
+import java.io.Serializable;
+import java.util.logging.Logger;
+
+import teammates.common.util.EmailPriority;
+import teammates.common.util.Utils;
+
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheService.IdentifiableValue;
+import com.google.appengine.api.memcache.MemcacheService.SetPolicy;
+import com.google.appengine.api.memcache.MemcacheServiceException;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+
+/**
+ * A token bucket limiting the rate at which queued emails are sent through an email service,
+ * shared by all instances of the app through memcache.<br>
+ * The bucket holds up to {@link EmailSenderService#getMaxEmailsPerBurst()} tokens and is refilled at
+ * {@link EmailSenderService#getMaxEmailsPerSecond()} tokens per second; sending an email takes a token.
+ * {@link EmailPriority#BULK} emails leave a reserve of tokens to {@link EmailPriority#HIGH} emails.
+ * When the service rejects emails as sent too fast, the bucket is emptied and closed for a backoff period
+ * which doubles with each consecutive rejection.<br>
+ * If memcache fails or evicts the bucket, the bucket is treated as full, i.e. sending is never blocked
+ * by memcache problems.
+ */
+public class EmailTokenBucket {
+    
+    /** Fraction of the bucket which {@link EmailPriority#BULK} emails leave to {@link EmailPriority#HIGH} emails */
+    private static final double HIGH_PRIORITY_RESERVE = 0.2;
+    
+    private static final long MIN_BACKOFF_MILLIS = 30 * 1000;
+    private static final long MAX_BACKOFF_MILLIS = 10 * 60 * 1000;
+    
+    private static final int MAX_UPDATE_ATTEMPTS = 5;
+    
+    private static final Logger log = Utils.getLogger();
+    
+    private final MemcacheService memcache = MemcacheServiceFactory.getMemcacheService();
+    
+    private final String key;
+    private final double capacity;
+    private final double tokensPerMilli;
+    
+    public EmailTokenBucket(EmailSenderService service) {
+        this.key = EmailTokenBucket.class.getSimpleName() + ":" + service.getClass().getSimpleName();
+        this.capacity = service.getMaxEmailsPerBurst();
+        this.tokensPerMilli = service.getMaxEmailsPerSecond() / 1000;
+    }
+    
+    /**
+     * Takes tokens to send {@code numberOfEmails} emails of the given {@code priority} if there are enough.
+     * At most the tokens the bucket can hold apart from the reserve of the priority are needed,
+     * so that any number of emails is granted once the bucket is full.
+     * @return 0 if the tokens are taken, otherwise the time in milliseconds
+     *         to wait before there will be enough tokens
+     */
+    public long acquire(int numberOfEmails, EmailPriority priority) {
+        double reserve = getReserve(priority);
+        double tokensNeeded = Math.min(numberOfEmails, capacity - reserve);
+        
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            long now = System.currentTimeMillis();
+            IdentifiableValue current = getIdentifiable();
+            BucketState state = current == null ? null : (BucketState) current.getValue();
+            if (state == null) {
+                state = new BucketState(capacity, now);
+            }
+            state.refill(now, capacity, tokensPerMilli);
+            
+            if (now < state.closedUntilMillis) {
+                return state.closedUntilMillis - now;
+            }
+            
+            double tokensAvailable = state.tokens - reserve;
+            if (tokensAvailable < tokensNeeded) {
+                return (long) Math.ceil((tokensNeeded - tokensAvailable) / tokensPerMilli);
+            }
+            
+            state.tokens -= tokensNeeded;
+            if (update(current, state)) {
+                return 0;
+            }
+        }
+        
+        log.warning("Could not update email token bucket " + key + "; sending without rate limiting");
+        return 0;
+    }
+    
+    /**
+     * @return the largest number of emails of the given {@code priority} that a full bucket
+     *         has tokens for, i.e. the size of the largest batch that can be sent at once
+     */
+    public int getMaxEmailsPerAcquire(EmailPriority priority) {
+        return Math.max((int) (capacity - getReserve(priority)), 1);
+    }
+    
+    private double getReserve(EmailPriority priority) {
+        return priority == EmailPriority.HIGH ? 0 : capacity * HIGH_PRIORITY_RESERVE;
+    }
+    
+    /**
+     * Empties the bucket and closes it for a backoff period, after the service rejects emails as sent too fast.
+     * @return the backoff period in milliseconds
+     */
+    public long throttle() {
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            long now = System.currentTimeMillis();
+            IdentifiableValue current = getIdentifiable();
+            BucketState state = current == null ? null : (BucketState) current.getValue();
+            if (state == null) {
+                state = new BucketState(capacity, now);
+            }
+            
+            long backoffMillis = Math.min(MIN_BACKOFF_MILLIS << Math.min(state.consecutiveThrottles, 10),
+                                          MAX_BACKOFF_MILLIS);
+            state.tokens = 0;
+            state.lastRefillMillis = now;
+            state.closedUntilMillis = now + backoffMillis;
+            state.consecutiveThrottles++;
+            if (update(current, state)) {
+                log.warning("Email token bucket " + key + " throttled for " + backoffMillis + " ms");
+                return backoffMillis;
+            }
+        }
+        return MIN_BACKOFF_MILLIS;
+    }
+    
+    /**
+     * Resets the backoff period after emails are sent successfully.
+     */
+    public void resetThrottling() {
+        IdentifiableValue current = getIdentifiable();
+        BucketState state = current == null ? null : (BucketState) current.getValue();
+        if (state == null || state.consecutiveThrottles == 0) {
+            return;
+        }
+        state.consecutiveThrottles = 0;
+        update(current, state);
+    }
+    
+    /**
+     * Gets the number of tokens currently in the bucket.
+     */
+    public double getTokens() {
+        IdentifiableValue current = getIdentifiable();
+        if (current == null || current.getValue() == null) {
+            return capacity;
+        }
+        BucketState state = (BucketState) current.getValue();
+        state.refill(System.currentTimeMillis(), capacity, tokensPerMilli);
+        return state.tokens;
+    }
+    
+    private IdentifiableValue getIdentifiable() {
+        try {
+            return memcache.getIdentifiable(key);
+        } catch (MemcacheServiceException | IllegalArgumentException e) {
+            log.warning("Could not read email token bucket " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private boolean update(IdentifiableValue current, BucketState state) {
+        try {
+            return current == null
+                   ? memcache.put(key, state, null, SetPolicy.ADD_ONLY_IF_NOT_PRESENT)
+                   : memcache.putIfUntouched(key, current, state);
+        } catch (MemcacheServiceException | IllegalArgumentException e) {
+            log.warning("Could not update email token bucket " + key + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * The state of a token bucket as stored in memcache.
+     */
+    @SuppressWarnings("serial")
+    private static class BucketState implements Serializable {
+        
+        double tokens;
+        long lastRefillMillis;
+        long closedUntilMillis;
+        int consecutiveThrottles;
+        
+        BucketState(double tokens, long lastRefillMillis) {
+            this.tokens = tokens;
+            this.lastRefillMillis = lastRefillMillis;
+        }
+        
+        void refill(long now, double capacity, double tokensPerMilli) {
+            long refillFrom = Math.max(lastRefillMillis, closedUntilMillis);
+            if (now > refillFrom) {
+                tokens = Math.min(capacity, tokens + (now - refillFrom) * tokensPerMilli);
+                lastRefillMillis = now;
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,90 @@
+package teammates.logic.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import teammates.common.util.EmailWrapper;
+
+/**
+ * Email sender service which does not send the emails, but records the batches of emails
+ * it is asked to send. It is used to test the sending of emails, e.g. its throughput, offline.<br>
+ * Only the last {@link #MAX_SENT_BATCHES_KEPT} batches are kept, so that an instance configured
+ * to use it does not run out of memory.
+ */
+public class FakeEmailService extends EmailSenderService {
+    
+    /** The number of the last batches of emails "sent" which are kept */
+    public static final int MAX_SENT_BATCHES_KEPT = 1000;
+    
+    private static final Deque<List<EmailWrapper>> SENT_BATCHES = new ArrayDeque<List<EmailWrapper>>();
+    
+    private static int numberOfSentEmails;
+    
+    /**
+     * @return the last batches of emails "sent", one batch per call to the service
+     */
+    public static List<List<EmailWrapper>> getSentBatches() {
+        synchronized (SENT_BATCHES) {
+            return new ArrayList<List<EmailWrapper>>(SENT_BATCHES);
+        }
+    }
+    
+    /**
+     * @return the number of emails "sent" so far, including those of the batches no longer kept
+     */
+    public static int getNumberOfSentEmails() {
+        synchronized (SENT_BATCHES) {
+            return numberOfSentEmails;
+        }
+    }
+    
+    public static void clearSentBatches() {
+        synchronized (SENT_BATCHES) {
+            SENT_BATCHES.clear();
+            numberOfSentEmails = 0;
+        }
+    }
+    
+    @Override
+    public double getMaxEmailsPerSecond() {
+        return 1000;
+    }
+    
+    @Override
+    public int getMaxEmailsPerBurst() {
+        return 10000;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmailWrapper parseToEmail(EmailWrapper wrapper) {
+        return wrapper;
+    }
+    
+    @Override
+    protected void sendEmailWithService(EmailWrapper wrapper) {
+        recordBatch(Collections.singletonList(wrapper));
+    }
+    
+    @Override
+    protected void sendEmailsWithService(List<EmailWrapper> wrappers) {
+        recordBatch(wrappers);
+    }
+    
+    private void recordBatch(List<EmailWrapper> wrappers) {
+        synchronized (SENT_BATCHES) {
+            if (SENT_BATCHES.size() >= MAX_SENT_BATCHES_KEPT) {
+                SENT_BATCHES.removeFirst();
+            }
+            SENT_BATCHES.addLast(new ArrayList<EmailWrapper>(wrappers));
+            numberOfSentEmails += wrappers.size();
+        }
+        log.info("Fake email service sent " + wrappers.size() + " emails in one call");
+    }
+    
+}
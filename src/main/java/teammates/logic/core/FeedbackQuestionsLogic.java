@@ -1,6 +1,7 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -80,20 +81,57 @@ public class FeedbackQuestionsLogic {
         return fqDb.createFeedbackQuestionWithoutExistenceCheck(fqa);
     }
     
+    /**
+     * Used for creating the initial questions of a session only, in one batch.
+     * Does not check if feedback session exists.
+     * Does not check if the question numbers are valid(does not check for clashes, or make adjustments)
+     * @return the created questions, in the same order as {@code questions}
+     */
+    public List<FeedbackQuestionAttributes> createFeedbackQuestionsNoIntegrityCheck(
+            List<FeedbackQuestionAttributes> questions) throws InvalidParametersException {
+        for (FeedbackQuestionAttributes question : questions) {
+            question.removeIrrelevantVisibilityOptions();
+        }
+        return fqDb.createFeedbackQuestionsWithoutExistenceCheck(questions);
+    }
+    
     public FeedbackQuestionAttributes copyFeedbackQuestion(String feedbackQuestionId,
             String feedbackSessionName, String courseId, String instructorEmail)
             throws InvalidParametersException {
-
-        FeedbackQuestionAttributes question = getFeedbackQuestion(feedbackQuestionId);
-        question.feedbackSessionName = feedbackSessionName;
-        question.courseId = courseId;
-        question.creatorEmail = instructorEmail;
-        question.questionNumber = -1;
-        question.setId(null);
-
-        createFeedbackQuestion(question);
+        List<String> feedbackQuestionIds = new ArrayList<String>();
+        feedbackQuestionIds.add(feedbackQuestionId);
+        return copyFeedbackQuestions(feedbackQuestionIds, feedbackSessionName, courseId, instructorEmail).get(0);
+    }
+    
+    /**
+     * Copies the questions to the end of the given session in one batch,
+     * in the order of {@code feedbackQuestionIds}.
+     * @return the copied questions, in the same order as {@code feedbackQuestionIds}
+     */
+    public List<FeedbackQuestionAttributes> copyFeedbackQuestions(List<String> feedbackQuestionIds,
+            String feedbackSessionName, String courseId, String instructorEmail)
+            throws InvalidParametersException {
+        
+        List<FeedbackQuestionAttributes> questions = null;
+        try {
+            questions = getFeedbackQuestionsForSession(feedbackSessionName, courseId);
+        } catch (EntityDoesNotExistException e) {
+            Assumption.fail("Session disappeared.");
+        }
         
-        return question;
+        List<FeedbackQuestionAttributes> questionsToCopy = new ArrayList<FeedbackQuestionAttributes>();
+        int questionNumber = questions.size();
+        for (String feedbackQuestionId : feedbackQuestionIds) {
+            FeedbackQuestionAttributes question = getFeedbackQuestion(feedbackQuestionId);
+            question.feedbackSessionName = feedbackSessionName;
+            question.courseId = courseId;
+            question.creatorEmail = instructorEmail;
+            question.questionNumber = ++questionNumber;
+            question.setId(null);
+            questionsToCopy.add(question);
+        }
+        
+        return createFeedbackQuestionsNoIntegrityCheck(questionsToCopy);
     }
 
     
@@ -107,6 +145,10 @@ public class FeedbackQuestionsLogic {
         return fqDb.getFeedbackQuestion(feedbackQuestionId);
     }
     
+    public Set<String> getExistingFeedbackQuestionIds(Collection<String> feedbackQuestionIds) {
+        return fqDb.getExistingFeedbackQuestionIds(feedbackQuestionIds);
+    }
+    
     /**
      * Gets a single question corresponding to the given parameters.
      */
@@ -118,6 +160,13 @@ public class FeedbackQuestionsLogic {
                 courseId, questionNumber);
     }
     
+    /**
+     * Gets a {@link List} of every FeedbackQuestion in the given course.
+     */
+    public List<FeedbackQuestionAttributes> getFeedbackQuestionsForCourse(String courseId) {
+        return fqDb.getFeedbackQuestionsForCourse(courseId);
+    }
+    
     /**
      * Gets a {@link List} of every FeedbackQuestion in the given session.
      */
@@ -525,47 +574,31 @@ public class FeedbackQuestionsLogic {
     private void adjustQuestionNumbers(int oldQuestionNumber,
             int newQuestionNumber, List<FeedbackQuestionAttributes> questions) {
         
+        Map<String, Integer> newQuestionNumbers = new HashMap<String, Integer>();
         if (oldQuestionNumber > newQuestionNumber && oldQuestionNumber >= 1) {
             for (int i = oldQuestionNumber - 1; i >= newQuestionNumber; i--) {
                 FeedbackQuestionAttributes question = questions.get(i - 1);
                 question.questionNumber += 1;
-                try {
-                    updateFeedbackQuestionWithoutResponseRateUpdate(question);
-                } catch (InvalidParametersException e) {
-                    Assumption.fail("Invalid question.");
-                } catch (EntityDoesNotExistException e) {
-                    Assumption.fail("Question disappeared.");
-                }
+                newQuestionNumbers.put(question.getId(), question.questionNumber);
             }
         } else if (oldQuestionNumber < newQuestionNumber && oldQuestionNumber < questions.size()) {
             for (int i = oldQuestionNumber + 1; i <= newQuestionNumber; i++) {
                 FeedbackQuestionAttributes question = questions.get(i - 1);
                 question.questionNumber -= 1;
-                try {
-                    updateFeedbackQuestionWithoutResponseRateUpdate(question);
-                } catch (InvalidParametersException e) {
-                    Assumption.fail("Invalid question.");
-                } catch (EntityDoesNotExistException e) {
-                    Assumption.fail("Question disappeared.");
-                }
+                newQuestionNumbers.put(question.getId(), question.questionNumber);
             }
         }
+        updateFeedbackQuestionNumbers(questions, newQuestionNumbers);
     }
-
-    /**
-     * Updates the feedback question. For each attribute in
-     * {@code newAttributes}, the existing value is preserved if the attribute
-     * is null (due to 'keep existing' policy). Existing responses for the
-     * question are automatically deleted if giverType/recipientType are
-     * changed, or if the response visibility is increased. However, the
-     * response rate of the feedback session is not updated.<br>
-     * Precondition: <br>
-     * {@code newAttributes} is not {@code null}
-     */
-    private void updateFeedbackQuestionWithoutResponseRateUpdate(FeedbackQuestionAttributes newAttributes)
-            throws InvalidParametersException, EntityDoesNotExistException {
-
-        updateFeedbackQuestion(newAttributes, false);
+    
+    private void updateFeedbackQuestionNumbers(List<FeedbackQuestionAttributes> questionsInSession,
+                                               Map<String, Integer> newQuestionNumbers) {
+        if (newQuestionNumbers.isEmpty()) {
+            return;
+        }
+        FeedbackQuestionAttributes anyQuestion = questionsInSession.get(0);
+        fqDb.updateFeedbackQuestionNumbers(anyQuestion.feedbackSessionName, anyQuestion.courseId,
+                                           newQuestionNumbers);
     }
 
     /**
@@ -665,6 +698,14 @@ public class FeedbackQuestionsLogic {
         }
     }
     
+    /**
+     * Deletes up to {@code limit} questions of the course in one batch.
+     * @return the number of questions deleted, 0 if there is no more question to delete
+     */
+    public int deleteFeedbackQuestionsForCourseInBatch(String courseId, int limit) {
+        return fqDb.deleteFeedbackQuestionsForCourseInBatch(courseId, limit);
+    }
+    
     /**
      * Deletes all feedback questions in all sessions of the course specified. This is
      * a non-cascade delete. The responses to the questions and the comments of these responses
@@ -711,18 +752,14 @@ public class FeedbackQuestionsLogic {
     // Shifts all question numbers after questionNumberToShiftFrom down by one.
     private void shiftQuestionNumbersDown(int questionNumberToShiftFrom,
             List<FeedbackQuestionAttributes> questionsToShift) {
+        Map<String, Integer> newQuestionNumbers = new HashMap<String, Integer>();
         for (FeedbackQuestionAttributes question : questionsToShift) {
             if (question.questionNumber > questionNumberToShiftFrom) {
                 question.questionNumber -= 1;
-                try {
-                    updateFeedbackQuestionWithoutResponseRateUpdate(question);
-                } catch (InvalidParametersException e) {
-                    Assumption.fail("Invalid question.");
-                } catch (EntityDoesNotExistException e) {
-                    Assumption.fail("Question disappeared.");
-                }
+                newQuestionNumbers.put(question.getId(), question.questionNumber);
             }
         }
+        updateFeedbackQuestionNumbers(questionsToShift, newQuestionNumbers);
     }
     
     /*
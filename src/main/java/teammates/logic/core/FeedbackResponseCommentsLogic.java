@@ -1,13 +1,16 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 
 import teammates.common.datatransfer.CommentSendingState;
 import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.EntitiesChunk;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
@@ -80,6 +83,10 @@ public class FeedbackResponseCommentsLogic {
         return frcDb.getFeedbackResponseComment(feedbackResponseCommentId);
     }
     
+    public Set<Long> getExistingFeedbackResponseCommentIds(Collection<Long> feedbackResponseCommentIds) {
+        return frcDb.getExistingFeedbackResponseCommentIds(feedbackResponseCommentIds);
+    }
+    
     public FeedbackResponseCommentAttributes getFeedbackResponseComment(String responseId, String giverEmail,
                                                                         Date creationDate) {
         return frcDb.getFeedbackResponseComment(responseId, giverEmail, creationDate);
@@ -113,6 +120,37 @@ public class FeedbackResponseCommentsLogic {
         }
     }
     
+    /**
+     * Gets the ids of the response comments in the course by the id of their response,
+     * to be read once and passed to the batch updates of a cascade over the responses of the course.
+     */
+    public Map<String, List<Long>> getFeedbackResponseCommentIdsByResponseIdForCourse(String courseId) {
+        return frcDb.getFeedbackResponseCommentIdsByResponseIdForCourse(courseId);
+    }
+    
+    /**
+     * Moves the comments of responses in the course that were recreated with a new id
+     * to the new response id, in one batch.
+     * @param newResponseIds map from the old response ids to the new ones
+     * @param commentIdsByResponseId the comment ids of the course by response id, which is updated
+     *                               to list the moved comments under the new response ids
+     */
+    public void updateFeedbackResponseCommentsForChangingResponseIds(String courseId,
+                                                                     Map<String, String> newResponseIds,
+                                                                     Map<String, List<Long>> commentIdsByResponseId) {
+        frcDb.updateFeedbackResponseIdOfComments(courseId, newResponseIds, commentIdsByResponseId);
+    }
+    
+    /**
+     * Updates the giver and receiver sections of the comments of the given responses
+     * in the course to those of the responses, in one batch.
+     * @param commentIdsByResponseId the comment ids of the course by response id
+     */
+    public void updateFeedbackResponseCommentsForResponses(String courseId, List<FeedbackResponseAttributes> responses,
+                                                           Map<String, List<Long>> commentIdsByResponseId) {
+        frcDb.updateSectionsOfComments(courseId, responses, commentIdsByResponseId);
+    }
+    
     public void updateFeedbackResponseCommentsGiverEmail(String courseId, String oldEmail, String updatedEmail) {
         frcDb.updateGiverEmailOfFeedbackResponseComments(courseId, oldEmail, updatedEmail);
     }
@@ -183,6 +221,23 @@ public class FeedbackResponseCommentsLogic {
         return frcDb.search(queryString, instructors, cursorString);
     }
     
+    /**
+     * Gets up to {@code limit} response comments of the course, starting after the response comments of a previous chunk.
+     * @param cursor the cursor of the previous chunk, or null to start from the first response comment
+     */
+    public EntitiesChunk<FeedbackResponseCommentAttributes> getFeedbackResponseCommentsForCourseInChunk(
+            String courseId, String cursor, int limit) {
+        return frcDb.getFeedbackResponseCommentsForCourseInChunk(courseId, cursor, limit);
+    }
+
+    /**
+     * Deletes up to {@code limit} response comments of the course in one batch.
+     * @return the number of response comments deleted, 0 if there is no more response comment to delete
+     */
+    public int deleteFeedbackResponseCommentsForCourseInBatch(String courseId, int limit) {
+        return frcDb.deleteFeedbackResponseCommentsForCourseInBatch(courseId, limit);
+    }
+    
     public void deleteFeedbackResponseCommentsForCourse(String courseId) {
         frcDb.deleteFeedbackResponseCommentsForCourse(courseId);
     }
@@ -1,6 +1,7 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.Set;
 import java.util.logging.Logger;
 
 import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.EntitiesChunk;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
@@ -60,6 +62,10 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponse(feedbackResponseId);
     }
 
+    public Set<String> getExistingFeedbackResponseIds(Collection<String> feedbackResponseIds) {
+        return frDb.getExistingFeedbackResponseIds(feedbackResponseIds);
+    }
+
     public FeedbackResponseAttributes getFeedbackResponse(
             String feedbackQuestionId, String giverEmail, String recipient) {
         return frDb.getFeedbackResponse(feedbackQuestionId, giverEmail, recipient);
@@ -476,61 +482,78 @@ public class FeedbackResponsesLogic {
      */
     public void updateFeedbackResponsesForChangingTeam(
             String courseId, String userEmail, String oldTeam, String newTeam) {
-
-        FeedbackQuestionAttributes question;
-
-        List<FeedbackResponseAttributes> responsesFromUser =
-                getFeedbackResponsesFromGiverForCourse(courseId, userEmail);
-
-        for (FeedbackResponseAttributes response : responsesFromUser) {
-            question = fqLogic.getFeedbackQuestion(response.feedbackQuestionId);
+        
+        int numberOfDeletedResponses;
+        do {
+            numberOfDeletedResponses = updateFeedbackResponsesForChangingTeam(courseId, userEmail, oldTeam, newTeam,
+                                                                              FeedbackResponsesDb.MAX_ENTITIES_PER_BATCH);
+        } while (numberOfDeletedResponses > 0);
+    }
+    
+    /**
+     * Deletes up to {@code limit} responses that are no longer relevant to a student
+     * in his new team, in one batch.
+     * @return the number of responses deleted, 0 if there is no more response to delete
+     */
+    public int updateFeedbackResponsesForChangingTeam(
+            String courseId, String userEmail, String oldTeam, String newTeam, int limit) {
+        
+        Set<String> questionIds = new HashSet<String>();
+        Set<String> giverQuestionIdsToDelete = new HashSet<String>();
+        Set<String> recipientQuestionIdsToDelete = new HashSet<String>();
+        for (FeedbackQuestionAttributes question : fqLogic.getFeedbackQuestionsForCourse(courseId)) {
+            questionIds.add(question.getId());
             if (question.giverType == FeedbackParticipantType.TEAMS
                     || isRecipientTypeTeamMembers(question)) {
-                frDb.deleteEntity(response);
+                giverQuestionIdsToDelete.add(question.getId());
             }
-        }
-
-        List<FeedbackResponseAttributes> responsesToUser =
-                getFeedbackResponsesForReceiverForCourse(courseId, userEmail);
-
-        for (FeedbackResponseAttributes response : responsesToUser) {
-            question = fqLogic.getFeedbackQuestion(response.feedbackQuestionId);
             if (isRecipientTypeTeamMembers(question)) {
-                frDb.deleteEntity(response);
+                recipientQuestionIdsToDelete.add(question.getId());
             }
         }
-
-        if (studentsLogic.getStudentsForTeam(oldTeam, courseId).isEmpty()) {
-            List<FeedbackResponseAttributes> responsesToTeam =
-                    getFeedbackResponsesForReceiverForCourse(courseId, oldTeam);
-            for (FeedbackResponseAttributes response : responsesToTeam) {
-                frDb.deleteEntity(response);
-            }
+        
+        int numberOfDeletedResponses =
+                frDb.deleteFeedbackResponsesOfParticipant(courseId, userEmail, giverQuestionIdsToDelete,
+                                                          recipientQuestionIdsToDelete, limit).size();
+        
+        if (numberOfDeletedResponses < limit && studentsLogic.getStudentsForTeam(oldTeam, courseId).isEmpty()) {
+            numberOfDeletedResponses += frDb.deleteFeedbackResponsesOfParticipant(
+                    courseId, oldTeam, new HashSet<String>(), questionIds, limit - numberOfDeletedResponses).size();
         }
+        return numberOfDeletedResponses;
     }
 
     public void updateFeedbackResponsesForChangingSection(
             String courseId, String userEmail, String oldSection, String newSection)
             throws EntityDoesNotExistException, InvalidParametersException {
-
-        List<FeedbackResponseAttributes> responsesFromUser =
-                getFeedbackResponsesFromGiverForCourse(courseId, userEmail);
-
-        for (FeedbackResponseAttributes response : responsesFromUser) {
-            response.giverSection = newSection;
-            frDb.updateFeedbackResponse(response);
-            frcLogic.updateFeedbackResponseCommentsForResponse(response.getId());
-        }
-
-        List<FeedbackResponseAttributes> responsesToUser =
-                getFeedbackResponsesForReceiverForCourse(courseId, userEmail);
-
-        for (FeedbackResponseAttributes response : responsesToUser) {
-            response.recipientSection = newSection;
-            frDb.updateFeedbackResponse(response);
-            frcLogic.updateFeedbackResponseCommentsForResponse(response.getId());
-        }
-
+        
+        Map<String, List<Long>> commentIdsByResponseId =
+                frcLogic.getFeedbackResponseCommentIdsByResponseIdForCourse(courseId);
+        int numberOfUpdatedResponses;
+        do {
+            numberOfUpdatedResponses = updateFeedbackResponsesForChangingSection(courseId, userEmail, oldSection, newSection,
+                                                                                 FeedbackResponsesDb.MAX_ENTITIES_PER_BATCH,
+                                                                                 commentIdsByResponseId);
+        } while (numberOfUpdatedResponses > 0);
+    }
+    
+    /**
+     * Moves up to {@code limit} responses given or received by a student, and their comments,
+     * to his new section in one batch.
+     * @param commentIdsByResponseId the comment ids of the course by response id, read once for all batches with
+     *        {@link FeedbackResponseCommentsLogic#getFeedbackResponseCommentIdsByResponseIdForCourse}
+     * @return the number of responses updated, 0 if there is no more response to update
+     */
+    public int updateFeedbackResponsesForChangingSection(
+            String courseId, String userEmail, String oldSection, String newSection, int limit,
+            Map<String, List<Long>> commentIdsByResponseId) {
+        
+        // the comments are updated first, as the responses already in the new section are skipped in the next batch
+        List<FeedbackResponseAttributes> updatedResponses =
+                frDb.getFeedbackResponsesToMoveToSection(courseId, userEmail, newSection, limit);
+        frcLogic.updateFeedbackResponseCommentsForResponses(courseId, updatedResponses, commentIdsByResponseId);
+        frDb.updateSectionsOfFeedbackResponses(courseId, updatedResponses);
+        return updatedResponses.size();
     }
 
     public boolean updateFeedbackResponseForChangingTeam(StudentEnrollDetails enrollment,
@@ -602,38 +625,42 @@ public class FeedbackResponsesLogic {
     /**
      * Updates responses for a student when his email changes.
      */
-    // TODO: cascade the update to response comments
     public void updateFeedbackResponsesForChangingEmail(
             String courseId, String oldEmail, String newEmail)
             throws InvalidParametersException, EntityDoesNotExistException {
-
-        List<FeedbackResponseAttributes> responsesFromUser =
-                getFeedbackResponsesFromGiverForCourse(courseId, oldEmail);
-
-        for (FeedbackResponseAttributes response : responsesFromUser) {
-            response.giver = newEmail;
-            try {
-                updateFeedbackResponse(response);
-            } catch (EntityAlreadyExistsException e) {
-                Assumption
-                        .fail("Feedback response failed to update successfully"
-                            + "as email was already in use.");
-            }
-        }
-
-        List<FeedbackResponseAttributes> responsesToUser =
-                getFeedbackResponsesForReceiverForCourse(courseId, oldEmail);
-
-        for (FeedbackResponseAttributes response : responsesToUser) {
-            response.recipient = newEmail;
-            try {
-                updateFeedbackResponse(response);
-            } catch (EntityAlreadyExistsException e) {
-                Assumption
-                        .fail("Feedback response failed to update successfully"
-                            + "as email was already in use.");
-            }
+        
+        Map<String, List<Long>> commentIdsByResponseId =
+                frcLogic.getFeedbackResponseCommentIdsByResponseIdForCourse(courseId);
+        int numberOfUpdatedResponses;
+        do {
+            numberOfUpdatedResponses = updateFeedbackResponsesForChangingEmail(courseId, oldEmail, newEmail,
+                                                                               FeedbackResponsesDb.MAX_ENTITIES_PER_BATCH,
+                                                                               commentIdsByResponseId);
+        } while (numberOfUpdatedResponses > 0);
+    }
+    
+    /**
+     * Recreates up to {@code limit} responses given or received by a student with his new email,
+     * and moves their comments to the recreated responses, in one batch. The old responses are deleted
+     * only after their comments are moved, so a batch interrupted at any point is completed by running it again.
+     * @param commentIdsByResponseId the comment ids of the course by response id, read once for all batches with
+     *        {@link FeedbackResponseCommentsLogic#getFeedbackResponseCommentIdsByResponseIdForCourse}
+     * @return the number of responses updated, 0 if there is no more response to update
+     */
+    public int updateFeedbackResponsesForChangingEmail(
+            String courseId, String oldEmail, String newEmail, int limit,
+            Map<String, List<Long>> commentIdsByResponseId)
+            throws InvalidParametersException {
+        
+        if (oldEmail.equals(newEmail)) {
+            return 0;
         }
+        
+        Map<String, String> newResponseIds =
+                frDb.recreateFeedbackResponsesWithNewEmail(courseId, oldEmail, newEmail, limit);
+        frcLogic.updateFeedbackResponseCommentsForChangingResponseIds(courseId, newResponseIds, commentIdsByResponseId);
+        frDb.deleteFeedbackResponsesByIds(courseId, newResponseIds.keySet());
+        return newResponseIds.size();
     }
 
     public void deleteFeedbackResponseAndCascade(FeedbackResponseAttributes responseToDelete) {
@@ -706,6 +733,23 @@ public class FeedbackResponsesLogic {
         }
     }
 
+    /**
+     * Gets up to {@code limit} responses of the course, starting after the responses of a previous chunk.
+     * @param cursor the cursor of the previous chunk, or null to start from the first response
+     */
+    public EntitiesChunk<FeedbackResponseAttributes> getFeedbackResponsesForCourseInChunk(String courseId, String cursor,
+                                                                                          int limit) {
+        return frDb.getFeedbackResponsesForCourseInChunk(courseId, cursor, limit);
+    }
+
+    /**
+     * Deletes up to {@code limit} responses of the course in one batch.
+     * @return the number of responses deleted, 0 if there is no more response to delete
+     */
+    public int deleteFeedbackResponsesForCourseInBatch(String courseId, int limit) {
+        return frDb.deleteFeedbackResponsesForCourseInBatch(courseId, limit);
+    }
+    
     /**
      * Deletes all feedback responses in every feedback session in
      * the specified course. This is a non-cascade delete and the
@@ -2,6 +2,7 @@ package teammates.logic.core;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -39,6 +40,7 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.SystemParams;
+import teammates.common.util.EmailPriority;
 import teammates.common.util.EmailType;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.Sanitizer;
@@ -133,6 +135,20 @@ public class FeedbackSessionsLogic {
         return fsDb.getFeedbackSessionsForCourse(courseId);
     }
 
+    /**
+     * @return the sessions of the courses, by course ID; courses without sessions are absent
+     */
+    public Map<String, List<FeedbackSessionAttributes>> getFeedbackSessionsForCourses(Collection<String> courseIds) {
+        return fsDb.getFeedbackSessionsForCourses(courseIds);
+    }
+
+    /**
+     * @return the identification strings of the sessions that still exist
+     */
+    public Set<String> getExistingFeedbackSessions(Collection<FeedbackSessionAttributes> sessions) {
+        return fsDb.getExistingFeedbackSessions(sessions);
+    }
+
     public FeedbackSessionAttributes copyFeedbackSession(String newFeedbackSessionName,
             String newCourseId, String feedbackSessionName, String courseId, String instructorEmail)
             throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
@@ -151,8 +167,8 @@ public class FeedbackSessionsLogic {
             question.courseId = newCourseId;
             question.feedbackSessionName = newFeedbackSessionName;
             question.creatorEmail = instructorEmail;
-            fqLogic.createFeedbackQuestionNoIntegrityCheck(question, question.questionNumber);
         }
+        fqLogic.createFeedbackQuestionsNoIntegrityCheck(feedbackQuestions);
         
         return copiedFeedbackSession;
     }
@@ -1241,10 +1257,7 @@ public class FeedbackSessionsLogic {
     public void updateRespondantsForStudent(String oldEmail, String newEmail, String courseId)
             throws InvalidParametersException, EntityDoesNotExistException {
 
-        List<FeedbackSessionAttributes> feedbackSessions = getFeedbackSessionsForCourse(courseId);
-        for (FeedbackSessionAttributes session : feedbackSessions) {
-            fsDb.updateStudentRespondant(oldEmail, newEmail, session);
-        }
+        fsDb.updateStudentRespondantForCourse(oldEmail, newEmail, courseId);
     }
     
     public void updateRespondantsForSession(String feedbackSessionName, String courseId)
@@ -1538,7 +1551,7 @@ public class FeedbackSessionsLogic {
         try {
             List<EmailWrapper> emails = new EmailGenerator().generateFeedbackSessionReminderEmails(
                     session, studentsToRemindList, instructorsToRemindList, instructorList);
-            new EmailSender().sendEmails(emails);
+            new EmailSender().sendEmails(emails, EmailPriority.HIGH);
             return emails;
         } catch (Exception e) {
             throw new RuntimeException(ERROR_SENDING_EMAILS, e);
@@ -1576,7 +1589,7 @@ public class FeedbackSessionsLogic {
         try {
             List<EmailWrapper> emails = new EmailGenerator().generateFeedbackSessionReminderEmails(
                     session, studentsToRemindList, instructorsToRemindList, instructorList);
-            new EmailSender().sendEmails(emails);
+            new EmailSender().sendEmails(emails, EmailPriority.HIGH);
             return emails;
         } catch (Exception e) {
             throw new RuntimeException(ERROR_SENDING_EMAILS, e);
@@ -1610,9 +1623,7 @@ public class FeedbackSessionsLogic {
     public void scheduleFeedbackSessionOpeningEmails() {
         List<FeedbackSessionAttributes> sessions = getFeedbackSessionsWhichNeedOpenEmailsToBeSent();
 
-        for (FeedbackSessionAttributes session : sessions) {
-            addFeedbackSessionReminderToEmailsQueue(session, EmailType.FEEDBACK_OPENING);
-        }
+        addFeedbackSessionRemindersToEmailsQueue(sessions, EmailType.FEEDBACK_OPENING);
     }
 
     public List<FeedbackSessionAttributes> getFeedbackSessionsClosingWithinTimeLimit() {
@@ -1636,17 +1647,13 @@ public class FeedbackSessionsLogic {
 
         List<FeedbackSessionAttributes> sessions = getFeedbackSessionsClosingWithinTimeLimit();
 
-        for (FeedbackSessionAttributes session : sessions) {
-            addFeedbackSessionReminderToEmailsQueue(session, EmailType.FEEDBACK_CLOSING);
-        }
+        addFeedbackSessionRemindersToEmailsQueue(sessions, EmailType.FEEDBACK_CLOSING);
     }
 
     public void scheduleFeedbackSessionPublishedEmails() {
         List<FeedbackSessionAttributes> sessions = getFeedbackSessionsWhichNeedAutomatedPublishedEmailsToBeSent();
 
-        for (FeedbackSessionAttributes session : sessions) {
-            sendFeedbackSessionPublishedEmail(session);
-        }
+        addFeedbackSessionRemindersToEmailsQueue(sessions, EmailType.FEEDBACK_PUBLISHED);
     }
 
     /**
@@ -1662,6 +1669,14 @@ public class FeedbackSessionsLogic {
         deleteFeedbackSessionsForCourse(courseId);
     }
     
+    /**
+     * Deletes up to {@code limit} sessions of the course in one batch.
+     * @return the number of sessions deleted, 0 if there is no more session to delete
+     */
+    public int deleteFeedbackSessionsForCourseInBatch(String courseId, int limit) {
+        return fsDb.deleteFeedbackSessionsForCourseInBatch(courseId, limit);
+    }
+    
     /**
      * Deletes all feedback sessions the course specified. This is
      * a non-cascade delete.
@@ -2636,13 +2651,28 @@ public class FeedbackSessionsLogic {
     }
 
     private void addFeedbackSessionReminderToEmailsQueue(FeedbackSessionAttributes session, EmailType emailType) {
+        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        taskQueueLogic.createAndAddTask(SystemParams.EMAIL_TASK_QUEUE, Const.ActionURIs.EMAIL_WORKER,
+                                        getFeedbackSessionReminderParamMap(session, emailType));
+    }
+    
+    private void addFeedbackSessionRemindersToEmailsQueue(List<FeedbackSessionAttributes> sessions,
+                                                          EmailType emailType) {
+        TaskBatch taskBatch = TaskQueuesLogic.inst().createTaskBatch(false);
+        for (FeedbackSessionAttributes session : sessions) {
+            taskBatch.addTask(SystemParams.EMAIL_TASK_QUEUE, Const.ActionURIs.EMAIL_WORKER,
+                              getFeedbackSessionReminderParamMap(session, emailType));
+        }
+        taskBatch.flush();
+    }
+    
+    private Map<String, String> getFeedbackSessionReminderParamMap(FeedbackSessionAttributes session,
+                                                                   EmailType emailType) {
         Map<String, String> paramMap = new HashMap<String, String>();
         paramMap.put(ParamsNames.EMAIL_FEEDBACK, session.getFeedbackSessionName());
         paramMap.put(ParamsNames.EMAIL_COURSE, session.getCourseId());
         paramMap.put(ParamsNames.EMAIL_TYPE, emailType.toString());
-        
-        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
-        taskQueueLogic.createAndAddTask(SystemParams.EMAIL_TASK_QUEUE, Const.ActionURIs.EMAIL_WORKER, paramMap);
+        return paramMap;
     }
     
 }
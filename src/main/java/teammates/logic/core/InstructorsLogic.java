@@ -1,7 +1,10 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import teammates.common.datatransfer.CourseAttributes;
@@ -110,6 +113,30 @@ public class InstructorsLogic {
         return instructorsDb.getInstructorsForCourse(courseId);
     }
     
+    /**
+     * @return the instructors of the courses, by course ID; courses without instructors are absent
+     */
+    public Map<String, List<InstructorAttributes>> getInstructorsForCourses(Collection<String> courseIds) {
+        
+        return instructorsDb.getInstructorsForCourses(courseIds);
+    }
+    
+    /**
+     * @return the Google ID of a registered instructor by course ID; courses without one are absent
+     */
+    public Map<String, String> getRegisteredInstructorGoogleIdsForCourses(Collection<String> courseIds) {
+        
+        return instructorsDb.getRegisteredInstructorGoogleIdsForCourses(courseIds);
+    }
+    
+    /**
+     * @return the unencrypted registration keys of the instructors that still exist with that key
+     */
+    public Set<String> getExistingInstructorRegistrationKeys(Collection<InstructorAttributes> instructors) {
+        
+        return instructorsDb.getExistingInstructorRegistrationKeys(instructors);
+    }
+    
     public List<InstructorAttributes> getInstructorsForGoogleId(String googleId) {
         
         return getInstructorsForGoogleId(googleId, false);
@@ -359,6 +386,14 @@ public class InstructorsLogic {
 
     // this method is only being used in course logic. cascade to comments is therefore not necessary
     // as it it taken care of when deleting course
+    /**
+     * Deletes up to {@code limit} instructors of the course in one batch.
+     * @return the number of instructors deleted, 0 if there is no more instructor to delete
+     */
+    public int deleteInstructorsForCourseInBatch(String courseId, int limit) {
+        return instructorsDb.deleteInstructorsForCourseInBatch(courseId, limit);
+    }
+    
     public void deleteInstructorsForCourse(String courseId) {
         
         instructorsDb.deleteInstructorsForCourse(courseId);
@@ -23,6 +23,16 @@ import teammates.common.util.EmailWrapper;
  */
 public class JavamailService extends EmailSenderService {
     
+    @Override
+    public double getMaxEmailsPerSecond() {
+        return 2;
+    }
+    
+    @Override
+    public int getMaxEmailsPerBurst() {
+        return 20;
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -1,13 +1,19 @@
 package teammates.logic.core;
 
+import java.util.Collections;
+import java.util.List;
+
 import javax.ws.rs.core.MediaType;
 
+import org.json.JSONObject;
+
 import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
 import com.sun.jersey.api.client.filter.HTTPBasicAuthFilter;
 import com.sun.jersey.multipart.FormDataMultiPart;
 
+import teammates.common.exception.EmailRateLimitedException;
 import teammates.common.util.Config;
 import teammates.common.util.EmailWrapper;
 
@@ -17,6 +23,16 @@ import teammates.common.util.EmailWrapper;
  */
 public class MailgunService extends EmailSenderService {
     
+    @Override
+    public double getMaxEmailsPerSecond() {
+        return 50;
+    }
+    
+    @Override
+    public int getMaxEmailsPerBurst() {
+        return 300;
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -42,19 +58,71 @@ public class MailgunService extends EmailSenderService {
         return formData;
     }
     
+    /**
+     * Parses the {@code wrappers}, which must have the same sender and reply-to address and no BCC,
+     * to one batch sending request, which Mailgun sends separately to each recipient
+     * with the subject and the content of each recipient's email taken from the recipient variables.
+     */
+    public FormDataMultiPart parseToBatchEmail(List<EmailWrapper> wrappers) {
+        EmailWrapper firstWrapper = wrappers.get(0);
+        FormDataMultiPart formData = new FormDataMultiPart();
+        
+        String sender = firstWrapper.getSenderName() == null || firstWrapper.getSenderName().isEmpty()
+                        ? firstWrapper.getSenderEmail()
+                        : firstWrapper.getSenderName() + " <" + firstWrapper.getSenderEmail() + ">";
+        formData.field("from", sender);
+        
+        JSONObject recipientVariables = new JSONObject();
+        for (EmailWrapper wrapper : wrappers) {
+            formData.field("to", wrapper.getRecipient());
+            recipientVariables.put(wrapper.getRecipient(), new JSONObject().put("subject", wrapper.getSubject())
+                                                                           .put("html", wrapper.getContent()));
+        }
+        formData.field("recipient-variables", recipientVariables.toString());
+        
+        formData.field("h:Reply-To", firstWrapper.getReplyTo());
+        formData.field("subject", "%recipient.subject%");
+        formData.field("html", "%recipient.html%");
+        
+        return formData;
+    }
+    
     @Override
-    protected void sendEmailWithService(EmailWrapper wrapper) {
+    protected void sendEmailWithService(EmailWrapper wrapper) throws EmailRateLimitedException {
         FormDataMultiPart email = parseToEmail(wrapper);
-        Client client = Client.create();
-        client.addFilter(new HTTPBasicAuthFilter("api", Config.MAILGUN_APIKEY));
-        WebResource webResource =
-                client.resource("https://api.mailgun.net/v3/" + Config.MAILGUN_DOMAINNAME + "/messages");
-        
-        ClientResponse response = webResource.type(MediaType.MULTIPART_FORM_DATA_TYPE)
-                                             .post(ClientResponse.class, email);
+        ClientResponse response = getMessagesResource().type(MediaType.MULTIPART_FORM_DATA_TYPE)
+                                                       .post(ClientResponse.class, email);
+        if (response.getStatus() == TOO_MANY_REQUESTS_CODE) {
+            throw new EmailRateLimitedException(response.getStatusInfo().getReasonPhrase(),
+                                                Collections.singletonList(wrapper));
+        }
         if (response.getStatus() != SUCCESS_CODE) {
             log.severe("Email failed to send: " + response.getStatusInfo().getReasonPhrase());
         }
     }
     
+    @Override
+    protected void sendEmailsWithService(List<EmailWrapper> wrappers) throws EmailRateLimitedException {
+        WebResource webResource = getMessagesResource();
+        List<List<EmailWrapper>> groups = groupForBatchSending(wrappers);
+        for (int i = 0; i < groups.size(); i++) {
+            List<EmailWrapper> group = groups.get(i);
+            FormDataMultiPart email = group.size() == 1 ? parseToEmail(group.get(0)) : parseToBatchEmail(group);
+            ClientResponse response = webResource.type(MediaType.MULTIPART_FORM_DATA_TYPE)
+                                                 .post(ClientResponse.class, email);
+            if (response.getStatus() == TOO_MANY_REQUESTS_CODE) {
+                throw getRateLimitedException(groups, i);
+            }
+            if (response.getStatus() != SUCCESS_CODE) {
+                log.severe(group.size() + " emails failed to send: " + response.getStatusInfo().getReasonPhrase());
+            }
+        }
+    }
+    
+    private WebResource getMessagesResource() {
+        Client client = Client.create();
+        client.addFilter(new HTTPBasicAuthFilter("api", Config.MAILGUN_APIKEY));
+        return client.resource("https://api.mailgun.net/v3/" + Config.MAILGUN_DOMAINNAME + "/messages");
+    }
+    
 }
@@ -1,5 +1,9 @@
 package teammates.logic.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.jsoup.Jsoup;
@@ -10,6 +14,7 @@ import com.mailjet.client.MailjetResponse;
 import com.mailjet.client.errors.MailjetException;
 import com.mailjet.client.resource.Email;
 
+import teammates.common.exception.EmailRateLimitedException;
 import teammates.common.util.Config;
 import teammates.common.util.EmailWrapper;
 
@@ -23,6 +28,21 @@ import teammates.common.util.EmailWrapper;
  */
 public class MailjetService extends EmailSenderService {
     
+    /** Maximum number of messages Mailjet accepts in one send call */
+    private static final int MAX_MESSAGES_PER_CALL = 50;
+    
+    private static final String MESSAGES = "Messages";
+    
+    @Override
+    public double getMaxEmailsPerSecond() {
+        return 30;
+    }
+    
+    @Override
+    public int getMaxEmailsPerBurst() {
+        return 150;
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -46,14 +66,49 @@ public class MailjetService extends EmailSenderService {
         return request;
     }
     
+    /**
+     * Parses the {@code wrappers} to one request carrying all of them as separate messages.
+     */
+    public MailjetRequest parseToBatchEmail(List<EmailWrapper> wrappers) {
+        JSONArray messages = new JSONArray();
+        for (EmailWrapper wrapper : wrappers) {
+            messages.put(new JSONObject(parseToEmail(wrapper).getBody()));
+        }
+        return new MailjetRequest(Email.resource).property(MESSAGES, messages);
+    }
+    
     @Override
-    protected void sendEmailWithService(EmailWrapper wrapper) throws MailjetException {
+    protected void sendEmailWithService(EmailWrapper wrapper) throws MailjetException, EmailRateLimitedException {
         MailjetRequest email = parseToEmail(wrapper);
         MailjetClient mailjet = new MailjetClient(Config.MAILJET_APIKEY, Config.MAILJET_SECRETKEY);
         MailjetResponse response = mailjet.post(email);
+        if (response.getStatus() == TOO_MANY_REQUESTS_CODE) {
+            throw new EmailRateLimitedException(response.getData().toString(), Collections.singletonList(wrapper));
+        }
         if (response.getStatus() != SUCCESS_CODE) {
             log.severe("Email failed to send: " + response.getData().toString());
         }
     }
     
+    @Override
+    protected void sendEmailsWithService(List<EmailWrapper> wrappers)
+            throws MailjetException, EmailRateLimitedException {
+        MailjetClient mailjet = new MailjetClient(Config.MAILJET_APIKEY, Config.MAILJET_SECRETKEY);
+        List<List<EmailWrapper>> batches = new ArrayList<List<EmailWrapper>>();
+        for (int start = 0; start < wrappers.size(); start += MAX_MESSAGES_PER_CALL) {
+            batches.add(wrappers.subList(start, Math.min(start + MAX_MESSAGES_PER_CALL, wrappers.size())));
+        }
+        
+        for (int i = 0; i < batches.size(); i++) {
+            List<EmailWrapper> batch = batches.get(i);
+            MailjetResponse response = mailjet.post(parseToBatchEmail(batch));
+            if (response.getStatus() == TOO_MANY_REQUESTS_CODE) {
+                throw getRateLimitedException(batches, i);
+            }
+            if (response.getStatus() != SUCCESS_CODE) {
+                log.severe(batch.size() + " emails failed to send: " + response.getData().toString());
+            }
+        }
+    }
+    
 }
@@ -1,5 +1,8 @@
 package teammates.logic.core;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.jsoup.Jsoup;
 
 import com.sendgrid.SendGrid;
@@ -7,6 +10,7 @@ import com.sendgrid.SendGrid.Email;
 import com.sendgrid.SendGrid.Response;
 import com.sendgrid.SendGridException;
 
+import teammates.common.exception.EmailRateLimitedException;
 import teammates.common.util.Config;
 import teammates.common.util.EmailWrapper;
 
@@ -18,6 +22,20 @@ import teammates.common.util.EmailWrapper;
  */
 public class SendgridService extends EmailSenderService {
     
+    private static final String SUBJECT_TAG = "-subject-";
+    private static final String HTML_TAG = "-html-";
+    private static final String TEXT_TAG = "-text-";
+    
+    @Override
+    public double getMaxEmailsPerSecond() {
+        return 100;
+    }
+    
+    @Override
+    public int getMaxEmailsPerBurst() {
+        return 500;
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -39,14 +57,68 @@ public class SendgridService extends EmailSenderService {
         return email;
     }
     
+    /**
+     * Parses the {@code wrappers}, which must have the same sender and reply-to address and no BCC,
+     * to one email sent separately to each recipient through the SMTP API,
+     * with the subject and the content of each recipient's email substituted in.
+     */
+    public Email parseToBatchEmail(List<EmailWrapper> wrappers) {
+        EmailWrapper firstWrapper = wrappers.get(0);
+        Email email = new Email();
+        email.setFrom(firstWrapper.getSenderEmail());
+        if (firstWrapper.getSenderName() != null && !firstWrapper.getSenderName().isEmpty()) {
+            email.setFromName(firstWrapper.getSenderName());
+        }
+        email.setReplyTo(firstWrapper.getReplyTo());
+        email.setSubject(SUBJECT_TAG);
+        email.setHtml(HTML_TAG);
+        email.setText(TEXT_TAG);
+        
+        String[] subjects = new String[wrappers.size()];
+        String[] htmls = new String[wrappers.size()];
+        String[] texts = new String[wrappers.size()];
+        for (int i = 0; i < wrappers.size(); i++) {
+            EmailWrapper wrapper = wrappers.get(i);
+            email.addSmtpApiTo(wrapper.getRecipient());
+            subjects[i] = wrapper.getSubject();
+            htmls[i] = wrapper.getContent();
+            texts[i] = Jsoup.parse(wrapper.getContent()).text();
+        }
+        email.addSubstitution(SUBJECT_TAG, subjects);
+        email.addSubstitution(HTML_TAG, htmls);
+        email.addSubstitution(TEXT_TAG, texts);
+        return email;
+    }
+    
     @Override
-    protected void sendEmailWithService(EmailWrapper wrapper) throws SendGridException {
+    protected void sendEmailWithService(EmailWrapper wrapper) throws SendGridException, EmailRateLimitedException {
         Email email = parseToEmail(wrapper);
         SendGrid sendgrid = new SendGrid(Config.SENDGRID_APIKEY);
         Response response = sendgrid.send(email);
+        if (response.getCode() == TOO_MANY_REQUESTS_CODE) {
+            throw new EmailRateLimitedException(response.getMessage(), Collections.singletonList(wrapper));
+        }
         if (response.getCode() != SUCCESS_CODE) {
             log.severe("Email failed to send: " + response.getMessage());
         }
     }
     
+    @Override
+    protected void sendEmailsWithService(List<EmailWrapper> wrappers)
+            throws SendGridException, EmailRateLimitedException {
+        SendGrid sendgrid = new SendGrid(Config.SENDGRID_APIKEY);
+        List<List<EmailWrapper>> groups = groupForBatchSending(wrappers);
+        for (int i = 0; i < groups.size(); i++) {
+            List<EmailWrapper> group = groups.get(i);
+            Email email = group.size() == 1 ? parseToEmail(group.get(0)) : parseToBatchEmail(group);
+            Response response = sendgrid.send(email);
+            if (response.getCode() == TOO_MANY_REQUESTS_CODE) {
+                throw getRateLimitedException(groups, i);
+            }
+            if (response.getCode() != SUCCESS_CODE) {
+                log.severe(group.size() + " emails failed to send: " + response.getMessage());
+            }
+        }
+    }
+    
 }
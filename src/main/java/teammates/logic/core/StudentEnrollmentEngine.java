@@ -0,0 +1,203 @@
+package teammates.logic.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.datatransfer.StudentAttributes.UpdateStatus;
+import teammates.common.datatransfer.StudentEnrollDetails;
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
+import teammates.common.util.Utils;
+import teammates.storage.api.StudentsDb;
+
+/**
+ * Enrolls a list of validated students into a course in bulk.<br>
+ * The course roster is read once and compared against the enroll list to find the
+ * students to create and update. The changes are then persisted in batches, the search
+ * documents are put in bulk and one submission adjustment task is scheduled per session.
+ * The time taken by each phase is logged and available via {@link #getPhaseTimings()}.
+ */
+public class StudentEnrollmentEngine {
+
+    public static final String PHASE_ROSTER_READ = "roster read";
+    public static final String PHASE_DIFF = "diff";
+    public static final String PHASE_PERSIST = "persist";
+    public static final String PHASE_SEARCH_INDEXING = "search indexing";
+    public static final String PHASE_ADJUSTMENT_SCHEDULING = "adjustment scheduling";
+
+    private static final Logger log = Utils.getLogger();
+
+    private final String courseId;
+    private final boolean hasDocument;
+    private final List<StudentEnrollDetails> enrollmentList = new ArrayList<StudentEnrollDetails>();
+    private final Map<String, Long> phaseTimings = new LinkedHashMap<String, Long>();
+    private long phaseStartTime;
+
+    private StudentsDb studentsDb = new StudentsDb();
+    private CoursesLogic coursesLogic = CoursesLogic.inst();
+    private FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
+    private TaskQueuesLogic taskQueuesLogic = TaskQueuesLogic.inst();
+
+    public StudentEnrollmentEngine(String courseId, boolean hasDocument) {
+        this.courseId = courseId;
+        this.hasDocument = hasDocument;
+    }
+
+    /**
+     * Enrolls {@code studentsToEnroll}, which must have passed the enroll line and
+     * section/team validations, and sets the update status of each of them.
+     * @return the students in the enroll list, followed by the students
+     *         already in the course but not in the enroll list
+     */
+    public List<StudentAttributes> enroll(List<StudentAttributes> studentsToEnroll)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        return enroll(studentsToEnroll, studentsDb.getStudentsForCourse(courseId));
+    }
+
+    /**
+     * Enrolls {@code studentsToEnroll} as in {@link #enroll(List)}, using {@code roster}
+     * (e.g. the one already read for validation) as the current students of the course.
+     */
+    public List<StudentAttributes> enroll(List<StudentAttributes> studentsToEnroll, List<StudentAttributes> roster)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        startPhase();
+        Map<String, StudentAttributes> rosterByEmail = new HashMap<String, StudentAttributes>();
+        for (StudentAttributes student : roster) {
+            rosterByEmail.put(student.email, student);
+        }
+        endPhase(PHASE_ROSTER_READ);
+
+        List<StudentAttributes> studentsToCreate = new ArrayList<StudentAttributes>();
+        List<StudentAttributes> studentsToUpdate = new ArrayList<StudentAttributes>();
+        enrollmentList.clear();
+        for (StudentAttributes student : studentsToEnroll) {
+            StudentEnrollDetails enrollmentDetails =
+                    computeEnrollmentDetails(student, rosterByEmail.get(student.email));
+            if (enrollmentDetails.updateStatus == UpdateStatus.NEW) {
+                studentsToCreate.add(student);
+            } else if (enrollmentDetails.updateStatus == UpdateStatus.MODIFIED) {
+                studentsToUpdate.add(student);
+            }
+            student.updateStatus = enrollmentDetails.updateStatus;
+            enrollmentList.add(enrollmentDetails);
+        }
+        endPhase(PHASE_DIFF);
+
+        List<StudentAttributes> studentsToIndex = new ArrayList<StudentAttributes>();
+        studentsToIndex.addAll(studentsDb.createStudentsWithoutExistenceCheck(studentsToCreate));
+        if (!studentsToUpdate.isEmpty()) {
+            studentsToIndex.addAll(studentsDb.updateStudentsInCourse(courseId, studentsToUpdate));
+        }
+        endPhase(PHASE_PERSIST);
+
+        if (hasDocument && !studentsToIndex.isEmpty()) {
+            studentsDb.putDocuments(coursesLogic.getCourse(courseId), studentsToIndex);
+        }
+        endPhase(PHASE_SEARCH_INDEXING);
+
+        scheduleSubmissionAdjustment();
+        endPhase(PHASE_ADJUSTMENT_SCHEDULING);
+
+        log.info("Enrolled " + studentsToEnroll.size() + " students in course " + courseId
+                 + " (" + studentsToCreate.size() + " new, " + studentsToUpdate.size() + " modified), "
+                 + "time taken per phase in ms: " + phaseTimings);
+
+        return getStudentsWithUnenrolledRoster(studentsToEnroll, roster);
+    }
+
+    /**
+     * @return the enrollment details of the students in the last enroll list, in enroll list order
+     */
+    public List<StudentEnrollDetails> getEnrollmentDetails() {
+        return enrollmentList;
+    }
+
+    /**
+     * @return the time taken in milliseconds by each phase of the last enrollment, in phase order
+     */
+    public Map<String, Long> getPhaseTimings() {
+        return phaseTimings;
+    }
+
+    private StudentEnrollDetails computeEnrollmentDetails(StudentAttributes student,
+                                                          StudentAttributes originalStudent) {
+        StudentEnrollDetails enrollmentDetails = new StudentEnrollDetails();
+        enrollmentDetails.course = student.course;
+        enrollmentDetails.email = student.email;
+        enrollmentDetails.newTeam = student.team;
+        enrollmentDetails.newSection = student.section;
+
+        if (student.isEnrollInfoSameAs(originalStudent)) {
+            enrollmentDetails.updateStatus = UpdateStatus.UNMODIFIED;
+        } else if (originalStudent == null) {
+            enrollmentDetails.updateStatus = UpdateStatus.NEW;
+        } else {
+            student.updateWithExistingRecord(originalStudent);
+            enrollmentDetails.updateStatus = UpdateStatus.MODIFIED;
+
+            if (!originalStudent.team.equals(student.team)) {
+                enrollmentDetails.oldTeam = originalStudent.team;
+            }
+            if (!originalStudent.section.equals(student.section)) {
+                enrollmentDetails.oldSection = originalStudent.section;
+            }
+        }
+        return enrollmentDetails;
+    }
+
+    private void scheduleSubmissionAdjustment() {
+        String enrollmentDetails = Utils.getTeammatesGson().toJson(enrollmentList);
+
+        TaskBatch taskBatch = taskQueuesLogic.createTaskBatch(false);
+        for (FeedbackSessionAttributes session : fsLogic.getFeedbackSessionsForCourse(courseId)) {
+            Map<String, String> paramMap = new HashMap<String, String>();
+            paramMap.put(ParamsNames.COURSE_ID, courseId);
+            paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, session.getFeedbackSessionName());
+            paramMap.put(ParamsNames.ENROLLMENT_DETAILS, enrollmentDetails);
+
+            taskBatch.addTask(SystemParams.FEEDBACK_SUBMISSION_ADJUSTMENT_TASK_QUEUE,
+                              Const.ActionURIs.FEEDBACK_SUBMISSION_ADJUSTMENT_WORKER, paramMap);
+        }
+        taskBatch.flush();
+    }
+
+    private List<StudentAttributes> getStudentsWithUnenrolledRoster(List<StudentAttributes> enrolledStudents,
+                                                                    List<StudentAttributes> roster) {
+        Set<String> enrolledEmails = new HashSet<String>();
+        for (StudentAttributes student : enrolledStudents) {
+            enrolledEmails.add(student.email.toLowerCase());
+        }
+
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>(enrolledStudents);
+        for (StudentAttributes student : roster) {
+            if (!enrolledEmails.contains(student.email.toLowerCase())) {
+                student.updateStatus = UpdateStatus.NOT_IN_ENROLL_LIST;
+                students.add(student);
+            }
+        }
+        return students;
+    }
+
+    private void startPhase() {
+        phaseTimings.clear();
+        phaseStartTime = System.currentTimeMillis();
+    }
+
+    private void endPhase(String phase) {
+        long now = System.currentTimeMillis();
+        phaseTimings.put(phase, now - phaseStartTime);
+        phaseStartTime = now;
+    }
+
+}
@@ -0,0 +1,141 @@
+package teammates.logic.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.common.util.Sanitizer;
+
+/**
+ * Validates the sections and teams of a course roster merged with an enroll list.<br>
+ * The merged list is indexed once by section and team, so that all violations
+ * (sections exceeding the size limit, teams spanning multiple sections and emails
+ * duplicated in the enroll list) are found in time linear to the number of students.
+ * The students in the enroll list take the place of the roster students with the
+ * same email (case-insensitive).
+ */
+public class StudentEnrollmentValidator {
+
+    private final int sectionSizeLimit;
+
+    /** section -> team -> students in the team */
+    private final Map<String, Map<String, List<StudentAttributes>>> studentsBySectionAndTeam =
+            new HashMap<String, Map<String, List<StudentAttributes>>>();
+    /** team -> sections the team's students are in */
+    private final Map<String, Set<String>> sectionsByTeam = new HashMap<String, Set<String>>();
+    private final Set<String> duplicatedEmails = new LinkedHashSet<String>();
+
+    public StudentEnrollmentValidator(List<StudentAttributes> studentsToEnroll, List<StudentAttributes> roster,
+                                      int sectionSizeLimit) {
+        this.sectionSizeLimit = sectionSizeLimit;
+
+        Set<String> mergedEmails = new HashSet<String>();
+        for (StudentAttributes student : studentsToEnroll) {
+            if (!mergedEmails.add(student.email.toLowerCase())) {
+                duplicatedEmails.add(student.email);
+            }
+            addToIndexes(student);
+        }
+        for (StudentAttributes student : roster) {
+            if (mergedEmails.add(student.email.toLowerCase())) {
+                addToIndexes(student);
+            }
+        }
+    }
+
+    /**
+     * @return the error messages of all sections and teams violations, or an empty string if there is none
+     */
+    public String getInvalidityInfo() {
+        return getSectionInvalidityInfo() + getTeamInvalidityInfo() + getEmailInvalidityInfo();
+    }
+
+    /**
+     * @return the error messages of sections with more students than the section size limit
+     */
+    public String getSectionInvalidityInfo() {
+        List<String> invalidSections = new ArrayList<String>();
+        for (Map.Entry<String, Map<String, List<StudentAttributes>>> section : studentsBySectionAndTeam.entrySet()) {
+            int studentsCount = 0;
+            for (List<StudentAttributes> teamMembers : section.getValue().values()) {
+                studentsCount += teamMembers.size();
+            }
+            if (studentsCount > sectionSizeLimit) {
+                invalidSections.add(section.getKey());
+            }
+        }
+        Collections.sort(invalidSections);
+
+        StringBuilder errorMessage = new StringBuilder();
+        for (String section : invalidSections) {
+            errorMessage.append(String.format(Const.StatusMessages.SECTION_QUOTA_EXCEED, section));
+        }
+        return errorMessage.toString();
+    }
+
+    /**
+     * @return the error messages of teams whose students are in more than one section
+     */
+    public String getTeamInvalidityInfo() {
+        List<String> invalidTeams = new ArrayList<String>();
+        for (Map.Entry<String, Set<String>> team : sectionsByTeam.entrySet()) {
+            if (team.getValue().size() > 1) {
+                invalidTeams.add(team.getKey());
+            }
+        }
+        Collections.sort(invalidTeams);
+
+        StringBuilder errorMessage = new StringBuilder(100);
+        for (String team : invalidTeams) {
+            errorMessage.append(String.format(Const.StatusMessages.TEAM_INVALID_SECTION_EDIT,
+                                              Sanitizer.sanitizeForHtml(team)));
+        }
+
+        if (errorMessage.length() != 0) {
+            errorMessage.append("Please use the enroll page to edit multiple students");
+        }
+        return errorMessage.toString();
+    }
+
+    /**
+     * @return the error messages of emails used by more than one student in the enroll list
+     */
+    public String getEmailInvalidityInfo() {
+        StringBuilder errorMessage = new StringBuilder();
+        for (String email : duplicatedEmails) {
+            errorMessage.append(String.format(Const.StatusMessages.STUDENT_EMAIL_DUPLICATED_IN_ENROLL_LIST,
+                                              Sanitizer.sanitizeForHtml(email)));
+        }
+        return errorMessage.toString();
+    }
+
+    private void addToIndexes(StudentAttributes student) {
+        Map<String, List<StudentAttributes>> teamsInSection = studentsBySectionAndTeam.get(student.section);
+        if (teamsInSection == null) {
+            teamsInSection = new HashMap<String, List<StudentAttributes>>();
+            studentsBySectionAndTeam.put(student.section, teamsInSection);
+        }
+
+        List<StudentAttributes> teamMembers = teamsInSection.get(student.team);
+        if (teamMembers == null) {
+            teamMembers = new ArrayList<StudentAttributes>();
+            teamsInSection.put(student.team, teamMembers);
+        }
+        teamMembers.add(student);
+
+        Set<String> sectionsOfTeam = sectionsByTeam.get(student.team);
+        if (sectionsOfTeam == null) {
+            sectionsOfTeam = new HashSet<String>();
+            sectionsByTeam.put(student.team, sectionsOfTeam);
+        }
+        sectionsOfTeam.add(student.section);
+    }
+
+}
@@ -0,0 +1,135 @@
+package teammates.logic.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import teammates.common.datatransfer.StudentEnrollDetails;
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
+import teammates.common.util.RequestDeadline;
+import teammates.common.util.Utils;
+import teammates.storage.api.EntitiesDb;
+
+/**
+ * Cascades a change of a student's email, team or section to the responses,
+ * response comments, comments and session respondent lists of the course.<br>
+ * The affected entities are read with one query per kind and written back in batches of
+ * at most {@link EntitiesDb#MAX_ENTITIES_PER_BATCH}. When the request deadline approaches,
+ * the remaining work is moved to a continuation task on
+ * {@link SystemParams#STUDENT_UPDATE_CASCADE_TASK_QUEUE}. Every step skips the entities that
+ * are already updated, so the continuation resumes where the cascade stopped.
+ */
+public class StudentUpdateCascadeExecutor {
+
+    private static final Logger log = Utils.getLogger();
+
+    private final String originalEmail;
+    private final StudentEnrollDetails updateDetails;
+    /** Null to continue the cascade when the deadline of the request type is near. */
+    private Long minRemainingMillis;
+
+    private FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
+    private FeedbackResponseCommentsLogic frcLogic = FeedbackResponseCommentsLogic.inst();
+    private FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
+    private CommentsLogic commentsLogic = CommentsLogic.inst();
+    private TaskQueuesLogic taskQueuesLogic = TaskQueuesLogic.inst();
+
+    /**
+     * @param originalEmail the email of the student before the update
+     * @param updateDetails the course, the email after the update and the old and new team and
+     *                      section of the student; a team or section that is null is not changed
+     */
+    public StudentUpdateCascadeExecutor(String originalEmail, StudentEnrollDetails updateDetails) {
+        this.originalEmail = originalEmail;
+        this.updateDetails = updateDetails;
+    }
+
+    /**
+     * Sets the remaining request time in milliseconds at or below which the cascade
+     * is continued in a new task, e.g. to test the continuation, or null to use the margin
+     * of the request type given by {@link RequestDeadline#isNear()}.
+     */
+    public void setMinRemainingMillis(Long minRemainingMillis) {
+        this.minRemainingMillis = minRemainingMillis;
+    }
+
+    /**
+     * Runs the cascade until it is done or the request deadline approaches,
+     * in which case the remaining work is scheduled as a continuation task.
+     * At least one batch is processed in every call.
+     * @return true if the cascade is done, false if a continuation task was scheduled
+     */
+    public boolean execute() throws InvalidParametersException, EntityDoesNotExistException {
+        String courseId = updateDetails.course;
+        String email = updateDetails.email;
+
+        // the comments are read once for all batches, and kept up to date by the batches
+        Map<String, List<Long>> commentIdsByResponseId = null;
+        if (!originalEmail.equals(email) || isChanged(updateDetails.oldSection, updateDetails.newSection)) {
+            commentIdsByResponseId = frcLogic.getFeedbackResponseCommentIdsByResponseIdForCourse(courseId);
+        }
+
+        if (!originalEmail.equals(email)) {
+            while (frLogic.updateFeedbackResponsesForChangingEmail(courseId, originalEmail, email,
+                                                                   EntitiesDb.MAX_ENTITIES_PER_BATCH,
+                                                                   commentIdsByResponseId) > 0) {
+                if (isNearDeadline()) {
+                    return scheduleContinuation();
+                }
+            }
+            fsLogic.updateRespondantsForStudent(originalEmail, email, courseId);
+            commentsLogic.updateStudentEmail(courseId, originalEmail, email);
+        }
+
+        if (isChanged(updateDetails.oldTeam, updateDetails.newTeam)) {
+            while (frLogic.updateFeedbackResponsesForChangingTeam(courseId, email, updateDetails.oldTeam,
+                                                                  updateDetails.newTeam,
+                                                                  EntitiesDb.MAX_ENTITIES_PER_BATCH) > 0) {
+                if (isNearDeadline()) {
+                    return scheduleContinuation();
+                }
+            }
+        }
+
+        if (isChanged(updateDetails.oldSection, updateDetails.newSection)) {
+            while (frLogic.updateFeedbackResponsesForChangingSection(courseId, email, updateDetails.oldSection,
+                                                                     updateDetails.newSection,
+                                                                     EntitiesDb.MAX_ENTITIES_PER_BATCH,
+                                                                     commentIdsByResponseId) > 0) {
+                if (isNearDeadline()) {
+                    return scheduleContinuation();
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isChanged(String originalValue, String newValue) {
+        return newValue != null && originalValue != null
+                && !originalValue.equals(newValue);
+    }
+
+    private boolean isNearDeadline() {
+        return minRemainingMillis == null ? RequestDeadline.isNear() : RequestDeadline.isNear(minRemainingMillis);
+    }
+
+    private boolean scheduleContinuation() {
+        log.info("Continuing the update of student " + updateDetails.email + " in course "
+                 + updateDetails.course + " in a new task as the request deadline is near");
+
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.STUDENT_EMAIL, originalEmail);
+        paramMap.put(ParamsNames.ENROLLMENT_DETAILS, Utils.getTeammatesGson().toJson(updateDetails));
+
+        taskQueuesLogic.createAndAddTask(SystemParams.STUDENT_UPDATE_CASCADE_TASK_QUEUE,
+                                         Const.ActionURIs.STUDENT_UPDATE_CASCADE_WORKER, paramMap);
+        return false;
+    }
+
+}
@@ -1,12 +1,13 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.EntitiesChunk;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
-import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentAttributes.UpdateStatus;
@@ -22,17 +23,12 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
-import teammates.common.util.Const.ParamsNames;
-import teammates.common.util.Const.SystemParams;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.FieldValidator;
 import teammates.common.util.Sanitizer;
 import teammates.common.util.StringHelper;
-import teammates.common.util.Utils;
 import teammates.storage.api.StudentsDb;
 
-import com.google.gson.Gson;
-
 /**
  * Handles  operations related to student roles.
  */
@@ -43,7 +39,6 @@ public class StudentsLogic {
     //  comments.
     
     private static final int SECTION_SIZE_LIMIT = 100;
-    private static final int SIZE_LIMIT_PER_ENROLLMENT = 150;
 
     private static StudentsLogic instance;
     private StudentsDb studentsDb = new StudentsDb();
@@ -101,6 +96,14 @@ public class StudentsLogic {
         return studentsDb.getStudentForRegistrationKey(registrationKey);
     }
 
+    /**
+     * @param keys the unencrypted keys of the students
+     * @return the keys of the students that still exist
+     */
+    public Set<String> getExistingStudentKeys(Collection<String> keys) {
+        return studentsDb.getExistingStudentKeys(keys);
+    }
+
     public List<StudentAttributes> getStudentsForGoogleId(String googleId) {
         return studentsDb.getStudentsForGoogleId(googleId);
     }
@@ -205,8 +208,7 @@ public class StudentsLogic {
 
     public void updateStudentCascade(String originalEmail, StudentAttributes student, boolean hasDocument)
             throws InvalidParametersException, EntityDoesNotExistException {
-        StudentAttributes originalStudent = getStudentForEmail(student.course, originalEmail);
-        updateStudentCascadeWithSubmissionAdjustmentScheduled(originalEmail, student, hasDocument);
+        StudentAttributes originalStudent = updateStudent(originalEmail, student, hasDocument);
         
         /* finalEmail is the string to be used to represent a student's email.
          * This is because:
@@ -222,20 +224,12 @@ public class StudentsLogic {
                             ? originalEmail
                             : student.email;
         
-        // cascade email changes to comments
-        if (!originalStudent.email.equals(finalEmail)) {
-            commentsLogic.updateStudentEmail(student.course, originalStudent.email, finalEmail);
-        }
-        
-        // adjust submissions if moving to a different team
-        if (isTeamChanged(originalStudent.team, student.team)) {
-            frLogic.updateFeedbackResponsesForChangingTeam(student.course, finalEmail, originalStudent.team, student.team);
-        }
-
-        if (isSectionChanged(originalStudent.section, student.section)) {
-            frLogic.updateFeedbackResponsesForChangingSection(student.course, finalEmail, originalStudent.section,
-                                                              student.section);
-        }
+        // cascade email, team and section changes to responses, comments and sessions
+        StudentEnrollDetails updateDetails =
+                new StudentEnrollDetails(StudentAttributes.UpdateStatus.MODIFIED, student.course, finalEmail,
+                                         originalStudent.team, student.team,
+                                         originalStudent.section, student.section);
+        new StudentUpdateCascadeExecutor(originalEmail, updateDetails).execute();
         
         // TODO: check to delete comments for this section/team if the section/team is no longer existent in the course
     }
@@ -243,6 +237,23 @@ public class StudentsLogic {
     public void updateStudentCascadeWithSubmissionAdjustmentScheduled(String originalEmail,
             StudentAttributes student, boolean hasDocument)
             throws EntityDoesNotExistException, InvalidParametersException {
+        updateStudent(originalEmail, student, hasDocument);
+        
+        // cascade email change, if any
+        if (!originalEmail.equals(student.email)) {
+            StudentEnrollDetails updateDetails =
+                    new StudentEnrollDetails(StudentAttributes.UpdateStatus.MODIFIED, student.course, student.email,
+                                             null, null, null, null);
+            new StudentUpdateCascadeExecutor(originalEmail, updateDetails).execute();
+        }
+    }
+    
+    /**
+     * Updates the student without cascading the changes.
+     * @return the student before the update
+     */
+    private StudentAttributes updateStudent(String originalEmail, StudentAttributes student, boolean hasDocument)
+            throws EntityDoesNotExistException, InvalidParametersException {
         // Edit student uses KeepOriginal policy, where unchanged fields are set
         // as null. Hence, we can't do isValid() for student here.
         // After updateWithReferenceToExistingStudentRecord method called,
@@ -262,12 +273,7 @@ public class StudentsLogic {
         
         studentsDb.updateStudent(student.course, originalEmail, student.name, student.team, student.section,
                                  student.email, student.googleId, student.comments, hasDocument, false);
-        
-        // cascade email change, if any
-        if (!originalEmail.equals(student.email)) {
-            frLogic.updateFeedbackResponsesForChangingEmail(student.course, originalEmail, student.email);
-            fsLogic.updateRespondantsForStudent(originalEmail, student.email, student.course);
-        }
+        return originalStudent;
     }
     
     public void resetStudentGoogleId(String originalEmail, String courseId, boolean hasDocument)
@@ -321,8 +327,6 @@ public class StudentsLogic {
             throw new EnrollException(StringHelper.toString(invalidityInfo, "<br>"));
         }
         
-        ArrayList<StudentAttributes> returnList = new ArrayList<StudentAttributes>();
-        ArrayList<StudentEnrollDetails> enrollmentList = new ArrayList<StudentEnrollDetails>();
         ArrayList<StudentAttributes> studentList = new ArrayList<StudentAttributes>();
         
         String[] linesArray = enrollLines.split(Const.EOL);
@@ -341,44 +345,15 @@ public class StudentsLogic {
         }
 
         verifyIsWithinSizeLimitPerEnrollment(studentList);
-        validateSectionsAndTeams(studentList, courseId);
-
-        // TODO: can we use a batch persist operation here?
-        // enroll all students
-        for (StudentAttributes student : studentList) {
-            StudentEnrollDetails enrollmentDetails;
-            
-            enrollmentDetails = enrollStudent(student, hasDocument);
-            student.updateStatus = enrollmentDetails.updateStatus;
-            
-            enrollmentList.add(enrollmentDetails);
-            returnList.add(student);
-        }
-        
-        //Adjust submissions for all feedback responses within the course
-        List<FeedbackSessionAttributes> feedbackSessions = FeedbackSessionsLogic.inst()
-                .getFeedbackSessionsForCourse(courseId);
-        
-        for (FeedbackSessionAttributes session : feedbackSessions) {
-            //Schedule adjustment of submissions for feedback session in course
-            scheduleSubmissionAdjustmentForFeedbackInCourse(enrollmentList, courseId,
-                    session.getFeedbackSessionName());
-        }
+        List<StudentAttributes> roster = getStudentsForCourse(courseId);
+        validateSectionsAndTeams(studentList, roster);
 
-        // add to return list students not included in the enroll list.
-        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
-        for (StudentAttributes student : studentsInCourse) {
-            if (!isInEnrollList(student, returnList)) {
-                student.updateStatus = StudentAttributes.UpdateStatus.NOT_IN_ENROLL_LIST;
-                returnList.add(student);
-            }
-        }
-
-        return returnList;
+        // enroll all students, persisting them and scheduling the adjustment of submissions in batches
+        return new StudentEnrollmentEngine(courseId, hasDocument).enroll(studentList, roster);
     }
 
     private void verifyIsWithinSizeLimitPerEnrollment(List<StudentAttributes> students) throws EnrollException {
-        if (students.size() > SIZE_LIMIT_PER_ENROLLMENT) {
+        if (students.size() > Const.SystemParams.SIZE_LIMIT_PER_ENROLLMENT) {
             throw new EnrollException(Const.StatusMessages.QUOTA_PER_ENROLLMENT_EXCEED);
         }
     }
@@ -390,14 +365,14 @@ public class StudentsLogic {
      * @throws EnrollException
      */
     public void validateSectionsAndTeams(List<StudentAttributes> studentList, String courseId) throws EnrollException {
+        validateSectionsAndTeams(studentList, getStudentsForCourse(courseId));
+    }
+    
+    private void validateSectionsAndTeams(List<StudentAttributes> studentList, List<StudentAttributes> roster)
+            throws EnrollException {
 
-        List<StudentAttributes> mergedList = getMergedList(studentList, courseId);
-
-        if (mergedList.size() < 2) { // no conflicts
-            return;
-        }
-
-        String errorMessage = getSectionInvalidityInfo(mergedList) + getTeamInvalidityInfo(mergedList);
+        String errorMessage =
+                new StudentEnrollmentValidator(studentList, roster, SECTION_SIZE_LIMIT).getInvalidityInfo();
 
         if (!errorMessage.isEmpty()) {
             throw new EnrollException(errorMessage);
@@ -413,13 +388,9 @@ public class StudentsLogic {
      */
     public void validateTeams(List<StudentAttributes> studentList, String courseId) throws EnrollException {
 
-        List<StudentAttributes> mergedList = getMergedList(studentList, courseId);
-
-        if (mergedList.size() < 2) { // no conflicts
-            return;
-        }
-        
-        String errorMessage = getTeamInvalidityInfo(mergedList);
+        String errorMessage =
+                new StudentEnrollmentValidator(studentList, getStudentsForCourse(courseId), SECTION_SIZE_LIMIT)
+                        .getTeamInvalidityInfo();
 
         if (errorMessage.length() > 0) {
             throw new EnrollException(errorMessage);
@@ -427,23 +398,6 @@ public class StudentsLogic {
 
     }
     
-    private List<StudentAttributes> getMergedList(List<StudentAttributes> studentList, String courseId) {
-
-        List<StudentAttributes> mergedList = new ArrayList<StudentAttributes>();
-        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
-
-        for (StudentAttributes student : studentList) {
-            mergedList.add(student);
-        }
-
-        for (StudentAttributes student : studentsInCourse) {
-            if (!isInEnrollList(student, mergedList)) {
-                mergedList.add(student);
-            }
-        }
-        return mergedList;
-    }
-    
     public String getSectionForTeam(String courseId, String teamName) {
 
         List<StudentAttributes> students = getStudentsForTeam(teamName, courseId);
@@ -453,83 +407,6 @@ public class StudentsLogic {
         return students.get(0).section;
     }
 
-    private String getSectionInvalidityInfo(List<StudentAttributes> mergedList) {
-        
-        StudentAttributes.sortBySectionName(mergedList);
-
-        List<String> invalidSectionList = new ArrayList<String>();
-        int studentsCount = 1;
-        for (int i = 1; i < mergedList.size(); i++) {
-            StudentAttributes currentStudent = mergedList.get(i);
-            StudentAttributes previousStudent = mergedList.get(i - 1);
-            if (currentStudent.section.equals(previousStudent.section)) {
-                studentsCount++;
-            } else {
-                if (studentsCount > SECTION_SIZE_LIMIT) {
-                    invalidSectionList.add(previousStudent.section);
-                }
-                studentsCount = 1;
-            }
-
-            if (i == mergedList.size() - 1 && studentsCount > SECTION_SIZE_LIMIT) {
-                invalidSectionList.add(currentStudent.section);
-            }
-        }
-
-        StringBuilder errorMessage = new StringBuilder();
-        for (String section : invalidSectionList) {
-            errorMessage.append(String.format(Const.StatusMessages.SECTION_QUOTA_EXCEED, section));
-        }
-
-        return errorMessage.toString();
-    }
-
-    private String getTeamInvalidityInfo(List<StudentAttributes> mergedList) {
-
-        StudentAttributes.sortByTeamName(mergedList);
-
-        List<String> invalidTeamList = new ArrayList<String>();
-        for (int i = 1; i < mergedList.size(); i++) {
-            StudentAttributes currentStudent = mergedList.get(i);
-            StudentAttributes previousStudent = mergedList.get(i - 1);
-            if (currentStudent.team.equals(previousStudent.team)
-                    && !currentStudent.section.equals(previousStudent.section)
-                    && !invalidTeamList.contains(currentStudent.team)) {
-                invalidTeamList.add(currentStudent.team);
-            }
-        }
-
-        StringBuilder errorMessage = new StringBuilder(100);
-        for (String team : invalidTeamList) {
-            errorMessage.append(String.format(Const.StatusMessages.TEAM_INVALID_SECTION_EDIT,
-                                              Sanitizer.sanitizeForHtml(team)));
-        }
-
-        if (errorMessage.length() != 0) {
-            errorMessage.append("Please use the enroll page to edit multiple students");
-        }
-
-        return errorMessage.toString();
-    }
-
-    private void scheduleSubmissionAdjustmentForFeedbackInCourse(
-            ArrayList<StudentEnrollDetails> enrollmentList, String courseId, String sessionName) {
-        // private methods -- should I test this?
-        HashMap<String, String> paramMap = new HashMap<String, String>();
-        
-        paramMap.put(ParamsNames.COURSE_ID, courseId);
-        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, sessionName);
-        
-        Gson gsonBuilder = Utils.getTeammatesGson();
-        String enrollmentDetails = gsonBuilder.toJson(enrollmentList);
-        paramMap.put(ParamsNames.ENROLLMENT_DETAILS, enrollmentDetails);
-        
-        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
-        taskQueueLogic.createAndAddTask(SystemParams.FEEDBACK_SUBMISSION_ADJUSTMENT_TASK_QUEUE,
-                Const.ActionURIs.FEEDBACK_SUBMISSION_ADJUSTMENT_WORKER, paramMap);
-        
-    }
-
     public EmailWrapper sendRegistrationInviteToStudent(String courseId, String studentEmail)
             throws EntityDoesNotExistException {
         
@@ -643,6 +520,22 @@ public class StudentsLogic {
         }
     }
 
+    /**
+     * Gets up to {@code limit} students of the course, starting after the students of a previous chunk.
+     * @param cursor the cursor of the previous chunk, or null to start from the first student
+     */
+    public EntitiesChunk<StudentAttributes> getStudentsForCourseInChunk(String courseId, String cursor, int limit) {
+        return studentsDb.getStudentsForCourseInChunk(courseId, cursor, limit);
+    }
+
+    /**
+     * Deletes up to {@code limit} students of the course in one batch.
+     * @return the number of students deleted, 0 if there is no more student to delete
+     */
+    public int deleteStudentsForCourseInBatch(String courseId, int limit) {
+        return studentsDb.deleteStudentsForCourseInBatch(courseId, limit);
+    }
+    
     public void deleteStudentsForCourse(String courseId) {
         studentsDb.deleteStudentsForCourse(courseId);
     }
@@ -674,39 +567,6 @@ public class StudentsLogic {
         studentsDb.putDocument(student);
     }
     
-    private StudentEnrollDetails enrollStudent(StudentAttributes validStudentAttributes, Boolean hasDocument)
-            throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
-        StudentAttributes originalStudentAttributes = getStudentForEmail(
-                validStudentAttributes.course, validStudentAttributes.email);
-        
-        StudentEnrollDetails enrollmentDetails = new StudentEnrollDetails();
-        enrollmentDetails.course = validStudentAttributes.course;
-        enrollmentDetails.email = validStudentAttributes.email;
-        enrollmentDetails.newTeam = validStudentAttributes.team;
-        enrollmentDetails.newSection = validStudentAttributes.section;
-
-        boolean isModifyingExistingStudent = originalStudentAttributes != null;
-        if (validStudentAttributes.isEnrollInfoSameAs(originalStudentAttributes)) {
-            enrollmentDetails.updateStatus = UpdateStatus.UNMODIFIED;
-        } else if (isModifyingExistingStudent) {
-            updateStudentCascadeWithSubmissionAdjustmentScheduled(originalStudentAttributes.email,
-                                                                  validStudentAttributes, true);
-            enrollmentDetails.updateStatus = UpdateStatus.MODIFIED;
-            
-            if (!originalStudentAttributes.team.equals(validStudentAttributes.team)) {
-                enrollmentDetails.oldTeam = originalStudentAttributes.team;
-            }
-            if (!originalStudentAttributes.section.equals(validStudentAttributes.section)) {
-                enrollmentDetails.oldSection = originalStudentAttributes.section;
-            }
-        } else {
-            createStudentCascade(validStudentAttributes, hasDocument);
-            enrollmentDetails.updateStatus = UpdateStatus.NEW;
-        }
-
-        return enrollmentDetails;
-    }
-    
     /* All empty lines or lines with only white spaces will be skipped.
      * The invalidity info returned are in HTML format.
      */
@@ -762,16 +622,6 @@ public class StudentsLogic {
         return studentEmailList.contains(email);
     }
     
-    private boolean isInEnrollList(StudentAttributes student,
-            List<StudentAttributes> studentInfoList) {
-        for (StudentAttributes studentInfo : studentInfoList) {
-            if (studentInfo.email.equalsIgnoreCase(student.email)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
     private boolean isTeamChanged(String originalTeam, String newTeam) {
         return newTeam != null && originalTeam != null
                 && !originalTeam.equals(newTeam);
@@ -0,0 +1,215 @@
+package teammates.logic.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import teammates.common.util.Utils;
+
+import com.google.appengine.api.taskqueue.Queue;
+import com.google.appengine.api.taskqueue.QueueConstants;
+import com.google.appengine.api.taskqueue.QueueFactory;
+import com.google.appengine.api.taskqueue.TaskHandle;
+import com.google.appengine.api.taskqueue.TaskOptions;
+
+/**
+ * Buffers tasks per queue and adds them to their queues in batches of
+ * {@link QueueConstants#maxTasksPerAdd()} tasks, i.e. one call to the task queue
+ * service per batch instead of one call per task.<br>
+ * The tasks are only added when {@link #flush()} is called.
+ * Obtain an instance through {@link TaskQueuesLogic#createTaskBatch(boolean)}.
+ */
+public class TaskBatch {
+    
+    private static final Logger log = Utils.getLogger();
+    
+    private final boolean isAsync;
+    private final Map<String, List<TaskOptions>> tasksByQueue = new LinkedHashMap<String, List<TaskOptions>>();
+    
+    private int numberOfTasksAdded;
+    private long millisSpentAdding;
+    
+    TaskBatch(boolean isAsync) {
+        this.isAsync = isAsync;
+    }
+    
+    public void addTask(String queueName, String workerUrl, Map<String, String> paramMap) {
+        getTasks(queueName).add(TaskQueuesLogic.createTask(workerUrl, paramMap));
+    }
+    
+    public void addTaskMultisetParam(String queueName, String workerUrl, Map<String, String[]> paramMap) {
+        getTasks(queueName).add(TaskQueuesLogic.createTaskMultisetParam(workerUrl, paramMap));
+    }
+    
+    public void addDeferredTask(String queueName, String workerUrl, Map<String, String> paramMap,
+                                long countdownTime) {
+        getTasks(queueName).add(TaskQueuesLogic.createDeferredTask(workerUrl, paramMap, countdownTime));
+    }
+    
+    /**
+     * @return the number of tasks buffered and not yet added to their queues
+     */
+    public int getNumberOfPendingTasks() {
+        int numberOfPendingTasks = 0;
+        for (List<TaskOptions> tasks : tasksByQueue.values()) {
+            numberOfPendingTasks += tasks.size();
+        }
+        return numberOfPendingTasks;
+    }
+    
+    /**
+     * @return the number of tasks added to their queues by all flushes so far
+     */
+    public int getNumberOfTasksAdded() {
+        return numberOfTasksAdded;
+    }
+    
+    /**
+     * Adds all buffered tasks to their queues and logs the enqueue throughput.
+     * If the batch is asynchronous, all batches of tasks are sent before waiting for any of them.<br>
+     * If a batch is rejected because one of its tasks is invalid, e.g. too large, the tasks of that
+     * batch are added one by one, and the invalid tasks are logged and skipped.
+     * If adding a batch fails otherwise, e.g. as the task queue service is unavailable, the tasks
+     * not added are kept in the buffer for a later flush, and the first error is rethrown once
+     * the other batches are done. A synchronous flush stops at the first failed batch.
+     * @return the number of tasks added
+     */
+    public int flush() {
+        if (tasksByQueue.isEmpty()) {
+            return 0;
+        }
+        
+        long startTime = System.currentTimeMillis();
+        List<String> queueNames = new ArrayList<String>();
+        List<List<TaskOptions>> batches = new ArrayList<List<TaskOptions>>();
+        for (Map.Entry<String, List<TaskOptions>> entry : tasksByQueue.entrySet()) {
+            List<TaskOptions> tasks = entry.getValue();
+            for (int start = 0; start < tasks.size(); start += QueueConstants.maxTasksPerAdd()) {
+                int end = Math.min(start + QueueConstants.maxTasksPerAdd(), tasks.size());
+                queueNames.add(entry.getKey());
+                batches.add(new ArrayList<TaskOptions>(tasks.subList(start, end)));
+            }
+        }
+        tasksByQueue.clear();
+        
+        int numberOfTasksFlushed = 0;
+        RuntimeException failure = null;
+        boolean[] isFailed = new boolean[batches.size()];
+        List<Future<List<TaskHandle>>> pendingAdds = new ArrayList<Future<List<TaskHandle>>>();
+        for (int i = 0; i < batches.size(); i++) {
+            pendingAdds.add(null);
+            if (failure != null && !isAsync) {
+                isFailed[i] = true;
+                continue;
+            }
+            Queue queue = QueueFactory.getQueue(queueNames.get(i));
+            try {
+                if (isAsync) {
+                    try {
+                        pendingAdds.set(i, queue.addAsync(batches.get(i)));
+                    } catch (IllegalArgumentException e) {
+                        // the batch is rejected before it is sent if one of its tasks is too large
+                        numberOfTasksFlushed += addIndividually(queue, batches.get(i), e);
+                    }
+                } else {
+                    numberOfTasksFlushed += addBatch(queue, batches.get(i));
+                }
+            } catch (RuntimeException e) {
+                failure = failure == null ? e : failure;
+                isFailed[i] = true;
+            }
+        }
+        
+        for (int i = 0; i < batches.size(); i++) {
+            List<TaskOptions> batch = batches.get(i);
+            if (pendingAdds.get(i) != null) {
+                try {
+                    numberOfTasksFlushed += waitForBatch(QueueFactory.getQueue(queueNames.get(i)), batch,
+                                                         pendingAdds.get(i));
+                } catch (RuntimeException e) {
+                    failure = failure == null ? e : failure;
+                    isFailed[i] = true;
+                }
+            }
+            if (isFailed[i]) {
+                getTasks(queueNames.get(i)).addAll(batch);
+            }
+        }
+        
+        long millisSpent = System.currentTimeMillis() - startTime;
+        numberOfTasksAdded += numberOfTasksFlushed;
+        millisSpentAdding += millisSpent;
+        
+        log.info("Added " + numberOfTasksFlushed + " tasks in " + batches.size() + " calls in " + millisSpent
+                 + " ms (" + getThroughput(numberOfTasksFlushed, millisSpent) + " tasks/s); "
+                 + numberOfTasksAdded + " tasks in " + millisSpentAdding + " ms so far ("
+                 + getThroughput(numberOfTasksAdded, millisSpentAdding) + " tasks/s)");
+        
+        if (failure != null) {
+            log.warning("Failed to add " + getNumberOfPendingTasks() + " tasks, which are kept for a later flush: "
+                        + failure.getMessage());
+            throw failure;
+        }
+        return numberOfTasksFlushed;
+    }
+    
+    private List<TaskOptions> getTasks(String queueName) {
+        List<TaskOptions> tasks = tasksByQueue.get(queueName);
+        if (tasks == null) {
+            tasks = new ArrayList<TaskOptions>();
+            tasksByQueue.put(queueName, tasks);
+        }
+        return tasks;
+    }
+    
+    private static int addBatch(Queue queue, List<TaskOptions> batch) {
+        try {
+            queue.add(batch);
+            return batch.size();
+        } catch (IllegalArgumentException e) {
+            return addIndividually(queue, batch, e);
+        }
+    }
+    
+    private static int waitForBatch(Queue queue, List<TaskOptions> batch, Future<List<TaskHandle>> pendingAdd) {
+        try {
+            pendingAdd.get();
+            return batch.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                return addIndividually(queue, batch, (IllegalArgumentException) e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e);
+        }
+    }
+    
+    private static int addIndividually(Queue queue, List<TaskOptions> batch, IllegalArgumentException batchError) {
+        log.warning("Batch of " + batch.size() + " tasks rejected by queue " + queue.getQueueName()
+                    + ", adding them one by one: " + batchError.getMessage());
+        
+        int numberOfTasksAdded = 0;
+        for (TaskOptions task : batch) {
+            try {
+                queue.add(task);
+                numberOfTasksAdded++;
+            } catch (IllegalArgumentException e) {
+                log.severe("Error when adding task to queue " + queue.getQueueName() + ": " + e.getMessage());
+            }
+        }
+        return numberOfTasksAdded;
+    }
+    
+    private static long getThroughput(int numberOfTasks, long millisSpent) {
+        return numberOfTasks * 1000L / Math.max(millisSpent, 1);
+    }
+}
@@ -20,9 +20,36 @@ public class TaskQueuesLogic {
         return instance;
     }
     
+    /**
+     * Creates a batch which buffers tasks and adds them to their queues
+     * with as few calls to the task queue service as possible.
+     * Use it instead of calling {@code createAndAddTask} in a loop.
+     * @param isAsync whether the batches of tasks of a flush are added in parallel
+     */
+    public TaskBatch createTaskBatch(boolean isAsync) {
+        return new TaskBatch(isAsync);
+    }
+    
     public void createAndAddTask(String queueName,
             String workerUrl, Map<String, String> paramMap) {
         Queue requiredQueue = QueueFactory.getQueue(queueName);
+        requiredQueue.add(createTask(workerUrl, paramMap));
+    }
+    
+    // TODO Combine this and createAndAddTask and modify task schedulers accordingly?
+    public void createAndAddTaskMultisetParam(String queueName,
+            String workerUrl, Map<String, String[]> paramMap) {
+        Queue requiredQueue = QueueFactory.getQueue(queueName);
+        requiredQueue.add(createTaskMultisetParam(workerUrl, paramMap));
+    }
+    
+    public void createAndAddDeferredTask(String queueName,
+            String workerUrl, Map<String, String> paramMap, long countdownTime) {
+        Queue requiredQueue = QueueFactory.getQueue(queueName);
+        requiredQueue.add(createDeferredTask(workerUrl, paramMap, countdownTime));
+    }
+    
+    static TaskOptions createTask(String workerUrl, Map<String, String> paramMap) {
         TaskOptions taskToBeAdded = TaskOptions.Builder.withUrl(workerUrl);
         
         for (Map.Entry<String, String> entry : paramMap.entrySet()) {
@@ -32,13 +59,10 @@ public class TaskQueuesLogic {
             taskToBeAdded = taskToBeAdded.param(name, value);
         }
         
-        requiredQueue.add(taskToBeAdded);
+        return taskToBeAdded;
     }
     
-    // TODO Combine this and createAndAddTask and modify task schedulers accordingly?
-    public void createAndAddTaskMultisetParam(String queueName,
-            String workerUrl, Map<String, String[]> paramMap) {
-        Queue requiredQueue = QueueFactory.getQueue(queueName);
+    static TaskOptions createTaskMultisetParam(String workerUrl, Map<String, String[]> paramMap) {
         TaskOptions taskToBeAdded = TaskOptions.Builder.withUrl(workerUrl);
         
         for (Map.Entry<String, String[]> entry : paramMap.entrySet()) {
@@ -50,22 +74,10 @@ public class TaskQueuesLogic {
             }
         }
         
-        requiredQueue.add(taskToBeAdded);
+        return taskToBeAdded;
     }
     
-    public void createAndAddDeferredTask(String queueName,
-            String workerUrl, Map<String, String> paramMap, long countdownTime) {
-        Queue requiredQueue = QueueFactory.getQueue(queueName);
-        TaskOptions taskToBeAdded = TaskOptions.Builder.withUrl(workerUrl);
-        taskToBeAdded.countdownMillis(countdownTime);
-        
-        for (Map.Entry<String, String> entry : paramMap.entrySet()) {
-            String name = entry.getKey();
-            String value = entry.getValue();
-            
-            taskToBeAdded = taskToBeAdded.param(name, value);
-        }
-        
-        requiredQueue.add(taskToBeAdded);
+    static TaskOptions createDeferredTask(String workerUrl, Map<String, String> paramMap, long countdownTime) {
+        return createTask(workerUrl, paramMap).countdownMillis(countdownTime);
     }
 }
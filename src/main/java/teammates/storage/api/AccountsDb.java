@@ -2,7 +2,12 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.JDOObjectNotFoundException;
@@ -31,6 +36,8 @@ import com.google.appengine.api.datastore.KeyFactory;
  */
 public class AccountsDb extends EntitiesDb {
     
+    private static final String INSTITUTE_CACHE_KEY_PREFIX = "institute:";
+    
     /**
      * Preconditions:
      * <br> * {@code accountToAdd} is not null and has valid data.
@@ -101,6 +108,73 @@ public class AccountsDb extends EntitiesDb {
         return getAccount(googleId, false);
     }
 
+    /**
+     * Gets many accounts in a single batch get, without their student profiles. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the accounts found; accounts that do not exist are absent
+     */
+    public List<AccountAttributes> getAccounts(Collection<String> googleIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleIds);
+        
+        List<AccountAttributes> accounts = new ArrayList<AccountAttributes>();
+        if (googleIds.isEmpty()) {
+            return accounts;
+        }
+        
+        Query q = getPm().newQuery(Account.class);
+        q.setFilter(":p.contains(googleId)");
+        
+        @SuppressWarnings("unchecked")
+        List<Account> accountsList = (List<Account>) q.execute(new ArrayList<String>(googleIds));
+        
+        List<Account> existingAccounts = new ArrayList<Account>();
+        for (Account a : accountsList) {
+            if (!JDOHelper.isDeleted(a)) {
+                existingAccounts.add(a);
+            }
+        }
+        // closed as in getAccount, so that the student profiles are not read
+        closePm();
+        
+        for (Account a : existingAccounts) {
+            accounts.add(new AccountAttributes(a));
+        }
+        return accounts;
+    }
+    
+    /**
+     * Gets the institutes of many accounts, e.g. to group the courses of their instructors by institute.
+     * The institutes are cached in memcache until the account is modified, so that only the accounts
+     * not cached are read, in a single batch get. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the institutes by Google ID; accounts that do not exist are absent
+     */
+    public Map<String, String> getInstitutesForGoogleIds(Collection<String> googleIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleIds);
+        
+        Map<String, String> institutesByGoogleId = getCachedValues(INSTITUTE_CACHE_KEY_PREFIX, googleIds);
+        
+        Set<String> uncachedGoogleIds = new HashSet<String>(googleIds);
+        uncachedGoogleIds.removeAll(institutesByGoogleId.keySet());
+        if (!uncachedGoogleIds.isEmpty()) {
+            Map<String, String> loadedInstitutes = new HashMap<String, String>();
+            for (String googleId : uncachedGoogleIds) {
+                loadedInstitutes.put(googleId, null);
+            }
+            for (AccountAttributes account : getAccounts(uncachedGoogleIds)) {
+                loadedInstitutes.put(account.googleId, account.institute);
+            }
+            putCachedValues(INSTITUTE_CACHE_KEY_PREFIX, loadedInstitutes);
+            institutesByGoogleId.putAll(loadedInstitutes);
+        }
+        
+        // accounts cached or loaded as not existing
+        institutesByGoogleId.values().removeAll(Collections.singleton(null));
+        return institutesByGoogleId;
+    }
+    
     /**
      * @return {@link AccountAttribute} objects for all accounts with instructor privileges.
      *   Returns an empty list if no such accounts are found.
@@ -158,7 +232,7 @@ public class AccountsDb extends EntitiesDb {
                 accountToUpdate.setStudentProfile((StudentProfile) a.studentProfile.toEntity());
             }
         }
-        log.info(a.getBackupIdentifier());
+        logModification(a);
         closePm();
     }
     
@@ -230,6 +304,15 @@ public class AccountsDb extends EntitiesDb {
         return getAccountEntity(googleId, false);
     }
 
+    /**
+     * Also evicts the cached institute of the account.
+     */
+    @Override
+    protected void logModification(EntityAttributes entity) {
+        super.logModification(entity);
+        evictCachedValues(INSTITUTE_CACHE_KEY_PREFIX, Collections.singleton(((AccountAttributes) entity).googleId));
+    }
+
     @Override
     protected Object getEntity(EntityAttributes entity) {
         return getAccountEntity(((AccountAttributes) entity).googleId);
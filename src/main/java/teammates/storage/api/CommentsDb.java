@@ -3,6 +3,7 @@ package teammates.storage.api;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -14,6 +15,7 @@ import teammates.common.datatransfer.CommentParticipantType;
 import teammates.common.datatransfer.CommentSearchResultBundle;
 import teammates.common.datatransfer.CommentSendingState;
 import teammates.common.datatransfer.CommentStatus;
+import teammates.common.datatransfer.EntitiesChunk;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
@@ -26,6 +28,8 @@ import teammates.storage.entity.Comment;
 import teammates.storage.search.CommentSearchDocument;
 import teammates.storage.search.CommentSearchQuery;
 
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 
@@ -56,6 +60,21 @@ public class CommentsDb extends EntitiesDb {
         }
     }
     
+    /**
+     * Creates the comments in batches, without checking if they already exist.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the created comments with their IDs, in the same order as {@code commentsToAdd}
+     */
+    public List<CommentAttributes> createCommentsWithoutExistenceCheck(Collection<CommentAttributes> commentsToAdd)
+            throws InvalidParametersException {
+        List<CommentAttributes> createdComments = new ArrayList<CommentAttributes>();
+        for (Object comment : createEntitiesWithoutExistenceCheck(commentsToAdd)) {
+            createdComments.add(new CommentAttributes((Comment) comment));
+        }
+        return createdComments;
+    }
+    
     /**
      * Preconditions:
      * <br> * {@code entityToAdd} is not null and has valid data.
@@ -98,6 +117,26 @@ public class CommentsDb extends EntitiesDb {
         return new CommentAttributes(comment);
     }
     
+    /*
+     * Get the IDs, among the given ones, of the comments that still exist, with a single batch get
+     */
+    public Set<Long> getExistingCommentIds(Collection<Long> commentIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, commentIds);
+        
+        List<Key> keys = new ArrayList<Key>();
+        for (Long commentId : commentIds) {
+            if (commentId != null) {
+                keys.add(KeyFactory.createKey(Comment.class.getSimpleName(), commentId));
+            }
+        }
+        
+        Set<Long> existingIds = new HashSet<Long>();
+        for (Key key : getEntitiesByKeys(keys).keySet()) {
+            existingIds.add(key.getId());
+        }
+        return existingIds;
+    }
+    
     /*
      * Get comment for a given comment attribute
      */
@@ -259,7 +298,7 @@ public class CommentsDb extends EntitiesDb {
             comment.setSendingState(newState);
         }
         
-        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        logCourseModification(courseId);
         getPm().close();
     }
 
@@ -310,7 +349,7 @@ public class CommentsDb extends EntitiesDb {
         getPm().close();
         
         CommentAttributes updatedComment = new CommentAttributes(comment);
-        log.info(updatedComment.getBackupIdentifier());
+        logModification(updatedComment);
         return updatedComment;
     }
     
@@ -336,7 +375,7 @@ public class CommentsDb extends EntitiesDb {
             giverComment.setGiverEmail(updatedInstrEmail);
         }
         
-        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        logCourseModification(courseId);
         getPm().close();
     }
     
@@ -350,7 +389,7 @@ public class CommentsDb extends EntitiesDb {
             recipientComment.setGiverEmail(updatedInstrEmail);
         }
         
-        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        logCourseModification(courseId);
         getPm().close();
     }
     
@@ -377,7 +416,7 @@ public class CommentsDb extends EntitiesDb {
             recipientComment.getRecipients().add(updatedStudentEmail);
         }
         
-        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        logCourseModification(courseId);
         getPm().close();
     }
     
@@ -449,9 +488,39 @@ public class CommentsDb extends EntitiesDb {
         getPm().flush();
     }
     
+    /**
+     * Gets up to {@code limit} comments of the course, starting after the comments of a previous chunk.
+     * @param cursor the cursor of the previous chunk, or null to start from the first comment
+     */
+    public EntitiesChunk<CommentAttributes> getCommentsForCourseInChunk(String courseId, String cursor, int limit) {
+        EntitiesChunk<Comment> chunk = getEntitiesForCourseInChunk(Comment.class, "courseId", courseId, cursor, limit);
+        List<CommentAttributes> comments = new ArrayList<CommentAttributes>();
+        for (Comment comment : chunk.entities) {
+            comments.add(new CommentAttributes(comment));
+        }
+        return new EntitiesChunk<CommentAttributes>(comments, chunk.cursor);
+    }
+
     /*
      * Delete comments in certain course
      */
+    /**
+     * Deletes up to {@code limit} comments of the course and their search documents in one batch,
+     * without loading the comments.
+     * @return the number of comments deleted, 0 if there is no more comment to delete
+     */
+    public int deleteCommentsForCourseInBatch(String courseId, int limit) {
+        List<Key> keys = deleteEntitiesForCourseByKeys(Comment.class, "courseId", courseId, limit);
+        if (!keys.isEmpty()) {
+            String[] documentIds = new String[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                documentIds[i] = String.valueOf(keys.get(i).getId());
+            }
+            deleteDocuments(Const.SearchIndex.COMMENT, documentIds);
+        }
+        return keys.size();
+    }
+    
     public void deleteCommentsForCourse(String courseId) {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
@@ -482,6 +551,17 @@ public class CommentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.COMMENT, new CommentSearchDocument(comment));
     }
     
+    /*
+     * Create or update search documents for the given comments in batches
+     */
+    public void putDocuments(List<CommentAttributes> comments) {
+        List<CommentSearchDocument> documents = new ArrayList<CommentSearchDocument>();
+        for (CommentAttributes comment : comments) {
+            documents.add(new CommentSearchDocument(comment));
+        }
+        putDocuments(Const.SearchIndex.COMMENT, documents);
+    }
+    
     /**
      * Search for comments
      * @return {@link CommentSearchResultBundle}
@@ -0,0 +1,125 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.CourseDeletionJobAttributes;
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.storage.entity.CourseDeletionJob;
+
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+
+/**
+ * Handles CRUD operations for course deletion jobs.
+ */
+public class CourseDeletionJobsDb extends EntitiesDb {
+
+    /**
+     * Creates the job, replacing any existing job of the same course.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void createOrReplaceCourseDeletionJob(CourseDeletionJobAttributes job) throws InvalidParametersException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, job);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, job.courseId);
+
+        CourseDeletionJob existingJob = getCourseDeletionJobEntity(job.courseId);
+        if (existingJob != null) {
+            getPm().deletePersistent(existingJob);
+            getPm().flush();
+        }
+        createEntityWithoutExistenceCheck(job);
+    }
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return Null if not found.
+     */
+    public CourseDeletionJobAttributes getCourseDeletionJob(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        CourseDeletionJob job = getCourseDeletionJobEntity(courseId);
+        if (job == null) {
+            return null;
+        }
+        return new CourseDeletionJobAttributes(job);
+    }
+
+    /**
+     * @return all course deletion jobs, i.e. those of the courses being deleted
+     */
+    public List<CourseDeletionJobAttributes> getCourseDeletionJobs() {
+        Query q = getPm().newQuery(CourseDeletionJob.class);
+
+        @SuppressWarnings("unchecked")
+        List<CourseDeletionJob> jobs = (List<CourseDeletionJob>) q.execute();
+
+        List<CourseDeletionJobAttributes> jobAttributes = new ArrayList<CourseDeletionJobAttributes>();
+        for (CourseDeletionJob job : jobs) {
+            if (!JDOHelper.isDeleted(job)) {
+                jobAttributes.add(new CourseDeletionJobAttributes(job));
+            }
+        }
+        return jobAttributes;
+    }
+
+    /**
+     * Updates the stage and the number of deleted entities of the job,
+     * and changes its {@code updatedAt} timestamp to be the time of update.<br>
+     * Silently fails if the job does not exist.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void updateCourseDeletionJob(CourseDeletionJobAttributes job) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, job);
+
+        CourseDeletionJob jobToUpdate = getCourseDeletionJobEntity(job.courseId);
+        if (jobToUpdate == null) {
+            log.warning("Trying to update a course deletion job that does not exist: " + job.courseId);
+            return;
+        }
+
+        job.updatedAt = new Date();
+        jobToUpdate.setStage(job.stage.name());
+        jobToUpdate.setDeletedEntitiesCount(job.deletedEntitiesCount);
+        jobToUpdate.setUpdatedAt(job.updatedAt);
+
+        getPm().close();
+    }
+
+    public void deleteCourseDeletionJob(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        CourseDeletionJob job = getCourseDeletionJobEntity(courseId);
+        if (job != null) {
+            getPm().deletePersistent(job);
+            getPm().flush();
+        }
+    }
+
+    private CourseDeletionJob getCourseDeletionJobEntity(String courseId) {
+        // a get by key, unlike a query, sees a job created or deleted just before
+        Key key = KeyFactory.createKey(CourseDeletionJob.class.getSimpleName(), courseId.trim());
+        try {
+            CourseDeletionJob job = getPm().getObjectById(CourseDeletionJob.class, key);
+            return JDOHelper.isDeleted(job) ? null : job;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        return getCourseDeletionJobEntity(((CourseDeletionJobAttributes) attributes).courseId);
+    }
+}
@@ -0,0 +1,170 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.DatastoreOperationProfile.OperationType;
+import teammates.storage.datastore.ProfiledPersistenceManager;
+import teammates.storage.entity.CourseModification;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.DatastoreTimeoutException;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Transaction;
+
+/**
+ * Handles the journal of the modifications of courses, which keeps the last time the data
+ * of each course was modified.<br>
+ * To keep the writes to the journal of a course well below the rate the datastore allows,
+ * each instance records a modification of the same course at most once per
+ * {@link #RESOLUTION_MILLIS}, so the last modification of a course may be up to
+ * {@link #RESOLUTION_MILLIS} later than recorded.
+ */
+public class CourseModificationsDb extends EntitiesDb {
+
+    /** The precision of the time of the last modification of a course */
+    public static final long RESOLUTION_MILLIS = 60 * 1000;
+
+    /** The number of courses whose last recorded modification is remembered by an instance */
+    private static final int MAX_COURSES_REMEMBERED = 10000;
+
+    /** The number of times a journal entry is read and written again when modified concurrently */
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
+    /** The time at which this instance last recorded a modification of each course */
+    private static final ConcurrentMap<String, Long> LAST_RECORDED_MILLIS = new ConcurrentHashMap<String, Long>();
+
+    /**
+     * Records that the data of the course is modified now, unless this instance recorded a modification
+     * of the course less than {@link #RESOLUTION_MILLIS} ago.<br>
+     * The journal entry is updated directly in the datastore, independently of the persistence manager
+     * of the request, in a transaction which puts it only if it is not already later, so that
+     * the modification recorded by another instance at the same time is not overwritten by an earlier one.<br>
+     * As the journal is updated before the modified entity is committed, a failure to update it is
+     * only logged, and the modification is recorded again with the next modification of the course.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void recordCourseModification(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        long now = System.currentTimeMillis();
+        Long lastRecordedMillis = LAST_RECORDED_MILLIS.get(courseId);
+        if (lastRecordedMillis != null && now - lastRecordedMillis < RESOLUTION_MILLIS) {
+            return;
+        }
+
+        // the property names are those of the fields of CourseModification, whose primary key is the key name
+        Key key = KeyFactory.createKey(CourseModification.class.getSimpleName(), courseId.trim());
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            try {
+                updateLastModifiedAt(key, now);
+                rememberRecordedModification(courseId, now);
+                return;
+            } catch (ConcurrentModificationException | DatastoreTimeoutException e) {
+                if (attempt == MAX_UPDATE_ATTEMPTS) {
+                    logFailedRecording(courseId, attempt, e);
+                }
+            } catch (RuntimeException e) {
+                logFailedRecording(courseId, attempt, e);
+                return;
+            }
+        }
+    }
+
+    private void rememberRecordedModification(String courseId, long recordedMillis) {
+        if (LAST_RECORDED_MILLIS.size() >= MAX_COURSES_REMEMBERED) {
+            LAST_RECORDED_MILLIS.clear();
+        }
+        LAST_RECORDED_MILLIS.put(courseId, recordedMillis);
+    }
+
+    private void logFailedRecording(String courseId, int attempts, RuntimeException e) {
+        log.warning("Modification of course " + courseId + " not recorded after " + attempts
+                    + " attempts: " + TeammatesException.toStringWithStackTrace(e));
+    }
+
+    private void updateLastModifiedAt(Key key, long lastModifiedMillis) {
+        DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+        Transaction txn = datastore.beginTransaction();
+        try {
+            long startTime = System.nanoTime();
+            Date lastRecorded = null;
+            try {
+                lastRecorded = (Date) datastore.get(txn, key).getProperty("lastModifiedAt");
+            } catch (EntityNotFoundException e) {
+                // first modification recorded for the course
+            }
+            ProfiledPersistenceManager.recordOperation(OperationType.GET, startTime);
+
+            if (lastRecorded == null || lastRecorded.getTime() < lastModifiedMillis) {
+                Entity entity = new Entity(key);
+                entity.setProperty("lastModifiedAt", new Date(lastModifiedMillis));
+
+                startTime = System.nanoTime();
+                datastore.put(txn, entity);
+                ProfiledPersistenceManager.recordOperation(OperationType.PUT, startTime);
+            }
+            txn.commit();
+        } finally {
+            if (txn.isActive()) {
+                txn.rollback();
+            }
+        }
+    }
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the IDs of the courses whose data may have been modified at or after the given time,
+     *         which includes the courses modified up to {@link #RESOLUTION_MILLIS} before that time
+     */
+    public List<String> getCourseIdsModifiedSince(Date since) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, since);
+
+        Query q = getPm().newQuery(CourseModification.class);
+        q.declareParameters("java.util.Date sinceParam");
+        q.setFilter("lastModifiedAt >= sinceParam");
+
+        @SuppressWarnings("unchecked")
+        List<CourseModification> modifications =
+                (List<CourseModification>) q.execute(new Date(since.getTime() - RESOLUTION_MILLIS));
+
+        List<String> courseIds = new ArrayList<String>();
+        for (CourseModification modification : modifications) {
+            if (!JDOHelper.isDeleted(modification)) {
+                courseIds.add(modification.getCourseId());
+            }
+        }
+        return courseIds;
+    }
+
+    /**
+     * Forgets the modifications recorded by this instance, so that the next modification
+     * of each course is recorded, e.g. to test the journal.
+     */
+    public static void clearRecordedModifications() {
+        LAST_RECORDED_MILLIS.clear();
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        // the journal has no attributes class
+        return null;
+    }
+}
@@ -123,7 +123,7 @@ public class CoursesDb extends EntitiesDb {
         courseEntityToUpdate.setName(courseToUpdate.getName());
         courseEntityToUpdate.setArchiveStatus(Boolean.valueOf(courseToUpdate.isArchived));
         
-        log.info(courseToUpdate.getBackupIdentifier());
+        logModification(courseToUpdate);
         getPm().close();
     }
     
@@ -2,27 +2,48 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.PersistenceManager;
 
+import teammates.common.datatransfer.EntitiesChunk;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Config;
 import teammates.common.util.Const;
+import teammates.common.util.DatastoreOperationProfile;
+import teammates.common.util.DatastoreOperationProfile.OperationType;
 import teammates.common.util.GoogleCloudStorageHelper;
 import teammates.common.util.ThreadHelper;
 import teammates.common.util.Utils;
 import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.ProfiledPersistenceManager;
 import teammates.storage.search.SearchDocument;
 import teammates.storage.search.SearchManager;
 import teammates.storage.search.SearchQuery;
 
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
+
 import com.google.appengine.api.blobstore.BlobKey;
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import com.google.appengine.api.memcache.Expiration;
+import com.google.appengine.api.memcache.MemcacheServiceException;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 import com.google.appengine.api.search.SearchQueryException;
@@ -44,8 +65,20 @@ public abstract class EntitiesDb {
     public static final String ERROR_TRYING_TO_MAKE_NON_EXISTENT_ACCOUNT_AN_INSTRUCTOR =
             "Trying to make an non-existent account an Instructor :";
 
+    /** Maximum number of entities written to the datastore in a single batch operation. */
+    public static final int MAX_ENTITIES_PER_BATCH = 500;
+
+    /** Maximum number of values in a {@code :p.contains(field)} filter on a field other than the primary key. */
+    protected static final int MAX_VALUES_PER_CONTAINS_FILTER = 30;
+
+    /** Time for which the values cached in memcache by the {@code *Db} classes are kept, in seconds. */
+    protected static final int CACHE_EXPIRATION_SECONDS = 60 * 60;
+
     protected static final Logger log = Utils.getLogger();
-    
+
+    /** The value cached in memcache for an ID known to have no value, as memcache cannot tell null values apart. */
+    private static final Boolean NO_VALUE = Boolean.FALSE;
+
     /**
      * Preconditions:
      * <br> * {@code entityToAdd} is not null and has valid data.
@@ -96,7 +129,7 @@ public abstract class EntitiesDb {
             }
         }
         
-        log.info(entityToAdd.getBackupIdentifier());
+        logModification(entityToAdd);
         
         return entity;
     }
@@ -123,7 +156,7 @@ public abstract class EntitiesDb {
                 entitiesToUpdate.add(entityToAdd);
             }
             
-            log.info(entityToAdd.getBackupIdentifier());
+            logModification(entityToAdd);
         }
        
         getPm().makePersistentAll(entities);
@@ -155,7 +188,7 @@ public abstract class EntitiesDb {
                 entitiesToUpdate.add(entityToAdd);
             }
             
-            log.info(entityToAdd.getBackupIdentifier());
+            logModification(entityToAdd);
         }
         
         getPm().makePersistentAll(entities);
@@ -165,7 +198,40 @@ public abstract class EntitiesDb {
 
     }
 
-    
+    /**
+     * Creates the entities in batches of at most {@link #MAX_ENTITIES_PER_BATCH} without
+     * checking whether they already exist. Use only when the caller has already verified
+     * that none of the entities exist, e.g. from a single query done beforehand.
+     * Preconditions:
+     * <br> * {@code entitiesToAdd} is not null.
+     * @return the created entities, in the same order as {@code entitiesToAdd}
+     */
+    public List<Object> createEntitiesWithoutExistenceCheck(Collection<? extends EntityAttributes> entitiesToAdd)
+            throws InvalidParametersException {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToAdd);
+
+        List<Object> entities = new ArrayList<Object>();
+        for (EntityAttributes entityToAdd : entitiesToAdd) {
+            entityToAdd.sanitizeForSaving();
+
+            if (!entityToAdd.isValid()) {
+                throw new InvalidParametersException(entityToAdd.getInvalidityInfo());
+            }
+
+            entities.add(entityToAdd.toEntity());
+            logModification(entityToAdd);
+        }
+
+        for (int start = 0; start < entities.size(); start += MAX_ENTITIES_PER_BATCH) {
+            getPm().makePersistentAll(entities.subList(start, Math.min(start + MAX_ENTITIES_PER_BATCH, entities.size())));
+            getPm().flush();
+        }
+
+        return entities;
+    }
+
+
     /**
      * Warning: Do not use this method unless a previous update might cause
      * adding of the new entity to fail due to EntityAlreadyExists exception
@@ -206,7 +272,7 @@ public abstract class EntitiesDb {
                          + entityToAdd.getIdentificationString());
             }
         }
-        log.info(entityToAdd.getBackupIdentifier());
+        logModification(entityToAdd);
         
         return entity;
     }
@@ -252,7 +318,7 @@ public abstract class EntitiesDb {
                         + entityToDelete.getIdentificationString());
             }
         }
-        log.info(entityToDelete.getBackupIdentifier());
+        logModification(entityToDelete);
     }
     
     public void deleteEntities(Collection<? extends EntityAttributes> entitiesToDelete) {
@@ -263,7 +329,7 @@ public abstract class EntitiesDb {
             Object entity = getEntity(entityToDelete);
             if (entity != null) {
                 entities.add(entity);
-                log.info(entityToDelete.getBackupIdentifier());
+                logModification(entityToDelete);
             }
         }
         
@@ -271,6 +337,218 @@ public abstract class EntitiesDb {
         getPm().flush();
     }
     
+    /**
+     * Deletes up to {@code limit} entities of the course with a keys-only query,
+     * so that the entities are never loaded.
+     * Preconditions:
+     * <br> * All parameters are non-null.
+     * @param entityClass the class of the entities, whose simple name is the datastore kind of the entities
+     * @param courseIdProperty the name of the field of {@code entityClass} holding the course ID
+     * @return the keys of the deleted entities
+     */
+    protected List<Key> deleteEntitiesForCourseByKeys(Class<?> entityClass, String courseIdProperty,
+                                                      String courseId, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+        Query q = new Query(entityClass.getSimpleName())
+                .setFilter(new FilterPredicate(courseIdProperty, FilterOperator.EQUAL, courseId))
+                .setKeysOnly();
+
+        long startTime = System.nanoTime();
+        List<Key> keys = new ArrayList<Key>();
+        for (Entity entity : datastore.prepare(q).asIterable(FetchOptions.Builder.withLimit(limit))) {
+            keys.add(entity.getKey());
+        }
+        ProfiledPersistenceManager.recordQuery(entityClass.getSimpleName() + " keys where " + courseIdProperty,
+                                               courseId, startTime);
+        
+        startTime = System.nanoTime();
+        datastore.delete(keys);
+        ProfiledPersistenceManager.recordOperation(OperationType.DELETE, startTime);
+
+        logCourseModification(courseId);
+        return keys;
+    }
+    
+    /**
+     * Saves the entities in a single batch put, e.g. to update a few properties of entities read
+     * with {@link #getEntitiesByKeys}. The entities are written directly to the datastore,
+     * bypassing the persistence manager.
+     */
+    protected void putEntities(Collection<Entity> entities) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, entities);
+        
+        long startTime = System.nanoTime();
+        DatastoreServiceFactory.getDatastoreService().put(entities);
+        ProfiledPersistenceManager.recordOperation(OperationType.PUT, startTime);
+    }
+    
+    /**
+     * Deletes the entities with the given keys in a single batch delete, without reading them.
+     * The entities are deleted directly from the datastore, bypassing the persistence manager.
+     */
+    protected void deleteEntitiesByKeys(Collection<Key> keys) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, keys);
+        
+        long startTime = System.nanoTime();
+        DatastoreServiceFactory.getDatastoreService().delete(keys);
+        ProfiledPersistenceManager.recordOperation(OperationType.DELETE, startTime);
+    }
+    
+    /**
+     * Gets up to {@code limit} entities of the course, starting after the entities of a previous chunk,
+     * so that all the entities of a large course can be read over many requests.
+     * Preconditions:
+     * <br> * {@code entityClass}, {@code courseIdProperty} and {@code courseId} are non-null.
+     * @param courseIdProperty the name of the field of {@code entityClass} holding the course ID
+     * @param cursor the cursor of the previous chunk, or null to start from the first entity
+     * @return the entities, with a null cursor if there are no more entities after them
+     */
+    @SuppressWarnings("unchecked")
+    protected <E> EntitiesChunk<E> getEntitiesForCourseInChunk(Class<E> entityClass, String courseIdProperty,
+                                                               String courseId, String cursor, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        javax.jdo.Query q = getPm().newQuery(entityClass);
+        q.declareParameters("String courseIdParam");
+        q.setFilter(courseIdProperty + " == courseIdParam");
+        if (cursor != null) {
+            Map<String, Object> extensions = new HashMap<String, Object>();
+            extensions.put(JDOCursorHelper.CURSOR_EXTENSION, Cursor.fromWebSafeString(cursor));
+            q.setExtensions(extensions);
+        }
+        q.setRange(0, limit);
+
+        List<E> results = (List<E>) q.execute(courseId);
+        List<E> entities = new ArrayList<E>();
+        for (E entity : results) {
+            if (!JDOHelper.isDeleted(entity)) {
+                entities.add(entity);
+            }
+        }
+
+        // a chunk smaller than the limit is the last one, saving a query that returns nothing
+        String nextCursor = results.size() < limit ? null
+                                                   : JDOCursorHelper.getCursor(results).toWebSafeString();
+        return new EntitiesChunk<E>(entities, nextCursor);
+    }
+
+    /**
+     * Gets the entities with the given keys in a single batch get, e.g. to verify that the
+     * entities of many search results still exist without a read per result.
+     * The entities are read directly from the datastore, bypassing the persistence manager.
+     * @return the entities found, by key; keys of entities that do not exist are absent
+     */
+    protected Map<Key, Entity> getEntitiesByKeys(Collection<Key> keys) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, keys);
+        if (keys.isEmpty()) {
+            return new HashMap<Key, Entity>();
+        }
+        long startTime = System.nanoTime();
+        Map<Key, Entity> entities = DatastoreServiceFactory.getDatastoreService().get(keys);
+        ProfiledPersistenceManager.recordOperation(OperationType.GET, startTime);
+        return entities;
+    }
+    
+    /**
+     * Splits the values of a {@code :p.contains(field)} filter on a field other than the primary key
+     * into lists that the datastore accepts in one query.
+     */
+    protected static List<List<String>> splitForContainsFilter(Collection<String> values) {
+        List<List<String>> chunks = new ArrayList<List<String>>();
+        List<String> chunk = new ArrayList<String>();
+        for (String value : values) {
+            if (chunk.size() == MAX_VALUES_PER_CONTAINS_FILTER) {
+                chunks.add(chunk);
+                chunk = new ArrayList<String>();
+            }
+            chunk.add(value);
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+    
+    /**
+     * Gets the values cached in memcache for the IDs, under keys made of {@code keyPrefix} and the ID.
+     * Memcache failures are treated as cache misses.
+     * @return the cached values by ID, with a null value for the IDs cached as having no value;
+     *         IDs that are not cached are absent
+     */
+    protected static Map<String, String> getCachedValues(String keyPrefix, Collection<String> ids) {
+        List<String> keys = new ArrayList<String>();
+        for (String id : ids) {
+            keys.add(keyPrefix + id);
+        }
+
+        Map<String, String> values = new HashMap<String, String>();
+        try {
+            for (Map.Entry<String, Object> entry : MemcacheServiceFactory.getMemcacheService().getAll(keys).entrySet()) {
+                String id = entry.getKey().substring(keyPrefix.length());
+                values.put(id, entry.getValue() instanceof String ? (String) entry.getValue() : null);
+            }
+        } catch (MemcacheServiceException | IllegalArgumentException e) {
+            log.warning("Could not read the cached values of " + keyPrefix + ": " + e.getMessage());
+        }
+        return values;
+    }
+
+    /**
+     * Caches the values in memcache for at most {@link #CACHE_EXPIRATION_SECONDS}, which bounds their staleness
+     * if an eviction fails. A null value caches the absence of a value for the ID.
+     */
+    protected static void putCachedValues(String keyPrefix, Map<String, String> values) {
+        Map<String, Object> valuesByKey = new HashMap<String, Object>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            valuesByKey.put(keyPrefix + entry.getKey(), entry.getValue() == null ? NO_VALUE : entry.getValue());
+        }
+        try {
+            MemcacheServiceFactory.getMemcacheService().putAll(valuesByKey,
+                                                               Expiration.byDeltaSeconds(CACHE_EXPIRATION_SECONDS));
+        } catch (MemcacheServiceException | IllegalArgumentException e) {
+            log.warning("Could not cache the values of " + keyPrefix + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Evicts the values cached in memcache for the IDs, e.g. when the entities they are computed from are modified.
+     */
+    protected static void evictCachedValues(String keyPrefix, Collection<String> ids) {
+        List<String> keys = new ArrayList<String>();
+        for (String id : ids) {
+            keys.add(keyPrefix + id);
+        }
+        try {
+            MemcacheServiceFactory.getMemcacheService().deleteAll(keys);
+        } catch (MemcacheServiceException | IllegalArgumentException e) {
+            log.warning("Could not evict the cached values of " + keyPrefix + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Logs the modification of the entity for backups and, if the entity belongs to a course,
+     * records the modification of the course in the journal of {@link CourseModificationsDb}.
+     */
+    protected void logModification(EntityAttributes entity) {
+        String backupIdentifier = entity.getBackupIdentifier();
+        if (backupIdentifier.startsWith(Const.SystemParams.COURSE_BACKUP_LOG_MSG)) {
+            logCourseModification(backupIdentifier.substring(Const.SystemParams.COURSE_BACKUP_LOG_MSG.length()));
+        } else {
+            log.info(backupIdentifier);
+        }
+    }
+    
+    /**
+     * Logs the modification of the data of the course for backups, and records it in the journal
+     * of {@link CourseModificationsDb}.
+     */
+    protected void logCourseModification(String courseId) {
+        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        new CourseModificationsDb().recordCourseModification(courseId);
+    }
+    
     public void commitOutstandingChanges() {
         closePm();
     }
@@ -294,8 +572,12 @@ public abstract class EntitiesDb {
      */
     protected abstract Object getEntity(EntityAttributes attributes);
     
+    /**
+     * @return the persistence manager of the request, whose operations are recorded in the
+     *         {@link DatastoreOperationProfile} of the request
+     */
     protected PersistenceManager getPm() {
-        return Datastore.getPersistenceManager();
+        return ProfiledPersistenceManager.wrap(Datastore.getPersistenceManager());
     }
     
     //the followings APIs are used by Teammates' search engine
@@ -307,6 +589,18 @@ public abstract class EntitiesDb {
         }
     }
     
+    protected void putDocuments(String indexName, List<? extends SearchDocument> documents) {
+        List<Document> builtDocuments = new ArrayList<Document>();
+        for (SearchDocument document : documents) {
+            builtDocuments.add(document.build());
+        }
+        try {
+            SearchManager.putDocuments(indexName, builtDocuments);
+        } catch (Exception e) {
+            log.info("Failed to put " + builtDocuments.size() + " searchable documents in " + indexName);
+        }
+    }
+
     protected void getDocument(String indexName, String documentId) {
         SearchManager.getDocument(indexName, documentId);
     }
@@ -2,7 +2,10 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
@@ -16,6 +19,9 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.storage.entity.FeedbackQuestion;
 
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+
 public class FeedbackQuestionsDb extends EntitiesDb {
     public static final String ERROR_UPDATE_NON_EXISTENT = "Trying to update non-existent Feedback Question : ";
     
@@ -52,6 +58,34 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         return new FeedbackQuestionAttributes(fq);
     }
 
+    /**
+     * Checks in a single batch get which of the questions still exist. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the IDs of the questions that still exist
+     */
+    public Set<String> getExistingFeedbackQuestionIds(Collection<String> feedbackQuestionIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackQuestionIds);
+        
+        List<Key> keys = new ArrayList<Key>();
+        for (String feedbackQuestionId : feedbackQuestionIds) {
+            if (feedbackQuestionId == null) {
+                continue;
+            }
+            try {
+                keys.add(KeyFactory.stringToKey(feedbackQuestionId));
+            } catch (IllegalArgumentException e) {
+                log.warning("Invalid question ID: " + feedbackQuestionId);
+            }
+        }
+        
+        Set<String> existingIds = new HashSet<String>();
+        for (Key key : getEntitiesByKeys(keys).keySet()) {
+            existingIds.add(KeyFactory.keyToString(key));
+        }
+        return existingIds;
+    }
+
     public FeedbackQuestionAttributes createFeedbackQuestionWithoutExistenceCheck(
             EntityAttributes entityToAdd) throws InvalidParametersException {
         Object obj = this.createEntityWithoutExistenceCheck(entityToAdd);
@@ -59,6 +93,21 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         return new FeedbackQuestionAttributes((FeedbackQuestion) obj);
     }
     
+    /**
+     * Creates the questions in batches, without checking if they already exist.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the created questions, in the same order as {@code questionsToAdd}
+     */
+    public List<FeedbackQuestionAttributes> createFeedbackQuestionsWithoutExistenceCheck(
+            Collection<FeedbackQuestionAttributes> questionsToAdd) throws InvalidParametersException {
+        List<FeedbackQuestionAttributes> createdQuestions = new ArrayList<FeedbackQuestionAttributes>();
+        for (Object question : createEntitiesWithoutExistenceCheck(questionsToAdd)) {
+            createdQuestions.add(new FeedbackQuestionAttributes((FeedbackQuestion) question));
+        }
+        return createdQuestions;
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -202,10 +251,47 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         //set true to prevent changes to last update timestamp
         fq.keepUpdateTimestamp = keepUpdateTimestamp;
         
-        log.info(newAttributes.getBackupIdentifier());
+        logModification(newAttributes);
+        getPm().close();
+    }
+    
+    /**
+     * Changes the question numbers of the questions in the session in one batch,
+     *   and changes their {@code updatedAt} timestamps to be the time of update.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @param newQuestionNumbers the new question number of each question to update, by question ID
+     */
+    public void updateFeedbackQuestionNumbers(String feedbackSessionName, String courseId,
+                                              Map<String, Integer> newQuestionNumbers) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newQuestionNumbers);
+        
+        if (newQuestionNumbers.isEmpty()) {
+            return;
+        }
+        
+        for (FeedbackQuestion fq : getFeedbackQuestionEntitiesForSession(feedbackSessionName, courseId)) {
+            Integer newQuestionNumber = newQuestionNumbers.get(fq.getId());
+            if (newQuestionNumber != null && !JDOHelper.isDeleted(fq)) {
+                fq.setQuestionNumber(newQuestionNumber);
+                fq.keepUpdateTimestamp = false;
+            }
+        }
+        
+        logCourseModification(courseId);
         getPm().close();
     }
     
+    /**
+     * Deletes up to {@code limit} questions of the course in one batch, without loading the questions.
+     * @return the number of questions deleted, 0 if there is no more question to delete
+     */
+    public int deleteFeedbackQuestionsForCourseInBatch(String courseId, int limit) {
+        return deleteEntitiesForCourseByKeys(FeedbackQuestion.class, "courseId", courseId, limit).size();
+    }
+    
     public void deleteFeedbackQuestionsForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
@@ -4,14 +4,19 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.Query;
 
 import teammates.common.datatransfer.CommentSendingState;
+import teammates.common.datatransfer.EntitiesChunk;
 import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentSearchResultBundle;
 import teammates.common.datatransfer.InstructorAttributes;
@@ -22,8 +27,11 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.storage.entity.FeedbackResponseComment;
 import teammates.storage.search.FeedbackResponseCommentSearchDocument;
+import teammates.storage.search.FeedbackResponseCommentSearchDocumentBuilder;
 import teammates.storage.search.FeedbackResponseCommentSearchQuery;
 
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 
@@ -53,6 +61,21 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         }
     }
     
+    /**
+     * Creates the response comments in batches, without checking if they already exist.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the created response comments with their IDs, in the same order as {@code commentsToAdd}
+     */
+    public List<FeedbackResponseCommentAttributes> createFeedbackResponseCommentsWithoutExistenceCheck(
+            Collection<FeedbackResponseCommentAttributes> commentsToAdd) throws InvalidParametersException {
+        List<FeedbackResponseCommentAttributes> createdComments = new ArrayList<FeedbackResponseCommentAttributes>();
+        for (Object comment : createEntitiesWithoutExistenceCheck(commentsToAdd)) {
+            createdComments.add(new FeedbackResponseCommentAttributes((FeedbackResponseComment) comment));
+        }
+        return createdComments;
+    }
+    
     /**
      * Preconditions:
      * <br> * {@code entityToAdd} is not null and has valid data.
@@ -99,6 +122,30 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         return new FeedbackResponseCommentAttributes(frc);
     }
     
+    /**
+     * Checks in a single batch get which of the response comments still exist. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the IDs of the response comments that still exist
+     */
+    public Set<Long> getExistingFeedbackResponseCommentIds(Collection<Long> feedbackResponseCommentIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackResponseCommentIds);
+        
+        List<Key> keys = new ArrayList<Key>();
+        for (Long feedbackResponseCommentId : feedbackResponseCommentIds) {
+            if (feedbackResponseCommentId != null) {
+                keys.add(KeyFactory.createKey(FeedbackResponseComment.class.getSimpleName(),
+                                              feedbackResponseCommentId));
+            }
+        }
+        
+        Set<Long> existingIds = new HashSet<Long>();
+        for (Key key : getEntitiesByKeys(keys).keySet()) {
+            existingIds.add(key.getId());
+        }
+        return existingIds;
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -217,6 +264,38 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         getPm().flush();
     }
     
+    /**
+     * Gets up to {@code limit} response comments of the course, starting after the response comments of a previous chunk.
+     * @param cursor the cursor of the previous chunk, or null to start from the first response comment
+     */
+    public EntitiesChunk<FeedbackResponseCommentAttributes> getFeedbackResponseCommentsForCourseInChunk(
+            String courseId, String cursor, int limit) {
+        EntitiesChunk<FeedbackResponseComment> chunk =
+                getEntitiesForCourseInChunk(FeedbackResponseComment.class, "courseId", courseId, cursor, limit);
+        List<FeedbackResponseCommentAttributes> responseComments = new ArrayList<FeedbackResponseCommentAttributes>();
+        for (FeedbackResponseComment responseComment : chunk.entities) {
+            responseComments.add(new FeedbackResponseCommentAttributes(responseComment));
+        }
+        return new EntitiesChunk<FeedbackResponseCommentAttributes>(responseComments, chunk.cursor);
+    }
+
+    /**
+     * Deletes up to {@code limit} response comments of the course and their search documents in one batch,
+     * without loading the response comments.
+     * @return the number of response comments deleted, 0 if there is no more response comment to delete
+     */
+    public int deleteFeedbackResponseCommentsForCourseInBatch(String courseId, int limit) {
+        List<Key> keys = deleteEntitiesForCourseByKeys(FeedbackResponseComment.class, "courseId", courseId, limit);
+        if (!keys.isEmpty()) {
+            String[] documentIds = new String[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                documentIds[i] = String.valueOf(keys.get(i).getId());
+            }
+            deleteDocuments(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, documentIds);
+        }
+        return keys.size();
+    }
+    
     public void deleteFeedbackResponseCommentsForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
@@ -336,7 +415,7 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
             frc.setFeedbackResponseId(newAttributes.feedbackResponseId);
         }
         
-        log.info(newAttributes.getBackupIdentifier());
+        logModification(newAttributes);
         getPm().close();
         
         return new FeedbackResponseCommentAttributes(frc);
@@ -361,7 +440,85 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
             responseComment.setGiverEmail(updatedEmail);
         }
         
-        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        logCourseModification(courseId);
+        getPm().close();
+    }
+    
+    /*
+     * Get the ids of the response comments in the course by the id of their response, with one query,
+     * so that a cascade over many batches of responses reads the comments of the course only once
+     */
+    public Map<String, List<Long>> getFeedbackResponseCommentIdsByResponseIdForCourse(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        Map<String, List<Long>> commentIdsByResponseId = new HashMap<String, List<Long>>();
+        for (FeedbackResponseComment responseComment : getFeedbackResponseCommentEntitiesForCourse(courseId)) {
+            List<Long> commentIds = commentIdsByResponseId.get(responseComment.getFeedbackResponseId());
+            if (commentIds == null) {
+                commentIds = new ArrayList<Long>();
+                commentIdsByResponseId.put(responseComment.getFeedbackResponseId(), commentIds);
+            }
+            commentIds.add(responseComment.getFeedbackResponseCommentId());
+        }
+        return commentIdsByResponseId;
+    }
+    
+    /*
+     * Move the comments of responses that were recreated with a new id to the new response id.
+     * Only the comments listed for the old responses in commentIdsByResponseId are read, and the map
+     * is updated to list them under the new response ids
+     */
+    public void updateFeedbackResponseIdOfComments(String courseId, Map<String, String> newResponseIds,
+                                                   Map<String, List<Long>> commentIdsByResponseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newResponseIds);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, commentIdsByResponseId);
+        
+        boolean isUpdated = false;
+        for (Map.Entry<String, String> responseIds : newResponseIds.entrySet()) {
+            List<Long> commentIds = commentIdsByResponseId.remove(responseIds.getKey());
+            if (commentIds == null) {
+                continue;
+            }
+            for (FeedbackResponseComment responseComment : getFeedbackResponseCommentEntitiesByIds(commentIds)) {
+                responseComment.setFeedbackResponseId(responseIds.getValue());
+                isUpdated = true;
+            }
+            commentIdsByResponseId.put(responseIds.getValue(), commentIds);
+        }
+        
+        if (isUpdated) {
+            logCourseModification(courseId);
+        }
+        getPm().close();
+    }
+    
+    /*
+     * Set the giver and receiver sections of the comments of the given responses to those of the responses.
+     * Only the comments listed for the responses in commentIdsByResponseId are read
+     */
+    public void updateSectionsOfComments(String courseId, List<FeedbackResponseAttributes> responses,
+                                         Map<String, List<Long>> commentIdsByResponseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responses);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, commentIdsByResponseId);
+        
+        boolean isUpdated = false;
+        for (FeedbackResponseAttributes response : responses) {
+            List<Long> commentIds = commentIdsByResponseId.get(response.getId());
+            if (commentIds == null) {
+                continue;
+            }
+            for (FeedbackResponseComment responseComment : getFeedbackResponseCommentEntitiesByIds(commentIds)) {
+                responseComment.setGiverSection(response.giverSection);
+                responseComment.setReceiverSection(response.recipientSection);
+                isUpdated = true;
+            }
+        }
+        
+        if (isUpdated) {
+            logCourseModification(courseId);
+        }
         getPm().close();
     }
     
@@ -400,7 +557,7 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
             frComment.setSendingState(newState);
         }
         
-        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        logCourseModification(courseId);
         getPm().close();
     }
     
@@ -411,6 +568,16 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, new FeedbackResponseCommentSearchDocument(comment));
     }
     
+    /*
+     * Create or update search documents for the given comments in batches,
+     * reading the entities related to the comments once for all of them
+     */
+    public void putDocuments(List<FeedbackResponseCommentAttributes> comments) {
+        List<FeedbackResponseCommentSearchDocument> documents =
+                new FeedbackResponseCommentSearchDocumentBuilder().build(comments);
+        putDocuments(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, documents);
+    }
+    
     /**
      * Search for response comments
      * @return {@link FeedbackResponseCommentSearchResultBundle}
@@ -601,6 +768,22 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         return getCommentsWithoutDeletedEntity(feedbackResponseCommentList);
     }
     
+    private List<FeedbackResponseComment> getFeedbackResponseCommentEntitiesByIds(List<Long> commentIds) {
+        List<FeedbackResponseComment> responseComments = new ArrayList<FeedbackResponseComment>();
+        for (Long commentId : commentIds) {
+            try {
+                FeedbackResponseComment responseComment =
+                        getPm().getObjectById(FeedbackResponseComment.class, commentId);
+                if (!JDOHelper.isDeleted(responseComment)) {
+                    responseComments.add(responseComment);
+                }
+            } catch (JDOObjectNotFoundException e) {
+                // the comment was deleted after the ids were read
+            }
+        }
+        return responseComments;
+    }
+    
     private List<FeedbackResponseComment> getFeedbackResponseCommentEntitiesForCourse(String courseId) {
         
         Query q = getPm().newQuery(FeedbackResponseComment.class);
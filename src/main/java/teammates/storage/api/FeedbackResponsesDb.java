@@ -3,12 +3,16 @@ package teammates.storage.api;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
+import teammates.common.datatransfer.EntitiesChunk;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
@@ -17,6 +21,10 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.storage.entity.FeedbackResponse;
 
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+
 public class FeedbackResponsesDb extends EntitiesDb {
 
     public void createFeedbackResponses(Collection<FeedbackResponseAttributes> responsesToAdd)
@@ -47,6 +55,29 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return new FeedbackResponseAttributes(feedbackResponse);
     }
 
+    /**
+     * Checks in a single batch get which of the responses still exist. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the IDs of the responses that still exist
+     */
+    public Set<String> getExistingFeedbackResponseIds(Collection<String> feedbackResponseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackResponseIds);
+        
+        List<Key> keys = new ArrayList<Key>();
+        for (String feedbackResponseId : feedbackResponseIds) {
+            if (feedbackResponseId != null) {
+                keys.add(KeyFactory.createKey(FeedbackResponse.class.getSimpleName(), feedbackResponseId));
+            }
+        }
+        
+        Set<String> existingIds = new HashSet<String>();
+        for (Key key : getEntitiesByKeys(keys).keySet()) {
+            existingIds.add(key.getName());
+        }
+        return existingIds;
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -639,7 +670,7 @@ public class FeedbackResponsesDb extends EntitiesDb {
         fr.setGiverSection(newAttributes.giverSection);
         fr.setRecipientSection(newAttributes.recipientSection);
                 
-        log.info(newAttributes.getBackupIdentifier());
+        logModification(newAttributes);
         getPm().close();
     }
     
@@ -648,6 +679,210 @@ public class FeedbackResponsesDb extends EntitiesDb {
         updateFeedbackResponseOptimized(newAttributes, fr, false);
     }
     
+    /**
+     * Recreates up to {@code limit} responses in the course that are given or received by {@code oldEmail}
+     * with {@code newEmail} as the giver and recipient instead, as the id of a response is derived
+     * from its giver and recipient. The old responses are kept, so that their comments can be moved
+     * before the old responses are deleted with {@link #deleteFeedbackResponsesByIds}. As the ids of
+     * the new responses are derived from the old ones, recreating the same responses again after an
+     * interruption overwrites them.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return a map from the ids of the old responses to the ids of the recreated ones,
+     *         which is empty if there are no more responses to update
+     */
+    public Map<String, String> recreateFeedbackResponsesWithNewEmail(String courseId, String oldEmail, String newEmail,
+                                                              int limit) throws InvalidParametersException {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, oldEmail);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
+        
+        // a response to self is both given and received by oldEmail, hence the map by id
+        Map<String, FeedbackResponse> oldResponses = new LinkedHashMap<String, FeedbackResponse>();
+        addUndeletedResponses(oldResponses,
+                getFeedbackResponseEntitiesFromGiverForCourseWithinRange(courseId, oldEmail, limit), limit);
+        addUndeletedResponses(oldResponses,
+                getFeedbackResponseEntitiesForReceiverForCourseWithinRange(courseId, oldEmail, limit), limit);
+        
+        List<FeedbackResponseAttributes> newResponses = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponse oldResponse : oldResponses.values()) {
+            FeedbackResponseAttributes newResponse = new FeedbackResponseAttributes(oldResponse);
+            if (oldEmail.equals(newResponse.giver)) {
+                newResponse.giver = newEmail;
+            }
+            if (oldEmail.equals(newResponse.recipient)) {
+                newResponse.recipient = newEmail;
+            }
+            newResponses.add(newResponse);
+        }
+        
+        List<Object> createdResponses = createEntitiesWithoutExistenceCheck(newResponses);
+        
+        Map<String, String> newResponseIds = new HashMap<String, String>();
+        int index = 0;
+        for (String oldResponseId : oldResponses.keySet()) {
+            newResponseIds.put(oldResponseId, ((FeedbackResponse) createdResponses.get(index)).getId());
+            index++;
+        }
+        
+        return newResponseIds;
+    }
+    
+    /**
+     * Deletes the responses with the given ids in the course in one batch, without reading them.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void deleteFeedbackResponsesByIds(String courseId, Collection<String> feedbackResponseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackResponseIds);
+        
+        if (feedbackResponseIds.isEmpty()) {
+            return;
+        }
+        
+        List<Key> keys = new ArrayList<Key>();
+        for (String feedbackResponseId : feedbackResponseIds) {
+            keys.add(KeyFactory.createKey(FeedbackResponse.class.getSimpleName(), feedbackResponseId));
+        }
+        deleteEntitiesByKeys(keys);
+        logCourseModification(courseId);
+    }
+    
+    /**
+     * Gets up to {@code limit} responses given by {@code email} in the course with the giver section set to
+     * {@code newSection}, and the responses received by {@code email} with the recipient section set to
+     * {@code newSection}, without saving them. Responses already in {@code newSection} are skipped,
+     * so that the responses can be saved with {@link #updateSectionsOfFeedbackResponses} after their
+     * comments, and the method called again until all responses are updated.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the responses to update, an empty list if there are no more responses to update
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesToMoveToSection(String courseId, String email,
+                                                                                String newSection, int limit) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newSection);
+        
+        Map<String, FeedbackResponseAttributes> responsesToUpdate =
+                new LinkedHashMap<String, FeedbackResponseAttributes>();
+        for (FeedbackResponse fr : getFeedbackResponseEntitiesFromGiverForCourse(courseId, email)) {
+            if (responsesToUpdate.size() < limit && !JDOHelper.isDeleted(fr)
+                    && !newSection.equals(fr.getGiverSection())) {
+                FeedbackResponseAttributes response = new FeedbackResponseAttributes(fr);
+                response.giverSection = newSection;
+                responsesToUpdate.put(response.getId(), response);
+            }
+        }
+        for (FeedbackResponse fr : getFeedbackResponseEntitiesForReceiverForCourse(courseId, email)) {
+            FeedbackResponseAttributes response = responsesToUpdate.get(fr.getId());
+            if ((response != null || responsesToUpdate.size() < limit) && !JDOHelper.isDeleted(fr)
+                    && !newSection.equals(fr.getRecipientSection())) {
+                if (response == null) {
+                    response = new FeedbackResponseAttributes(fr);
+                    responsesToUpdate.put(response.getId(), response);
+                }
+                response.recipientSection = newSection;
+            }
+        }
+        
+        return new ArrayList<FeedbackResponseAttributes>(responsesToUpdate.values());
+    }
+    
+    /**
+     * Saves the giver and recipient sections of the given responses in the course in one batch.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void updateSectionsOfFeedbackResponses(String courseId, List<FeedbackResponseAttributes> responses) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responses);
+        
+        Map<Key, FeedbackResponseAttributes> responsesByKey = new HashMap<Key, FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : responses) {
+            responsesByKey.put(KeyFactory.createKey(FeedbackResponse.class.getSimpleName(), response.getId()),
+                               response);
+        }
+        
+        // the property names are those of the fields of FeedbackResponse
+        List<Entity> entities = new ArrayList<Entity>();
+        for (Entity entity : getEntitiesByKeys(responsesByKey.keySet()).values()) {
+            FeedbackResponseAttributes response = responsesByKey.get(entity.getKey());
+            entity.setProperty("giverSection", response.giverSection);
+            entity.setProperty("receiverSection", response.recipientSection);
+            entities.add(entity);
+        }
+        
+        if (!entities.isEmpty()) {
+            putEntities(entities);
+            logCourseModification(courseId);
+        }
+    }
+    
+    /**
+     * Deletes up to {@code limit} responses in the course that are given by {@code participant} to
+     * a question in {@code giverQuestionIds}, or received by {@code participant} for a question in
+     * {@code recipientQuestionIds}. The responses are deleted in one batch, and only up to {@code limit}
+     * responses are read from the datastore for it, so that the batches of a participant with many responses
+     * do not read all of them again.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the deleted responses, fewer than {@code limit} only if there are no more responses to delete
+     */
+    public List<FeedbackResponseAttributes> deleteFeedbackResponsesOfParticipant(
+            String courseId, String participant, Set<String> giverQuestionIds, Set<String> recipientQuestionIds,
+            int limit) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, participant);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, giverQuestionIds);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, recipientQuestionIds);
+        
+        Map<String, FeedbackResponse> responsesToDelete = new LinkedHashMap<String, FeedbackResponse>();
+        addUndeletedResponsesOfParticipantForQuestions(responsesToDelete, courseId, "giverEmail", participant,
+                                                       giverQuestionIds, limit);
+        addUndeletedResponsesOfParticipantForQuestions(responsesToDelete, courseId, "receiver", participant,
+                                                       recipientQuestionIds, limit);
+        
+        List<FeedbackResponseAttributes> deletedResponses = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponse fr : responsesToDelete.values()) {
+            FeedbackResponseAttributes response = new FeedbackResponseAttributes(fr);
+            deletedResponses.add(response);
+            logModification(response);
+        }
+        
+        getPm().deletePersistentAll(responsesToDelete.values());
+        getPm().flush();
+        
+        return deletedResponses;
+    }
+    
+    /**
+     * Gets up to {@code limit} responses of the course, starting after the responses of a previous chunk.
+     * @param cursor the cursor of the previous chunk, or null to start from the first response
+     */
+    public EntitiesChunk<FeedbackResponseAttributes> getFeedbackResponsesForCourseInChunk(String courseId, String cursor,
+                                                                                          int limit) {
+        EntitiesChunk<FeedbackResponse> chunk =
+                getEntitiesForCourseInChunk(FeedbackResponse.class, "courseId", courseId, cursor, limit);
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponse response : chunk.entities) {
+            responses.add(new FeedbackResponseAttributes(response));
+        }
+        return new EntitiesChunk<FeedbackResponseAttributes>(responses, chunk.cursor);
+    }
+
+    /**
+     * Deletes up to {@code limit} responses of the course in one batch, without loading the responses.
+     * @return the number of responses deleted, 0 if there is no more response to delete
+     */
+    public int deleteFeedbackResponsesForCourseInBatch(String courseId, int limit) {
+        return deleteEntitiesForCourseByKeys(FeedbackResponse.class, "courseId", courseId, limit).size();
+    }
+    
     public void deleteFeedbackResponsesForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
@@ -660,10 +895,12 @@ public class FeedbackResponsesDb extends EntitiesDb {
     public void deleteFeedbackResponsesForCourses(List<String> courseIds) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
         
-        List<FeedbackResponse> feedbackResponses = getFeedbackResponseEntitiesForCourses(courseIds);
-        
-        getPm().deletePersistentAll(feedbackResponses);
-        getPm().flush();
+        for (String courseId : courseIds) {
+            int numberOfDeletedResponses;
+            do {
+                numberOfDeletedResponses = deleteFeedbackResponsesForCourseInBatch(courseId, MAX_ENTITIES_PER_BATCH);
+            } while (numberOfDeletedResponses > 0);
+        }
     }
     
     @SuppressWarnings("unchecked")
@@ -1111,6 +1348,82 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
     
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForCourseWithinRange(
+            String courseId, String receiver, long range) {
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String courseIdParam, String receiverParam");
+        q.setFilter("courseId == courseIdParam && receiver == receiverParam");
+        q.setRange(0, range);
+        
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> feedbackResponses = (List<FeedbackResponse>) q.execute(courseId, receiver);
+        
+        return feedbackResponses;
+    }
+
+    private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForCourseWithinRange(
+            String courseId, String giverEmail, long range) {
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String courseIdParam, String giverEmailParam");
+        q.setFilter("courseId == courseIdParam && giverEmail == giverEmailParam");
+        q.setRange(0, range);
+        
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> feedbackResponses = (List<FeedbackResponse>) q.execute(courseId, giverEmail);
+        
+        return feedbackResponses;
+    }
+    
+    /**
+     * Adds the responses of the course whose {@code participantField} is {@code participant}
+     * to a question in {@code questionIds}, which are not deleted already, until there are {@code limit} responses.
+     * The responses are read in pages of up to {@code limit} responses, so that the responses deleted
+     * but still returned by the datastore do not take the place of those to add.
+     */
+    private void addUndeletedResponsesOfParticipantForQuestions(
+            Map<String, FeedbackResponse> responses, String courseId, String participantField, String participant,
+            Set<String> questionIds, int limit) {
+        for (List<String> questionIdsChunk : splitForContainsFilter(questionIds)) {
+            long start = 0;
+            while (responses.size() < limit) {
+                List<FeedbackResponse> page = getFeedbackResponseEntitiesOfParticipantForQuestionsWithinRange(
+                        courseId, participantField, participant, questionIdsChunk, start, start + limit);
+                addUndeletedResponses(responses, page, limit);
+                if (page.size() < limit) {
+                    break;
+                }
+                start += limit;
+            }
+        }
+    }
+    
+    private List<FeedbackResponse> getFeedbackResponseEntitiesOfParticipantForQuestionsWithinRange(
+            String courseId, String participantField, String participant, List<String> questionIds,
+            long fromIncl, long toExcl) {
+        
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.setFilter("courseId == :courseIdParam && " + participantField + " == :participantParam"
+                    + " && :questionIdsParam.contains(feedbackQuestionId)");
+        q.setRange(fromIncl, toExcl);
+        
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> feedbackResponses =
+                (List<FeedbackResponse>) q.execute(courseId, participant, questionIds);
+        
+        return feedbackResponses;
+    }
+    
+    private void addUndeletedResponses(Map<String, FeedbackResponse> responses,
+                                       List<FeedbackResponse> responsesToAdd, int limit) {
+        for (FeedbackResponse fr : responsesToAdd) {
+            if (responses.size() < limit && !JDOHelper.isDeleted(fr)) {
+                responses.put(fr.getId(), fr);
+            }
+        }
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         
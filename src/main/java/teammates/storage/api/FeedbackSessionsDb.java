@@ -4,9 +4,13 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
@@ -21,6 +25,9 @@ import teammates.common.util.Const;
 import teammates.common.util.TimeHelper;
 import teammates.storage.entity.FeedbackSession;
 
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+
 public class FeedbackSessionsDb extends EntitiesDb {
     
     public static final String ERROR_UPDATE_NON_EXISTENT = "Trying to update non-existent Feedback Session : ";
@@ -187,6 +194,59 @@ public class FeedbackSessionsDb extends EntitiesDb {
         return fsaList;
     }
     
+    /**
+     * Gets the sessions of many courses with as few queries as possible. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the sessions of the courses, by course ID; courses without sessions are absent
+     */
+    public Map<String, List<FeedbackSessionAttributes>> getFeedbackSessionsForCourses(Collection<String> courseIds) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+        
+        Map<String, List<FeedbackSessionAttributes>> sessionsByCourse =
+                new HashMap<String, List<FeedbackSessionAttributes>>();
+        for (List<String> courseIdsChunk : splitForContainsFilter(courseIds)) {
+            for (FeedbackSession fs : getFeedbackSessionEntitiesForCourses(courseIdsChunk)) {
+                if (JDOHelper.isDeleted(fs)) {
+                    continue;
+                }
+                List<FeedbackSessionAttributes> sessionsOfCourse = sessionsByCourse.get(fs.getCourseId());
+                if (sessionsOfCourse == null) {
+                    sessionsOfCourse = new ArrayList<FeedbackSessionAttributes>();
+                    sessionsByCourse.put(fs.getCourseId(), sessionsOfCourse);
+                }
+                sessionsOfCourse.add(new FeedbackSessionAttributes(fs));
+            }
+        }
+        return sessionsByCourse;
+    }
+    
+    /**
+     * Checks in a single batch get which of the sessions still exist. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the identification strings of the sessions that still exist,
+     *         as in {@link FeedbackSessionAttributes#getIdentificationString()}
+     */
+    public Set<String> getExistingFeedbackSessions(Collection<FeedbackSessionAttributes> sessions) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, sessions);
+        
+        Map<Key, String> identificationStringsByKey = new HashMap<Key, String>();
+        for (FeedbackSessionAttributes session : sessions) {
+            Key key = KeyFactory.createKey(FeedbackSession.class.getSimpleName(),
+                                           session.getFeedbackSessionName() + "%" + session.getCourseId());
+            identificationStringsByKey.put(key, session.getIdentificationString());
+        }
+        
+        Set<String> existingSessions = new HashSet<String>();
+        for (Key key : getEntitiesByKeys(identificationStringsByKey.keySet()).keySet()) {
+            existingSessions.add(identificationStringsByKey.get(key));
+        }
+        return existingSessions;
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -266,7 +326,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         fs.setSendClosingEmail(newAttributes.isClosingEmailEnabled());
         fs.setSendPublishedEmail(newAttributes.isPublishedEmailEnabled());
                 
-        log.info(newAttributes.getBackupIdentifier());
+        logModification(newAttributes);
         getPm().close();
     }
 
@@ -298,7 +358,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
         fs.getRespondingInstructorList().addAll(emails);
         
-        log.info(feedbackSession.getBackupIdentifier());
+        logModification(feedbackSession);
         getPm().close();
     }
 
@@ -326,7 +386,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
             fs.getRespondingInstructorList().add(newEmail);
         }
        
-        log.info(feedbackSession.getBackupIdentifier());
+        logModification(feedbackSession);
         getPm().close();
     }
 
@@ -349,7 +409,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
         fs.getRespondingInstructorList().clear();
 
-        log.info(feedbackSession.getBackupIdentifier());
+        logModification(feedbackSession);
         getPm().close();
     }
 
@@ -381,7 +441,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
         fs.getRespondingInstructorList().remove(email);
 
-        log.info(feedbackSession.getBackupIdentifier());
+        logModification(feedbackSession);
         getPm().close();
     }
 
@@ -405,35 +465,30 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
         fs.getRespondingStudentList().addAll(emails);
 
-        log.info(feedbackSession.getBackupIdentifier());
+        logModification(feedbackSession);
         getPm().close();
     }
 
-    public void updateStudentRespondant(String oldEmail, String newEmail, FeedbackSessionAttributes feedbackSession)
-            throws InvalidParametersException, EntityDoesNotExistException {
+    /**
+     * Replaces {@code oldEmail} with {@code newEmail} in the student respondent lists
+     * of all sessions in the course, reading and writing the sessions in one batch.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void updateStudentRespondantForCourse(String oldEmail, String newEmail, String courseId) {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, oldEmail);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
 
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
+        for (FeedbackSession fs : getFeedbackSessionEntitiesForCourse(courseId)) {
+            if (!JDOHelper.isDeleted(fs) && fs.getRespondingStudentList().contains(oldEmail)) {
+                fs.getRespondingStudentList().remove(oldEmail);
+                fs.getRespondingStudentList().add(newEmail);
+            }
         }
 
-        if (fs.getRespondingStudentList().contains(oldEmail)) {
-            fs.getRespondingStudentList().remove(oldEmail);
-            fs.getRespondingStudentList().add(newEmail);
-        }
-        
-        log.info(feedbackSession.getBackupIdentifier());
+        logCourseModification(courseId);
         getPm().close();
     }
 
@@ -456,7 +511,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
         fs.getRespondingStudentList().clear();
 
-        log.info(feedbackSession.getBackupIdentifier());
+        logModification(feedbackSession);
         getPm().close();
     }
 
@@ -480,10 +535,18 @@ public class FeedbackSessionsDb extends EntitiesDb {
         
         fs.getRespondingStudentList().remove(email);
 
-        log.info(feedbackSession.getBackupIdentifier());
+        logModification(feedbackSession);
         getPm().close();
     }
     
+    /**
+     * Deletes up to {@code limit} sessions of the course in one batch, without loading the sessions.
+     * @return the number of sessions deleted, 0 if there is no more session to delete
+     */
+    public int deleteFeedbackSessionsForCourseInBatch(String courseId, int limit) {
+        return deleteEntitiesForCourseByKeys(FeedbackSession.class, "courseId", courseId, limit).size();
+    }
+    
     public void deleteFeedbackSessionsForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
@@ -2,9 +2,14 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
@@ -34,6 +39,8 @@ import com.google.appengine.api.search.ScoredDocument;
  */
 public class InstructorsDb extends EntitiesDb {
     
+    private static final String REGISTERED_INSTRUCTOR_CACHE_KEY_PREFIX = "registeredInstructor:";
+    
     /* =========================================================================
      * Methods related to Google Search API
      * =========================================================================
@@ -50,6 +57,24 @@ public class InstructorsDb extends EntitiesDb {
         }
     }
     
+    /**
+     * Puts the search documents of the instructors in batches.
+     */
+    public void putDocuments(Collection<InstructorAttributes> instructorParams) {
+        List<InstructorSearchDocument> documents = new ArrayList<InstructorSearchDocument>();
+        for (InstructorAttributes instructorParam : instructorParams) {
+            InstructorAttributes instructor = instructorParam;
+            if (instructor.key == null) {
+                instructor = this.getInstructorForEmail(instructor.courseId, instructor.email);
+            }
+            // defensive coding for legacy data
+            if (instructor.key != null) {
+                documents.add(new InstructorSearchDocument(instructor));
+            }
+        }
+        putDocuments(Const.SearchIndex.INSTRUCTOR, documents);
+    }
+    
     public void deleteDocument(InstructorAttributes instructorToDelete) {
         if (instructorToDelete.key == null) {
             InstructorAttributes instructor =
@@ -93,9 +118,10 @@ public class InstructorsDb extends EntitiesDb {
         
         List<EntityAttributes> instructorsToUpdate = createEntities(instructorsToAdd);
         
+        List<InstructorAttributes> instructorsToIndex = new ArrayList<InstructorAttributes>();
         for (InstructorAttributes instructor : instructorsToAdd) {
             if (!instructorsToUpdate.contains(instructor)) {
-                putDocument(instructor);
+                instructorsToIndex.add(instructor);
             }
         }
         
@@ -108,8 +134,9 @@ public class InstructorsDb extends EntitiesDb {
              // difficult during testing
                 Assumption.fail("Entity found be already existing and not existing simultaneously");
             }
-            putDocument(instructor);
+            instructorsToIndex.add(instructor);
         }
+        putDocuments(instructorsToIndex);
     }
 
     public void createInstructorsWithoutSearchability(Collection<InstructorAttributes> instructorsToAdd)
@@ -255,6 +282,108 @@ public class InstructorsDb extends EntitiesDb {
         return instructorDataList;
     }
     
+    /**
+     * Gets the instructors of many courses with as few queries as possible. <br>
+     * Preconditions: <br>
+     *  * All parameters are non-null.
+     * @return the instructors of the courses, by course ID; courses without instructors are absent
+     */
+    public Map<String, List<InstructorAttributes>> getInstructorsForCourses(Collection<String> courseIds) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+        
+        Map<String, List<InstructorAttributes>> instructorsByCourse = new HashMap<String, List<InstructorAttributes>>();
+        for (List<String> courseIdsChunk : splitForContainsFilter(courseIds)) {
+            for (Instructor i : getInstructorEntitiesForCourses(courseIdsChunk)) {
+                if (JDOHelper.isDeleted(i)) {
+                    continue;
+                }
+                List<InstructorAttributes> instructorsOfCourse = instructorsByCourse.get(i.getCourseId());
+                if (instructorsOfCourse == null) {
+                    instructorsOfCourse = new ArrayList<InstructorAttributes>();
+                    instructorsByCourse.put(i.getCourseId(), instructorsOfCourse);
+                }
+                instructorsOfCourse.add(new InstructorAttributes(i));
+            }
+        }
+        
+        return instructorsByCourse;
+    }
+    
+    /**
+     * Gets the Google ID of a registered instructor of each of the courses, e.g. to find the institutes of
+     * many courses at once. The Google IDs are cached in memcache until an instructor of the course is modified,
+     * so that only the courses not cached are queried, with as few queries as possible. <br>
+     * Preconditions: <br>
+     *  * All parameters are non-null.
+     * @return the Google ID of a registered instructor by course ID; courses without one are absent
+     */
+    public Map<String, String> getRegisteredInstructorGoogleIdsForCourses(Collection<String> courseIds) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+        
+        Map<String, String> googleIdsByCourse = getCachedValues(REGISTERED_INSTRUCTOR_CACHE_KEY_PREFIX, courseIds);
+        
+        Set<String> uncachedCourseIds = new HashSet<String>(courseIds);
+        uncachedCourseIds.removeAll(googleIdsByCourse.keySet());
+        if (!uncachedCourseIds.isEmpty()) {
+            Map<String, List<InstructorAttributes>> instructorsByCourse = getInstructorsForCourses(uncachedCourseIds);
+            Map<String, String> loadedGoogleIds = new HashMap<String, String>();
+            for (String courseId : uncachedCourseIds) {
+                loadedGoogleIds.put(courseId, getRegisteredInstructorGoogleId(instructorsByCourse.get(courseId)));
+            }
+            putCachedValues(REGISTERED_INSTRUCTOR_CACHE_KEY_PREFIX, loadedGoogleIds);
+            googleIdsByCourse.putAll(loadedGoogleIds);
+        }
+        
+        // courses cached or loaded as having no registered instructor
+        googleIdsByCourse.values().removeAll(Collections.singleton(null));
+        return googleIdsByCourse;
+    }
+    
+    private static String getRegisteredInstructorGoogleId(List<InstructorAttributes> instructors) {
+        if (instructors == null) {
+            return null;
+        }
+        for (InstructorAttributes instructor : instructors) {
+            if (instructor.googleId != null) {
+                return instructor.googleId;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Checks with a query per {@link #MAX_VALUES_PER_CONTAINS_FILTER} instructors which of the instructors
+     * still exist with the same registration key, e.g. to verify the instructors of many search results at once.
+     * The instructors are looked up by registration key, as the ID of an instructor does not follow
+     * its email once edited, nor for instructors created with a Google ID. <br>
+     * Preconditions: <br>
+     *  * All parameters are non-null.
+     * @return the unencrypted registration keys of the instructors that still exist with that key
+     */
+    public Set<String> getExistingInstructorRegistrationKeys(Collection<InstructorAttributes> instructors) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, instructors);
+        
+        Set<String> registrationKeys = new HashSet<String>();
+        for (InstructorAttributes instructor : instructors) {
+            if (instructor.key != null) {
+                registrationKeys.add(instructor.key);
+            }
+        }
+        
+        Set<String> existingKeys = new HashSet<String>();
+        for (List<String> registrationKeysChunk : splitForContainsFilter(registrationKeys)) {
+            for (Instructor i : getInstructorEntitiesForRegistrationKeys(registrationKeysChunk)) {
+                if (!JDOHelper.isDeleted(i) && i.getRegistrationKey() != null) {
+                    existingKeys.add(i.getRegistrationKey());
+                }
+            }
+        }
+        return existingKeys;
+    }
+    
     /**
      * Not scalable. Don't use unless for admin features.
      * @return {@code InstructorAttributes} objects for all instructor
@@ -311,7 +440,7 @@ public class InstructorsDb extends EntitiesDb {
         //TODO: make courseId+email the non-modifiable values
         
         putDocument(new InstructorAttributes(instructorToUpdate));
-        log.info(instructorAttributesToUpdate.getBackupIdentifier());
+        logModification(instructorAttributesToUpdate);
         getPm().close();
     }
     
@@ -348,7 +477,7 @@ public class InstructorsDb extends EntitiesDb {
         
         //TODO: make courseId+email the non-modifiable values
         putDocument(new InstructorAttributes(instructorToUpdate));
-        log.info(instructorAttributesToUpdate.getBackupIdentifier());
+        logModification(instructorAttributesToUpdate);
         getPm().close();
     }
     
@@ -372,6 +501,7 @@ public class InstructorsDb extends EntitiesDb {
 
         getPm().deletePersistent(instructorToDelete);
         getPm().flush();
+        evictCachedValues(REGISTERED_INSTRUCTOR_CACHE_KEY_PREFIX, Collections.singleton(courseId));
   
         // Check delete operation persisted
         if (Config.PERSISTENCE_CHECK_DURATION > 0) {
@@ -410,6 +540,32 @@ public class InstructorsDb extends EntitiesDb {
         
         getPm().deletePersistentAll(instructorsToDelete);
         getPm().flush();
+        evictCachedValues(REGISTERED_INSTRUCTOR_CACHE_KEY_PREFIX, courseIds);
+    }
+    
+    /**
+     * Deletes up to {@code limit} instructors of the course and their search documents in one batch.
+     * @return the number of instructors deleted, 0 if there is no more instructor to delete
+     */
+    public int deleteInstructorsForCourseInBatch(String courseId, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        Query q = getPm().newQuery(Instructor.class);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+        q.setRange(0, limit);
+
+        @SuppressWarnings("unchecked")
+        List<Instructor> instructorList = (List<Instructor>) q.execute(courseId);
+
+        for (Instructor instructor : instructorList) {
+            deleteDocument(new InstructorAttributes(instructor));
+        }
+        getPm().deletePersistentAll(instructorList);
+        getPm().flush();
+        evictCachedValues(REGISTERED_INSTRUCTOR_CACHE_KEY_PREFIX, Collections.singleton(courseId));
+
+        return instructorList.size();
     }
     
     /**
@@ -422,12 +578,15 @@ public class InstructorsDb extends EntitiesDb {
 
         List<Instructor> instructorList = getInstructorEntitiesForGoogleId(googleId);
         
+        Set<String> courseIds = new HashSet<String>();
         for (Instructor instructor : instructorList) {
             deleteDocument(new InstructorAttributes(instructor));
+            courseIds.add(instructor.getCourseId());
         }
         
         getPm().deletePersistentAll(instructorList);
         getPm().flush();
+        evictCachedValues(REGISTERED_INSTRUCTOR_CACHE_KEY_PREFIX, courseIds);
       
     }
     
@@ -446,6 +605,7 @@ public class InstructorsDb extends EntitiesDb {
         }
         getPm().deletePersistentAll(instructorList);
         getPm().flush();
+        evictCachedValues(REGISTERED_INSTRUCTOR_CACHE_KEY_PREFIX, Collections.singleton(courseId));
 
     }
     
@@ -483,6 +643,16 @@ public class InstructorsDb extends EntitiesDb {
         return instructorList.get(0);
     }
     
+    private List<Instructor> getInstructorEntitiesForRegistrationKeys(List<String> registrationKeys) {
+        Query q = getPm().newQuery(Instructor.class);
+        q.setFilter(":p.contains(registrationKey)");
+        
+        @SuppressWarnings("unchecked")
+        List<Instructor> instructorList = (List<Instructor>) q.execute(registrationKeys);
+        
+        return instructorList;
+    }
+    
     private List<Instructor> getInstructorEntitiesForCourses(List<String> courseIds) {
         Query q = getPm().newQuery(Instructor.class);
         q.setFilter(":p.contains(courseId)");
@@ -575,6 +745,17 @@ public class InstructorsDb extends EntitiesDb {
         return instructorList;
     }
 
+    /**
+     * Also evicts the cached Google ID of a registered instructor of the course of the instructor,
+     * as the instructor may have been registered or removed.
+     */
+    @Override
+    protected void logModification(EntityAttributes entity) {
+        super.logModification(entity);
+        evictCachedValues(REGISTERED_INSTRUCTOR_CACHE_KEY_PREFIX,
+                          Collections.singleton(((InstructorAttributes) entity).courseId));
+    }
+
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         
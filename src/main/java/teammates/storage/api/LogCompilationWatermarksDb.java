@@ -0,0 +1,80 @@
+package teammates.storage.api;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.LogCompilationWatermarkAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.storage.entity.LogCompilationWatermark;
+
+/**
+ * Handles CRUD operations for log compilation watermarks.
+ */
+public class LogCompilationWatermarksDb extends EntitiesDb {
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return Null if not found.
+     */
+    public LogCompilationWatermarkAttributes getWatermark(String name) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, name);
+
+        LogCompilationWatermark watermark = getWatermarkEntity(name);
+        if (watermark == null) {
+            return null;
+        }
+        return new LogCompilationWatermarkAttributes(watermark);
+    }
+
+    /**
+     * Creates the watermark, or moves the existing watermark of the same name,
+     * and changes its {@code updatedAt} timestamp to be the time of update.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void putWatermark(LogCompilationWatermarkAttributes watermark) throws InvalidParametersException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, watermark);
+
+        LogCompilationWatermark watermarkToUpdate = getWatermarkEntity(watermark.name);
+        if (watermarkToUpdate == null) {
+            createEntityWithoutExistenceCheck(watermark);
+            return;
+        }
+
+        if (!watermark.isValid()) {
+            throw new InvalidParametersException(watermark.getInvalidityInfo());
+        }
+        watermark.updatedAt = new Date();
+        watermarkToUpdate.setEndTimeUsec(watermark.endTimeUsec);
+        watermarkToUpdate.setRequestIds(watermark.requestIds);
+        watermarkToUpdate.setUpdatedAt(watermark.updatedAt);
+
+        getPm().close();
+    }
+
+    private LogCompilationWatermark getWatermarkEntity(String name) {
+        Query q = getPm().newQuery(LogCompilationWatermark.class);
+        q.declareParameters("String nameParam");
+        q.setFilter("name == nameParam");
+
+        @SuppressWarnings("unchecked")
+        List<LogCompilationWatermark> watermarks = (List<LogCompilationWatermark>) q.execute(name);
+
+        if (watermarks.isEmpty() || JDOHelper.isDeleted(watermarks.get(0))) {
+            return null;
+        }
+        return watermarks.get(0);
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        return getWatermarkEntity(((LogCompilationWatermarkAttributes) attributes).name);
+    }
+}
@@ -2,13 +2,19 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.EntitiesChunk;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
@@ -25,6 +31,7 @@ import teammates.storage.entity.Student;
 import teammates.storage.search.StudentSearchDocument;
 import teammates.storage.search.StudentSearchQuery;
 
+import com.google.appengine.api.datastore.Key;
 import com.google.appengine.api.datastore.KeyFactory;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
@@ -42,6 +49,28 @@ public class StudentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.STUDENT, new StudentSearchDocument(student));
     }
     
+    /**
+     * Puts the search documents of students, possibly of different courses, in batches.
+     */
+    public void putDocuments(List<StudentAttributes> students) {
+        List<StudentSearchDocument> documents = new ArrayList<StudentSearchDocument>();
+        for (StudentAttributes student : students) {
+            documents.add(new StudentSearchDocument(student));
+        }
+        putDocuments(Const.SearchIndex.STUDENT, documents);
+    }
+    
+    /**
+     * Puts the search documents of students belonging to the same {@code course} in batches.
+     */
+    public void putDocuments(CourseAttributes course, List<StudentAttributes> students) {
+        List<StudentSearchDocument> documents = new ArrayList<StudentSearchDocument>();
+        for (StudentAttributes student : students) {
+            documents.add(new StudentSearchDocument(student, course));
+        }
+        putDocuments(Const.SearchIndex.STUDENT, documents);
+    }
+
     /**
      * Search for students
      * @return {@link StudentSearchResultBundle}
@@ -130,6 +159,73 @@ public class StudentsDb extends EntitiesDb {
         }
     }
 
+    /**
+     * Creates the students in batches without checking for existing students with the same email.<br>
+     * Preconditions: <br>
+     * * None of the students already exists in its course.
+     * @return the created students, with their registration keys set
+     */
+    public List<StudentAttributes> createStudentsWithoutExistenceCheck(Collection<StudentAttributes> studentsToAdd)
+            throws InvalidParametersException {
+        List<StudentAttributes> createdStudents = new ArrayList<StudentAttributes>();
+        for (Object entity : createEntitiesWithoutExistenceCheck(studentsToAdd)) {
+            createdStudents.add(new StudentAttributes((Student) entity));
+        }
+        return createdStudents;
+    }
+
+    /**
+     * Updates the name, team, section, comments and Google ID of students in the same course,
+     * reading the course's students once and writing the changes in batches.
+     * The students are identified by their emails, which are not changed.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null and every student belongs to {@code courseId}.
+     * @return the updated students
+     * @throws EntityDoesNotExistException if any of the students does not exist
+     */
+    public List<StudentAttributes> updateStudentsInCourse(String courseId, List<StudentAttributes> students)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, students);
+
+        Map<String, Student> studentEntitiesByEmail = new HashMap<String, Student>();
+        for (Student entity : getStudentEntitiesForCourse(courseId)) {
+            if (!JDOHelper.isDeleted(entity)) {
+                studentEntitiesByEmail.put(entity.getEmail(), entity);
+            }
+        }
+
+        List<StudentAttributes> updatedStudents = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : students) {
+            if (!student.isValid()) {
+                throw new InvalidParametersException(student.getInvalidityInfo());
+            }
+
+            Student entity = studentEntitiesByEmail.get(student.email);
+            if (entity == null) {
+                throw new EntityDoesNotExistException(ERROR_UPDATE_NON_EXISTENT_STUDENT + courseId + "/" + student.email);
+            }
+
+            entity.setName(student.name);
+            entity.setLastName(StringHelper.splitName(student.name)[1]);
+            entity.setComments(student.comments);
+            entity.setGoogleId(student.googleId);
+            entity.setTeamName(student.team);
+            entity.setSectionName(student.section);
+            entity.keepUpdateTimestamp = false;
+            updatedStudents.add(new StudentAttributes(entity));
+
+            if (updatedStudents.size() % MAX_ENTITIES_PER_BATCH == 0) {
+                getPm().flush();
+            }
+        }
+
+        logCourseModification(courseId);
+        getPm().close();
+
+        return updatedStudents;
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -194,6 +290,36 @@ public class StudentsDb extends EntitiesDb {
         
     }
 
+    /**
+     * Checks in a single batch get which of the students still exist,
+     * e.g. to verify the students of many search results at once. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @param keys the unencrypted keys of the students, as in {@link StudentAttributes#key}
+     * @return the keys of the students that still exist
+     */
+    public Set<String> getExistingStudentKeys(Collection<String> keys) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, keys);
+        
+        List<Key> entityKeys = new ArrayList<Key>();
+        for (String key : keys) {
+            if (key == null) {
+                continue;
+            }
+            try {
+                entityKeys.add(KeyFactory.stringToKey(key));
+            } catch (IllegalArgumentException e) {
+                log.warning("Invalid student key: " + key);
+            }
+        }
+        
+        Set<String> existingKeys = new HashSet<String>();
+        for (Key entityKey : getEntitiesByKeys(entityKeys).keySet()) {
+            existingKeys.add(KeyFactory.keyToString(entityKey));
+        }
+        return existingKeys;
+    }
+    
     /**
      * Preconditions:
      * <br> * All parameters are non-null.
@@ -407,7 +533,7 @@ public class StudentsDb extends EntitiesDb {
         // Set true to prevent changes to last update timestamp
         student.keepUpdateTimestamp = keepUpdateTimestamp;
         
-        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        logCourseModification(courseId);
         getPm().close();
     }
 
@@ -520,6 +646,36 @@ public class StudentsDb extends EntitiesDb {
         getPm().flush();
     }
 
+    /**
+     * Gets up to {@code limit} students of the course, starting after the students of a previous chunk.
+     * @param cursor the cursor of the previous chunk, or null to start from the first student
+     */
+    public EntitiesChunk<StudentAttributes> getStudentsForCourseInChunk(String courseId, String cursor, int limit) {
+        EntitiesChunk<Student> chunk = getEntitiesForCourseInChunk(Student.class, "courseID", courseId, cursor, limit);
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        for (Student student : chunk.entities) {
+            students.add(new StudentAttributes(student));
+        }
+        return new EntitiesChunk<StudentAttributes>(students, chunk.cursor);
+    }
+
+    /**
+     * Deletes up to {@code limit} students of the course and their search documents in one batch,
+     * without loading the students.
+     * @return the number of students deleted, 0 if there is no more student to delete
+     */
+    public int deleteStudentsForCourseInBatch(String courseId, int limit) {
+        List<Key> keys = deleteEntitiesForCourseByKeys(Student.class, "courseID", courseId, limit);
+        if (!keys.isEmpty()) {
+            String[] documentIds = new String[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                documentIds[i] = KeyFactory.keyToString(keys.get(i));
+            }
+            deleteDocuments(Const.SearchIndex.STUDENT, documentIds);
+        }
+        return keys.size();
+    }
+
     public void deleteStudentsForCourses(List<String> courseIds) {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
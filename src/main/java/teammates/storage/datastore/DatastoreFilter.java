@@ -8,6 +8,8 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 
+import teammates.common.util.DatastoreCallCounter;
+
 //TODO: Do we really need this filter? To be reconsidered.
 /**
  * Servlet Filter to ensure that the datastore is initialized before a request
@@ -18,6 +20,7 @@ public final class DatastoreFilter implements javax.servlet.Filter {
     @Override
     public void init(FilterConfig config) {
         Datastore.initialize();
+        DatastoreCallCounter.install();
     }
 
     @Override
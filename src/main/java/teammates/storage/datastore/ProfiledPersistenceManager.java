@@ -0,0 +1,218 @@
+package teammates.storage.datastore;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.common.util.Config;
+import teammates.common.util.DatastoreOperationProfile;
+import teammates.common.util.DatastoreOperationProfile.OperationType;
+
+/**
+ * Wraps a {@link PersistenceManager} so that its gets, puts and deletes, and the executions of the
+ * queries it creates, are recorded in the {@link DatastoreOperationProfile} of the current request.<br>
+ * The time recorded for a query is the time taken to execute it; the results of JDO queries
+ * may be fetched lazily afterwards.<br>
+ * The operations are recorded with the method of the storage layer running them only if
+ * {@link Config#DATASTORE_PROFILE_CALL_SITES} is set, as finding it walks the stack of every operation;
+ * otherwise queries are recorded by query template, and the other operations by type.
+ */
+public final class ProfiledPersistenceManager {
+
+    private static final String STORAGE_API_PACKAGE = "teammates.storage.api.";
+    private static final String ENTITIES_DB_CLASS = STORAGE_API_PACKAGE + "EntitiesDb";
+
+    /** Whether the call sites of the operations are captured, which can be changed e.g. to profile in tests */
+    private static volatile boolean isCallSiteCaptured = Config.DATASTORE_PROFILE_CALL_SITES;
+
+    /** The last persistence manager wrapped by each thread, with its wrapper */
+    private static final ThreadLocal<PersistenceManager[]> LAST_WRAPPED = new ThreadLocal<PersistenceManager[]>();
+
+    private ProfiledPersistenceManager() {
+        // utility class
+    }
+
+    /**
+     * @return the persistence manager wrapped, which is the same wrapper for the same persistence manager
+     *         in the same thread
+     */
+    public static PersistenceManager wrap(PersistenceManager pm) {
+        PersistenceManager[] lastWrapped = LAST_WRAPPED.get();
+        if (lastWrapped != null && lastWrapped[0] == pm) {
+            return lastWrapped[1];
+        }
+        PersistenceManager wrapper = (PersistenceManager) Proxy.newProxyInstance(
+                PersistenceManager.class.getClassLoader(), new Class<?>[] { PersistenceManager.class },
+                new PersistenceManagerHandler(pm));
+        LAST_WRAPPED.set(new PersistenceManager[] { pm, wrapper });
+        return wrapper;
+    }
+
+    public static boolean isCallSiteCaptured() {
+        return isCallSiteCaptured;
+    }
+
+    public static void setCallSiteCaptured(boolean isCaptured) {
+        isCallSiteCaptured = isCaptured;
+    }
+
+    /**
+     * Records an operation made directly through the low-level datastore API.
+     */
+    public static void recordOperation(OperationType type, long startTimeNanos) {
+        DatastoreOperationProfile profile = DatastoreOperationProfile.getCurrent();
+        if (profile != null) {
+            String callSite = isCallSiteCaptured ? getCallSite() : type.getPluralName();
+            profile.record(type, callSite, System.nanoTime() - startTimeNanos);
+        }
+    }
+
+    /**
+     * Records a query made directly through the low-level datastore API.
+     */
+    public static void recordQuery(String query, Object parameters, long startTimeNanos) {
+        recordQuery(query, Arrays.deepHashCode(new Object[] { parameters }), startTimeNanos);
+    }
+
+    private static void recordQuery(String query, int parametersHash, long startTimeNanos) {
+        DatastoreOperationProfile profile = DatastoreOperationProfile.getCurrent();
+        if (profile != null) {
+            String callSite = isCallSiteCaptured ? getCallSite() : query;
+            profile.recordQuery(callSite, query, parametersHash, System.nanoTime() - startTimeNanos);
+        }
+    }
+
+    /**
+     * @return the method of the storage layer which runs the operation, e.g. {@code StudentsDb.getStudentForEmail},
+     *         preferably in a subclass of {@code EntitiesDb} rather than in {@code EntitiesDb} itself
+     */
+    private static String getCallSite() {
+        StackTraceElement entitiesDbFrame = null;
+        for (StackTraceElement frame : Thread.currentThread().getStackTrace()) {
+            String className = frame.getClassName();
+            if (!className.startsWith(STORAGE_API_PACKAGE)) {
+                continue;
+            }
+            if (!className.equals(ENTITIES_DB_CLASS)) {
+                return getSimpleName(className) + "." + frame.getMethodName();
+            }
+            if (entitiesDbFrame == null) {
+                entitiesDbFrame = frame;
+            }
+        }
+        return entitiesDbFrame == null ? "unknown"
+                                       : getSimpleName(ENTITIES_DB_CLASS) + "." + entitiesDbFrame.getMethodName();
+    }
+
+    private static String getSimpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static OperationType getOperationType(String methodName) {
+        if (methodName.startsWith("getObjectById")) {
+            return OperationType.GET;
+        }
+        if (methodName.startsWith("makePersistent")) {
+            return OperationType.PUT;
+        }
+        if (methodName.startsWith("deletePersistent")) {
+            return OperationType.DELETE;
+        }
+        return null;
+    }
+
+    private static class PersistenceManagerHandler implements InvocationHandler {
+
+        private final PersistenceManager pm;
+
+        PersistenceManagerHandler(PersistenceManager pm) {
+            this.pm = pm;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            if ("newQuery".equals(methodName)) {
+                Query query = (Query) ProfiledPersistenceManager.invoke(pm, method, args);
+                return Proxy.newProxyInstance(Query.class.getClassLoader(), new Class<?>[] { Query.class },
+                                              new QueryHandler(query, Arrays.toString(args)));
+            }
+
+            OperationType type = getOperationType(methodName);
+            if (type == null) {
+                return ProfiledPersistenceManager.invoke(pm, method, args);
+            }
+            long startTime = System.nanoTime();
+            try {
+                return ProfiledPersistenceManager.invoke(pm, method, args);
+            } finally {
+                recordOperation(type, startTime);
+            }
+        }
+
+    }
+
+    private static class QueryHandler implements InvocationHandler {
+
+        private final Query query;
+
+        /** The arguments with which the query was created, e.g. the class of the entities queried */
+        private final String queryCreationArgs;
+
+        private String filter;
+
+        QueryHandler(Query query, String queryCreationArgs) {
+            this.query = query;
+            this.queryCreationArgs = queryCreationArgs;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            if ("setFilter".equals(methodName)) {
+                filter = (String) args[0];
+            }
+            boolean isExecution = methodName.startsWith("execute");
+            boolean isDeletion = "deletePersistentAll".equals(methodName);
+            if (!isExecution && !isDeletion) {
+                return ProfiledPersistenceManager.invoke(query, method, args);
+            }
+
+            long startTime = System.nanoTime();
+            try {
+                return ProfiledPersistenceManager.invoke(query, method, args);
+            } finally {
+                if (isDeletion) {
+                    recordOperation(OperationType.DELETE, startTime);
+                } else {
+                    recordQuery(queryCreationArgs + " " + filter, getParametersHash(args), startTime);
+                }
+            }
+        }
+
+        private static int getParametersHash(Object[] args) {
+            if (args == null) {
+                return 0;
+            }
+            if (args.length == 1 && args[0] instanceof Object[]) {
+                return Arrays.deepHashCode((Object[]) args[0]);
+            }
+            return Arrays.deepHashCode(args);
+        }
+
+    }
+
+}
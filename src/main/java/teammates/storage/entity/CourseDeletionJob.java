@@ -0,0 +1,80 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents the progress of the deletion of a course and all its data,
+ * which is done in chunks across multiple requests.
+ */
+@PersistenceCapable
+public class CourseDeletionJob {
+
+    @PrimaryKey
+    @Persistent
+    private String courseId;
+
+    /** The kind of entities currently being deleted */
+    @Persistent
+    private String stage;
+
+    @Persistent
+    private Long deletedEntitiesCount;
+
+    @Persistent
+    private Date createdAt;
+
+    @Persistent
+    private Date updatedAt;
+
+    public CourseDeletionJob(String courseId, String stage, Long deletedEntitiesCount, Date createdAt) {
+        this.setCourseId(courseId);
+        this.setStage(stage);
+        this.setDeletedEntitiesCount(deletedEntitiesCount);
+        this.setCreatedAt(createdAt);
+        this.setUpdatedAt(createdAt);
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId.trim();
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public Long getDeletedEntitiesCount() {
+        return deletedEntitiesCount;
+    }
+
+    public void setDeletedEntitiesCount(Long deletedEntitiesCount) {
+        this.deletedEntitiesCount = deletedEntitiesCount;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,43 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents the last time the data of a course was modified, so that the courses modified
+ * since a given time, e.g. to back them up, can be found with an indexed query.
+ */
+@PersistenceCapable
+public class CourseModification {
+
+    @PrimaryKey
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    private Date lastModifiedAt;
+
+    public CourseModification(String courseId, Date lastModifiedAt) {
+        this.setCourseId(courseId);
+        this.setLastModifiedAt(lastModifiedAt);
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId.trim();
+    }
+
+    public Date getLastModifiedAt() {
+        return lastModifiedAt;
+    }
+
+    public void setLastModifiedAt(Date lastModifiedAt) {
+        this.lastModifiedAt = lastModifiedAt;
+    }
+}
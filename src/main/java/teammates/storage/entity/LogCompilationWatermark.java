@@ -0,0 +1,71 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents how far the request logs have been compiled, so that the next compilation
+ * only goes through the logs of the requests which ended after the watermark.
+ */
+@PersistenceCapable
+public class LogCompilationWatermark {
+
+    /** The name of the compilation, e.g. the compilation of severe logs */
+    @PrimaryKey
+    @Persistent
+    private String name;
+
+    /** The end time in microseconds of the most recent request whose logs are compiled */
+    @Persistent
+    private Long endTimeUsec;
+
+    /** The IDs of the requests whose logs are compiled which ended shortly before the end time */
+    @Persistent
+    private List<String> requestIds;
+
+    @Persistent
+    private Date updatedAt;
+
+    public LogCompilationWatermark(String name, Long endTimeUsec, List<String> requestIds, Date updatedAt) {
+        this.setName(name);
+        this.setEndTimeUsec(endTimeUsec);
+        this.setRequestIds(requestIds);
+        this.setUpdatedAt(updatedAt);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name.trim();
+    }
+
+    public Long getEndTimeUsec() {
+        return endTimeUsec;
+    }
+
+    public void setEndTimeUsec(Long endTimeUsec) {
+        this.endTimeUsec = endTimeUsec;
+    }
+
+    public List<String> getRequestIds() {
+        return requestIds;
+    }
+
+    public void setRequestIds(List<String> requestIds) {
+        this.requestIds = requestIds;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
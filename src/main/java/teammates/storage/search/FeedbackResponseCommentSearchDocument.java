@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Set;
 
 import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
@@ -34,26 +35,48 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
     private InstructorAttributes giverAsInstructor; //comment giver
     private List<InstructorAttributes> relatedInstructors;
     private List<StudentAttributes> relatedStudents;
+    private CourseRoster roster;
     
     public FeedbackResponseCommentSearchDocument(FeedbackResponseCommentAttributes comment) {
         this.comment = comment;
     }
     
+    /**
+     * Creates a document for a comment whose session, question, response, course and course roster
+     * have already been retrieved, so that building the documents of many comments does not
+     * look them up again for every comment.
+     * @see FeedbackResponseCommentSearchDocumentBuilder
+     */
+    public FeedbackResponseCommentSearchDocument(FeedbackResponseCommentAttributes comment,
+                                                 FeedbackSessionAttributes relatedSession,
+                                                 FeedbackQuestionAttributes relatedQuestion,
+                                                 FeedbackResponseAttributes relatedResponse,
+                                                 CourseAttributes course, CourseRoster roster) {
+        this.comment = comment;
+        this.relatedSession = relatedSession;
+        this.relatedQuestion = relatedQuestion;
+        this.relatedResponse = relatedResponse;
+        this.course = course;
+        this.roster = roster;
+    }
+    
     @Override
     protected void prepareData() {
         if (comment == null) {
             return;
         }
         
-        relatedSession = logic.getFeedbackSession(comment.feedbackSessionName, comment.courseId);
-        
-        relatedQuestion = logic.getFeedbackQuestion(comment.feedbackQuestionId);
-        
-        relatedResponse = logic.getFeedbackResponse(comment.feedbackResponseId);
-        
-        course = logic.getCourse(comment.courseId);
+        if (roster == null) {
+            relatedSession = logic.getFeedbackSession(comment.feedbackSessionName, comment.courseId);
+            
+            relatedQuestion = logic.getFeedbackQuestion(comment.feedbackQuestionId);
+            
+            relatedResponse = logic.getFeedbackResponse(comment.feedbackResponseId);
+            
+            course = logic.getCourse(comment.courseId);
+        }
         
-        giverAsInstructor = logic.getInstructorForEmail(comment.courseId, comment.giverEmail);
+        giverAsInstructor = getInstructorForEmail(comment.giverEmail);
         
         relatedInstructors = new ArrayList<InstructorAttributes>();
         relatedStudents = new ArrayList<StudentAttributes>();
@@ -62,7 +85,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         Set<String> addedEmailSet = new HashSet<String>();
         if (relatedQuestion.giverType == FeedbackParticipantType.INSTRUCTORS
                 || relatedQuestion.giverType == FeedbackParticipantType.SELF) {
-            InstructorAttributes ins = logic.getInstructorForEmail(comment.courseId, relatedResponse.giver);
+            InstructorAttributes ins = getInstructorForEmail(relatedResponse.giver);
             if (ins == null || addedEmailSet.contains(ins.email)) {
                 responseGiverName = Const.USER_UNKNOWN_TEXT;
             } else {
@@ -71,7 +94,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
                 responseGiverName = ins.name + " (" + ins.displayedName + ")";
             }
         } else {
-            StudentAttributes stu = logic.getStudentForEmail(comment.courseId, relatedResponse.giver);
+            StudentAttributes stu = getStudentForEmail(relatedResponse.giver);
             if (stu == null || addedEmailSet.contains(stu.email)) {
                 responseGiverName = Const.USER_UNKNOWN_TEXT;
             } else {
@@ -82,7 +105,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         }
         
         if (relatedQuestion.recipientType == FeedbackParticipantType.INSTRUCTORS) {
-            InstructorAttributes ins = logic.getInstructorForEmail(comment.courseId, relatedResponse.recipient);
+            InstructorAttributes ins = getInstructorForEmail(relatedResponse.recipient);
             if (ins != null && !addedEmailSet.contains(ins.email)) {
                 relatedInstructors.add(ins);
                 addedEmailSet.add(ins.email);
@@ -93,13 +116,13 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         } else if (relatedQuestion.recipientType == FeedbackParticipantType.NONE) {
             responseRecipientName = Const.USER_NOBODY_TEXT;
         } else {
-            StudentAttributes stu = logic.getStudentForEmail(comment.courseId, relatedResponse.recipient);
+            StudentAttributes stu = getStudentForEmail(relatedResponse.recipient);
             if (stu != null && !addedEmailSet.contains(stu.email)) {
                 relatedStudents.add(stu);
                 addedEmailSet.add(stu.email);
                 responseRecipientName = stu.name + " (" + stu.team + ")";
             }
-            List<StudentAttributes> team = logic.getStudentsForTeam(relatedResponse.recipient, comment.courseId);
+            List<StudentAttributes> team = getStudentsForTeam(relatedResponse.recipient);
             if (team != null) {
                 responseRecipientName = relatedResponse.recipient; //it's actually a team name here
                 for (StudentAttributes studentInTeam : team) {
@@ -114,6 +137,21 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
             }
         }
     }
+    
+    private InstructorAttributes getInstructorForEmail(String email) {
+        return roster == null ? logic.getInstructorForEmail(comment.courseId, email)
+                              : roster.getInstructorForEmail(email);
+    }
+    
+    private StudentAttributes getStudentForEmail(String email) {
+        return roster == null ? logic.getStudentForEmail(comment.courseId, email)
+                              : roster.getStudentForEmail(email);
+    }
+    
+    private List<StudentAttributes> getStudentsForTeam(String teamName) {
+        return roster == null ? logic.getStudentsForTeam(teamName, comment.courseId)
+                              : roster.getStudentsForTeam(teamName);
+    }
 
     @Override
     public Document toDocument() {
@@ -0,0 +1,122 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.util.Utils;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.api.FeedbackQuestionsDb;
+import teammates.storage.api.FeedbackResponsesDb;
+import teammates.storage.api.FeedbackSessionsDb;
+import teammates.storage.api.InstructorsDb;
+import teammates.storage.api.StudentsDb;
+
+/**
+ * Builds the {@link FeedbackResponseCommentSearchDocument}s of batches of comments.<br>
+ * Instead of looking up the session, question, response, course and people related to
+ * each comment separately, the courses, rosters and sessions of the comments are read once
+ * per course, and the questions and responses once per session, so that building the documents
+ * of N comments of a session takes a constant number of reads instead of about 7N.<br>
+ * What has been read is kept for the following batches, so a builder should be used
+ * for one reindexing only.
+ */
+public class FeedbackResponseCommentSearchDocumentBuilder {
+
+    private static final Logger log = Utils.getLogger();
+
+    private static final CoursesDb coursesDb = new CoursesDb();
+    private static final FeedbackSessionsDb fsDb = new FeedbackSessionsDb();
+    private static final FeedbackQuestionsDb fqDb = new FeedbackQuestionsDb();
+    private static final FeedbackResponsesDb frDb = new FeedbackResponsesDb();
+    private static final InstructorsDb instructorsDb = new InstructorsDb();
+    private static final StudentsDb studentsDb = new StudentsDb();
+
+    private final Map<String, CourseAttributes> coursesById = new HashMap<String, CourseAttributes>();
+    private final Map<String, CourseRoster> rostersByCourseId = new HashMap<String, CourseRoster>();
+    private final Map<String, FeedbackSessionAttributes> sessionsByIdentification =
+            new HashMap<String, FeedbackSessionAttributes>();
+    private final Set<String> prefetchedSessions = new HashSet<String>();
+    private final Map<String, FeedbackQuestionAttributes> questionsById =
+            new HashMap<String, FeedbackQuestionAttributes>();
+    private final Map<String, FeedbackResponseAttributes> responsesById =
+            new HashMap<String, FeedbackResponseAttributes>();
+
+    /**
+     * Comments whose session, question or response does not exist any more are skipped,
+     * as there is nothing to show about them in the search results.
+     * @return the documents of the comments, in the order of the comments
+     */
+    public List<FeedbackResponseCommentSearchDocument> build(List<FeedbackResponseCommentAttributes> comments) {
+        List<FeedbackResponseCommentSearchDocument> documents = new ArrayList<FeedbackResponseCommentSearchDocument>();
+        for (FeedbackResponseCommentAttributes comment : comments) {
+            if (comment == null) {
+                continue;
+            }
+            prefetchCourse(comment.courseId);
+
+            FeedbackSessionAttributes session =
+                    sessionsByIdentification.get(comment.feedbackSessionName + "/" + comment.courseId);
+            if (session == null) {
+                log.warning("Skipping the search document of a comment without session: " + comment.getId());
+                continue;
+            }
+            prefetchSession(session);
+
+            FeedbackQuestionAttributes question = questionsById.get(comment.feedbackQuestionId);
+            FeedbackResponseAttributes response = responsesById.get(comment.feedbackResponseId);
+            if (question == null || response == null) {
+                log.warning("Skipping the search document of a comment without question or response: "
+                            + comment.getId());
+                continue;
+            }
+            documents.add(new FeedbackResponseCommentSearchDocument(comment, session, question, response,
+                                                                    coursesById.get(comment.courseId),
+                                                                    rostersByCourseId.get(comment.courseId)));
+        }
+        return documents;
+    }
+
+    /**
+     * Reads the course, its roster and its sessions, unless they have been read already.
+     */
+    private void prefetchCourse(String courseId) {
+        if (rostersByCourseId.containsKey(courseId)) {
+            return;
+        }
+        coursesById.put(courseId, coursesDb.getCourse(courseId));
+        rostersByCourseId.put(courseId, new CourseRoster(studentsDb.getStudentsForCourse(courseId),
+                                                         instructorsDb.getInstructorsForCourse(courseId)));
+        for (FeedbackSessionAttributes session : fsDb.getFeedbackSessionsForCourse(courseId)) {
+            sessionsByIdentification.put(session.getIdentificationString(), session);
+        }
+    }
+
+    /**
+     * Reads the questions and responses of the session, unless they have been read already.
+     */
+    private void prefetchSession(FeedbackSessionAttributes session) {
+        if (!prefetchedSessions.add(session.getIdentificationString())) {
+            return;
+        }
+        String sessionName = session.getFeedbackSessionName();
+        String courseId = session.getCourseId();
+        for (FeedbackQuestionAttributes question : fqDb.getFeedbackQuestionsForSession(sessionName, courseId)) {
+            questionsById.put(question.getId(), question);
+        }
+        for (FeedbackResponseAttributes response : frDb.getFeedbackResponsesForSession(sessionName, courseId)) {
+            responsesById.put(response.getId(), response);
+        }
+    }
+
+}
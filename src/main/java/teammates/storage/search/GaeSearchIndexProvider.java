@@ -0,0 +1,204 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Config;
+import teammates.common.util.ThreadHelper;
+import teammates.common.util.Utils;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Index;
+import com.google.appengine.api.search.IndexSpec;
+import com.google.appengine.api.search.OperationResult;
+import com.google.appengine.api.search.PutException;
+import com.google.appengine.api.search.PutResponse;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchServiceFactory;
+import com.google.appengine.api.search.StatusCode;
+
+/**
+ * Provides the search indexes of the App Engine Search API.
+ * Codes reference:
+ * https://developers.google.com/appengine/docs/java/search/
+ */
+public class GaeSearchIndexProvider implements SearchIndexProvider {
+    private static final String ERROR_NON_TRANSIENT_BACKEND_ISSUE =
+            "Failed to put document %s into search index %s due to non-transient backend issue: %s";
+    private static final String ERROR_EXCEED_DURATION =
+            "Operation did not succeed in time to put %d documents into search index %s: %s";
+    
+    /** Maximum number of documents accepted by a single {@link Index#put} call. */
+    private static final int MAX_DOCUMENTS_PER_PUT = 200;
+    
+    /** Maximum number of {@link Index#putAsync} calls waited on at the same time. */
+    private static final int MAX_CONCURRENT_PUTS = 10;
+    
+    private static final int INITIAL_RETRY_DELAY = 100;
+    private static final int MAX_RETRY_DELAY = 2000;
+    
+    private static final Logger log = Utils.getLogger();
+    private static final ThreadLocal<Map<String, Index>> PER_THREAD_INDICES_TABLE = new ThreadLocal<Map<String, Index>>();
+    
+    /**
+     * {@inheritDoc}<br>
+     * The documents are put in chunks of up to {@link #MAX_DOCUMENTS_PER_PUT} documents, with up to
+     * {@link #MAX_CONCURRENT_PUTS} chunks put asynchronously at the same time. Only the documents which fail
+     * with a transient error are put again, with exponential backoff, for up to
+     * {@link Config#PERSISTENCE_CHECK_DURATION}.
+     */
+    @Override
+    public void putDocuments(String indexName, List<Document> documents) {
+        List<Document> documentsToPut = documents;
+        int elapsedTime = 0;
+        int retryDelay = INITIAL_RETRY_DELAY;
+        while (true) {
+            documentsToPut = tryPutDocuments(indexName, documentsToPut);
+            if (documentsToPut.isEmpty()) {
+                return;
+            }
+            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
+                log.severe(String.format(ERROR_EXCEED_DURATION, documentsToPut.size(), indexName,
+                                         getDocumentIds(documentsToPut)));
+                return;
+            }
+            ThreadHelper.waitFor(retryDelay);
+            elapsedTime += retryDelay;
+            retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY);
+        }
+    }
+    
+    /**
+     * Puts the documents once.
+     * @return the documents which failed with a transient error and can be put again
+     */
+    private List<Document> tryPutDocuments(String indexName, List<Document> documents) {
+        Index index = getIndex(indexName);
+        List<Document> documentsToRetry = new ArrayList<Document>();
+        
+        for (int start = 0; start < documents.size(); start += MAX_DOCUMENTS_PER_PUT * MAX_CONCURRENT_PUTS) {
+            List<List<Document>> chunks = new ArrayList<List<Document>>();
+            List<Future<PutResponse>> futures = new ArrayList<Future<PutResponse>>();
+            int end = Math.min(start + MAX_DOCUMENTS_PER_PUT * MAX_CONCURRENT_PUTS, documents.size());
+            for (int chunkStart = start; chunkStart < end; chunkStart += MAX_DOCUMENTS_PER_PUT) {
+                List<Document> chunk = documents.subList(chunkStart, Math.min(chunkStart + MAX_DOCUMENTS_PER_PUT, end));
+                chunks.add(chunk);
+                futures.add(index.putAsync(chunk));
+            }
+            
+            for (int i = 0; i < chunks.size(); i++) {
+                documentsToRetry.addAll(getDocumentsToRetry(indexName, chunks.get(i), futures.get(i)));
+            }
+        }
+        return documentsToRetry;
+    }
+    
+    /**
+     * Waits for the put of the {@code chunk} of documents and checks the status of each document.
+     * @return the documents of the chunk which failed with a transient error
+     */
+    private List<Document> getDocumentsToRetry(String indexName, List<Document> chunk,
+                                               Future<PutResponse> future) {
+        List<OperationResult> results;
+        try {
+            results = future.get().getResults();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof PutException)) {
+                log.warning("Failed to put " + chunk.size() + " documents into search index " + indexName + ": "
+                            + TeammatesException.toStringWithStackTrace(e));
+                return chunk;
+            }
+            PutException putException = (PutException) e.getCause();
+            results = putException.getResults();
+            if (results == null || results.size() != chunk.size()) {
+                // the put failed as a whole rather than per document
+                return isTransient(putException.getOperationResult()) ? chunk : logNonTransientFailures(
+                        indexName, chunk, putException.getOperationResult());
+            }
+        } catch (InterruptedException e) {
+            log.warning("Interrupted while putting documents into search index " + indexName);
+            return chunk;
+        }
+        
+        List<Document> documentsToRetry = new ArrayList<Document>();
+        for (int i = 0; i < chunk.size(); i++) {
+            OperationResult result = results.get(i);
+            if (result.getCode() == StatusCode.OK) {
+                continue;
+            }
+            if (isTransient(result)) {
+                documentsToRetry.add(chunk.get(i));
+            } else {
+                logNonTransientFailures(indexName, chunk.subList(i, i + 1), result);
+            }
+        }
+        return documentsToRetry;
+    }
+    
+    private static boolean isTransient(OperationResult result) {
+        return StatusCode.TRANSIENT_ERROR.equals(result.getCode());
+    }
+    
+    /**
+     * Logs that the documents cannot be put due to a non-transient error.
+     * @return an empty list, as the documents are not to be put again
+     */
+    private static List<Document> logNonTransientFailures(String indexName, List<Document> documents,
+                                                          OperationResult result) {
+        for (Document document : documents) {
+            log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, document.getId(), indexName, result));
+        }
+        return new ArrayList<Document>();
+    }
+    
+    private static List<String> getDocumentIds(List<Document> documents) {
+        List<String> documentIds = new ArrayList<String>();
+        for (Document document : documents) {
+            documentIds.add(document.getId());
+        }
+        return documentIds;
+    }
+    
+    @Override
+    public Document getDocument(String indexName, String documentId) {
+        return getIndex(indexName).get(documentId);
+    }
+    
+    @Override
+    public Results<ScoredDocument> searchDocuments(String indexName, Query query) {
+        return getIndex(indexName).search(query);
+    }
+    
+    @Override
+    public void deleteDocuments(String indexName, String... documentIds) {
+        getIndex(indexName).deleteAsync(documentIds);
+    }
+    
+    private static Index getIndex(String indexName) {
+        Map<String, Index> indicesTable = getIndicesTable();
+        Index index = indicesTable.get(indexName);
+        if (index == null) {
+            IndexSpec indexSpec = IndexSpec.newBuilder().setName(indexName).build();
+            index = SearchServiceFactory.getSearchService().getIndex(indexSpec);
+            indicesTable.put(indexName, index);
+        }
+        return index;
+    }
+
+    private static Map<String, Index> getIndicesTable() {
+        Map<String, Index> indicesTable = PER_THREAD_INDICES_TABLE.get();
+        if (indicesTable == null) {
+            indicesTable = new HashMap<String, Index>();
+            PER_THREAD_INDICES_TABLE.set(indicesTable);
+        }
+        return indicesTable;
+    }
+}
@@ -0,0 +1,289 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.appengine.api.search.Cursor;
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.OperationResult;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.QueryOptions;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchQueryException;
+import com.google.appengine.api.search.StatusCode;
+
+/**
+ * A search index kept in memory as an inverted index: for each field, the documents
+ * containing each token, with the positions of the token in the field to match phrases.<br>
+ * Text, HTML and atom fields are indexed; they are split into tokens at every character which is
+ * neither a letter nor a digit, and matched case-insensitively. Other fields, e.g. dates, are only stored.
+ */
+final class LocalSearchIndex {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    /** The prefix of the web-safe string of a cursor which is not per result, followed by the offset */
+    private static final String CURSOR_PREFIX = "false:";
+
+    private final Map<String, Document> documents = new HashMap<String, Document>();
+
+    /** The order in which the documents were put, to order documents of the same rank */
+    private final Map<String, Long> sequenceNumbers = new HashMap<String, Long>();
+
+    /** Field name -> token -> document ID -> positions of the token in the field */
+    private final Map<String, Map<String, Map<String, List<Integer>>>> postings =
+            new HashMap<String, Map<String, Map<String, List<Integer>>>>();
+
+    private long nextSequenceNumber;
+
+    public synchronized void put(Document document) {
+        delete(document.getId());
+        documents.put(document.getId(), document);
+        sequenceNumbers.put(document.getId(), nextSequenceNumber++);
+
+        Map<String, Integer> nextPositions = new HashMap<String, Integer>();
+        for (Field field : document.getFields()) {
+            String text = getIndexedText(field);
+            if (text == null) {
+                continue;
+            }
+            Integer position = nextPositions.get(field.getName());
+            int nextPosition = position == null ? 0 : position;
+            for (String token : tokenize(text)) {
+                getPositions(field.getName(), token, document.getId()).add(nextPosition++);
+            }
+            // leaves a gap so that phrases do not match across values of the same field
+            nextPositions.put(field.getName(), nextPosition + 1);
+        }
+    }
+
+    public synchronized Document get(String documentId) {
+        return documents.get(documentId);
+    }
+
+    public synchronized void delete(String documentId) {
+        Document document = documents.remove(documentId);
+        if (document == null) {
+            return;
+        }
+        sequenceNumbers.remove(documentId);
+        for (Field field : document.getFields()) {
+            String text = getIndexedText(field);
+            if (text == null) {
+                continue;
+            }
+            Map<String, Map<String, List<Integer>>> fieldPostings = postings.get(field.getName());
+            for (String token : tokenize(text)) {
+                Map<String, List<Integer>> tokenPostings = fieldPostings.get(token);
+                if (tokenPostings != null && tokenPostings.remove(documentId) != null && tokenPostings.isEmpty()) {
+                    fieldPostings.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches the index with the given query, of which the query string, limit, offset and
+     * cursor are used. The documents found are ordered by descending rank, then by the reverse
+     * order in which they were put, which is the default order of the App Engine Search API.
+     * @throws SearchQueryException if the query string is not supported
+     */
+    public synchronized Results<ScoredDocument> search(Query query) {
+        List<String> matchingIds = new ArrayList<String>(LocalSearchQuery.parse(query.getQueryString()).match(this));
+        Collections.sort(matchingIds, new Comparator<String>() {
+            @Override
+            public int compare(String id1, String id2) {
+                int rank1 = documents.get(id1).getRank();
+                int rank2 = documents.get(id2).getRank();
+                if (rank1 != rank2) {
+                    return rank1 > rank2 ? -1 : 1;
+                }
+                return sequenceNumbers.get(id2).compareTo(sequenceNumbers.get(id1));
+            }
+        });
+
+        QueryOptions options = query.getOptions();
+        int limit = options == null ? DEFAULT_LIMIT : options.getLimit();
+        int offset = options == null ? 0 : options.getOffset();
+        Cursor cursor = options == null ? null : options.getCursor();
+        if (cursor != null && cursor.toWebSafeString() != null) {
+            offset = getOffset(cursor);
+        }
+
+        int start = Math.min(offset, matchingIds.size());
+        int end = Math.min(start + limit, matchingIds.size());
+        List<ScoredDocument> results = new ArrayList<ScoredDocument>();
+        for (String id : matchingIds.subList(start, end)) {
+            results.add(toScoredDocument(documents.get(id)));
+        }
+
+        // like the App Engine Search API, returns a cursor only if one is given and there are more results
+        Cursor nextCursor = cursor != null && end < matchingIds.size()
+                          ? Cursor.newBuilder().build(CURSOR_PREFIX + end)
+                          : null;
+        return new LocalResults(results, matchingIds.size(), nextCursor);
+    }
+
+    synchronized Set<String> getDocumentIds() {
+        return new HashSet<String>(documents.keySet());
+    }
+
+    /**
+     * @param fieldName the field to match, or null to match any field
+     * @param tokens the tokens of the phrase, which must be consecutive in the field
+     * @return the IDs of the documents containing the phrase
+     */
+    synchronized Set<String> getDocumentIdsWithPhrase(String fieldName, List<String> tokens) {
+        Set<String> matchingIds = new HashSet<String>();
+        if (tokens.isEmpty()) {
+            return matchingIds;
+        }
+        if (fieldName == null) {
+            for (String name : postings.keySet()) {
+                matchingIds.addAll(getDocumentIdsWithPhrase(name, tokens));
+            }
+            return matchingIds;
+        }
+
+        Map<String, Map<String, List<Integer>>> fieldPostings = postings.get(fieldName);
+        if (fieldPostings == null) {
+            return matchingIds;
+        }
+        List<Map<String, List<Integer>>> tokensPostings = new ArrayList<Map<String, List<Integer>>>();
+        for (String token : tokens) {
+            Map<String, List<Integer>> tokenPostings = fieldPostings.get(token);
+            if (tokenPostings == null) {
+                return matchingIds;
+            }
+            tokensPostings.add(tokenPostings);
+        }
+
+        for (Map.Entry<String, List<Integer>> firstTokenPostings : tokensPostings.get(0).entrySet()) {
+            String documentId = firstTokenPostings.getKey();
+            for (int position : firstTokenPostings.getValue()) {
+                if (isPhraseAt(tokensPostings, documentId, position)) {
+                    matchingIds.add(documentId);
+                    break;
+                }
+            }
+        }
+        return matchingIds;
+    }
+
+    private static boolean isPhraseAt(List<Map<String, List<Integer>>> tokensPostings, String documentId,
+                                      int position) {
+        for (int i = 1; i < tokensPostings.size(); i++) {
+            List<Integer> positions = tokensPostings.get(i).get(documentId);
+            if (positions == null || !positions.contains(position + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Integer> getPositions(String fieldName, String token, String documentId) {
+        Map<String, Map<String, List<Integer>>> fieldPostings = postings.get(fieldName);
+        if (fieldPostings == null) {
+            fieldPostings = new HashMap<String, Map<String, List<Integer>>>();
+            postings.put(fieldName, fieldPostings);
+        }
+        Map<String, List<Integer>> tokenPostings = fieldPostings.get(token);
+        if (tokenPostings == null) {
+            tokenPostings = new HashMap<String, List<Integer>>();
+            fieldPostings.put(token, tokenPostings);
+        }
+        List<Integer> positions = tokenPostings.get(documentId);
+        if (positions == null) {
+            positions = new ArrayList<Integer>();
+            tokenPostings.put(documentId, positions);
+        }
+        return positions;
+    }
+
+    /**
+     * @return the text of the field to index, or null if the field is not indexed
+     */
+    private static String getIndexedText(Field field) {
+        if (field.getType() == null) {
+            return null;
+        }
+        switch (field.getType()) {
+        case TEXT:
+            return field.getText();
+        case HTML:
+            return field.getHTML() == null ? null : field.getHTML().replaceAll("<[^>]*>", " ");
+        case ATOM:
+            return field.getAtom();
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Splits the text into lower-case tokens at every character which is neither a letter nor a digit.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<String>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static int getOffset(Cursor cursor) {
+        String cursorString = cursor.toWebSafeString();
+        String offset = cursorString.substring(cursorString.indexOf(':') + 1);
+        if (!offset.matches("\\d{1,9}")) {
+            throw new SearchQueryException("Invalid cursor for a local search index: " + cursorString);
+        }
+        return Integer.parseInt(offset);
+    }
+
+    private static ScoredDocument toScoredDocument(Document document) {
+        ScoredDocument.Builder builder = ScoredDocument.newBuilder();
+        builder.setId(document.getId());
+        builder.setRank(document.getRank());
+        if (document.getLocale() != null) {
+            builder.setLocale(document.getLocale());
+        }
+        for (Field field : document.getFields()) {
+            builder.addField(field);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Results of a search in a local index, as {@link Results} can only be created by subclasses.
+     */
+    private static class LocalResults extends Results<ScoredDocument> {
+
+        private static final long serialVersionUID = 1L;
+
+        LocalResults(List<ScoredDocument> results, long numberFound, Cursor cursor) {
+            super(new OperationResult(StatusCode.OK, null), results, numberFound, results.size(), cursor);
+        }
+
+    }
+
+}
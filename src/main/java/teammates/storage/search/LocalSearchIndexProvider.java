@@ -0,0 +1,56 @@
+package teammates.storage.search;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+
+/**
+ * Provides search indexes kept in the memory of the application, see {@link LocalSearchIndex},
+ * e.g. to develop, test and benchmark searching offline. The indexes are not persisted,
+ * and are not shared between instances of the application.
+ */
+public class LocalSearchIndexProvider implements SearchIndexProvider {
+
+    private final Map<String, LocalSearchIndex> indexes = new HashMap<String, LocalSearchIndex>();
+
+    @Override
+    public void putDocuments(String indexName, List<Document> documents) {
+        LocalSearchIndex index = getIndex(indexName);
+        for (Document document : documents) {
+            index.put(document);
+        }
+    }
+
+    @Override
+    public Document getDocument(String indexName, String documentId) {
+        return getIndex(indexName).get(documentId);
+    }
+
+    @Override
+    public Results<ScoredDocument> searchDocuments(String indexName, Query query) {
+        return getIndex(indexName).search(query);
+    }
+
+    @Override
+    public void deleteDocuments(String indexName, String... documentIds) {
+        LocalSearchIndex index = getIndex(indexName);
+        for (String documentId : documentIds) {
+            index.delete(documentId);
+        }
+    }
+
+    private synchronized LocalSearchIndex getIndex(String indexName) {
+        LocalSearchIndex index = indexes.get(indexName);
+        if (index == null) {
+            index = new LocalSearchIndex();
+            indexes.put(indexName, index);
+        }
+        return index;
+    }
+
+}
@@ -0,0 +1,271 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.appengine.api.search.SearchQueryException;
+
+/**
+ * A query string of the App Engine Search API parsed to be matched against a {@link LocalSearchIndex}.<br>
+ * The syntax supported is the one built by the {@link SearchQuery} classes: words and quoted phrases,
+ * optionally restricted to a field as in {@code field:word}, {@code field:"a phrase"} or
+ * {@code field:(word OR "a phrase")}, combined with {@code AND}, {@code OR}, {@code NOT} and parentheses.
+ * Adjacent terms without operator are combined with {@code AND}. Comparisons, e.g. on dates, are not supported.
+ */
+final class LocalSearchQuery {
+
+    private static final String AND = "AND";
+    private static final String OR = "OR";
+    private static final String NOT = "NOT";
+    private static final List<String> COMPARISON_OPERATORS = Arrays.asList("<", "<=", ">", ">=", "=", "!=");
+
+    private final List<Token> tokens;
+    private int next;
+
+    private LocalSearchQuery(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * @throws SearchQueryException if the query string is not supported
+     */
+    static Matcher parse(String queryString) {
+        LocalSearchQuery query = new LocalSearchQuery(tokenize(queryString));
+        if (query.tokens.isEmpty()) {
+            return new MatchAll();
+        }
+        Matcher matcher = query.parseOr(null);
+        if (!query.hasNext()) {
+            return matcher;
+        }
+        throw query.unexpectedToken();
+    }
+
+    private Matcher parseOr(String fieldName) {
+        List<Matcher> operands = new ArrayList<Matcher>();
+        operands.add(parseAnd(fieldName));
+        while (isNextWord(OR)) {
+            next++;
+            operands.add(parseAnd(fieldName));
+        }
+        return operands.size() == 1 ? operands.get(0) : new Or(operands);
+    }
+
+    private Matcher parseAnd(String fieldName) {
+        List<Matcher> operands = new ArrayList<Matcher>();
+        operands.add(parseNot(fieldName));
+        while (hasNext() && tokens.get(next).type != TokenType.CLOSING_PARENTHESIS && !isNextWord(OR)) {
+            if (isNextWord(AND)) {
+                next++;
+            }
+            operands.add(parseNot(fieldName));
+        }
+        return operands.size() == 1 ? operands.get(0) : new And(operands);
+    }
+
+    private Matcher parseNot(String fieldName) {
+        if (isNextWord(NOT)) {
+            next++;
+            return new Not(parseNot(fieldName));
+        }
+        return parseTerm(fieldName);
+    }
+
+    private Matcher parseTerm(String fieldName) {
+        if (!hasNext()) {
+            throw new SearchQueryException("Unexpected end of query");
+        }
+        Token token = tokens.get(next++);
+        switch (token.type) {
+        case OPENING_PARENTHESIS:
+            Matcher matcher = parseOr(fieldName);
+            if (hasNext() && tokens.get(next).type == TokenType.CLOSING_PARENTHESIS) {
+                next++;
+                return matcher;
+            }
+            throw new SearchQueryException("Missing closing parenthesis in query");
+        case PHRASE:
+            return new Phrase(fieldName, LocalSearchIndex.tokenize(token.text));
+        case WORD:
+            if (hasNext() && tokens.get(next).type == TokenType.COLON) {
+                if (fieldName != null) {
+                    throw new SearchQueryException("Nested field restriction in query: " + token.text);
+                }
+                next++;
+                return parseTerm(token.text);
+            }
+            if (hasNext() && tokens.get(next).type == TokenType.WORD
+                    && COMPARISON_OPERATORS.contains(tokens.get(next).text)) {
+                throw new SearchQueryException("Comparisons are not supported by local search indexes");
+            }
+            return new Phrase(fieldName, LocalSearchIndex.tokenize(token.text));
+        default:
+            next--;
+            throw unexpectedToken();
+        }
+    }
+
+    private boolean hasNext() {
+        return next < tokens.size();
+    }
+
+    private boolean isNextWord(String word) {
+        return hasNext() && tokens.get(next).type == TokenType.WORD && tokens.get(next).text.equals(word);
+    }
+
+    private SearchQueryException unexpectedToken() {
+        return new SearchQueryException("Unexpected token in query: " + tokens.get(next).text);
+    }
+
+    private static List<Token> tokenize(String queryString) {
+        List<Token> tokens = new ArrayList<Token>();
+        int i = 0;
+        while (i < queryString.length()) {
+            char c = queryString.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(') {
+                tokens.add(new Token(TokenType.OPENING_PARENTHESIS, "("));
+                i++;
+            } else if (c == ')') {
+                tokens.add(new Token(TokenType.CLOSING_PARENTHESIS, ")"));
+                i++;
+            } else if (c == ':') {
+                tokens.add(new Token(TokenType.COLON, ":"));
+                i++;
+            } else if (c == '"') {
+                int end = queryString.indexOf('"', i + 1);
+                if (end == -1) {
+                    throw new SearchQueryException("Unterminated phrase in query: " + queryString);
+                }
+                tokens.add(new Token(TokenType.PHRASE, queryString.substring(i + 1, end)));
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < queryString.length() && !isDelimiter(queryString.charAt(end))) {
+                    end++;
+                }
+                tokens.add(new Token(TokenType.WORD, queryString.substring(i, end)));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '(' || c == ')' || c == ':' || c == '"';
+    }
+
+    private enum TokenType {
+        WORD, PHRASE, COLON, OPENING_PARENTHESIS, CLOSING_PARENTHESIS
+    }
+
+    private static class Token {
+
+        final TokenType type;
+        final String text;
+
+        Token(TokenType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+    }
+
+    /**
+     * A part of a parsed query, which matches documents of an index.
+     */
+    interface Matcher {
+
+        /**
+         * @return the IDs of the documents of the index which are matched
+         */
+        Set<String> match(LocalSearchIndex index);
+
+    }
+
+    private static class MatchAll implements Matcher {
+
+        @Override
+        public Set<String> match(LocalSearchIndex index) {
+            return index.getDocumentIds();
+        }
+
+    }
+
+    private static class Phrase implements Matcher {
+
+        private final String fieldName;
+        private final List<String> tokens;
+
+        Phrase(String fieldName, List<String> tokens) {
+            this.fieldName = fieldName;
+            this.tokens = tokens;
+        }
+
+        @Override
+        public Set<String> match(LocalSearchIndex index) {
+            return index.getDocumentIdsWithPhrase(fieldName, tokens);
+        }
+
+    }
+
+    private static class And implements Matcher {
+
+        private final List<Matcher> operands;
+
+        And(List<Matcher> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public Set<String> match(LocalSearchIndex index) {
+            Set<String> matchingIds = operands.get(0).match(index);
+            for (int i = 1; i < operands.size() && !matchingIds.isEmpty(); i++) {
+                matchingIds.retainAll(operands.get(i).match(index));
+            }
+            return matchingIds;
+        }
+
+    }
+
+    private static class Or implements Matcher {
+
+        private final List<Matcher> operands;
+
+        Or(List<Matcher> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public Set<String> match(LocalSearchIndex index) {
+            Set<String> matchingIds = new HashSet<String>();
+            for (Matcher operand : operands) {
+                matchingIds.addAll(operand.match(index));
+            }
+            return matchingIds;
+        }
+
+    }
+
+    private static class Not implements Matcher {
+
+        private final Matcher operand;
+
+        Not(Matcher operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public Set<String> match(LocalSearchIndex index) {
+            Set<String> matchingIds = index.getDocumentIds();
+            matchingIds.removeAll(operand.match(index));
+            return matchingIds;
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package teammates.storage.search;
+
+import java.util.List;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+
+/**
+ * A provider of the search indexes to which {@link SearchManager} delegates,
+ * e.g. the App Engine Search API or an index embedded in the application.
+ */
+public interface SearchIndexProvider {
+    
+    /**
+     * Creates or updates the given documents in the index.
+     */
+    void putDocuments(String indexName, List<Document> documents);
+    
+    /**
+     * @return the document with the given ID, or null if the index has no such document
+     */
+    Document getDocument(String indexName, String documentId);
+    
+    /**
+     * Searches the index with a query in the syntax of the App Engine Search API,
+     * as built by the {@link SearchQuery} classes.
+     */
+    Results<ScoredDocument> searchDocuments(String indexName, Query query);
+    
+    /**
+     * Deletes the documents with the given IDs from the index, ignoring those which do not exist.
+     */
+    void deleteDocuments(String indexName, String... documentIds);
+    
+}
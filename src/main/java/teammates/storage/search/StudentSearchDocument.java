@@ -17,9 +17,18 @@ public class StudentSearchDocument extends SearchDocument {
         this.student = student;
     }
     
+    /**
+     * Creates a document for a student whose course has already been retrieved,
+     * so that building many documents for the same course does not look up the course repeatedly.
+     */
+    public StudentSearchDocument(StudentAttributes student, CourseAttributes course) {
+        this.student = student;
+        this.course = course;
+    }
+    
     @Override
     protected void prepareData() {
-        if (student == null) {
+        if (student == null || course != null) {
             return;
         }
         
@@ -46,6 +46,9 @@ public class ActionFactory {
         map(ADMIN_EMAIL_MOVE_TO_TRASH, AdminEmailTrashAction.class);
         map(ADMIN_EMAIL_MOVE_OUT_TRASH, AdminEmailTrashAction.class);
         map(ADMIN_EMAIL_LOG_PAGE, AdminEmailLogPageAction.class);
+        map(ADMIN_EMAIL_SENDING_METRICS, AdminEmailSendingMetricsAction.class);
+        map(ADMIN_ACTION_METRICS_PAGE, AdminActionMetricsPageAction.class);
+        map(ADMIN_ACTION_METRICS, AdminActionMetricsAction.class);
         
         map(INSTRUCTOR_COURSES_PAGE, InstructorCoursesPageAction.class);
         map(INSTRUCTOR_COURSE_STATS_PAGE, CourseStatsPageAction.class);
@@ -140,14 +143,26 @@ public class ActionFactory {
         String url = req.getRequestURL().toString();
         log.info("URL received : [" + req.getMethod() + "] " + url);
         
+        Action c = getAction(getActionUri(req));
+        c.init(req);
+        return c;
+        
+    }
+
+    /**
+     * @return the URI of the action requested in the {@code req}, or null if the URI is not mapped to an action
+     */
+    public static String getMappedActionUri(HttpServletRequest req) {
+        String uri = getActionUri(req);
+        return actionMappings.containsKey(uri) ? uri : null;
+    }
+
+    private static String getActionUri(HttpServletRequest req) {
         String uri = req.getRequestURI();
         if (uri.contains(";")) {
             uri = uri.split(";")[0];
         }
-        Action c = getAction(uri);
-        c.init(req);
-        return c;
-        
+        return uri;
     }
 
     private static Action getAction(String uri) {
@@ -0,0 +1,22 @@
+package teammates.ui.controller;
+
+import teammates.common.util.ActionMetrics;
+import teammates.logic.api.GateKeeper;
+
+/**
+ * Serves the metrics of {@link AdminActionMetricsPageAction} as JSON.
+ */
+public class AdminActionMetricsAction extends Action {
+
+    @Override
+    protected ActionResult execute() {
+        
+        new GateKeeper().verifyAdminPrivileges(account);
+        
+        AdminActionMetricsPageData data = new AdminActionMetricsPageData(account, ActionMetrics.getSummaries());
+        
+        return createAjaxResult(data);
+        
+    }
+
+}
@@ -0,0 +1,23 @@
+package teammates.ui.controller;
+
+import teammates.common.util.ActionMetrics;
+import teammates.common.util.Const;
+import teammates.logic.api.GateKeeper;
+
+/**
+ * Shows the latency, errors and datastore calls of the actions served by the instance handling the request.
+ */
+public class AdminActionMetricsPageAction extends Action {
+
+    @Override
+    protected ActionResult execute() {
+        
+        new GateKeeper().verifyAdminPrivileges(account);
+        
+        AdminActionMetricsPageData data = new AdminActionMetricsPageData(account, ActionMetrics.getSummaries());
+        
+        return createShowPageResult(Const.ViewURIs.ADMIN_ACTION_METRICS, data);
+        
+    }
+
+}
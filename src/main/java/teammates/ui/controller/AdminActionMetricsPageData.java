@@ -0,0 +1,21 @@
+package teammates.ui.controller;
+
+import java.util.List;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.util.ActionMetrics;
+
+public class AdminActionMetricsPageData extends PageData {
+    /** The metrics of each action served by the instance, from the slowest */
+    private List<ActionMetrics.Summary> actionMetrics;
+
+    public AdminActionMetricsPageData(AccountAttributes account, List<ActionMetrics.Summary> actionMetrics) {
+        super(account);
+        this.actionMetrics = actionMetrics;
+    }
+
+    public List<ActionMetrics.Summary> getActionMetrics() {
+        return actionMetrics;
+    }
+
+}
@@ -2,7 +2,6 @@ package teammates.ui.controller;
 
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.TimeZone;
 
@@ -10,11 +9,10 @@ import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.util.ActivityLogEntry;
-import teammates.common.util.AdminLogQuery;
 import teammates.common.util.Const;
 import teammates.common.util.Const.StatusMessageColor;
-import teammates.common.util.GaeLogApi;
 import teammates.common.util.GaeVersionApi;
+import teammates.common.util.LogSearchEngine;
 import teammates.common.util.StatusMessage;
 import teammates.common.util.TimeHelper;
 import teammates.common.util.Version;
@@ -40,8 +38,8 @@ public class AdminActivityLogPageAction extends Action {
     private static final int MAX_VERSIONS_TO_QUERY = 1 + 5; //the current version and its 5 preceding versions
     
     private int totalLogsSearched;
-    private boolean isFirstRow = true;
-    private Long nextEndTimeToSearch;
+    private String nextEndTimeToSearch;
+    private long earliestSearchTime;
     
     @Override
     protected ActionResult execute() {
@@ -90,18 +88,19 @@ public class AdminActivityLogPageAction extends Action {
         data.generateQueryParameters(filterQuery);
         
         boolean isContinueFromPreviousSearch = !data.isFromDateSpecifiedInQuery() && !searchTimeOffset.isEmpty();
-        if (isContinueFromPreviousSearch) {
-            data.setToDate(Long.parseLong(searchTimeOffset));
-        }
         
         List<String> versionToQuery = getVersionsForQuery(data.getVersions());
-        AdminLogQuery query = new AdminLogQuery(versionToQuery, data.getFromDate(), data.getToDate());
         
         List<ActivityLogEntry> logs = null;
         if (data.isFromDateSpecifiedInQuery()) {
-            logs = searchLogsWithExactTimePeriod(query, data);
+            logs = searchLogsWithExactTimePeriod(versionToQuery, data);
+        } else if (isContinueFromPreviousSearch) {
+            logs = searchLogsWithTimeIncrement(versionToQuery, searchTimeOffset, data);
         } else {
-            logs = searchLogsWithTimeIncrement(query, data);
+            logs = searchLogsWithTimeIncrement(versionToQuery, null, data);
+        }
+        if (!logs.isEmpty()) {
+            logs.get(0).setFirstRow();
         }
         
         String courseIdFromSearchPage = getRequestParamValue("courseId");
@@ -112,6 +111,10 @@ public class AdminActivityLogPageAction extends Action {
             return createShowPageResult(Const.ViewURIs.ADMIN_ACTIVITY_LOG, data);
         }
         
+        // the page renders the entries itself, but the js of the ajax request needs their HTML
+        for (ActivityLogEntry log : logs) {
+            log.renderLogInfoAsHtml();
+        }
         return createAjaxResult(data);
     }
     
@@ -136,16 +139,6 @@ public class AdminActivityLogPageAction extends Action {
                     + "<br>Total Relevant Logs found in last search: "
                     + String.format("%s<br>", logs.size()));
         
-        long earliestSearchTime = data.getFromDate();
-        ActivityLogEntry earliestLogChecked = null;
-        if (!logs.isEmpty()) {
-            earliestLogChecked = logs.get(logs.size() - 1);
-        }
-        //  if the search space is limited to a certain log
-        if (logs.size() >= RELEVANT_LOGS_PER_PAGE && earliestLogChecked != null) {
-            earliestSearchTime = earliestLogChecked.getTime();
-        }
-        
         double targetTimeZone = Const.DOUBLE_UNINITIALIZED;
         if (data.isPersonSpecified()) {
             String targetUserGoogleId = data.getPersonSpecified();
@@ -207,72 +200,67 @@ public class AdminActivityLogPageAction extends Action {
     }
 
     /**
-     * Retrieves enough logs within MAX_SEARCH_PERIOD hours.
+     * Retrieves enough logs within MAX_SEARCH_PERIOD hours, searching the SEARCH_TIME_INCREMENT windows
+     * and the versions concurrently.
+     * @param continuationToken the token to continue the previous search from, or null to start a new search
      */
-    private List<ActivityLogEntry> searchLogsWithTimeIncrement(AdminLogQuery query, AdminActivityLogPageData data) {
-        List<ActivityLogEntry> appLogs = new LinkedList<ActivityLogEntry>();
-        
-        totalLogsSearched = 0;
-        GaeLogApi logApi = new GaeLogApi();
-        
-        long startTime = query.getEndTime() - SEARCH_TIME_INCREMENT;
-        query.setTimePeriod(startTime, query.getEndTime());
-        
-        for (int i = 0; i < MAX_SEARCH_TIMES; i++) {
-            if (appLogs.size() >= RELEVANT_LOGS_PER_PAGE) {
-                break;
-            }
-            List<AppLogLine> searchResult = logApi.fetchLogs(query);
-            List<ActivityLogEntry> filteredLogs = filterLogsForActivityLogPage(searchResult, data);
-            appLogs.addAll(filteredLogs);
-            totalLogsSearched += searchResult.size();
-            query.moveTimePeriodBackward(SEARCH_TIME_INCREMENT);
-        }
-        nextEndTimeToSearch = query.getEndTime();
-        return appLogs;
+    private List<ActivityLogEntry> searchLogsWithTimeIncrement(List<String> versionToQuery, String continuationToken,
+                                                               AdminActivityLogPageData data) {
+        LogSearchEngine<ActivityLogEntry> searchEngine = new LogSearchEngine<ActivityLogEntry>(
+                versionToQuery, SEARCH_TIME_INCREMENT, MAX_SEARCH_TIMES, RELEVANT_LOGS_PER_PAGE);
+        LogSearchEngine.Result<ActivityLogEntry> result = continuationToken == null
+                ? searchEngine.search(data.getToDate(), getActivityLogPageFilter(data))
+                : searchEngine.resume(continuationToken, getActivityLogPageFilter(data));
+        
+        totalLogsSearched = result.getNumberOfLogsSearched();
+        nextEndTimeToSearch = result.getContinuationToken();
+        // where the search stopped, which is not the fromDate of the query when the search is resumed
+        earliestSearchTime = result.getEarliestSearchTimeMillis();
+        return result.getRelevantLogs();
     }
     
     /**
-     * Retrieves all logs in the time period specified in the query.
+     * Retrieves all logs in the time period specified in the query, searching the versions concurrently.
      */
-    private List<ActivityLogEntry> searchLogsWithExactTimePeriod(AdminLogQuery query, AdminActivityLogPageData data) {
-        GaeLogApi logApi = new GaeLogApi();
-        List<AppLogLine> searchResult = logApi.fetchLogs(query);
-        List<ActivityLogEntry> filteredLogs = filterLogsForActivityLogPage(searchResult, data);
-        
-        nextEndTimeToSearch = data.getFromDate() - 1;
-        totalLogsSearched = searchResult.size();
-        return filteredLogs;
+    private List<ActivityLogEntry> searchLogsWithExactTimePeriod(List<String> versionToQuery,
+                                                                 AdminActivityLogPageData data) {
+        long timePeriod = Math.max(1, data.getToDate() - data.getFromDate());
+        LogSearchEngine<ActivityLogEntry> searchEngine = new LogSearchEngine<ActivityLogEntry>(
+                versionToQuery, timePeriod, 1, Integer.MAX_VALUE);
+        LogSearchEngine.Result<ActivityLogEntry> result =
+                searchEngine.search(data.getToDate(), getActivityLogPageFilter(data));
+        
+        totalLogsSearched = result.getNumberOfLogsSearched();
+        nextEndTimeToSearch = result.getContinuationToken();
+        earliestSearchTime = result.getEarliestSearchTimeMillis();
+        return result.getRelevantLogs();
     }
     
     /**
-     * Filters logs that should be shown on Admin Activity Log Page.
+     * Selects the logs that should be shown on Admin Activity Log Page while they are fetched.
      */
-    private List<ActivityLogEntry> filterLogsForActivityLogPage(List<AppLogLine> appLogLines,
-                                                                AdminActivityLogPageData data) {
-        List<ActivityLogEntry> appLogs = new LinkedList<ActivityLogEntry>();
-        for (AppLogLine appLog : appLogLines) {
-            String logMsg = appLog.getLogMessage();
-            boolean isNotTeammatesLog = !logMsg.contains("TEAMMATESLOG");
-            boolean isLogFromAdminActivityLogPage = logMsg.contains("adminActivityLogPage");
-            if (isNotTeammatesLog || isLogFromAdminActivityLogPage) {
-                continue;
+    private LogSearchEngine.LogLineFilter<ActivityLogEntry> getActivityLogPageFilter(
+            final AdminActivityLogPageData data) {
+        return new LogSearchEngine.LogLineFilter<ActivityLogEntry>() {
+            @Override
+            public ActivityLogEntry filter(AppLogLine appLog) {
+                String logMsg = appLog.getLogMessage();
+                boolean isNotTeammatesLog = !logMsg.contains("TEAMMATESLOG");
+                boolean isLogFromAdminActivityLogPage = logMsg.contains("adminActivityLogPage");
+                if (isNotTeammatesLog || isLogFromAdminActivityLogPage) {
+                    return null;
+                }
+                if (!data.isLogMessageToParse(logMsg)) {
+                    // filtered out by the leading fields of the log message, without parsing the others
+                    return null;
+                }
+                
+                ActivityLogEntry activityLogEntry = data.filterLogs(new ActivityLogEntry(appLog));
+                boolean isToShow = activityLogEntry.toShow()
+                                   && (!activityLogEntry.isTestingData() || data.getIfShowTestData());
+                return isToShow ? activityLogEntry : null;
             }
-            
-            ActivityLogEntry activityLogEntry = new ActivityLogEntry(appLog);
-            activityLogEntry = data.filterLogs(activityLogEntry);
-            
-            boolean isToShow = activityLogEntry.toShow() && (!activityLogEntry.isTestingData() || data.getIfShowTestData());
-            if (!isToShow) {
-                continue;
-            }
-            if (isFirstRow) {
-                activityLogEntry.setFirstRow();
-                isFirstRow = false;
-            }
-            appLogs.add(activityLogEntry);
-        }
-        return appLogs;
+        };
     }
 
     private double getLocalTimeZoneForRequest(String userGoogleId, String userRole) {
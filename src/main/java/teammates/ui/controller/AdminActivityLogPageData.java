@@ -168,6 +168,44 @@ public class AdminActivityLogPageData extends PageData {
         return false;
     }
     
+    /**
+     * Checks the leading fields of an app log message as {@link #filterLogs(ActivityLogEntry)} does,
+     * so that most log lines filtered out are discarded without being parsed into an {@link ActivityLogEntry}.
+     * returns false if the entry of the log message would not be shown
+     */
+    public boolean isLogMessageToParse(String logMessage) {
+        String[] fields = ActivityLogEntry.getLeadingFieldsOfLogMessage(logMessage, ActivityLogEntry.POSITION_OF_EMAIL);
+        if (fields == null) {
+            // shown as a failure to parse the log message
+            return true;
+        }
+        
+        String email = fields[ActivityLogEntry.POSITION_OF_EMAIL];
+        if (!Boolean.parseBoolean(fields[ActivityLogEntry.POSITION_OF_TOSHOW])
+                || email.endsWith(".tmt") && !ifShowTestData) {
+            return false;
+        }
+        
+        if (q == null) {
+            return true;
+        }
+        if (q.isRequestInQuery && !arrayContains(q.requestValues, fields[ActivityLogEntry.POSITION_OF_SERVLETNAME])) {
+            return false;
+        }
+        if (q.isResponseInQuery && !arrayContains(q.responseValues, fields[ActivityLogEntry.POSITION_OF_ACTION])) {
+            return false;
+        }
+        if (q.isPersonInQuery) {
+            String person = q.personValue.toLowerCase();
+            if (!fields[ActivityLogEntry.POSITION_OF_NAME].toLowerCase().contains(person)
+                    && !fields[ActivityLogEntry.POSITION_OF_GOOGLEID].toLowerCase().contains(person)
+                    && !email.toLowerCase().contains(person)) {
+                return false;
+            }
+        }
+        return !q.isRoleInQuery || arrayContains(q.roleValues, fields[ActivityLogEntry.POSITION_OF_ROLE]);
+    }
+    
     /**
      * Performs the actual filtering, based on QueryParameters
      * returns false if the logEntry fails the filtering process
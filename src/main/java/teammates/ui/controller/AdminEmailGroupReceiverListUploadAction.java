@@ -6,6 +6,7 @@ import java.util.Map;
 
 import teammates.common.util.Const;
 import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.common.util.GroupReceiverListReader;
 import teammates.logic.api.GateKeeper;
 
 import com.google.appengine.api.blobstore.BlobInfo;
@@ -35,18 +36,14 @@ public class AdminEmailGroupReceiverListUploadAction extends Action {
         }
         
         try {
-            List<List<String>> groupReceiverList =
-                    GoogleCloudStorageHelper.getGroupReceiverList(blobInfo.getBlobKey());
-            
-            // log all email addresses retrieved from the txt file
-            int i = 0;
-            
-            for (List<String> list : groupReceiverList) {
-                for (String str : list) {
-                    log.info(str + " - " + i + " \n");
-                    i++;
-                }
+            // read through the whole file to check that it can be parsed
+            GroupReceiverListReader reader = GoogleCloudStorageHelper.openGroupReceiverList(blobInfo.getBlobKey(), 0);
+            int numberOfReceivers = 0;
+            while (reader.next() != null) {
+                numberOfReceivers++;
             }
+            reader.close();
+            log.info("Group receiver list uploaded with " + numberOfReceivers + " email addresses");
         } catch (IOException e) {
             data.isFileUploaded = false;
             data.fileSrcUrl = null;
@@ -0,0 +1,20 @@
+package teammates.ui.controller;
+
+import teammates.logic.api.GateKeeper;
+
+public class AdminEmailSendingMetricsAction extends Action {
+
+    @Override
+    protected ActionResult execute() {
+        
+        new GateKeeper().verifyAdminPrivileges(account);
+        
+        AdminEmailSendingMetricsAjaxPageData data = new AdminEmailSendingMetricsAjaxPageData(account);
+        data.metrics = logic.getEmailSendingMetrics();
+        data.ajaxStatus = "Email sending metrics fetched";
+        
+        return createAjaxResult(data);
+        
+    }
+
+}
@@ -0,0 +1,16 @@
+package teammates.ui.controller;
+
+import java.util.Map;
+
+import teammates.common.datatransfer.AccountAttributes;
+
+public class AdminEmailSendingMetricsAjaxPageData extends PageData {
+    /** The metrics of the emails sent through the task queues, keyed by email priority */
+    public Map<String, Map<String, Long>> metrics;
+    public String ajaxStatus;
+
+    public AdminEmailSendingMetricsAjaxPageData(AccountAttributes account) {
+        super(account);
+    }
+    
+}
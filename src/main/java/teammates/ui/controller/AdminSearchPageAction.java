@@ -2,7 +2,10 @@ package teammates.ui.controller;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
@@ -16,12 +19,16 @@ import teammates.common.util.StatusMessage;
 import teammates.common.util.StringHelper;
 import teammates.common.util.Url;
 import teammates.logic.api.GateKeeper;
-import teammates.logic.api.Logic;
 
 public class AdminSearchPageAction extends Action {
 
     private HashMap<String, String> tempCourseIdToInstituteMap = new HashMap<String, String>();
     private HashMap<String, String> tempCourseIdToInstructorGoogleIdMap = new HashMap<String, String>();
+    private HashMap<String, CourseAttributes> tempCourseIdToCourseMap = new HashMap<String, CourseAttributes>();
+    private HashMap<String, List<InstructorAttributes>> tempCourseIdToInstructorsMap =
+            new HashMap<String, List<InstructorAttributes>>();
+    private HashMap<String, List<FeedbackSessionAttributes>> tempCourseIdToFeedbackSessionsMap =
+            new HashMap<String, List<FeedbackSessionAttributes>>();
 
     @Override
     protected ActionResult execute() {
@@ -48,13 +55,15 @@ public class AdminSearchPageAction extends Action {
         data.searchKey = searchKey;
        
         data.studentResultBundle = logic.searchStudentsInWholeSystem(searchKey, "");
+        data.instructorResultBundle = logic.searchInstructorsInWholeSystem(searchKey, "");
+        
+        prefetchCourseData(data.studentResultBundle.studentList, data.instructorResultBundle.instructorList);
         
         data = putFeedbackSessionLinkIntoMap(data.studentResultBundle.studentList, data);
         data = putStudentHomePageLinkIntoMap(data.studentResultBundle.studentList, data);
         data = putStudentRecordsPageLinkIntoMap(data.studentResultBundle.studentList, data);
         data = putStudentInsitituteIntoMap(data.studentResultBundle.studentList, data);
                    
-        data.instructorResultBundle = logic.searchInstructorsInWholeSystem(searchKey, "");
         data = putInstructorInsitituteIntoMap(data.instructorResultBundle.instructorList, data);
         data = putInstructorHomePageLinkIntoMap(data.instructorResultBundle.instructorList, data);
         data = putInstructorCourseJoinLinkIntoMap(data.instructorResultBundle.instructorList, data);
@@ -81,27 +90,70 @@ public class AdminSearchPageAction extends Action {
         return createShowPageResult(Const.ViewURIs.ADMIN_SEARCH, data);
     }
     
+    /**
+     * Reads the courses, instructors, sessions and institutes of the courses of all the results
+     * with a few batched reads, instead of reading them for every result.
+     */
+    private void prefetchCourseData(List<StudentAttributes> students, List<InstructorAttributes> instructors) {
+        
+        Set<String> studentCourseIds = new HashSet<String>();
+        for (StudentAttributes student : students) {
+            if (student.course != null) {
+                studentCourseIds.add(student.course);
+            }
+        }
+        Set<String> courseIds = new HashSet<String>(studentCourseIds);
+        for (InstructorAttributes instructor : instructors) {
+            if (instructor.courseId != null) {
+                courseIds.add(instructor.courseId);
+            }
+        }
+        
+        for (CourseAttributes course : logic.getCourses(new ArrayList<String>(courseIds))) {
+            tempCourseIdToCourseMap.put(course.getId(), course);
+        }
+        tempCourseIdToInstructorsMap.putAll(logic.getInstructorsForCourses(courseIds));
+        tempCourseIdToFeedbackSessionsMap.putAll(logic.getFeedbackSessionsForCourses(studentCourseIds));
+        
+        Set<String> googleIds = new HashSet<String>();
+        for (String courseId : courseIds) {
+            String googleId = findAvailableInstructorGoogleIdForCourse(courseId);
+            if (!googleId.isEmpty()) {
+                googleIds.add(googleId);
+            }
+        }
+        Map<String, String> googleIdToInstituteMap = new HashMap<String, String>();
+        for (AccountAttributes account : logic.getAccounts(googleIds)) {
+            String institute = account.institute == null || account.institute.trim().isEmpty()
+                             ? "None"
+                             : account.institute;
+            googleIdToInstituteMap.put(account.googleId, institute);
+        }
+        for (String courseId : courseIds) {
+            String institute = googleIdToInstituteMap.get(findAvailableInstructorGoogleIdForCourse(courseId));
+            if (institute != null) {
+                tempCourseIdToInstituteMap.put(courseId, institute);
+            }
+        }
+    }
+    
     private AdminSearchPageData putCourseNameIntoMap(List<StudentAttributes> students,
                                                      List<InstructorAttributes> instructors,
                                                      AdminSearchPageData data) {
         
-        Logic logic = new Logic();
-        
         for (StudentAttributes student : students) {
-            if (student.course != null && !data.courseIdToCourseNameMap.containsKey(student.course)) {
-                CourseAttributes course = logic.getCourse(student.course);
-                if (course != null) {
-                    data.courseIdToCourseNameMap.put(student.course, course.getName());
-                }
+            CourseAttributes course = student.course == null ? null : tempCourseIdToCourseMap.get(student.course);
+            if (course != null) {
+                data.courseIdToCourseNameMap.put(student.course, course.getName());
             }
         }
         
         for (InstructorAttributes instructor : instructors) {
-            if (instructor.courseId != null && !data.courseIdToCourseNameMap.containsKey(instructor.courseId)) {
-                CourseAttributes course = logic.getCourse(instructor.courseId);
-                if (course != null) {
-                    data.courseIdToCourseNameMap.put(instructor.courseId, course.getName());
-                }
+            CourseAttributes course = instructor.courseId == null
+                                    ? null
+                                    : tempCourseIdToCourseMap.get(instructor.courseId);
+            if (course != null) {
+                data.courseIdToCourseNameMap.put(instructor.courseId, course.getName());
             }
         }
         
@@ -130,26 +182,12 @@ public class AdminSearchPageAction extends Action {
     
     private AdminSearchPageData putInstructorInsitituteIntoMap(List<InstructorAttributes> instructors,
                                                                AdminSearchPageData data) {
-        Logic logic = new Logic();
         for (InstructorAttributes instructor : instructors) {
             
-            if (tempCourseIdToInstituteMap.get(instructor.courseId) != null) {
-                data.instructorInstituteMap.put(instructor.getIdentificationString(),
-                                                tempCourseIdToInstituteMap.get(instructor.courseId));
-                continue;
-            }
-            
-            String googleId = findAvailableInstructorGoogleIdForCourse(instructor.courseId);
-            
-            AccountAttributes account = logic.getAccount(googleId);
-            if (account == null) {
-                continue;
+            String institute = tempCourseIdToInstituteMap.get(instructor.courseId);
+            if (institute != null) {
+                data.instructorInstituteMap.put(instructor.getIdentificationString(), institute);
             }
-            
-            String institute = account.institute.trim().isEmpty() ? "None" : account.institute;
-            
-            tempCourseIdToInstituteMap.put(instructor.courseId, institute);
-            data.instructorInstituteMap.put(instructor.getIdentificationString(), institute);
         }
         
         return data;
@@ -176,28 +214,12 @@ public class AdminSearchPageAction extends Action {
 
     private AdminSearchPageData putStudentInsitituteIntoMap(List<StudentAttributes> students, AdminSearchPageData data) {
         
-        Logic logic = new Logic();
-        
         for (StudentAttributes student : students) {
             
-            if (tempCourseIdToInstituteMap.get(student.course) != null) {
-                data.studentInstituteMap.put(student.getIdentificationString(),
-                                             tempCourseIdToInstituteMap.get(student.course));
-                continue;
-            }
-            
-            String instructorForCoursegoogleId = findAvailableInstructorGoogleIdForCourse(student.course);
-            
-            AccountAttributes account = logic.getAccount(instructorForCoursegoogleId);
-            if (account == null) {
-                continue;
+            String institute = tempCourseIdToInstituteMap.get(student.course);
+            if (institute != null) {
+                data.studentInstituteMap.put(student.getIdentificationString(), institute);
             }
-            
-            String institute = account.institute.trim().isEmpty() ? "None" : account.institute;
-            
-            tempCourseIdToInstituteMap.put(student.course, institute);
-            
-            data.studentInstituteMap.put(student.getIdentificationString(), institute);
         }
         
         return data;
@@ -261,7 +283,7 @@ public class AdminSearchPageAction extends Action {
             return tempCourseIdToInstructorGoogleIdMap.get(courseId);
         }
         
-        List<InstructorAttributes> instructorList = logic.getInstructorsForCourse(courseId);
+        List<InstructorAttributes> instructorList = tempCourseIdToInstructorsMap.get(courseId);
         
         if (instructorList == null || instructorList.isEmpty()) {
             return "";
@@ -291,11 +313,13 @@ public class AdminSearchPageAction extends Action {
     private AdminSearchPageData putFeedbackSessionLinkIntoMap(List<StudentAttributes> students,
                                                               AdminSearchPageData rawData) {
         
-        Logic logic = new Logic();
         AdminSearchPageData processedData = rawData;
         
         for (StudentAttributes student : students) {
-            List<FeedbackSessionAttributes> feedbackSessions = logic.getFeedbackSessionsForCourse(student.course);
+            List<FeedbackSessionAttributes> feedbackSessions = tempCourseIdToFeedbackSessionsMap.get(student.course);
+            if (feedbackSessions == null) {
+                continue;
+            }
             
             for (FeedbackSessionAttributes fsa : feedbackSessions) {
                 processedData = extractDataFromFeedbackSeesion(fsa, processedData, student);
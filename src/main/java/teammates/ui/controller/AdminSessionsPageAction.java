@@ -4,12 +4,12 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
-import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.util.Const;
 import teammates.common.util.Const.StatusMessageColor;
 import teammates.common.util.Sanitizer;
@@ -189,28 +189,28 @@ public class AdminSessionsPageAction extends Action {
         this.totalClosedStatusSessions = getTotalNumOfCloseStatusSession(allOpenFeedbackSessionsList);
         this.totalWaitToOpenStatusSessions = getTotalNumOfWaitToOpenStatusSession(allOpenFeedbackSessionsList);
 
+        // the institute of a course is that of a registered instructor of the course, resolved in one batch
+        Set<String> courseIds = new HashSet<String>();
         for (FeedbackSessionAttributes fs : allOpenFeedbackSessionsList) {
+            courseIds.add(fs.getCourseId());
+        }
+        Map<String, String> instructorGoogleIds = logic.getRegisteredInstructorGoogleIdsForCourses(courseIds);
+        Map<String, String> institutes =
+                logic.getInstitutesForGoogleIds(new HashSet<String>(instructorGoogleIds.values()));
 
-            List<InstructorAttributes> instructors = logic.getInstructorsForCourse(fs.getCourseId());
+        for (FeedbackSessionAttributes fs : allOpenFeedbackSessionsList) {
+            String googleId = instructorGoogleIds.get(fs.getCourseId());
+            String institute = googleId == null ? null : institutes.get(googleId);
+            this.sessionToInstructorIdMap.put(fs.getIdentificationString(), googleId == null ? "" : googleId);
 
-            if (instructors.isEmpty()) {
+            if (institute == null) {
                 putIntoUnknownList(map, fs);
+            } else if (map.get(institute) == null) {
+                List<FeedbackSessionAttributes> newList = new ArrayList<FeedbackSessionAttributes>();
+                newList.add(fs);
+                map.put(institute, newList);
             } else {
-                AccountAttributes account = getRegisteredInstructorAccountFromInstructors(instructors);
-
-                if (account == null) {
-                    putIntoUnknownList(map, fs);
-                    continue;
-                }
-
-                if (map.get(account.institute) == null) {
-                    List<FeedbackSessionAttributes> newList = new ArrayList<FeedbackSessionAttributes>();
-                    newList.add(fs);
-                    map.put(account.institute, newList);
-                } else {
-                    map.get(account.institute).add(fs);
-                }
-
+                map.get(institute).add(fs);
             }
         }
         this.map = map;
@@ -221,58 +221,12 @@ public class AdminSessionsPageAction extends Action {
                       + "<span class=\"bold\">Total Opened Sessions:</span> "
                       + this.totalOpenStatusSessions;
         
-        constructSessionToInstructorIdMap();
         data.init(this.map, this.sessionToInstructorIdMap, this.totalOngoingSessions,
                   this.totalOpenStatusSessions, this.totalClosedStatusSessions, this.totalWaitToOpenStatusSessions,
                   this.totalInstitutes, this.rangeStart, this.rangeEnd, this.zone, this.isShowAll);
         return createShowPageResult(Const.ViewURIs.ADMIN_SESSIONS, data);
     }
     
-    private void constructSessionToInstructorIdMap() {
-        for (String institute : this.map.keySet()) {
-            for (FeedbackSessionAttributes fs : this.map.get(institute)) {
-                String googleId = findAvailableInstructorGoogleIdForCourse(fs.getCourseId());
-                this.sessionToInstructorIdMap.put(fs.getIdentificationString(), googleId);
-            }
-        }
-    }
-
-    /**
-     * This method loops through all instructors for the given course until a registered Instructor is found.
-     * It returns the google id of the found instructor.
-     * @param CourseId
-     * @return empty string if no available instructor google id is found
-     */
-    private String findAvailableInstructorGoogleIdForCourse(String courseId) {
-        
-        String googleId = "";
-        
-        if (logic.getInstructorsForCourse(courseId) == null) {
-            return googleId;
-        }
-        
-        for (InstructorAttributes instructor : logic.getInstructorsForCourse(courseId)) {
-          
-            if (instructor.googleId != null) {
-                googleId = instructor.googleId;
-                break;
-            }
-        }
-        
-        return googleId;
-    }
-
-    private AccountAttributes getRegisteredInstructorAccountFromInstructors(List<InstructorAttributes> instructors) {
-        
-        for (InstructorAttributes instructor : instructors) {
-            if (instructor.googleId != null) {
-                return logic.getAccount(instructor.googleId);
-            }
-        }
-        
-        return null;
-    }
-
     private int getTotalNumOfOpenStatusSession(List<FeedbackSessionAttributes> allOpenFeedbackSessionsList) {
         
         int numOfTotal = 0;
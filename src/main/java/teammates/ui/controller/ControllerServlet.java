@@ -15,9 +15,12 @@ import teammates.common.exception.FeedbackSessionNotVisibleException;
 import teammates.common.exception.NullPostParameterException;
 import teammates.common.exception.PageNotFoundException;
 import teammates.common.exception.UnauthorizedAccessException;
+import teammates.common.util.ActionMetrics;
 import teammates.common.util.ActivityLogEntry;
 import teammates.common.util.Const;
 import teammates.common.util.Const.StatusMessageColor;
+import teammates.common.util.DatastoreCallCounter;
+import teammates.common.util.DatastoreOperationProfile;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.StatusMessage;
@@ -47,13 +50,15 @@ public class ControllerServlet extends HttpServlet {
     @SuppressWarnings("PMD.AvoidCatchingThrowable") // used as fallback
     public final void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
 
+        long startTime = System.currentTimeMillis();
+        int datastoreCallsBefore = DatastoreCallCounter.getNumberOfCalls();
+        boolean isError = true;
         try {
             /* We are using the Template Method Design Pattern here.
              * This method contains the high level logic of the the request processing.
              * Concrete details of the processing steps are to be implemented by child
              * classes, based on request-specific needs.
              */
-            long startTime = System.currentTimeMillis();
             
             log.info("Request received : [" + req.getMethod() + "] " + req.getRequestURL().toString()
                     + ":" + HttpRequestHelper.printRequestParameters(req));
@@ -70,7 +75,9 @@ public class ControllerServlet extends HttpServlet {
             long timeTaken = System.currentTimeMillis() - startTime;
             // This is the log message that is used to generate the 'activity log' for the admin.
             
-            log.info(c.getLogMessage() + "|||" + timeTaken);
+            DatastoreOperationProfile profile = DatastoreOperationProfile.getCurrent();
+            log.info(c.getLogMessage() + "|||" + timeTaken + (profile == null ? "" : "|||" + profile.getSummary()));
+            isError = false;
             
         } catch (PageNotFoundException e) {
             log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
@@ -135,10 +142,19 @@ public class ControllerServlet extends HttpServlet {
             }
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.ERROR_PAGE);
+        } finally {
+            recordActionMetrics(req, System.currentTimeMillis() - startTime, isError,
+                                DatastoreCallCounter.getNumberOfCalls() - datastoreCallsBefore);
         }
         
     }
     
+    private void recordActionMetrics(HttpServletRequest req, long timeTaken, boolean isError, int datastoreCalls) {
+        String actionUri = ActionFactory.getMappedActionUri(req);
+        ActionMetrics.record(actionUri == null ? ActionMetrics.UNKNOWN_ACTION : actionUri,
+                             timeTaken, isError, datastoreCalls, DatastoreOperationProfile.getCurrent());
+    }
+    
     private void cleanUpStatusMessageInSession(HttpServletRequest req) {
         req.getSession().removeAttribute(Const.ParamsNames.STATUS_MESSAGES_LIST);
     }
@@ -1,5 +1,8 @@
 package teammates.ui.controller;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.exception.InvalidParametersException;
@@ -23,27 +26,28 @@ public class InstructorFeedbackQuestionCopyAction extends Action {
         String instructorEmail = instructorDetailForCourse.email;
 
         try {
+            List<String> feedbackQuestionIds = new ArrayList<String>();
             int index = 0;
             String feedbackQuestionId = getRequestParamValue(Const.ParamsNames.FEEDBACK_QUESTION_ID + "-" + index);
-            statusToAdmin = "";
-
             while (feedbackQuestionId != null) {
-                FeedbackQuestionAttributes feedbackQuestion =
-                        logic.copyFeedbackQuestion(feedbackQuestionId, feedbackSessionName, courseId, instructorEmail);
-
+                feedbackQuestionIds.add(feedbackQuestionId);
                 index++;
-
                 feedbackQuestionId = getRequestParamValue(Const.ParamsNames.FEEDBACK_QUESTION_ID + "-" + index);
-
-                statusToAdmin += "Created Feedback Question for Feedback Session:<span class=\"bold\">("
-                                 + feedbackQuestion.feedbackSessionName + ")</span> for Course <span class=\"bold\">["
-                                 + feedbackQuestion.courseId + "]</span> created.<br>"
-                                 + "<span class=\"bold\">"
-                                 + feedbackQuestion.getQuestionDetails().getQuestionTypeDisplayName()
-                                 + ":</span> " + feedbackQuestion.getQuestionDetails().getQuestionText();
             }
 
+            statusToAdmin = "";
             if (index > 0) {
+                List<FeedbackQuestionAttributes> feedbackQuestions =
+                        logic.copyFeedbackQuestions(feedbackQuestionIds, feedbackSessionName, courseId, instructorEmail);
+                for (FeedbackQuestionAttributes feedbackQuestion : feedbackQuestions) {
+                    statusToAdmin += "Created Feedback Question for Feedback Session:<span class=\"bold\">("
+                                     + feedbackQuestion.feedbackSessionName + ")</span> for Course <span class=\"bold\">["
+                                     + feedbackQuestion.courseId + "]</span> created.<br>"
+                                     + "<span class=\"bold\">"
+                                     + feedbackQuestion.getQuestionDetails().getQuestionTypeDisplayName()
+                                     + ":</span> " + feedbackQuestion.getQuestionDetails().getQuestionText();
+                }
+
                 statusToUser.add(new StatusMessage(Const.StatusMessages.FEEDBACK_QUESTION_ADDED,
                                                    StatusMessageColor.SUCCESS));
             } else {
@@ -0,0 +1,67 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib tagdir="/WEB-INF/tags" prefix="t" %>
+<%@ taglib tagdir="/WEB-INF/tags/admin" prefix="ta" %>
+<%@ page import="teammates.common.util.Const" %>
+
+<c:set var="jsIncludes">
+    <script type="text/javascript" src="/js/administrator.js"></script>
+</c:set>
+
+<ta:adminPage bodyTitle="Action Metrics" pageTitle="TEAMMATES - Administrator Action Metrics" jsIncludes="${jsIncludes}">
+    <p class="text-muted">
+        Latencies in milliseconds of the requests served by this instance since it started.
+        The metrics are also available as JSON at <a href="<%=Const.ActionURIs.ADMIN_ACTION_METRICS%>"><%=Const.ActionURIs.ADMIN_ACTION_METRICS%></a>.
+    </p>
+    <t:statusMessage statusMessagesToUser="${data.statusMessagesToUser}" />
+    <div class="panel panel-primary">
+        <div class="table-responsive">
+            <table class="table table-striped dataTable" id="actionMetricsTable">
+                <thead>
+                    <tr>
+                        <th onclick="toggleSort(this)" class="button-sort-non">Action <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">Requests <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">Errors <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">Mean <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">p50 <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">p95 <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">p99 <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">Max <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">Datastore calls per request <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">Queries / gets / puts / deletes per request <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">Requests with N+1 queries <span class="icon-sort unsorted"></span></th>
+                        <th onclick="toggleSort(this)" class="button-sort-non">Requests with duplicate queries <span class="icon-sort unsorted"></span></th>
+                    </tr>
+                </thead>
+                <tbody>
+                    <c:if test="${empty data.actionMetrics}">
+                        <tr>
+                            <td colspan="12"><i>No requests served by this instance yet</i></td>
+                        </tr>
+                    </c:if>
+                    <c:forEach items="${data.actionMetrics}" var="metrics">
+                        <tr>
+                            <td>${metrics.actionUri}</td>
+                            <td>${metrics.requests}</td>
+                            <td>${metrics.errors}</td>
+                            <td>${metrics.meanMillis}</td>
+                            <td>${metrics.p50Millis}</td>
+                            <td>${metrics.p95Millis}</td>
+                            <td>${metrics.p99Millis}</td>
+                            <td>${metrics.maxMillis}</td>
+                            <td>${metrics.datastoreCallsPerRequest}</td>
+                            <td>${metrics.queriesPerRequest} / ${metrics.getsPerRequest} / ${metrics.putsPerRequest} / ${metrics.deletesPerRequest}</td>
+                            <td>
+                                ${metrics.NPlusOneRequests}
+                                <c:forEach items="${metrics.NPlusOneCallSites}" var="callSite">
+                                    <br><small class="text-muted">${callSite}</small>
+                                </c:forEach>
+                            </td>
+                            <td>${metrics.duplicateQueryRequests}</td>
+                        </tr>
+                    </c:forEach>
+                </tbody>
+            </table>
+        </div>
+    </div>
+</ta:adminPage>
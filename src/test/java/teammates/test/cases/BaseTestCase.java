@@ -82,6 +82,16 @@ public class BaseTestCase {
         backDoorLogic.persistDataBundle(dataBundle);
     }
     
+    /**
+     * Removes the data of the given data bundle and persists it again, both in bulk,
+     * e.g. to seed a large data bundle quickly
+     */
+    protected static void removeAndRestoreDataBundleInBulk(DataBundle dataBundle) throws Exception {
+        BackDoorLogic backDoorLogic = new BackDoorLogic();
+        backDoorLogic.removeDataBundleInBulk(dataBundle);
+        backDoorLogic.persistDataBundleInBulk(dataBundle);
+    }
+    
     protected static void removeTypicalDataInDatastore() {
         BackDoorLogic backDoorLogic = new BackDoorLogic();
         DataBundle dataBundle = getTypicalDataBundle();
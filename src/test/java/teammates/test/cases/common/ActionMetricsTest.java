@@ -0,0 +1,112 @@
+package teammates.test.cases.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.ActionMetrics;
+import teammates.common.util.DatastoreCallCounter;
+import teammates.common.util.LatencyHistogram;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.KeyFactory;
+
+public class ActionMetricsTest extends BaseComponentTestCase {
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        ______TS("no latency recorded");
+
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0, histogram.getMeanMillis());
+
+        ______TS("latencies kept with 2 significant digits");
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 10);
+        }
+
+        assertEquals(1000, histogram.getTotalCount());
+        assertEquals(5005, histogram.getMeanMillis());
+        assertEquals(10000, histogram.getMaxMillis());
+        assertWithinOnePercent(5000, histogram.getValueAtPercentile(50));
+        assertWithinOnePercent(9500, histogram.getValueAtPercentile(95));
+        assertWithinOnePercent(9900, histogram.getValueAtPercentile(99));
+        assertEquals(10000, histogram.getValueAtPercentile(100));
+
+        ______TS("latencies out of range");
+
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_MILLIS, histogram.getMaxMillis());
+    }
+
+    @Test
+    public void testRecordFromMultipleThreads() throws Exception {
+        ActionMetrics.clear();
+        final int numberOfThreads = 8;
+        final int requestsPerThread = 10000;
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < requestsPerThread; j++) {
+                        ActionMetrics.record("/page/action" + j % 2, j % 100, j % 10 == 0, 3);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<ActionMetrics.Summary> summaries = ActionMetrics.getSummaries();
+        assertEquals(2, summaries.size());
+        long errors = 0;
+        for (ActionMetrics.Summary summary : summaries) {
+            assertEquals(numberOfThreads * requestsPerThread / 2, summary.getRequests());
+            assertEquals(3, summary.getDatastoreCallsPerRequest());
+            errors += summary.getErrors();
+        }
+        assertEquals(numberOfThreads * requestsPerThread / 10, errors);
+        ActionMetrics.clear();
+    }
+
+    @Test
+    public void testDatastoreCallCounter() {
+        DatastoreCallCounter.install();
+        DatastoreCallCounter.install();
+        int callsBefore = DatastoreCallCounter.getNumberOfCalls();
+
+        try {
+            DatastoreServiceFactory.getDatastoreService().get(KeyFactory.createKey("NonExistentKind", 1));
+        } catch (EntityNotFoundException e) {
+            ignoreExpectedException();
+        }
+
+        // counted once even though the counter is installed twice
+        assertEquals(callsBefore + 1, DatastoreCallCounter.getNumberOfCalls());
+    }
+
+    private static void assertWithinOnePercent(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual, Math.abs(actual - expected) <= expected / 100);
+    }
+
+}
@@ -47,6 +47,86 @@ public class ActivityLogEntryTest extends BaseTestCase {
         assertEquals("Instructor", entry.getRole());
     }
     
+    @Test
+    public void testConstructorWithAppLog() {
+        AppLogLine appLog = new AppLogLine();
+        
+        ______TS("log with id and time taken");
+        appLog.setLogMessage("TEAMMATESLOG|||instructorHome|||Pageload|||true|||Instructor|||UserName|||UserId"
+                             + "|||UserEmail|||Message with | and || in it|||URL|||UserId%20151019143729608|||1234 ");
+        ActivityLogEntry entry = new ActivityLogEntry(appLog);
+        assertEquals("instructorHome", entry.getServletName());
+        assertEquals("Pageload", entry.getAction());
+        assertTrue(entry.toShow());
+        assertEquals("Instructor", entry.getRole());
+        assertEquals("UserName", entry.getName());
+        assertEquals("UserId", entry.getGoogleId());
+        assertEquals("UserEmail", entry.getEmail());
+        assertEquals("Message with | and || in it", entry.getMessageInfo());
+        assertEquals("UserId%20151019143729608", entry.getId());
+        assertEquals(1234L, entry.getTimeTaken().longValue());
+        assertNull(entry.getDatastoreSummary());
+
+        ______TS("log with id, time taken and datastore summary");
+        appLog.setLogMessage("TEAMMATESLOG|||instructorHome|||Pageload|||true|||Instructor|||UserName|||UserId"
+                             + "|||UserEmail|||Message|||URL|||UserId%20151019143729608|||1234"
+                             + "|||queries: 12 (85ms), gets: 1 (3ms), puts: 0 (0ms), deletes: 0 (0ms)");
+        entry = new ActivityLogEntry(appLog);
+        assertEquals(1234L, entry.getTimeTaken().longValue());
+        assertEquals("queries: 12 (85ms), gets: 1 (3ms), puts: 0 (0ms), deletes: 0 (0ms)",
+                     entry.getDatastoreSummary());
+        AssertHelper.assertContains("queries: 12 (85ms)", entry.getLogInfoForTableRowAsHtml());
+
+        ______TS("old log with time taken in place of the id");
+        appLog.setLogMessage("TEAMMATESLOG|||studentHome|||Pageload|||false|||Student|||UserName|||UserId"
+                             + "|||UserEmail|||Message|||URL|||567");
+        entry = new ActivityLogEntry(appLog);
+        assertFalse(entry.toShow());
+        assertEquals(567L, entry.getTimeTaken().longValue());
+        
+        ______TS("log with empty fields");
+        appLog.setLogMessage("TEAMMATESLOG|||studentHome||||||true|||||||||||||||||||||||");
+        entry = new ActivityLogEntry(appLog);
+        assertEquals("", entry.getAction());
+        assertEquals("", entry.getMessageInfo());
+        assertNull(entry.getTimeTaken());
+        
+        ______TS("log with missing fields");
+        appLog.setLogMessage("TEAMMATESLOG|||studentHome|||Pageload|||true");
+        entry = new ActivityLogEntry(appLog);
+        assertEquals("Unknown", entry.getServletName());
+        AssertHelper.assertContains("Problem parsing log message", entry.getMessageInfo());
+    }
+    
+    @Test
+    public void testGetLeadingFieldsOfLogMessage() {
+        String logMessage = "TEAMMATESLOG|||instructorHome|||Pageload|||true|||Instructor|||UserName|||UserId"
+                            + "|||UserEmail|||Message|||URL|||UserId%20151019143729608|||1234";
+        
+        ______TS("only the fields up to the last position are split");
+        String[] fields = ActivityLogEntry.getLeadingFieldsOfLogMessage(logMessage, ActivityLogEntry.POSITION_OF_EMAIL);
+        assertEquals(ActivityLogEntry.POSITION_OF_EMAIL + 1, fields.length);
+        assertEquals("instructorHome", fields[ActivityLogEntry.POSITION_OF_SERVLETNAME]);
+        assertEquals("true", fields[ActivityLogEntry.POSITION_OF_TOSHOW]);
+        assertEquals("UserEmail", fields[ActivityLogEntry.POSITION_OF_EMAIL]);
+        
+        ______TS("log messages without the URL field are not split");
+        assertNull(ActivityLogEntry.getLeadingFieldsOfLogMessage("TEAMMATESLOG|||studentHome|||Pageload|||true",
+                                                                  ActivityLogEntry.POSITION_OF_ACTION));
+        
+        ______TS("leading fields consistent with the fully parsed log entry");
+        AppLogLine appLog = new AppLogLine();
+        appLog.setLogMessage(logMessage);
+        ActivityLogEntry entry = new ActivityLogEntry(appLog);
+        fields = ActivityLogEntry.getLeadingFieldsOfLogMessage(logMessage, ActivityLogEntry.POSITION_OF_MESSAGE);
+        assertEquals(entry.getServletName(), fields[ActivityLogEntry.POSITION_OF_SERVLETNAME]);
+        assertEquals(entry.getAction(), fields[ActivityLogEntry.POSITION_OF_ACTION]);
+        assertEquals(entry.getRole(), fields[ActivityLogEntry.POSITION_OF_ROLE]);
+        assertEquals(entry.getName(), fields[ActivityLogEntry.POSITION_OF_NAME]);
+        assertEquals(entry.getGoogleId(), fields[ActivityLogEntry.POSITION_OF_GOOGLEID]);
+        assertEquals(entry.getEmail(), fields[ActivityLogEntry.POSITION_OF_EMAIL]);
+    }
+    
     @Test
     public void testGetActionName() {
         assertEquals("instructorCourse", ActivityLogEntry.getActionName("/page/instructorCourse"));
@@ -0,0 +1,54 @@
+package teammates.test.cases.common;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.CompiledTemplate;
+import teammates.common.util.Templates;
+import teammates.test.cases.BaseTestCase;
+
+public class CompiledTemplateTest extends BaseTestCase {
+
+    @Test
+    public void testRender() {
+        CompiledTemplate template = new CompiledTemplate("Hello ${userName}, welcome to ${courseName}.");
+        
+        ______TS("all placeholders rendered");
+        
+        assertEquals("Hello Alice, welcome to CS101.",
+                     template.render("${userName}", "Alice", "${courseName}", "CS101"));
+        assertEquals(Templates.populateTemplate("Hello ${userName}, welcome to ${courseName}.",
+                                                "${userName}", "Alice", "${courseName}", "CS101"),
+                     template.render("${courseName}", "CS101", "${userName}", "Alice"));
+        
+        ______TS("placeholders without values are kept");
+        
+        assertEquals("Hello Alice, welcome to ${courseName}.", template.render("${userName}", "Alice"));
+        
+        ______TS("placeholders in values are not rendered");
+        
+        assertEquals("Hello ${courseName}, welcome to CS101.",
+                     template.render("${userName}", "${courseName}", "${courseName}", "CS101"));
+        
+        ______TS("templates without placeholders or with unclosed placeholders");
+        
+        assertEquals("", new CompiledTemplate("").render());
+        assertEquals("no placeholders", new CompiledTemplate("no placeholders").render("${userName}", "Alice"));
+        assertEquals("${a}${b", new CompiledTemplate("${a}${b").render("${b", "B"));
+        assertEquals("A${b", new CompiledTemplate("${a}${b").render("${a}", "A"));
+    }
+    
+    @Test
+    public void testRenderPartially() {
+        CompiledTemplate template = new CompiledTemplate("${userName}: ${courseName} closes at ${deadline}");
+        
+        CompiledTemplate courseTemplate = template.renderPartially("${courseName}", "CS101",
+                                                                   "${deadline}", "5pm");
+        
+        assertEquals("Alice: CS101 closes at 5pm", courseTemplate.render("${userName}", "Alice"));
+        assertEquals("Bob: CS101 closes at 5pm", courseTemplate.render("${userName}", "Bob"));
+        assertEquals("${userName}: CS101 closes at 5pm", courseTemplate.render());
+        assertEquals("Alice: CS101 closes at 5pm",
+                     courseTemplate.renderPartially("${userName}", "Alice").render("${userName}", "Bob"));
+    }
+    
+}
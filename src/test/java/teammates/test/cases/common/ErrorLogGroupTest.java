@@ -0,0 +1,62 @@
+package teammates.test.cases.common;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.ErrorLogGroup;
+import teammates.test.cases.BaseTestCase;
+
+import com.google.appengine.api.log.AppLogLine;
+import com.google.appengine.api.log.LogService.LogLevel;
+
+public class ErrorLogGroupTest extends BaseTestCase {
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testGroupBySignature() {
+        AppLogLine nullPointer = getLogLine(LogLevel.ERROR, "\njava.lang.NullPointerException\n"
+                + "\tat teammates.logic.core.CoursesLogic.getCourse(CoursesLogic.java:120)\n"
+                + "\tat teammates.logic.api.Logic.getCourse(Logic.java:45)\n");
+        AppLogLine nullPointerInOtherVersion = getLogLine(LogLevel.ERROR, "\njava.lang.NullPointerException\n"
+                + "\tat teammates.logic.core.CoursesLogic.getCourse(CoursesLogic.java:125)\n"
+                + "\tat teammates.logic.api.Logic.getCourse(Logic.java:45)\n");
+        AppLogLine nullPointerElsewhere = getLogLine(LogLevel.ERROR, "\njava.lang.NullPointerException\n"
+                + "\tat teammates.logic.core.StudentsLogic.getStudent(StudentsLogic.java:80)\n");
+        AppLogLine timeout = getLogLine(LogLevel.FATAL, "Request took 61000ms");
+        AppLogLine otherTimeout = getLogLine(LogLevel.FATAL, "Request took 65000ms");
+
+        ______TS("same error with different line or numbers grouped");
+
+        List<ErrorLogGroup> groups = ErrorLogGroup.groupBySignature(
+                Arrays.asList(nullPointer, timeout, nullPointerInOtherVersion, nullPointerElsewhere, otherTimeout));
+
+        assertEquals(3, groups.size());
+        assertTrue(nullPointer == groups.get(0).getFirstLogLine());
+        assertEquals(2, groups.get(0).getOccurrences());
+        assertTrue(timeout == groups.get(1).getFirstLogLine());
+        assertEquals(2, groups.get(1).getOccurrences());
+        assertTrue(nullPointerElsewhere == groups.get(2).getFirstLogLine());
+        assertEquals(1, groups.get(2).getOccurrences());
+
+        ______TS("signature");
+
+        assertEquals("ERROR|java.lang.NullPointerException|at teammates.logic.core.CoursesLogic.getCourse"
+                     + "|at teammates.logic.api.Logic.getCourse", ErrorLogGroup.getSignature(nullPointer));
+        assertEquals("FATAL|Request took #ms", ErrorLogGroup.getSignature(timeout));
+    }
+
+    private static AppLogLine getLogLine(LogLevel logLevel, String message) {
+        AppLogLine logLine = new AppLogLine();
+        logLine.setLogLevel(logLevel);
+        logLine.setLogMessage(message);
+        return logLine;
+    }
+
+}
@@ -0,0 +1,82 @@
+package teammates.test.cases.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.GroupReceiverListReader;
+import teammates.common.util.StringHelper;
+import teammates.test.cases.BaseTestCase;
+
+public class GroupReceiverListReaderTest extends BaseTestCase {
+
+    @Test
+    public void testNext() throws IOException {
+        
+        ______TS("addresses are trimmed and empty entries skipped");
+        
+        String file = "a@example.com, b@example.com,\n c@example.com ,,\n";
+        assertEquals(Arrays.asList("a@example.com", "b@example.com", "c@example.com"), readAll(file, 0));
+        
+        ______TS("empty file");
+        
+        assertEquals(new ArrayList<String>(), readAll("", 0));
+        
+        ______TS("entry too long to be an email address");
+        
+        GroupReceiverListReader reader = getReader(StringHelper.generateStringOfLength(300), 0);
+        try {
+            reader.next();
+            signalFailureToDetectException();
+        } catch (IOException e) {
+            assertEquals("Entry at byte 0 of group receiver list is too long to be an email address", e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testResumeFromOffset() throws IOException {
+        String file = "a@example.com,b@example.com, c@example.com";
+        
+        GroupReceiverListReader reader = getReader(file, 0);
+        assertEquals("a@example.com", reader.next());
+        assertEquals(14, reader.getOffset());
+        assertEquals("b@example.com", reader.next());
+        long checkpoint = reader.getOffset();
+        assertEquals(28, checkpoint);
+        reader.close();
+        
+        // resuming from the checkpoint neither repeats nor skips any address
+        assertEquals(Arrays.asList("c@example.com"), readAll(file, checkpoint));
+        
+        reader = getReader(file, checkpoint);
+        reader.next();
+        assertEquals(file.length(), reader.getOffset());
+        assertNull(reader.next());
+        assertEquals(file.length(), reader.getOffset());
+        reader.close();
+    }
+    
+    private List<String> readAll(String file, long offset) throws IOException {
+        GroupReceiverListReader reader = getReader(file, offset);
+        List<String> addresses = new ArrayList<String>();
+        String address = reader.next();
+        while (address != null) {
+            addresses.add(address);
+            address = reader.next();
+        }
+        reader.close();
+        return addresses;
+    }
+    
+    private GroupReceiverListReader getReader(String file, long offset) throws IOException {
+        InputStream in = new ByteArrayInputStream(file.getBytes("UTF-8"));
+        assertEquals(offset, in.skip(offset));
+        return new GroupReceiverListReader(in, offset);
+    }
+    
+}
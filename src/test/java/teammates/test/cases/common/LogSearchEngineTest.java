@@ -0,0 +1,147 @@
+package teammates.test.cases.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.LogSearchEngine;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.log.AppLogLine;
+import com.google.appengine.api.log.LogQuery;
+import com.google.appengine.api.log.LogService;
+import com.google.appengine.api.log.RequestLogs;
+
+public class LogSearchEngineTest extends BaseComponentTestCase {
+
+    private static final long WINDOW_MILLIS = 1000;
+    private static final long END_TIME_MILLIS = 10000;
+
+    private static final LogSearchEngine.LogLineFilter<String> RELEVANT_LOGS_FILTER =
+            new LogSearchEngine.LogLineFilter<String>() {
+                @Override
+                public String filter(AppLogLine appLogLine) {
+                    return appLogLine.getLogMessage().startsWith("relevant") ? appLogLine.getLogMessage() : null;
+                }
+            };
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testSearch() {
+        FakeLogService logService = new FakeLogService(
+                getRequestLogs("v1", "r1", 9500, "relevant 1", "other"),
+                getRequestLogs("v2", "r2", 9400, "relevant 2"),
+                // ends exactly at the boundary of the first two windows, so belongs to the older one only
+                getRequestLogs("v1", "r3", 9000, "relevant 3"),
+                getRequestLogs("v2", "r4", 8200, "other", "relevant 4"),
+                getRequestLogs("v3", "r5", 9900, "relevant from a version not searched"),
+                getRequestLogs("v1", "r6", 7500, "relevant before the windows searched"));
+
+        ______TS("all windows searched");
+
+        LogSearchEngine<String> searchEngine =
+                new LogSearchEngine<String>(logService, Arrays.asList("v1", "v2"), WINDOW_MILLIS, 2, 50);
+        LogSearchEngine.Result<String> result = searchEngine.search(END_TIME_MILLIS, RELEVANT_LOGS_FILTER);
+
+        assertEquals(Arrays.asList("relevant 1", "relevant 2", "relevant 3", "relevant 4"),
+                     result.getRelevantLogs());
+        assertEquals(6, result.getNumberOfLogsSearched());
+        assertEquals(String.valueOf(8000 * 1000), result.getContinuationToken());
+        assertEquals(8000, result.getEarliestSearchTimeMillis());
+
+        ______TS("resumed from where the search stopped");
+
+        result = searchEngine.resume(result.getContinuationToken(), RELEVANT_LOGS_FILTER);
+
+        assertEquals(Arrays.asList("relevant before the windows searched"), result.getRelevantLogs());
+        assertEquals(String.valueOf(6000 * 1000), result.getContinuationToken());
+        assertEquals(6000, result.getEarliestSearchTimeMillis());
+    }
+
+    @Test
+    public void testSearchStoppedEarly() {
+        FakeLogService logService = new FakeLogService(
+                getRequestLogs("v1", "r1", 9500, "relevant 1"),
+                getRequestLogs("v2", "r2", 9400, "relevant 2", "relevant 3", "other"),
+                getRequestLogs("v1", "r3", 9300, "relevant 4"),
+                getRequestLogs("v2", "r4", 5500, "relevant 5"));
+
+        ______TS("stops after the request containing the maximum number of relevant logs");
+
+        LogSearchEngine<String> searchEngine =
+                new LogSearchEngine<String>(logService, Arrays.asList("v1", "v2"), WINDOW_MILLIS, 12, 2);
+        LogSearchEngine.Result<String> result = searchEngine.search(END_TIME_MILLIS, RELEVANT_LOGS_FILTER);
+
+        assertEquals(Arrays.asList("relevant 1", "relevant 2", "relevant 3"), result.getRelevantLogs());
+        assertEquals(String.valueOf(9400 * 1000), result.getContinuationToken());
+        assertEquals(9400, result.getEarliestSearchTimeMillis());
+
+        ______TS("resumed without repeating the logs found");
+
+        result = searchEngine.resume(result.getContinuationToken(), RELEVANT_LOGS_FILTER);
+
+        assertEquals(Arrays.asList("relevant 4", "relevant 5"), result.getRelevantLogs());
+        assertEquals(String.valueOf(5500 * 1000), result.getContinuationToken());
+        assertEquals(5500, result.getEarliestSearchTimeMillis());
+    }
+
+    private static RequestLogs getRequestLogs(String version, String requestId, long endTimeMillis,
+                                              String... messages) {
+        RequestLogs requestLogs = new RequestLogs();
+        requestLogs.setVersionId(version);
+        requestLogs.setRequestId(requestId);
+        requestLogs.setEndTimeUsec(endTimeMillis * 1000);
+        List<AppLogLine> appLogLines = new ArrayList<AppLogLine>();
+        for (String message : messages) {
+            AppLogLine appLogLine = new AppLogLine();
+            appLogLine.setLogMessage(message);
+            appLogLine.setTimeUsec(endTimeMillis * 1000 - 1);
+            appLogLines.add(appLogLine);
+        }
+        requestLogs.setAppLogLines(appLogLines);
+        return requestLogs;
+    }
+
+    /**
+     * Returns the request logs of the versions queried which ended in the time period queried,
+     * including its end, from the most recent one.
+     */
+    private static class FakeLogService implements LogService {
+
+        private final List<RequestLogs> allRequestLogs;
+
+        FakeLogService(RequestLogs... requestLogs) {
+            allRequestLogs = new ArrayList<RequestLogs>(Arrays.asList(requestLogs));
+            Collections.sort(allRequestLogs, new Comparator<RequestLogs>() {
+                @Override
+                public int compare(RequestLogs logs1, RequestLogs logs2) {
+                    return Long.valueOf(logs2.getEndTimeUsec()).compareTo(logs1.getEndTimeUsec());
+                }
+            });
+        }
+
+        @Override
+        public Iterable<RequestLogs> fetch(LogQuery query) {
+            List<RequestLogs> requestLogs = new ArrayList<RequestLogs>();
+            for (RequestLogs logs : allRequestLogs) {
+                if (query.getMajorVersionIds().contains(logs.getVersionId())
+                        && logs.getEndTimeUsec() >= query.getStartTimeUsec()
+                        && logs.getEndTimeUsec() <= query.getEndTimeUsec()) {
+                    requestLogs.add(logs);
+                }
+            }
+            return requestLogs;
+        }
+
+    }
+
+}
@@ -9,12 +9,15 @@ import org.testng.annotations.Test;
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
 import teammates.logic.backdoor.BackDoorLogic;
+import teammates.storage.api.CommentsDb;
 import teammates.test.cases.BaseComponentTestCase;
 
 public class BackDoorLogicTest extends BaseComponentTestCase {
@@ -70,6 +73,64 @@ public class BackDoorLogicTest extends BaseComponentTestCase {
         // should be checked at lower level methods
     }
     
+    @Test
+    public void testPersistAndRemoveDataBundleInBulk() throws Exception {
+
+        BackDoorLogic logic = new BackDoorLogic();
+        DataBundle bulkDataBundle = getTypicalDataBundle();
+        String courseId = bulkDataBundle.courses.get("typicalCourse1").getId();
+        
+        ______TS("data bundle removed in bulk");
+        logic.removeDataBundleInBulk(bulkDataBundle);
+        assertNull(logic.getCourse(courseId));
+        assertTrue(logic.getStudentsForCourse(courseId).isEmpty());
+        assertTrue(logic.getInstructorsForCourse(courseId).isEmpty());
+        assertTrue(logic.getFeedbackSessionsForCourse(courseId).isEmpty());
+        // as in removeDataBundle, only the accounts of the data bundle are removed
+        for (AccountAttributes account : bulkDataBundle.accounts.values()) {
+            assertNull(logic.getAccount(account.googleId));
+        }
+        
+        ______TS("data bundle persisted in bulk");
+        String status = logic.persistDataBundleInBulk(bulkDataBundle);
+        assertEquals(Const.StatusCodes.BACKDOOR_STATUS_SUCCESS, status);
+        verifyPresentInDatastore(bulkDataBundle);
+        
+        // question numbers in the responses are replaced by the IDs of the created questions
+        for (FeedbackResponseAttributes response : bulkDataBundle.feedbackResponses.values()) {
+            assertNotNull(logic.getFeedbackResponse(response.feedbackQuestionId, response.giver, response.recipient));
+        }
+        FeedbackSessionAttributes session = bulkDataBundle.feedbackSessions.get("session1InCourse1");
+        assertFalse(logic.getFeedbackSession(session.getFeedbackSessionName(), courseId)
+                         .getRespondingStudentList().isEmpty());
+        assertEquals(bulkDataBundle.comments.size(), countCommentsOfCourses(bulkDataBundle));
+        
+        ______TS("students indexed in bulk");
+        StudentAttributes student = bulkDataBundle.students.get("student1InCourse1");
+        boolean isStudentFound = false;
+        for (StudentAttributes foundStudent : logic.searchStudentsInWholeSystem(student.email, "").studentList) {
+            isStudentFound = isStudentFound || foundStudent.course.equals(courseId);
+        }
+        assertTrue(isStudentFound);
+        
+        ______TS("null parameter");
+        try {
+            logic.persistDataBundleInBulk(null);
+            signalFailureToDetectException();
+        } catch (InvalidParametersException e) {
+            assertEquals(Const.StatusCodes.NULL_PARAMETER, e.errorCode);
+        }
+    }
+    
+    private int countCommentsOfCourses(DataBundle data) {
+        CommentsDb commentsDb = new CommentsDb();
+        int numberOfComments = 0;
+        for (CourseAttributes course : data.courses.values()) {
+            numberOfComments += commentsDb.getCommentsForCourse(course.getId()).size();
+        }
+        return numberOfComments;
+    }
+    
     private void verifyPresentInDatastore(DataBundle data) {
         HashMap<String, AccountAttributes> accounts = data.accounts;
         for (AccountAttributes expectedAccount : accounts.values()) {
@@ -0,0 +1,170 @@
+package teammates.test.cases.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.LogCompilationWatermarkAttributes;
+import teammates.logic.automated.CompileLogs;
+import teammates.storage.api.LogCompilationWatermarksDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.log.AppLogLine;
+import com.google.appengine.api.log.LogQuery;
+import com.google.appengine.api.log.LogService;
+import com.google.appengine.api.log.LogService.LogLevel;
+import com.google.appengine.api.log.RequestLogs;
+
+public class CompileLogsTest extends BaseComponentTestCase {
+
+    private static final long MINUTE_MILLIS = 60 * 1000;
+
+    private static final LogCompilationWatermarksDb watermarksDb = new LogCompilationWatermarksDb();
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testDoLogExam() {
+        long now = System.currentTimeMillis();
+        RequestLogs lastCompiledRequest = getRequestLogs("r1", now - MINUTE_MILLIS, "error 1");
+        FakeLogService logService = new FakeLogService(
+                lastCompiledRequest,
+                getRequestLogs("r2", now - 10 * MINUTE_MILLIS, "error before the first compilation"));
+
+        ______TS("first compilation: severe logs of the last minutes only");
+
+        CompileLogs compileLogs = new CompileLogs(logService);
+        assertEquals(Arrays.asList("error 1"), getMessages(compileLogs.doLogExam()));
+        assertNull(watermarksDb.getWatermark(CompileLogs.WATERMARK_NAME));
+
+        compileLogs.saveWatermark();
+
+        LogCompilationWatermarkAttributes watermark = watermarksDb.getWatermark(CompileLogs.WATERMARK_NAME);
+        assertEquals(lastCompiledRequest.getEndTimeUsec(), watermark.endTimeUsec);
+        assertEquals(Arrays.asList("r1"), watermark.requestIds);
+
+        ______TS("next compilation: severe logs of the requests after the watermark only");
+
+        logService.add(getRequestLogs("r3", now - MINUTE_MILLIS / 2, "error 3"));
+        // ends at the same time as the request of the watermark
+        logService.add(getRequestLogs("r4", now - MINUTE_MILLIS, "error 4"));
+
+        compileLogs = new CompileLogs(logService);
+        assertEquals(Arrays.asList("error 3", "error 4"), getMessages(compileLogs.doLogExam()));
+        compileLogs.saveWatermark();
+
+        watermark = watermarksDb.getWatermark(CompileLogs.WATERMARK_NAME);
+        assertEquals((now - MINUTE_MILLIS / 2) * 1000, watermark.endTimeUsec);
+        assertEquals(Arrays.asList("r1", "r3", "r4"), sorted(watermark.requestIds));
+
+        ______TS("nothing new to compile: watermark kept");
+
+        compileLogs = new CompileLogs(logService);
+        assertTrue(compileLogs.doLogExam().isEmpty());
+        compileLogs.saveWatermark();
+
+        assertEquals(watermark.endTimeUsec, watermarksDb.getWatermark(CompileLogs.WATERMARK_NAME).endTimeUsec);
+
+        ______TS("request logged late with an end time in the overlap: compiled, watermark not moved back");
+
+        logService.add(getRequestLogs("r5", now - MINUTE_MILLIS * 3 / 4, "error 5"));
+        logService.add(getRequestLogs("r6", now - 5 * MINUTE_MILLIS, "error before the overlap"));
+
+        compileLogs = new CompileLogs(logService);
+        assertEquals(Arrays.asList("error 5"), getMessages(compileLogs.doLogExam()));
+        compileLogs.saveWatermark();
+
+        LogCompilationWatermarkAttributes lateWatermark = watermarksDb.getWatermark(CompileLogs.WATERMARK_NAME);
+        assertEquals(watermark.endTimeUsec, lateWatermark.endTimeUsec);
+        assertEquals(Arrays.asList("r1", "r3", "r4", "r5"), sorted(lateWatermark.requestIds));
+
+        ______TS("logs not sent: watermark not saved, logs compiled again");
+
+        logService.add(getRequestLogs("r7", now, "error 7"));
+
+        compileLogs = new CompileLogs(logService);
+        assertEquals(Arrays.asList("error 7"), getMessages(compileLogs.doLogExam()));
+
+        compileLogs = new CompileLogs(logService);
+        assertEquals(Arrays.asList("error 7"), getMessages(compileLogs.doLogExam()));
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> sortedValues = new ArrayList<String>(values);
+        Collections.sort(sortedValues);
+        return sortedValues;
+    }
+
+    private static List<String> getMessages(List<AppLogLine> logLines) {
+        List<String> messages = new ArrayList<String>();
+        for (AppLogLine logLine : logLines) {
+            messages.add(logLine.getLogMessage());
+        }
+        return messages;
+    }
+
+    /**
+     * @return the logs of a request with an INFO log line and the given ERROR log line
+     */
+    private static RequestLogs getRequestLogs(String requestId, long endTimeMillis, String errorMessage) {
+        RequestLogs requestLogs = new RequestLogs();
+        requestLogs.setRequestId(requestId);
+        requestLogs.setEndTimeUsec(endTimeMillis * 1000);
+
+        AppLogLine infoLogLine = new AppLogLine();
+        infoLogLine.setLogLevel(LogLevel.INFO);
+        infoLogLine.setLogMessage("info");
+        AppLogLine errorLogLine = new AppLogLine();
+        errorLogLine.setLogLevel(LogLevel.ERROR);
+        errorLogLine.setLogMessage(errorMessage);
+        requestLogs.setAppLogLines(Arrays.asList(infoLogLine, errorLogLine));
+        return requestLogs;
+    }
+
+    /**
+     * Returns the request logs which ended in the time period queried, including its start,
+     * from the most recent one.
+     */
+    private static class FakeLogService implements LogService {
+
+        private final List<RequestLogs> allRequestLogs = new ArrayList<RequestLogs>();
+
+        FakeLogService(RequestLogs... requestLogs) {
+            for (RequestLogs logs : requestLogs) {
+                add(logs);
+            }
+        }
+
+        void add(RequestLogs requestLogs) {
+            allRequestLogs.add(requestLogs);
+            Collections.sort(allRequestLogs, new Comparator<RequestLogs>() {
+                @Override
+                public int compare(RequestLogs logs1, RequestLogs logs2) {
+                    return Long.valueOf(logs2.getEndTimeUsec()).compareTo(logs1.getEndTimeUsec());
+                }
+            });
+        }
+
+        @Override
+        public Iterable<RequestLogs> fetch(LogQuery query) {
+            List<RequestLogs> requestLogs = new ArrayList<RequestLogs>();
+            for (RequestLogs logs : allRequestLogs) {
+                if (logs.getEndTimeUsec() >= query.getStartTimeUsec()
+                        && logs.getEndTimeUsec() <= query.getEndTimeUsec()) {
+                    requestLogs.add(logs);
+                }
+            }
+            return requestLogs;
+        }
+
+    }
+
+}
@@ -0,0 +1,161 @@
+package teammates.test.cases.logic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.util.Date;
+import java.util.zip.GZIPInputStream;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Config;
+import teammates.common.util.Const.SystemParams;
+import teammates.common.util.Utils;
+import teammates.logic.core.CourseExportLogic;
+import teammates.logic.core.CourseExportLogic.Stage;
+import teammates.logic.core.FeedbackQuestionsLogic;
+import teammates.logic.core.FeedbackSessionsLogic;
+import teammates.logic.core.InstructorsLogic;
+import teammates.logic.core.StudentsLogic;
+import teammates.storage.api.CourseModificationsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.tools.cloudstorage.GcsFilename;
+import com.google.appengine.tools.cloudstorage.GcsService;
+import com.google.appengine.tools.cloudstorage.GcsServiceFactory;
+import com.google.appengine.tools.cloudstorage.RetryParams;
+import com.google.appengine.tools.development.testing.LocalTaskQueueTestConfig;
+
+public class CourseExportLogicTest extends BaseComponentTestCase {
+
+    private static final CourseExportLogic courseExportLogic = CourseExportLogic.inst();
+    private static final GcsService GCS_SERVICE = GcsServiceFactory.createGcsService(RetryParams.getDefaultInstance());
+    private static DataBundle dataBundle = getTypicalDataBundle();
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        printTestClassHeader();
+        CourseModificationsDb.clearRecordedModifications();
+        removeAndRestoreTypicalDataInDatastore();
+    }
+
+    @Test
+    public void testExportCourse() throws Exception {
+        String courseId = dataBundle.courses.get("typicalCourse1").getId();
+
+        ______TS("course exported in data bundles");
+
+        assertTrue(courseExportLogic.exportCourse(courseId, "export1"));
+
+        DataBundle firstPart = readExportPart(courseId, "export1", 0);
+        assertEquals(courseId, firstPart.courses.get(courseId).getId());
+        assertEquals(InstructorsLogic.inst().getInstructorsForCourse(courseId).size(), firstPart.instructors.size());
+        assertTrue(firstPart.accounts.containsKey(dataBundle.instructors.get("instructor1OfCourse1").googleId));
+        assertEquals(FeedbackSessionsLogic.inst().getFeedbackSessionsForCourse(courseId).size(),
+                     firstPart.feedbackSessions.size());
+        assertEquals(FeedbackQuestionsLogic.inst().getFeedbackQuestionsForCourse(courseId).size(),
+                     firstPart.feedbackQuestions.size());
+        assertTrue(firstPart.students.isEmpty());
+
+        DataBundle students = readExportPart(courseId, "export1", 1);
+        assertEquals(StudentsLogic.inst().getStudentsForCourse(courseId).size(), students.students.size());
+        StudentAttributes student = dataBundle.students.get("student1InCourse1");
+        assertEquals(student.name, students.students.get(student.email).name);
+
+        // responses refer to their question by its number, as in the typical data bundle
+        DataBundle responses = readExportPart(courseId, "export1", 2);
+        assertFalse(responses.feedbackResponses.isEmpty());
+        for (FeedbackResponseAttributes response : responses.feedbackResponses.values()) {
+            assertNotNull(getQuestion(firstPart, response.feedbackSessionName, response.feedbackQuestionId));
+        }
+
+        DataBundle responseComments = readExportPart(courseId, "export1", 3);
+        assertFalse(responseComments.feedbackResponseComments.isEmpty());
+        DataBundle comments = readExportPart(courseId, "export1", 4);
+        assertFalse(comments.comments.isEmpty());
+        assertFalse(doesExportPartExist(courseId, "export1", 5));
+
+        ______TS("export continued in a task when the request deadline is near");
+
+        courseExportLogic.setMinRemainingMillis(Long.MAX_VALUE);
+        try {
+            assertFalse(courseExportLogic.exportCourse(courseId, "export2"));
+        } finally {
+            courseExportLogic.setMinRemainingMillis(60 * 1000);
+        }
+        assertTrue(doesExportPartExist(courseId, "export2", 0));
+        assertFalse(doesExportPartExist(courseId, "export2", 1));
+
+        assertTrue(courseExportLogic.continueCourseExport(courseId, "export2", Stage.STUDENTS, null, 1));
+        assertEquals(students.students.keySet(), readExportPart(courseId, "export2", 1).students.keySet());
+        assertTrue(doesExportPartExist(courseId, "export2", 4));
+        assertFalse(doesExportPartExist(courseId, "export2", 5));
+
+        ______TS("non-existent course exported as an empty data bundle");
+
+        assertTrue(courseExportLogic.exportCourse("non-existent-course", "export1"));
+        assertTrue(readExportPart("non-existent-course", "export1", 0).courses.isEmpty());
+        assertFalse(doesExportPartExist("non-existent-course", "export1", 1));
+    }
+
+    @Test
+    public void testScheduleExportsOfCoursesModifiedSince() {
+        Date since = new Date();
+        CourseModificationsDb.clearRecordedModifications();
+        new CourseModificationsDb().recordCourseModification("CELT.modifiedCourse");
+
+        int numberOfTasks = getNumberOfCourseExportTasks();
+
+        int numberOfCourses = courseExportLogic.scheduleExportsOfCoursesModifiedSince(since, "export3");
+
+        assertTrue(numberOfCourses >= 1);
+        assertEquals(numberOfTasks + numberOfCourses, getNumberOfCourseExportTasks());
+    }
+
+    private static int getNumberOfCourseExportTasks() {
+        return LocalTaskQueueTestConfig.getLocalTaskQueue().getQueueStateInfo()
+                                       .get(SystemParams.COURSE_EXPORT_TASK_QUEUE).getCountTasks();
+    }
+
+    private static DataBundle readExportPart(String courseId, String exportId, int part) throws IOException {
+        GcsFilename fileName = new GcsFilename(Config.GCS_BUCKETNAME,
+                                               CourseExportLogic.getExportPartFileName(courseId, exportId, part));
+        InputStream in = new GZIPInputStream(Channels.newInputStream(GCS_SERVICE.openReadChannel(fileName, 0)));
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try {
+            byte[] buffer = new byte[4096];
+            int length = in.read(buffer);
+            while (length != -1) {
+                json.write(buffer, 0, length);
+                length = in.read(buffer);
+            }
+        } finally {
+            in.close();
+        }
+        return Utils.getTeammatesGson().fromJson(json.toString(SystemParams.ENCODING), DataBundle.class);
+    }
+
+    private static boolean doesExportPartExist(String courseId, String exportId, int part) throws IOException {
+        GcsFilename fileName = new GcsFilename(Config.GCS_BUCKETNAME,
+                                               CourseExportLogic.getExportPartFileName(courseId, exportId, part));
+        return GCS_SERVICE.getMetadata(fileName) != null;
+    }
+
+    private static FeedbackQuestionAttributes getQuestion(DataBundle bundle, String feedbackSessionName,
+                                                          String questionNumber) {
+        for (FeedbackQuestionAttributes question : bundle.feedbackQuestions.values()) {
+            if (question.feedbackSessionName.equals(feedbackSessionName)
+                    && String.valueOf(question.questionNumber).equals(questionNumber)) {
+                return question;
+            }
+        }
+        return null;
+    }
+
+}
@@ -11,6 +11,7 @@ import org.testng.annotations.Test;
 
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseDeletionJobAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
 import teammates.common.datatransfer.CourseSummaryBundle;
 import teammates.common.datatransfer.DataBundle;
@@ -18,10 +19,12 @@ import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentProfileAttributes;
 import teammates.common.datatransfer.TeamDetailsBundle;
+import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
 import teammates.logic.core.AccountsLogic;
+import teammates.logic.core.CourseDeletionJobsLogic;
 import teammates.logic.core.CoursesLogic;
 import teammates.logic.core.InstructorsLogic;
 import teammates.logic.core.StudentsLogic;
@@ -1186,7 +1189,7 @@ public class CoursesLogicTest extends BaseComponentTestCase {
         assertTrue(map.get("idOfTypicalCourse1").contains("Section 2"));
     }
 
-    public void testDeleteCourse() {
+    public void testDeleteCourse() throws Exception {
     
         ______TS("typical case");
     
@@ -1220,6 +1223,52 @@ public class CoursesLogicTest extends BaseComponentTestCase {
         verifyAbsentInDatastore(dataBundle.comments.get("comment1FromI1C1toS1C1"));
         verifyAbsentInDatastore(dataBundle.comments.get("comment2FromI1C1toS1C1"));
         verifyAbsentInDatastore(dataBundle.comments.get("comment1FromI3C1toS2C1"));
+        
+        // the job of a completed deletion is removed
+        assertNull(CourseDeletionJobsLogic.inst().getCourseDeletionJob(course1OfInstructor.getId()));
+    
+        ______TS("deletion continued in a task when the request deadline is near");
+        
+        CourseAttributes course2OfInstructor = dataBundle.courses.get("typicalCourse2");
+        verifyPresentInDatastore(course2OfInstructor);
+        verifyPresentInDatastore(dataBundle.students.get("student1InCourse2"));
+        verifyPresentInDatastore(dataBundle.instructors.get("instructor1OfCourse2"));
+        verifyPresentInDatastore(dataBundle.feedbackSessions.get("session1InCourse2"));
+        
+        CourseDeletionJobsLogic.inst().setMinRemainingMillis(Long.MAX_VALUE);
+        try {
+            assertFalse(CourseDeletionJobsLogic.inst().startCourseDeletion(course2OfInstructor.getId()));
+        } finally {
+            CourseDeletionJobsLogic.inst().setMinRemainingMillis(null);
+        }
+        
+        // only the course is deleted, which hides the course while its data is deleted
+        CourseDeletionJobAttributes job = CourseDeletionJobsLogic.inst().getCourseDeletionJob(course2OfInstructor.getId());
+        assertEquals(CourseDeletionJobAttributes.Stage.STUDENTS, job.stage);
+        verifyAbsentInDatastore(course2OfInstructor);
+        verifyPresentInDatastore(dataBundle.students.get("student1InCourse2"));
+        verifyPresentInDatastore(dataBundle.instructors.get("instructor1OfCourse2"));
+        
+        // no course with the same ID can be created until the deletion is completed
+        try {
+            coursesLogic.createCourse(course2OfInstructor.getId(), course2OfInstructor.getName());
+            signalFailureToDetectException();
+        } catch (EntityAlreadyExistsException e) {
+            AssertHelper.assertContains("is still being deleted", e.getMessage());
+        }
+        
+        // a task of a replaced job does nothing
+        assertTrue(CourseDeletionJobsLogic.inst().continueCourseDeletion(course2OfInstructor.getId(),
+                                                                         job.createdAt.getTime() - 1));
+        verifyPresentInDatastore(dataBundle.students.get("student1InCourse2"));
+        
+        assertTrue(CourseDeletionJobsLogic.inst().continueCourseDeletion(course2OfInstructor.getId(),
+                                                                         job.createdAt.getTime()));
+        
+        assertNull(CourseDeletionJobsLogic.inst().getCourseDeletionJob(course2OfInstructor.getId()));
+        verifyAbsentInDatastore(dataBundle.students.get("student1InCourse2"));
+        verifyAbsentInDatastore(dataBundle.instructors.get("instructor1OfCourse2"));
+        verifyAbsentInDatastore(dataBundle.feedbackSessions.get("session1InCourse2"));
     
         ______TS("non-existent");
     
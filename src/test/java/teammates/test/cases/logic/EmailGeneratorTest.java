@@ -283,8 +283,12 @@ public class EmailGeneratorTest extends BaseComponentTestCase {
         logLineWithLineBreak.setLogLevel(LogLevel.ERROR);
         logLineWithLineBreak.setLogMessage("Log line \n with line break <br> and also HTML br tag");
         
+        AppLogLine logLineOfSameError = new AppLogLine();
+        logLineOfSameError.setLogLevel(LogLevel.ERROR);
+        logLineOfSameError.setLogMessage("Typical log message");
+        
         EmailWrapper email = new EmailGenerator().generateCompiledLogsEmail(
-                Arrays.asList(typicalLogLine, logLineWithLineBreak));
+                Arrays.asList(typicalLogLine, logLineWithLineBreak, logLineOfSameError));
         
         String subject = String.format(EmailType.SEVERE_LOGS_COMPILATION.getSubject(),
                                        Config.getAppVersion());
@@ -1,6 +1,9 @@
 package teammates.test.cases.logic;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import javax.mail.Message;
 import javax.mail.internet.InternetAddress;
@@ -12,13 +15,22 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import com.google.appengine.tools.development.testing.LocalTaskQueueTestConfig;
 import com.mailjet.client.MailjetRequest;
 import com.mailjet.client.resource.Email;
 import com.sendgrid.SendGrid;
 import com.sun.jersey.multipart.FormDataMultiPart;
 
+import teammates.common.exception.EmailRateLimitedException;
+import teammates.common.exception.EmailSendingException;
+import teammates.common.util.Const.SystemParams;
+import teammates.common.util.EmailPriority;
 import teammates.common.util.EmailWrapper;
 import teammates.logic.core.EmailSender;
+import teammates.logic.core.EmailSenderService;
+import teammates.logic.core.EmailTokenBucket;
+import teammates.logic.core.FakeEmailService;
 import teammates.logic.core.JavamailService;
 import teammates.logic.core.MailgunService;
 import teammates.logic.core.MailjetService;
@@ -27,6 +39,7 @@ import teammates.test.cases.BaseComponentTestCase;
 
 /**
  * SUT: {@link EmailSender}
+ *      {@link FakeEmailService}
  *      {@link JavamailService}
  *      {@link SendgridService}
  *      {@link MailgunService}
@@ -123,6 +136,277 @@ public class EmailSenderTest extends BaseComponentTestCase {
         assertEquals(wrapper.getContent(), email.get(Email.HTMLPART));
     }
     
+    private List<EmailWrapper> getTypicalEmailWrapperBatch() {
+        List<EmailWrapper> wrappers = new ArrayList<EmailWrapper>();
+        for (int i = 1; i <= 3; i++) {
+            EmailWrapper wrapper = getTypicalEmailWrapper();
+            wrapper.setBcc(null);
+            wrapper.setRecipient("recipient" + i + "@email.com");
+            wrapper.setSubject("Test subject " + i);
+            wrapper.setContent("<p>This is test content " + i + "</p>");
+            wrappers.add(wrapper);
+        }
+        return wrappers;
+    }
+    
+    @Test
+    public void testSendEmailBatch() throws Exception {
+        FakeEmailService.clearSentBatches();
+        List<EmailWrapper> wrappers = getTypicalEmailWrapperBatch();
+        
+        new EmailSender(new FakeEmailService()).sendEmailBatch(wrappers);
+        
+        List<List<EmailWrapper>> sentBatches = FakeEmailService.getSentBatches();
+        assertEquals(1, sentBatches.size());
+        assertEquals(wrappers, sentBatches.get(0));
+        assertEquals(3, FakeEmailService.getNumberOfSentEmails());
+        
+        ______TS("only the last batches are kept by the fake service");
+        
+        EmailSender emailSender = new EmailSender(new FakeEmailService());
+        for (int i = 0; i < FakeEmailService.MAX_SENT_BATCHES_KEPT; i++) {
+            emailSender.sendEmailBatch(wrappers.subList(0, 1));
+        }
+        
+        sentBatches = FakeEmailService.getSentBatches();
+        assertEquals(FakeEmailService.MAX_SENT_BATCHES_KEPT, sentBatches.size());
+        assertEquals(wrappers.subList(0, 1), sentBatches.get(0));
+        assertEquals(3 + FakeEmailService.MAX_SENT_BATCHES_KEPT, FakeEmailService.getNumberOfSentEmails());
+        FakeEmailService.clearSentBatches();
+    }
+    
+    @Test
+    public void testEmailTokenBucket() {
+        MemcacheServiceFactory.getMemcacheService().clearAll();
+        
+        // Javamail: bursts of up to 20 emails, of which 4 are reserved to high priority emails
+        EmailTokenBucket tokenBucket = new EmailTokenBucket(new JavamailService());
+        
+        ______TS("bulk emails leave the reserve to high priority emails");
+        
+        assertEquals(0, tokenBucket.acquire(16, EmailPriority.BULK));
+        assertTrue(tokenBucket.acquire(1, EmailPriority.BULK) > 0);
+        assertEquals(0, tokenBucket.acquire(4, EmailPriority.HIGH));
+        assertTrue(tokenBucket.acquire(1, EmailPriority.HIGH) > 0);
+        
+        ______TS("throttling closes the bucket with doubling backoff");
+        
+        assertEquals(30 * 1000, tokenBucket.throttle());
+        assertEquals(60 * 1000, tokenBucket.throttle());
+        assertTrue(tokenBucket.acquire(1, EmailPriority.HIGH) > 30 * 1000);
+        
+        tokenBucket.resetThrottling();
+        assertEquals(30 * 1000, tokenBucket.throttle());
+        
+        MemcacheServiceFactory.getMemcacheService().clearAll();
+        assertEquals(0, tokenBucket.acquire(20, EmailPriority.HIGH));
+        
+        ______TS("a full bucket grants a bulk task larger than the bucket apart from the reserve");
+        
+        MemcacheServiceFactory.getMemcacheService().clearAll();
+        assertEquals(0, tokenBucket.acquire(20, EmailPriority.BULK));
+        assertTrue(tokenBucket.acquire(1, EmailPriority.BULK) > 0);
+        assertEquals(0, tokenBucket.acquire(4, EmailPriority.HIGH));
+        MemcacheServiceFactory.getMemcacheService().clearAll();
+    }
+    
+    @Test
+    public void testSendQueuedEmails() throws Exception {
+        MemcacheServiceFactory.getMemcacheService().clearAll();
+        FakeEmailService.clearSentBatches();
+        List<EmailWrapper> wrappers = getTypicalEmailWrapperBatch();
+        FakeEmailService service = new FakeEmailService();
+        EmailSender emailSender = new EmailSender(service);
+        
+        ______TS("emails are sent when there are enough tokens");
+        
+        emailSender.sendQueuedEmails(wrappers, EmailPriority.HIGH, System.currentTimeMillis() - 1000);
+        
+        assertEquals(3, FakeEmailService.getNumberOfSentEmails());
+        Map<String, Long> highMetrics = emailSender.getSendingMetrics().get(EmailPriority.HIGH.name());
+        assertEquals(3, highMetrics.get("sent").longValue());
+        assertEquals(3, highMetrics.get("latencyUnder10s").longValue());
+        
+        ______TS("emails are deferred while the service is throttled");
+        
+        new EmailTokenBucket(service).throttle();
+        emailSender.sendQueuedEmails(wrappers, EmailPriority.BULK, System.currentTimeMillis());
+        
+        assertEquals(3, FakeEmailService.getNumberOfSentEmails());
+        Map<String, Long> bulkMetrics = emailSender.getSendingMetrics().get(EmailPriority.BULK.name());
+        assertEquals(0, bulkMetrics.get("sent").longValue());
+        assertEquals(3, bulkMetrics.get("deferred").longValue());
+        
+        ______TS("emails rejected by the service are throttled");
+        
+        MemcacheServiceFactory.getMemcacheService().clearAll();
+        final List<EmailWrapper> unsentEmails = wrappers.subList(1, wrappers.size());
+        EmailSender rateLimitedEmailSender = new EmailSender(new EmailSenderService() {
+            @Override
+            public EmailWrapper parseToEmail(EmailWrapper wrapper) {
+                return wrapper;
+            }
+            
+            @Override
+            public double getMaxEmailsPerSecond() {
+                return 10;
+            }
+            
+            @Override
+            public int getMaxEmailsPerBurst() {
+                return 50;
+            }
+            
+            @Override
+            protected void sendEmailWithService(EmailWrapper wrapper) {
+                // not called as the emails are sent as a batch
+            }
+            
+            @Override
+            protected void sendEmailsWithService(List<EmailWrapper> wrappers) throws Exception {
+                throw new EmailRateLimitedException("Too many requests", unsentEmails);
+            }
+        });
+        
+        rateLimitedEmailSender.sendQueuedEmails(wrappers, EmailPriority.BULK, System.currentTimeMillis());
+        
+        bulkMetrics = emailSender.getSendingMetrics().get(EmailPriority.BULK.name());
+        assertEquals(1, bulkMetrics.get("sent").longValue());
+        assertEquals(2, bulkMetrics.get("throttled").longValue());
+        
+        ______TS("emails beyond what the bucket grants at once are requeued in tasks it can grant");
+        
+        MemcacheServiceFactory.getMemcacheService().clearAll();
+        FakeEmailService.clearSentBatches();
+        String bulkQueueName = EmailPriority.BULK.getQueueName();
+        LocalTaskQueueTestConfig.getLocalTaskQueue().flushQueue(bulkQueueName);
+        List<EmailWrapper> manyWrappers = new ArrayList<EmailWrapper>(wrappers);
+        manyWrappers.addAll(getTypicalEmailWrapperBatch());
+        EmailSender smallBucketEmailSender = new EmailSender(new FakeEmailService() {
+            @Override
+            public double getMaxEmailsPerSecond() {
+                return 0.001;
+            }
+            
+            @Override
+            public int getMaxEmailsPerBurst() {
+                // grants 2 BULK emails at once, leaving the rest to HIGH emails
+                return 3;
+            }
+        });
+        
+        smallBucketEmailSender.sendQueuedEmails(manyWrappers, EmailPriority.BULK, System.currentTimeMillis());
+        
+        assertEquals(1, FakeEmailService.getSentBatches().size());
+        assertEquals(2, FakeEmailService.getNumberOfSentEmails());
+        assertEquals(2, LocalTaskQueueTestConfig.getLocalTaskQueue().getQueueStateInfo()
+                                                .get(bulkQueueName).getCountTasks());
+        
+        LocalTaskQueueTestConfig.getLocalTaskQueue().flushQueue(bulkQueueName);
+        
+        ______TS("emails not sent because of an error after others are sent are requeued, not thrown");
+        
+        MemcacheServiceFactory.getMemcacheService().clearAll();
+        FakeEmailService.clearSentBatches();
+        String highQueueName = EmailPriority.HIGH.getQueueName();
+        LocalTaskQueueTestConfig.getLocalTaskQueue().flushQueue(highQueueName);
+        List<EmailWrapper> twoBatchesOfWrappers = new ArrayList<EmailWrapper>();
+        for (int i = 0; i < SystemParams.MAX_EMAILS_PER_SEND_EMAIL_TASK + 1; i++) {
+            twoBatchesOfWrappers.add(getTypicalEmailWrapper());
+        }
+        EmailSender failingEmailSender = new EmailSender(new FakeEmailService() {
+            @Override
+            public void sendEmails(List<EmailWrapper> wrappers) throws EmailSendingException {
+                if (!FakeEmailService.getSentBatches().isEmpty()) {
+                    throw new EmailSendingException(new IOException("Service unavailable"));
+                }
+                super.sendEmails(wrappers);
+            }
+        });
+        
+        failingEmailSender.sendQueuedEmails(twoBatchesOfWrappers, EmailPriority.HIGH, System.currentTimeMillis());
+        
+        assertEquals(SystemParams.MAX_EMAILS_PER_SEND_EMAIL_TASK, FakeEmailService.getNumberOfSentEmails());
+        assertEquals(1, LocalTaskQueueTestConfig.getLocalTaskQueue().getQueueStateInfo()
+                                                .get(highQueueName).getCountTasks());
+        
+        ______TS("error before any email is sent is thrown for the task to be retried");
+        
+        LocalTaskQueueTestConfig.getLocalTaskQueue().flushQueue(highQueueName);
+        try {
+            failingEmailSender.sendQueuedEmails(twoBatchesOfWrappers, EmailPriority.HIGH, System.currentTimeMillis());
+            signalFailureToDetectException();
+        } catch (EmailSendingException e) {
+            ignoreExpectedException();
+        }
+        assertEquals(0, LocalTaskQueueTestConfig.getLocalTaskQueue().getQueueStateInfo()
+                                                .get(highQueueName).getCountTasks());
+        
+        FakeEmailService.clearSentBatches();
+        MemcacheServiceFactory.getMemcacheService().clearAll();
+    }
+    
+    @Test
+    public void testConvertToSendgridBatch() {
+        List<EmailWrapper> wrappers = getTypicalEmailWrapperBatch();
+        SendGrid.Email email = new SendgridService().parseToBatchEmail(wrappers);
+        
+        EmailWrapper firstWrapper = wrappers.get(0);
+        assertEquals(firstWrapper.getSenderEmail(), email.getFrom());
+        assertEquals(firstWrapper.getSenderName(), email.getFromName());
+        assertEquals(firstWrapper.getReplyTo(), email.getReplyTo());
+        
+        JSONObject smtpApi = new JSONObject(email.getSMTPAPI().jsonString());
+        JSONObject substitutions = smtpApi.getJSONObject("sub");
+        for (int i = 0; i < wrappers.size(); i++) {
+            assertEquals(wrappers.get(i).getRecipient(), smtpApi.getJSONArray("to").getString(i));
+            assertEquals(wrappers.get(i).getSubject(), substitutions.getJSONArray(email.getSubject()).getString(i));
+            assertEquals(wrappers.get(i).getContent(), substitutions.getJSONArray(email.getHtml()).getString(i));
+        }
+    }
+    
+    @Test
+    public void testConvertToMailgunBatch() {
+        List<EmailWrapper> wrappers = getTypicalEmailWrapperBatch();
+        FormDataMultiPart formData = new MailgunService().parseToBatchEmail(wrappers);
+        
+        EmailWrapper firstWrapper = wrappers.get(0);
+        assertEquals(firstWrapper.getSenderName() + " <" + firstWrapper.getSenderEmail() + ">",
+                     formData.getField("from").getValue());
+        assertEquals(firstWrapper.getReplyTo(), formData.getField("h:Reply-To").getValue());
+        assertEquals(wrappers.size(), formData.getFields("to").size());
+        assertEquals("%recipient.subject%", formData.getField("subject").getValue());
+        assertEquals("%recipient.html%", formData.getField("html").getValue());
+        
+        JSONObject recipientVariables = new JSONObject(formData.getField("recipient-variables").getValue());
+        for (int i = 0; i < wrappers.size(); i++) {
+            EmailWrapper wrapper = wrappers.get(i);
+            assertEquals(wrapper.getRecipient(), formData.getFields("to").get(i).getValue());
+            assertEquals(wrapper.getSubject(),
+                         recipientVariables.getJSONObject(wrapper.getRecipient()).getString("subject"));
+            assertEquals(wrapper.getContent(),
+                         recipientVariables.getJSONObject(wrapper.getRecipient()).getString("html"));
+        }
+    }
+    
+    @Test
+    public void testConvertToMailjetBatch() {
+        List<EmailWrapper> wrappers = getTypicalEmailWrapperBatch();
+        MailjetRequest request = new MailjetService().parseToBatchEmail(wrappers);
+        JSONArray messages = new JSONObject(request.getBody()).getJSONArray("Messages");
+        
+        assertEquals(wrappers.size(), messages.length());
+        for (int i = 0; i < wrappers.size(); i++) {
+            EmailWrapper wrapper = wrappers.get(i);
+            JSONObject email = messages.getJSONObject(i);
+            assertEquals(wrapper.getSenderEmail(), email.get(Email.FROMEMAIL));
+            assertEquals(wrapper.getRecipient(),
+                         ((JSONArray) email.get(Email.RECIPIENTS)).getJSONObject(0).get("Email"));
+            assertEquals(wrapper.getSubject(), email.get(Email.SUBJECT));
+            assertEquals(wrapper.getContent(), email.get(Email.HTMLPART));
+        }
+    }
+    
     @AfterClass
     public static void classTearDown() {
         printTestClassFooter();
@@ -307,7 +307,31 @@ public class FeedbackQuestionsLogicTest extends BaseComponentTestCase {
         assertEquals(question1.giverType, copiedQuestion.giverType);
         assertEquals(question1.recipientType, copiedQuestion.recipientType);
         assertEquals(question1Details.getQuestionText(), copiedQuestionDetails.getQuestionText());
-        
+
+        ______TS("Typical case: copy multiple questions in one batch");
+
+        FeedbackQuestionAttributes question2 = getQuestionFromDatastore("qn2InSession1InCourse1");
+        int numberOfQuestions =
+                fqLogic.getFeedbackQuestionsForSession(question1.feedbackSessionName, question1.courseId).size();
+        List<String> questionIdsToCopy = new ArrayList<String>();
+        questionIdsToCopy.add(question2.getId());
+        questionIdsToCopy.add(question1.getId());
+
+        List<FeedbackQuestionAttributes> copiedQuestions =
+                fqLogic.copyFeedbackQuestions(questionIdsToCopy, question1.feedbackSessionName, question1.courseId,
+                                              instructor2OfCourse1.email);
+
+        assertEquals(2, copiedQuestions.size());
+        assertEquals(question2.getQuestionDetails().getQuestionText(),
+                     copiedQuestions.get(0).getQuestionDetails().getQuestionText());
+        assertEquals(numberOfQuestions + 1, copiedQuestions.get(0).questionNumber);
+        assertEquals(question1Details.getQuestionText(), copiedQuestions.get(1).getQuestionDetails().getQuestionText());
+        assertEquals(numberOfQuestions + 2, copiedQuestions.get(1).questionNumber);
+        assertEquals(numberOfQuestions + 2,
+                     fqLogic.getFeedbackQuestionsForSession(question1.feedbackSessionName, question1.courseId).size());
+
+        fqLogic.deleteFeedbackQuestionCascade(copiedQuestions.get(0).getId());
+        fqLogic.deleteFeedbackQuestionCascade(copiedQuestions.get(1).getId());
     }
     
     public void testUpdateQuestion() throws Exception {
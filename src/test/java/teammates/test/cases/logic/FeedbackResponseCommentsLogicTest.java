@@ -16,10 +16,13 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.logic.core.FeedbackQuestionsLogic;
 import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
+import teammates.storage.search.FeedbackResponseCommentSearchDocument;
+import teammates.storage.search.FeedbackResponseCommentSearchDocumentBuilder;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
 
 import com.google.appengine.api.datastore.Text;
+import com.google.appengine.api.search.Document;
 
 public class FeedbackResponseCommentsLogicTest extends BaseComponentTestCase {
 
@@ -186,6 +189,46 @@ public class FeedbackResponseCommentsLogicTest extends BaseComponentTestCase {
         
     }
     
+    @Test
+    public void testBuildSearchDocuments() {
+        List<FeedbackResponseCommentAttributes> comments = new ArrayList<FeedbackResponseCommentAttributes>();
+        List<FeedbackResponseCommentAttributes> commentsWithResponse =
+                new ArrayList<FeedbackResponseCommentAttributes>();
+        comments.addAll(frcLogic.getFeedbackResponseCommentForSession("idOfTypicalCourse1",
+                                                                      "First feedback session"));
+        comments.addAll(frcLogic.getFeedbackResponseCommentForSession("idOfTypicalCourse1",
+                                                                      "Second feedback session"));
+        for (FeedbackResponseCommentAttributes comment : comments) {
+            if (frLogic.getFeedbackResponse(comment.feedbackResponseId) != null) {
+                commentsWithResponse.add(comment);
+            }
+        }
+        assertTrue(commentsWithResponse.size() > 1);
+        
+        ______TS("documents built in a batch are the same as those built one by one");
+        
+        List<FeedbackResponseCommentSearchDocument> documents =
+                new FeedbackResponseCommentSearchDocumentBuilder().build(commentsWithResponse);
+        
+        assertEquals(commentsWithResponse.size(), documents.size());
+        for (int i = 0; i < commentsWithResponse.size(); i++) {
+            Document expected = new FeedbackResponseCommentSearchDocument(commentsWithResponse.get(i)).build();
+            assertEquals(expected.toString(), documents.get(i).build().toString());
+        }
+        
+        ______TS("comments without response are skipped");
+        
+        // the typical data contains a comment on a response that does not exist
+        assertTrue(comments.size() > commentsWithResponse.size());
+        
+        documents = new FeedbackResponseCommentSearchDocumentBuilder().build(comments);
+        
+        assertEquals(commentsWithResponse.size(), documents.size());
+        for (int i = 0; i < commentsWithResponse.size(); i++) {
+            assertEquals(commentsWithResponse.get(i).getId().toString(), documents.get(i).build().getId());
+        }
+    }
+    
     @Test
     public void testUpdateFeedbackResponseComment() throws Exception {
         FeedbackResponseCommentAttributes frComment = new FeedbackResponseCommentAttributes();
@@ -23,17 +23,21 @@ import teammates.common.datatransfer.UserType.Role;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Const.SystemParams;
 import teammates.logic.core.FeedbackQuestionsLogic;
 import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.logic.core.FeedbackSessionsLogic;
+import teammates.logic.core.StudentUpdateCascadeExecutor;
 import teammates.logic.core.StudentsLogic;
+import teammates.storage.api.FeedbackResponsesDb;
 import teammates.storage.api.InstructorsDb;
 import teammates.storage.api.StudentsDb;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
 
 import com.google.appengine.api.datastore.Text;
+import com.google.appengine.tools.development.testing.LocalTaskQueueTestConfig;
 
 public class FeedbackResponsesLogicTest extends BaseComponentTestCase {
     
@@ -246,6 +250,24 @@ public class FeedbackResponsesLogicTest extends BaseComponentTestCase {
                                                studentToUpdate.email, "Section 1", new Text("New Response to self"));
         frLogic.createFeedbackResponse(responseToAdd);
         
+        // a batch deletes up to the limit, and the cascade continues in a new task while responses remain
+        
+        assertEquals(1, frLogic.updateFeedbackResponsesForChangingTeam(
+                studentToUpdate.course, studentToUpdate.email, studentToUpdate.team, "Team 1.2", 1));
+        
+        LocalTaskQueueTestConfig.getLocalTaskQueue().flushQueue(SystemParams.STUDENT_UPDATE_CASCADE_TASK_QUEUE);
+        StudentEnrollDetails teamUpdateDetails =
+                new StudentEnrollDetails(StudentAttributes.UpdateStatus.MODIFIED, studentToUpdate.course,
+                                         studentToUpdate.email, studentToUpdate.team, "Team 1.2", null, null);
+        StudentUpdateCascadeExecutor cascadeExecutor =
+                new StudentUpdateCascadeExecutor(studentToUpdate.email, teamUpdateDetails);
+        cascadeExecutor.setMinRemainingMillis(Long.MAX_VALUE);
+        assertFalse(cascadeExecutor.execute());
+        assertEquals(1, LocalTaskQueueTestConfig.getLocalTaskQueue().getQueueStateInfo()
+                                                .get(SystemParams.STUDENT_UPDATE_CASCADE_TASK_QUEUE)
+                                                .getCountTasks());
+        LocalTaskQueueTestConfig.getLocalTaskQueue().flushQueue(SystemParams.STUDENT_UPDATE_CASCADE_TASK_QUEUE);
+        
         // All these responses should be gone after he changes teams
         
         frLogic.updateFeedbackResponsesForChangingTeam(
@@ -421,9 +443,58 @@ public class FeedbackResponsesLogicTest extends BaseComponentTestCase {
         assertEquals(responsesForReceiver.size(), 2);
         assertEquals(responsesFromGiver.size(), 2);
         assertEquals(responseCommentsForStudent.size(), 2);
-        
+
+        ______TS("update email cascade continued in a new task");
+
+        StudentEnrollDetails updateDetails =
+                new StudentEnrollDetails(StudentAttributes.UpdateStatus.MODIFIED, studentToUpdate.course,
+                                         studentToUpdate.email, null, null, null, null);
+        StudentUpdateCascadeExecutor cascadeExecutor =
+                new StudentUpdateCascadeExecutor("new@email.tmt", updateDetails);
+
+        // the deadline is always near, so the cascade stops after the first batch
+        cascadeExecutor.setMinRemainingMillis(Long.MAX_VALUE);
+        assertFalse(cascadeExecutor.execute());
+        assertEquals(2, frLogic.getFeedbackResponsesForReceiverForCourse(
+                                studentToUpdate.course, studentToUpdate.email).size());
+        assertEquals(2, frLogic.getFeedbackResponsesFromGiverForCourse(
+                                studentToUpdate.course, studentToUpdate.email).size());
+
+        // the continuation finds the responses already updated and completes the remaining steps
+        cascadeExecutor = new StudentUpdateCascadeExecutor("new@email.tmt", updateDetails);
+        assertTrue(cascadeExecutor.execute());
+        assertEquals(0, frLogic.getFeedbackResponsesForReceiverForCourse(
+                                studentToUpdate.course, "new@email.tmt").size());
+        assertEquals(0, frLogic.getFeedbackResponsesFromGiverForCourse(
+                                studentToUpdate.course, "new@email.tmt").size());
+
+        ______TS("update email batch interrupted after the responses are recreated");
+
+        // the responses are recreated, but their comments are not moved and the old responses are not deleted
+        new FeedbackResponsesDb().recreateFeedbackResponsesWithNewEmail(
+                studentToUpdate.course, studentToUpdate.email, "resumed@email.tmt",
+                FeedbackResponsesDb.MAX_ENTITIES_PER_BATCH);
+
+        frLogic.updateFeedbackResponsesForChangingEmail(
+                studentToUpdate.course, studentToUpdate.email, "resumed@email.tmt");
+
+        assertEquals(0, frLogic.getFeedbackResponsesForReceiverForCourse(
+                                studentToUpdate.course, studentToUpdate.email).size());
+        assertEquals(0, frLogic.getFeedbackResponsesFromGiverForCourse(
+                                studentToUpdate.course, studentToUpdate.email).size());
+        responsesForReceiver = frLogic.getFeedbackResponsesForReceiverForCourse(
+                studentToUpdate.course, "resumed@email.tmt");
+        responsesFromGiver = frLogic.getFeedbackResponsesFromGiverForCourse(
+                studentToUpdate.course, "resumed@email.tmt");
+        responsesToAndFromStudent = new ArrayList<FeedbackResponseAttributes>();
+        responsesToAndFromStudent.addAll(responsesForReceiver);
+        responsesToAndFromStudent.addAll(responsesFromGiver);
+        assertEquals(2, responsesForReceiver.size());
+        assertEquals(2, responsesFromGiver.size());
+        assertEquals(2, getFeedbackResponseCommentsForResponsesFromDatastore(responsesToAndFromStudent).size());
+
         frLogic.updateFeedbackResponsesForChangingEmail(
-                studentToUpdate.course, "new@email.tmt", studentToUpdate.email);
+                studentToUpdate.course, "resumed@email.tmt", studentToUpdate.email);
     }
     
     public void testGetViewableResponsesForQuestionInSection() throws Exception {
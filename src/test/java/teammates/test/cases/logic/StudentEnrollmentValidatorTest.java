@@ -0,0 +1,85 @@
+package teammates.test.cases.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.logic.core.StudentEnrollmentValidator;
+import teammates.test.cases.BaseTestCase;
+
+public class StudentEnrollmentValidatorTest extends BaseTestCase {
+
+    private static final String COURSE_ID = "StudentEnrollmentValidatorTest.course";
+    private static final int SECTION_SIZE_LIMIT = 100;
+
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testGetInvalidityInfo() {
+
+        ______TS("no violations");
+
+        List<StudentAttributes> roster = new ArrayList<StudentAttributes>();
+        roster.add(createStudent("Section 1", "Team 1", "s1@e.tmt"));
+        roster.add(createStudent("Section 2", "Team 2", "s2@e.tmt"));
+
+        List<StudentAttributes> enrollList = new ArrayList<StudentAttributes>();
+        enrollList.add(createStudent("Section 1", "Team 1", "s3@e.tmt"));
+        // moves the only member of Team 2 to another section, so the team stays in one section
+        enrollList.add(createStudent("Section 3", "Team 2", "S2@e.tmt"));
+
+        assertEquals("", new StudentEnrollmentValidator(enrollList, roster, SECTION_SIZE_LIMIT).getInvalidityInfo());
+
+        ______TS("team spanning sections");
+
+        enrollList = new ArrayList<StudentAttributes>();
+        enrollList.add(createStudent("Section 2", "Team 1", "s3@e.tmt"));
+
+        StudentEnrollmentValidator validator = new StudentEnrollmentValidator(enrollList, roster, SECTION_SIZE_LIMIT);
+        String expectedTeamInfo = String.format(Const.StatusMessages.TEAM_INVALID_SECTION_EDIT, "Team 1")
+                                  + "Please use the enroll page to edit multiple students";
+        assertEquals(expectedTeamInfo, validator.getTeamInvalidityInfo());
+        assertEquals(expectedTeamInfo, validator.getInvalidityInfo());
+
+        ______TS("all violations reported together");
+
+        enrollList = new ArrayList<StudentAttributes>();
+        for (int i = 0; i <= SECTION_SIZE_LIMIT; i++) {
+            enrollList.add(createStudent("Section 2", "Team " + i, "new" + i + "@e.tmt"));
+            enrollList.add(createStudent("Section 1", "Team A" + i, "a" + i + "@e.tmt"));
+        }
+        enrollList.add(createStudent("Section 3", "Team 2", "new0@e.tmt"));
+
+        validator = new StudentEnrollmentValidator(enrollList, roster, SECTION_SIZE_LIMIT);
+        assertEquals(String.format(Const.StatusMessages.SECTION_QUOTA_EXCEED, "Section 1")
+                     + String.format(Const.StatusMessages.SECTION_QUOTA_EXCEED, "Section 2"),
+                     validator.getSectionInvalidityInfo());
+        assertEquals(String.format(Const.StatusMessages.TEAM_INVALID_SECTION_EDIT, "Team 1")
+                     + String.format(Const.StatusMessages.TEAM_INVALID_SECTION_EDIT, "Team 2")
+                     + "Please use the enroll page to edit multiple students",
+                     validator.getTeamInvalidityInfo());
+        assertEquals(String.format(Const.StatusMessages.STUDENT_EMAIL_DUPLICATED_IN_ENROLL_LIST, "new0@e.tmt"),
+                     validator.getEmailInvalidityInfo());
+        assertEquals(validator.getSectionInvalidityInfo() + validator.getTeamInvalidityInfo()
+                     + validator.getEmailInvalidityInfo(),
+                     validator.getInvalidityInfo());
+    }
+
+    private StudentAttributes createStudent(String section, String team, String email) {
+        return new StudentAttributes(section, team, "Name of " + email, email, "", COURSE_ID);
+    }
+
+    @AfterClass
+    public static void classTearDown() {
+        printTestClassFooter();
+    }
+
+}
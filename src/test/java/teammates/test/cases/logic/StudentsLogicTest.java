@@ -1,6 +1,7 @@
 package teammates.test.cases.logic;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -39,6 +40,7 @@ import teammates.logic.core.CoursesLogic;
 import teammates.logic.core.FeedbackQuestionsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.logic.core.FeedbackSessionsLogic;
+import teammates.logic.core.StudentEnrollmentEngine;
 import teammates.logic.core.StudentsLogic;
 import teammates.storage.api.StudentsDb;
 import teammates.storage.entity.Student;
@@ -87,6 +89,7 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         testKeyGeneration();
         testEnrollLinesChecking();
         testEnrollStudents();
+        testEnrollmentEngine();
         
         testSendRegistrationInviteForCourse();
         
@@ -799,6 +802,69 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         }
         
     }
+    
+    public void testEnrollmentEngine() throws Exception {
+        
+        String courseId = "StudentsLogicTest.engineCourse";
+        coursesLogic.deleteCourseCascade(courseId);
+        coursesLogic.createCourse(courseId, "Course for Enrollment Engine");
+        
+        ______TS("new students are created in one batch");
+        
+        List<StudentAttributes> enrollList = new ArrayList<StudentAttributes>();
+        for (int i = 0; i < 5; i++) {
+            enrollList.add(new StudentAttributes("Section 1", "Team 1", "Name " + i, "s" + i + "@e.tmt", "", courseId));
+        }
+        
+        StudentEnrollmentEngine engine = new StudentEnrollmentEngine(courseId, false);
+        List<StudentAttributes> result = engine.enroll(enrollList);
+        
+        assertEquals(5, result.size());
+        assertEquals(5, studentsLogic.getStudentsForCourse(courseId).size());
+        for (StudentAttributes student : result) {
+            assertEquals(UpdateStatus.NEW, student.updateStatus);
+        }
+        verifyPhaseTimingsReported(engine);
+        
+        ______TS("mix of new, modified, unmodified and unlisted students");
+        
+        enrollList = new ArrayList<StudentAttributes>();
+        enrollList.add(new StudentAttributes("Section 1", "Team 1", "Name 0", "s0@e.tmt", "", courseId));
+        enrollList.add(new StudentAttributes("Section 2", "Team 2", "Name 1", "s1@e.tmt", "", courseId));
+        enrollList.add(new StudentAttributes("Section 1", "Team 1", "Name 5", "s5@e.tmt", "", courseId));
+        
+        engine = new StudentEnrollmentEngine(courseId, false);
+        result = engine.enroll(enrollList);
+        
+        assertEquals(6, result.size());
+        assertEquals(UpdateStatus.UNMODIFIED, result.get(0).updateStatus);
+        assertEquals(UpdateStatus.MODIFIED, result.get(1).updateStatus);
+        assertEquals(UpdateStatus.NEW, result.get(2).updateStatus);
+        for (StudentAttributes student : result.subList(3, result.size())) {
+            assertEquals(UpdateStatus.NOT_IN_ENROLL_LIST, student.updateStatus);
+        }
+        
+        StudentEnrollDetails modifiedDetails = engine.getEnrollmentDetails().get(1);
+        assertEquals("Team 1", modifiedDetails.oldTeam);
+        assertEquals("Team 2", modifiedDetails.newTeam);
+        assertEquals("Section 1", modifiedDetails.oldSection);
+        assertEquals("Section 2", modifiedDetails.newSection);
+        
+        StudentAttributes modifiedStudent = studentsLogic.getStudentForEmail(courseId, "s1@e.tmt");
+        assertEquals("Team 2", modifiedStudent.team);
+        assertEquals("Section 2", modifiedStudent.section);
+        assertEquals(6, studentsLogic.getStudentsForCourse(courseId).size());
+        verifyPhaseTimingsReported(engine);
+        
+        coursesLogic.deleteCourseCascade(courseId);
+    }
+    
+    private void verifyPhaseTimingsReported(StudentEnrollmentEngine engine) {
+        assertEquals(5, engine.getPhaseTimings().size());
+        assertTrue(engine.getPhaseTimings().containsKey(StudentEnrollmentEngine.PHASE_ROSTER_READ));
+        assertTrue(engine.getPhaseTimings().containsKey(StudentEnrollmentEngine.PHASE_PERSIST));
+        assertTrue(engine.getPhaseTimings().containsKey(StudentEnrollmentEngine.PHASE_ADJUSTMENT_SCHEDULING));
+    }
    
     public void testGetStudentForEmail() {
 
@@ -1188,9 +1254,9 @@ public class StudentsLogicTest extends BaseComponentTestCase {
     }
 
     private static StudentEnrollDetails enrollStudent(StudentAttributes student) throws Exception {
-        return (StudentEnrollDetails) invokeMethod(StudentsLogic.class, "enrollStudent",
-                                                   new Class<?>[] { StudentAttributes.class, Boolean.class },
-                                                   StudentsLogic.inst(), new Object[] { student, false });
+        StudentEnrollmentEngine enrollmentEngine = new StudentEnrollmentEngine(student.course, false);
+        enrollmentEngine.enroll(Arrays.asList(student));
+        return enrollmentEngine.getEnrollmentDetails().get(0);
     }
     
     @SuppressWarnings("unchecked")
@@ -0,0 +1,134 @@
+package teammates.test.cases.logic;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import teammates.common.util.Const;
+import teammates.common.util.Const.SystemParams;
+import teammates.logic.core.TaskBatch;
+import teammates.logic.core.TaskQueuesLogic;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.taskqueue.QueueConstants;
+import com.google.appengine.tools.development.testing.LocalTaskQueueTestConfig;
+
+public class TaskBatchTest extends BaseComponentTestCase {
+
+    private static final String QUEUE_NAME = SystemParams.SEND_EMAIL_TASK_QUEUE;
+    private static final String WORKER_URL = Const.ActionURIs.SEND_EMAIL_WORKER;
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        printTestClassHeader();
+    }
+
+    @BeforeMethod
+    public void clearQueue() {
+        LocalTaskQueueTestConfig.getLocalTaskQueue().flushQueue(QUEUE_NAME);
+    }
+
+    @Test
+    public void testFlush() {
+        TaskBatch taskBatch = TaskQueuesLogic.inst().createTaskBatch(false);
+
+        ______TS("empty batch");
+
+        assertEquals(0, taskBatch.flush());
+        assertEquals(0, getNumberOfTasksInQueue());
+
+        ______TS("tasks added in one call per batch");
+
+        for (int i = 0; i < 3; i++) {
+            taskBatch.addTask(QUEUE_NAME, WORKER_URL, getParamMap(i));
+        }
+        assertEquals(3, taskBatch.getNumberOfPendingTasks());
+        assertEquals(0, getNumberOfTasksInQueue());
+
+        assertEquals(3, taskBatch.flush());
+        assertEquals(0, taskBatch.getNumberOfPendingTasks());
+        assertEquals(3, taskBatch.getNumberOfTasksAdded());
+        assertEquals(3, getNumberOfTasksInQueue());
+    }
+
+    @Test
+    public void testFlushSplitIntoBatchesOfMaxTasksPerAdd() {
+        for (boolean isAsync : new boolean[] {false, true}) {
+            clearQueue();
+            TaskBatch taskBatch = TaskQueuesLogic.inst().createTaskBatch(isAsync);
+            int numberOfTasks = QueueConstants.maxTasksPerAdd() * 2 + 1;
+            for (int i = 0; i < numberOfTasks; i++) {
+                taskBatch.addTask(QUEUE_NAME, WORKER_URL, getParamMap(i));
+            }
+
+            assertEquals(numberOfTasks, taskBatch.flush());
+            assertEquals(numberOfTasks, getNumberOfTasksInQueue());
+        }
+    }
+
+    @Test
+    public void testFlushWithInvalidTask() {
+        for (boolean isAsync : new boolean[] {false, true}) {
+            clearQueue();
+            TaskBatch taskBatch = TaskQueuesLogic.inst().createTaskBatch(isAsync);
+            taskBatch.addTask(QUEUE_NAME, WORKER_URL, getParamMap(0));
+
+            // a task larger than the task queue allows rejects its batch
+            Map<String, String> oversizedParamMap = getParamMap(1);
+            oversizedParamMap.put(Const.ParamsNames.EMAIL_CONTENT,
+                                  new String(new char[QueueConstants.maxPushTaskSizeBytes()]).replace('\0', 'x'));
+            taskBatch.addTask(QUEUE_NAME, WORKER_URL, oversizedParamMap);
+            taskBatch.addTask(QUEUE_NAME, WORKER_URL, getParamMap(2));
+
+            // the valid tasks of the batch are added one by one, and the invalid task is dropped
+            assertEquals(2, taskBatch.flush());
+            assertEquals(0, taskBatch.getNumberOfPendingTasks());
+            assertEquals(2, getNumberOfTasksInQueue());
+        }
+    }
+
+    @Test
+    public void testFlushWithFailedBatch() {
+        for (boolean isAsync : new boolean[] {false, true}) {
+            clearQueue();
+            TaskBatch taskBatch = TaskQueuesLogic.inst().createTaskBatch(isAsync);
+            taskBatch.addTask(QUEUE_NAME, WORKER_URL, getParamMap(0));
+            taskBatch.addTask("non-existent-queue", WORKER_URL, getParamMap(1));
+            taskBatch.addTask("non-existent-queue", WORKER_URL, getParamMap(2));
+
+            try {
+                taskBatch.flush();
+                signalFailureToDetectException();
+            } catch (RuntimeException e) {
+                // the error of the failed batch is rethrown
+                ignoreExpectedException();
+            }
+
+            // only the tasks that were not added are kept for a later flush
+            assertEquals(1, getNumberOfTasksInQueue());
+            assertEquals(1, taskBatch.getNumberOfTasksAdded());
+            assertEquals(2, taskBatch.getNumberOfPendingTasks());
+        }
+    }
+
+    private static Map<String, String> getParamMap(int index) {
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(Const.ParamsNames.EMAIL_SUBJECT, "TaskBatchTest email " + index);
+        return paramMap;
+    }
+
+    private static int getNumberOfTasksInQueue() {
+        return LocalTaskQueueTestConfig.getLocalTaskQueue().getQueueStateInfo().get(QUEUE_NAME).getCountTasks();
+    }
+
+    @AfterClass
+    public static void classTearDown() {
+        LocalTaskQueueTestConfig.getLocalTaskQueue().flushQueue(QUEUE_NAME);
+        printTestClassFooter();
+    }
+
+}
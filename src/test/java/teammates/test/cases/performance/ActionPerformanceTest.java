@@ -0,0 +1,415 @@
+package teammates.test.cases.performance;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackParticipantType;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackQuestionType;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.FeedbackSessionType;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.InstructorPrivileges;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.common.util.DatastoreOperationProfile;
+import teammates.common.util.DatastoreOperationProfile.OperationType;
+import teammates.common.util.TimeHelper;
+import teammates.common.util.Utils;
+import teammates.logic.core.FeedbackQuestionsLogic;
+import teammates.logic.core.FeedbackResponsesLogic;
+import teammates.test.cases.BaseComponentTestCase;
+import teammates.test.driver.TestProperties;
+import teammates.test.util.FileHelper;
+import teammates.ui.controller.Action;
+import teammates.ui.controller.ActionResult;
+
+import com.google.appengine.api.datastore.Text;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import com.google.apphosting.api.ApiProxy;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Profiles the key actions against the performance profiler data sets and scaled-up copies of them,
+ * in the simulated GAE environment so that the results are reproducible.<br>
+ * The latency, allocation and datastore operations of each action are reported in {@link #REPORT_FILE_PATH}.
+ * The numbers of datastore operations do not depend on the machine, so they are compared with
+ * {@link #BASELINE_FILE_PATH}, which is regenerated when the test is run in god mode.
+ */
+public class ActionPerformanceTest extends BaseComponentTestCase {
+
+    private static final String[] DATA_BUNDLE_FILES = {
+            "/PerformanceProfilerImportData.json",
+            "/PerformanceProfilerRunningData.json"
+    };
+    private static final int[] SCALES = {1, 4};
+
+    private static final String BASELINE_FILE_PATH = TestProperties.TEST_DATA_FOLDER + "/ActionPerformanceBaseline.json";
+    private static final String REPORT_FILE_PATH = "build/reports/performance/ActionPerformance.json";
+
+    private static final String SESSION_NAME = "Profiler session";
+    private static final int NUMBER_OF_STUDENTS_TO_ENROLL = 10;
+    private static final int TEAMS_PER_SECTION = 10;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final Gson GSON = Utils.getTeammatesGson();
+
+    /** Measurements of each action, keyed by the data set in which the action is run. */
+    private final Map<String, Map<String, ActionMeasurement>> measurements =
+            new LinkedHashMap<String, Map<String, ActionMeasurement>>();
+
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testActionPerformance() throws Exception {
+        for (String dataBundleFile : DATA_BUNDLE_FILES) {
+            for (int scale : SCALES) {
+                DataBundle dataBundle = loadProfilerDataBundle(dataBundleFile, scale);
+                String dataSetName = dataBundleFile.substring(1, dataBundleFile.indexOf(".json")) + " x" + scale;
+
+                ______TS(dataSetName);
+
+                // the cached values of a previous data set would change the datastore operations
+                MemcacheServiceFactory.getMemcacheService().clearAll();
+                removeAndRestoreDataBundleInBulk(dataBundle);
+                measurements.put(dataSetName, profileActions(dataBundle));
+            }
+        }
+
+        writeReport();
+        verifyDatastoreOperationsAgainstBaseline();
+    }
+
+    private Map<String, ActionMeasurement> profileActions(DataBundle dataBundle) {
+        // the course and the student are chosen independently of the order of the data bundle
+        CourseAttributes course = new TreeMap<String, CourseAttributes>(dataBundle.courses).firstEntry().getValue();
+        InstructorAttributes instructor = getInstructorOfCourse(dataBundle, course.getId());
+        TreeMap<String, StudentAttributes> studentsByEmail = new TreeMap<String, StudentAttributes>();
+        for (StudentAttributes studentOfCourse : getStudentsOfCourse(dataBundle, course.getId())) {
+            studentsByEmail.put(studentOfCourse.email, studentOfCourse);
+        }
+        StudentAttributes student = studentsByEmail.firstEntry().getValue();
+
+        Map<String, ActionMeasurement> actionMeasurements = new LinkedHashMap<String, ActionMeasurement>();
+
+        gaeSimulation.loginAsInstructor(instructor.googleId);
+        actionMeasurements.put("resultsPage", profileAction(
+                Const.ActionURIs.INSTRUCTOR_FEEDBACK_RESULTS_PAGE,
+                Const.ParamsNames.COURSE_ID, course.getId(),
+                Const.ParamsNames.FEEDBACK_SESSION_NAME, SESSION_NAME));
+        actionMeasurements.put("resultsCsvDownload", profileAction(
+                Const.ActionURIs.INSTRUCTOR_FEEDBACK_RESULTS_DOWNLOAD,
+                Const.ParamsNames.COURSE_ID, course.getId(),
+                Const.ParamsNames.FEEDBACK_SESSION_NAME, SESSION_NAME));
+        actionMeasurements.put("remind", profileAction(
+                Const.ActionURIs.INSTRUCTOR_FEEDBACK_REMIND,
+                Const.ParamsNames.COURSE_ID, course.getId(),
+                Const.ParamsNames.FEEDBACK_SESSION_NAME, SESSION_NAME));
+        actionMeasurements.put("enroll", profileAction(
+                Const.ActionURIs.INSTRUCTOR_COURSE_ENROLL_SAVE,
+                Const.ParamsNames.COURSE_ID, course.getId(),
+                Const.ParamsNames.STUDENTS_ENROLLMENT_INFO, getEnrollmentInfo()));
+
+        gaeSimulation.loginAsStudent(student.googleId);
+        actionMeasurements.put("submissionSave", profileAction(
+                Const.ActionURIs.STUDENT_FEEDBACK_SUBMISSION_EDIT_SAVE,
+                getSubmissionParams(course.getId(), student.email)));
+
+        gaeSimulation.logoutUser();
+        return actionMeasurements;
+    }
+
+    private static ActionMeasurement profileAction(String uri, String... params) {
+        Action action = gaeSimulation.getActionObject(uri, params);
+
+        ApiProxy.getCurrentEnvironment().getAttributes().remove(DatastoreOperationProfile.class.getName());
+        long allocatedBytesBefore = getAllocatedBytesOfCurrentThread();
+        long startTime = System.nanoTime();
+
+        ActionResult result = action.executeAndPostProcess();
+
+        // the error path of an action would be profiled instead of the action, but the results page
+        // only warns about viewing the results of a large session by section after loading them
+        boolean isLargeResultsWarning =
+                result.getStatusMessage().equals(Const.StatusMessages.FEEDBACK_RESULTS_SECTIONVIEWWARNING);
+        assertFalse(uri + ": " + result.getStatusMessage(), result.isError && !isLargeResultsWarning);
+
+        ActionMeasurement measurement = new ActionMeasurement();
+        measurement.latencyMillis = (System.nanoTime() - startTime) / 1000000;
+        long allocatedBytesAfter = getAllocatedBytesOfCurrentThread();
+        measurement.allocatedBytes = allocatedBytesBefore == -1 || allocatedBytesAfter == -1
+                                   ? -1
+                                   : allocatedBytesAfter - allocatedBytesBefore;
+        measurement.datastoreOperations = new DatastoreOperations(DatastoreOperationProfile.getCurrent());
+        return measurement;
+    }
+
+    /**
+     * @return the number of bytes allocated so far by the current thread,
+     *         or -1 if the JVM does not measure it
+     */
+    private static long getAllocatedBytesOfCurrentThread() {
+        if (!(THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threadMxBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        if (!threadMxBean.isThreadAllocatedMemorySupported() || !threadMxBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return threadMxBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private void writeReport() throws IOException {
+        File reportFile = new File(REPORT_FILE_PATH);
+        reportFile.getParentFile().mkdirs();
+        FileHelper.saveFile(reportFile.getPath(), GSON.toJson(measurements));
+        print("Action performance reported in " + reportFile.getAbsolutePath());
+    }
+
+    private void verifyDatastoreOperationsAgainstBaseline() throws IOException {
+        Map<String, Map<String, DatastoreOperations>> datastoreOperations =
+                new LinkedHashMap<String, Map<String, DatastoreOperations>>();
+        for (Map.Entry<String, Map<String, ActionMeasurement>> dataSet : measurements.entrySet()) {
+            Map<String, DatastoreOperations> operationsOfDataSet = new LinkedHashMap<String, DatastoreOperations>();
+            for (Map.Entry<String, ActionMeasurement> action : dataSet.getValue().entrySet()) {
+                operationsOfDataSet.put(action.getKey(), action.getValue().datastoreOperations);
+            }
+            datastoreOperations.put(dataSet.getKey(), operationsOfDataSet);
+        }
+        String actual = GSON.toJson(datastoreOperations) + "\n";
+
+        if (Boolean.parseBoolean(System.getProperty("godmode"))) {
+            FileHelper.saveFile(BASELINE_FILE_PATH, actual);
+            return;
+        }
+        if (!new File(BASELINE_FILE_PATH).exists()) {
+            fail("Baseline " + BASELINE_FILE_PATH + " not found, run the test in god mode to generate it");
+        }
+
+        String expected = GSON.toJson(GSON.fromJson(FileHelper.readFile(BASELINE_FILE_PATH),
+                new TypeToken<Map<String, Map<String, DatastoreOperations>>>() { }.getType())) + "\n";
+        if (!expected.equals(actual)) {
+            // in this format, the build shows the difference
+            assertEquals("<expected>\n" + expected + "</expected>", "<actual>\n" + actual + "</actual>");
+        }
+    }
+
+    /**
+     * Loads one of the performance profiler data sets, which list the instructors by their Google IDs
+     * and each course by the Google ID of its instructor, and adds a feedback session to each course.
+     * Each student is copied {@code scale - 1} times into a new team and section of the same size.
+     */
+    private static DataBundle loadProfilerDataBundle(String dataBundleFile, int scale) throws IOException {
+        String json = FileHelper.readFile(TestProperties.TEST_DATA_FOLDER + dataBundleFile);
+        DataBundle dataBundle = GSON.fromJson(json, DataBundle.class);
+        JsonObject legacyBundle = new JsonParser().parse(json).getAsJsonObject();
+
+        Map<String, JsonObject> instructorsByGoogleId = new TreeMap<String, JsonObject>();
+        for (Map.Entry<String, JsonElement> instructor : legacyBundle.getAsJsonObject("instructors").entrySet()) {
+            JsonObject instructorJson = instructor.getValue().getAsJsonObject();
+            instructorsByGoogleId.put(instructorJson.get("id").getAsString(), instructorJson);
+        }
+
+        dataBundle.instructors.clear();
+        String role = Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER;
+        for (Map.Entry<String, JsonElement> course : legacyBundle.getAsJsonObject("courses").entrySet()) {
+            JsonObject courseJson = course.getValue().getAsJsonObject();
+            String googleId = courseJson.get("instructor").getAsString();
+            JsonObject instructorJson = instructorsByGoogleId.get(googleId);
+            String courseId = courseJson.get("id").getAsString();
+            dataBundle.instructors.put(course.getKey(),
+                    new InstructorAttributes(googleId, courseId, instructorJson.get("name").getAsString(),
+                                             instructorJson.get("email").getAsString(), role,
+                                             InstructorAttributes.DEFAULT_DISPLAY_NAME, new InstructorPrivileges(role)));
+        }
+
+        List<StudentAttributes> originalStudents = new ArrayList<StudentAttributes>(dataBundle.students.values());
+        for (StudentAttributes student : originalStudents) {
+            // as a course may not have more than 100 students in a section, every 10 teams form a section
+            int teamNumber = Integer.parseInt(student.team.replaceAll("\\D", ""));
+            student.section = "Section " + teamNumber / TEAMS_PER_SECTION;
+        }
+        for (int copy = 1; copy < scale; copy++) {
+            for (StudentAttributes student : originalStudents) {
+                String email = student.email.replace("@", ".copy" + copy + "@");
+                dataBundle.students.put(email, new StudentAttributes(
+                        student.googleId + ".copy" + copy, email, student.name + " copy " + copy,
+                        student.comments, student.course, student.team + " copy " + copy,
+                        student.section + " copy " + copy));
+            }
+        }
+
+        for (CourseAttributes course : dataBundle.courses.values()) {
+            InstructorAttributes instructor = getInstructorOfCourse(dataBundle, course.getId());
+            addFeedbackSession(dataBundle, course.getId(), instructor.email,
+                               getStudentsOfCourse(dataBundle, course.getId()));
+        }
+        return dataBundle;
+    }
+
+    /**
+     * Adds to the course a feedback session in which each student answers a question about
+     * themselves and one about each of their team members.
+     */
+    private static void addFeedbackSession(DataBundle dataBundle, String courseId, String creatorEmail,
+                                           List<StudentAttributes> students) {
+        FeedbackSessionAttributes session = new FeedbackSessionAttributes(
+                SESSION_NAME, courseId, creatorEmail, new Text("Instructions"),
+                TimeHelper.getDateOffsetToCurrentTime(-2), TimeHelper.getDateOffsetToCurrentTime(-1),
+                TimeHelper.getDateOffsetToCurrentTime(30), TimeHelper.getDateOffsetToCurrentTime(-2),
+                TimeHelper.getDateOffsetToCurrentTime(31), 0, 10, FeedbackSessionType.STANDARD,
+                true, false, true, true, true);
+        dataBundle.feedbackSessions.put(courseId + SESSION_NAME, session);
+
+        addQuestion(dataBundle, session, 1, FeedbackParticipantType.SELF);
+        addQuestion(dataBundle, session, 2, FeedbackParticipantType.OWN_TEAM_MEMBERS);
+
+        for (StudentAttributes giver : students) {
+            addResponse(dataBundle, session, 1, giver, giver);
+            for (StudentAttributes recipient : students) {
+                if (recipient.team.equals(giver.team) && !recipient.email.equals(giver.email)) {
+                    addResponse(dataBundle, session, 2, giver, recipient);
+                }
+            }
+        }
+    }
+
+    private static void addQuestion(DataBundle dataBundle, FeedbackSessionAttributes session, int questionNumber,
+                                    FeedbackParticipantType recipientType) {
+        List<FeedbackParticipantType> visibleToInstructors =
+                new ArrayList<FeedbackParticipantType>(Arrays.asList(FeedbackParticipantType.INSTRUCTORS));
+
+        FeedbackQuestionAttributes question = new FeedbackQuestionAttributes();
+        question.feedbackSessionName = session.getFeedbackSessionName();
+        question.courseId = session.getCourseId();
+        question.creatorEmail = session.getCreatorEmail();
+        question.questionMetaData = new Text("Question " + questionNumber);
+        question.questionNumber = questionNumber;
+        question.questionType = FeedbackQuestionType.TEXT;
+        question.giverType = FeedbackParticipantType.STUDENTS;
+        question.recipientType = recipientType;
+        question.numberOfEntitiesToGiveFeedbackTo = Const.MAX_POSSIBLE_RECIPIENTS;
+        question.showResponsesTo = visibleToInstructors;
+        question.showGiverNameTo = new ArrayList<FeedbackParticipantType>(visibleToInstructors);
+        question.showRecipientNameTo = new ArrayList<FeedbackParticipantType>(visibleToInstructors);
+        dataBundle.feedbackQuestions.put(session.getCourseId() + questionNumber, question);
+    }
+
+    private static void addResponse(DataBundle dataBundle, FeedbackSessionAttributes session, int questionNumber,
+                                    StudentAttributes giver, StudentAttributes recipient) {
+        FeedbackResponseAttributes response = new FeedbackResponseAttributes(
+                session.getFeedbackSessionName(), session.getCourseId(), String.valueOf(questionNumber),
+                FeedbackQuestionType.TEXT, giver.email, giver.section, recipient.email, recipient.section,
+                new Text("Response of " + giver.name + " to " + recipient.name));
+        dataBundle.feedbackResponses.put(questionNumber + giver.email + recipient.email, response);
+    }
+
+    private static InstructorAttributes getInstructorOfCourse(DataBundle dataBundle, String courseId) {
+        for (InstructorAttributes instructor : dataBundle.instructors.values()) {
+            if (instructor.courseId.equals(courseId)) {
+                return instructor;
+            }
+        }
+        return null;
+    }
+
+    private static List<StudentAttributes> getStudentsOfCourse(DataBundle dataBundle, String courseId) {
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : dataBundle.students.values()) {
+            if (student.course.equals(courseId)) {
+                students.add(student);
+            }
+        }
+        return students;
+    }
+
+    private static String getEnrollmentInfo() {
+        StringBuilder enrollmentInfo = new StringBuilder(1000);
+        enrollmentInfo.append("Team | Name | Email").append(Const.EOL);
+        for (int i = 0; i < NUMBER_OF_STUDENTS_TO_ENROLL; i++) {
+            enrollmentInfo.append("Enrolled Team\tEnrolled Student ").append(i)
+                          .append("\tenrolled.student").append(i).append("@gmail.tmt").append(Const.EOL);
+        }
+        return enrollmentInfo.toString();
+    }
+
+    /**
+     * @return the parameters to resubmit all the responses of the student in the profiled session
+     */
+    private static String[] getSubmissionParams(String courseId, String studentEmail) {
+        List<String> params = new ArrayList<String>(Arrays.asList(
+                Const.ParamsNames.COURSE_ID, courseId,
+                Const.ParamsNames.FEEDBACK_SESSION_NAME, SESSION_NAME));
+        for (int questionNumber = 1; questionNumber <= 2; questionNumber++) {
+            FeedbackQuestionAttributes question =
+                    FeedbackQuestionsLogic.inst().getFeedbackQuestion(SESSION_NAME, courseId, questionNumber);
+            List<FeedbackResponseAttributes> responses =
+                    FeedbackResponsesLogic.inst().getFeedbackResponsesFromGiverForQuestion(question.getId(),
+                                                                                           studentEmail);
+            if (responses.isEmpty()) {
+                // the submission page does not show a question without recipients, e.g. for a lone student
+                continue;
+            }
+            params.addAll(Arrays.asList(
+                    Const.ParamsNames.FEEDBACK_QUESTION_ID + "-" + questionNumber, question.getId(),
+                    Const.ParamsNames.FEEDBACK_QUESTION_TYPE + "-" + questionNumber, question.questionType.toString(),
+                    Const.ParamsNames.FEEDBACK_QUESTION_RESPONSETOTAL + "-" + questionNumber,
+                    String.valueOf(responses.size())));
+            for (int i = 0; i < responses.size(); i++) {
+                FeedbackResponseAttributes response = responses.get(i);
+                String suffix = "-" + questionNumber + "-" + i;
+                params.addAll(Arrays.asList(
+                        Const.ParamsNames.FEEDBACK_RESPONSE_ID + suffix, response.getId(),
+                        Const.ParamsNames.FEEDBACK_RESPONSE_RECIPIENT + suffix, response.recipient,
+                        Const.ParamsNames.FEEDBACK_RESPONSE_TEXT + suffix, "Edited response " + i));
+            }
+        }
+        return params.toArray(new String[params.size()]);
+    }
+
+    private static class ActionMeasurement {
+        long latencyMillis;
+        /** -1 if the JVM does not measure the allocation of threads. */
+        long allocatedBytes;
+        DatastoreOperations datastoreOperations;
+    }
+
+    private static class DatastoreOperations {
+        int queries;
+        int gets;
+        int puts;
+        int deletes;
+
+        DatastoreOperations(DatastoreOperationProfile profile) {
+            queries = profile.getCount(OperationType.QUERY);
+            gets = profile.getCount(OperationType.GET);
+            puts = profile.getCount(OperationType.PUT);
+            deletes = profile.getCount(OperationType.DELETE);
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package teammates.test.cases.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.util.ActivityLogEntry;
+import teammates.test.cases.BaseTestCase;
+import teammates.ui.controller.AdminActivityLogPageData;
+
+import com.google.appengine.api.log.AppLogLine;
+
+/**
+ * Benchmarks parsing log lines, which is done for every log line searched in the admin activity log page,
+ * with and without the log lines being discarded by their leading fields first.
+ */
+public class ActivityLogParsingPerformanceTest extends BaseTestCase {
+    
+    private static final int NUMBER_OF_LOG_LINES = 100000;
+    
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+    }
+    
+    @Test
+    public void testParsingThroughput() {
+        List<AppLogLine> appLogs = new ArrayList<AppLogLine>();
+        for (int i = 0; i < NUMBER_OF_LOG_LINES; i++) {
+            AppLogLine appLog = new AppLogLine();
+            appLog.setTimeUsec(i * 1000L);
+            appLog.setLogMessage("TEAMMATESLOG|||instructorHome|||Pageload|||true|||Instructor|||User " + i
+                                 + "|||user" + i + "|||user" + i + "@gmail.com|||instructorHome Page Load<br>"
+                                 + "Total Courses: " + i % 10 + "|||/page/instructorHome?user=user" + i
+                                 + "|||user" + i + "%20151019143729608|||" + i % 500);
+            appLogs.add(appLog);
+        }
+        
+        long startTime = System.nanoTime();
+        long totalTimeTaken = 0;
+        for (AppLogLine appLog : appLogs) {
+            totalTimeTaken += new ActivityLogEntry(appLog).getTimeTaken();
+        }
+        double parsingSeconds = (System.nanoTime() - startTime) / 1e9;
+        assertTrue(totalTimeTaken > 0);
+        
+        AdminActivityLogPageData data = new AdminActivityLogPageData(
+                new AccountAttributes("admin", "Admin", false, "admin@gmail.com", "Institute"));
+        data.generateQueryParameters("person:user1");
+        startTime = System.nanoTime();
+        int numberOfShownEntries = 0;
+        for (AppLogLine appLog : appLogs) {
+            if (data.isLogMessageToParse(appLog.getLogMessage())
+                    && data.filterLogs(new ActivityLogEntry(appLog)).toShow()) {
+                numberOfShownEntries++;
+            }
+        }
+        double filteringSeconds = (System.nanoTime() - startTime) / 1e9;
+        assertTrue(numberOfShownEntries > 0);
+        
+        print(String.format("parsed %d log lines/s, filtered %d log lines/s by person",
+                            (long) (NUMBER_OF_LOG_LINES / parsingSeconds),
+                            (long) (NUMBER_OF_LOG_LINES / filteringSeconds)));
+    }
+    
+}
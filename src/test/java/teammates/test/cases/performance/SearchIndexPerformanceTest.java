@@ -0,0 +1,93 @@
+package teammates.test.cases.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.InstructorPrivileges;
+import teammates.common.util.Const;
+import teammates.storage.search.GaeSearchIndexProvider;
+import teammates.storage.search.LocalSearchIndexProvider;
+import teammates.storage.search.SearchIndexProvider;
+import teammates.storage.search.StudentSearchQuery;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.Query;
+
+/**
+ * Benchmarks indexing and querying with the local indexes against the App Engine Search API,
+ * here its local development implementation.
+ */
+public class SearchIndexPerformanceTest extends BaseComponentTestCase {
+
+    private static final String INDEX_NAME = "SearchIndexPerformanceTest";
+
+    private static final int NUMBER_OF_COURSES = 20;
+    private static final int NUMBER_OF_STUDENTS_PER_COURSE = 100;
+    private static final int NUMBER_OF_QUERIES = 200;
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testIndexingAndQueryThroughput() {
+        benchmark("local", new LocalSearchIndexProvider());
+        benchmark("gae", new GaeSearchIndexProvider());
+    }
+
+    private void benchmark(String providerName, SearchIndexProvider provider) {
+        String indexName = INDEX_NAME + "-" + providerName;
+
+        List<Document> documents = new ArrayList<Document>();
+        for (int i = 0; i < NUMBER_OF_COURSES * NUMBER_OF_STUDENTS_PER_COURSE; i++) {
+            documents.add(getStudentDocument("s" + i, "course" + i % NUMBER_OF_COURSES,
+                                             "Student " + i + ",student" + i + "@gmail.tmt,Team " + i % 10));
+        }
+
+        long startTime = System.nanoTime();
+        provider.putDocuments(indexName, documents);
+        double indexingSeconds = (System.nanoTime() - startTime) / 1e9;
+
+        String role = Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER;
+        List<InstructorAttributes> instructors = new ArrayList<InstructorAttributes>();
+        for (int i = 0; i < 3; i++) {
+            instructors.add(new InstructorAttributes(null, "course" + i, "Instructor", "ins@course" + i + ".tmt",
+                                                     role, true, InstructorAttributes.DEFAULT_DISPLAY_NAME,
+                                                     new InstructorPrivileges(role)));
+        }
+
+        List<Query> queries = new ArrayList<Query>();
+        for (int i = 0; i < NUMBER_OF_QUERIES; i++) {
+            queries.add(new StudentSearchQuery(instructors, "\"team " + i % 10 + "\"", "").toQuery());
+        }
+
+        startTime = System.nanoTime();
+        int numberOfResults = 0;
+        for (Query query : queries) {
+            numberOfResults += provider.searchDocuments(indexName, query).getNumberReturned();
+        }
+        double querySeconds = (System.nanoTime() - startTime) / 1e9;
+
+        assertTrue(numberOfResults > 0);
+        print(String.format("%s search: indexed %d documents/s, ran %d queries/s",
+                            providerName, (long) (documents.size() / indexingSeconds),
+                            (long) (NUMBER_OF_QUERIES / querySeconds)));
+    }
+
+    private static Document getStudentDocument(String id, String courseId, String searchableText) {
+        return Document.newBuilder()
+                       .setId(id)
+                       .addField(Field.newBuilder().setName(Const.SearchDocumentField.COURSE_ID).setText(courseId))
+                       .addField(Field.newBuilder().setName(Const.SearchDocumentField.SEARCHABLE_TEXT)
+                                                   .setText(searchableText))
+                       .build();
+    }
+
+}
@@ -0,0 +1,71 @@
+package teammates.test.cases.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.logic.core.StudentEnrollmentValidator;
+import teammates.test.cases.BaseTestCase;
+
+/**
+ * Benchmarks the validation of enroll lists of the maximum size and larger against rosters of the same size.
+ */
+public class StudentEnrollmentValidatorPerformanceTest extends BaseTestCase {
+
+    private static final String COURSE_ID = "StudentEnrollmentValidatorPerformanceTest.course";
+    private static final int SECTION_SIZE_LIMIT = 100;
+    private static final int BENCHMARK_RUNS = 20;
+
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testValidationTime() {
+        benchmark(Const.SystemParams.SIZE_LIMIT_PER_ENROLLMENT);
+        benchmark(5 * Const.SystemParams.SIZE_LIMIT_PER_ENROLLMENT);
+    }
+
+    private void benchmark(int enrollListSize) {
+        ______TS("enroll list of " + enrollListSize + " students");
+
+        // roster of the same size as the enroll list, half of which is re-enrolled
+        List<StudentAttributes> roster = createStudents(enrollListSize, 0);
+        List<StudentAttributes> enrollList = createStudents(enrollListSize, enrollListSize / 2);
+
+        String invalidityInfo = "";
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < BENCHMARK_RUNS; i++) {
+            invalidityInfo = new StudentEnrollmentValidator(enrollList, roster, SECTION_SIZE_LIMIT).getInvalidityInfo();
+        }
+        long timeTaken = System.currentTimeMillis() - startTime;
+
+        assertEquals("", invalidityInfo);
+        print("Validated " + enrollListSize + " students against a roster of " + roster.size()
+                + " students in " + (double) timeTaken / BENCHMARK_RUNS + " ms on average");
+    }
+
+    /**
+     * Creates {@code count} students, 5 per team and 50 per section, numbered from {@code firstIndex}.
+     */
+    private List<StudentAttributes> createStudents(int count, int firstIndex) {
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        for (int i = firstIndex; i < firstIndex + count; i++) {
+            students.add(new StudentAttributes("Section " + i / 50, "Team " + i / 5, "Student " + i,
+                                               "student" + i + "@e.tmt", "", COURSE_ID));
+        }
+        return students;
+    }
+
+    @AfterClass
+    public static void classTearDown() {
+        printTestClassFooter();
+    }
+
+}
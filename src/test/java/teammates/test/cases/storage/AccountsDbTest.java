@@ -1,8 +1,10 @@
 package teammates.test.cases.storage;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -101,6 +103,35 @@ public class AccountsDbTest extends BaseComponentTestCase {
         }
     }
 
+    @Test
+    public void testGetInstitutesForGoogleIds() throws Exception {
+        AccountAttributes a = createNewAccount();
+        List<String> googleIds = Arrays.asList(a.googleId, "non.existent");
+        
+        ______TS("typical success case");
+        Map<String, String> institutes = accountsDb.getInstitutesForGoogleIds(googleIds);
+        assertEquals(1, institutes.size());
+        assertEquals(a.institute, institutes.get(a.googleId));
+        
+        ______TS("cached institute evicted when the account is modified");
+        a.institute = "Edited Institute";
+        accountsDb.updateAccount(a);
+        institutes = accountsDb.getInstitutesForGoogleIds(googleIds);
+        assertEquals(a.institute, institutes.get(a.googleId));
+        
+        accountsDb.deleteAccount(a.googleId);
+        institutes = accountsDb.getInstitutesForGoogleIds(googleIds);
+        assertTrue(institutes.isEmpty());
+        
+        ______TS("failure: null parameter");
+        try {
+            accountsDb.getInstitutesForGoogleIds(null);
+            signalFailureToDetectException(" - AssertionError");
+        } catch (AssertionError ae) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, ae.getMessage());
+        }
+    }
+    
     @Test
     public void testCreateAccount() throws Exception {
         
@@ -0,0 +1,150 @@
+package teammates.test.cases.storage;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.storage.api.CourseModificationsDb;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.api.StudentsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.datastore.DatastoreFailureException;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.apphosting.api.ApiProxy;
+import com.google.apphosting.api.ApiProxy.LogRecord;
+
+public class CourseModificationsDbTest extends BaseComponentTestCase {
+
+    private static final CourseModificationsDb courseModificationsDb = new CourseModificationsDb();
+    private static final CoursesDb coursesDb = new CoursesDb();
+    private static final StudentsDb studentsDb = new StudentsDb();
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+        CourseModificationsDb.clearRecordedModifications();
+    }
+
+    @Test
+    public void testGetCourseIdsModifiedSince() throws Exception {
+        Date beforeModifications = new Date();
+
+        ______TS("modifications of courses and their entities recorded");
+
+        coursesDb.createEntity(new CourseAttributes("CMDbT.course1", "Course 1"));
+        StudentAttributes student = new StudentAttributes("section", "team", "name", "cmdbt@email.tmt", "",
+                                                          "CMDbT.course2");
+        studentsDb.createEntity(student);
+
+        List<String> courseIds = courseModificationsDb.getCourseIdsModifiedSince(beforeModifications);
+        assertTrue(courseIds.contains("CMDbT.course1"));
+        assertTrue(courseIds.contains("CMDbT.course2"));
+
+        ______TS("modifications before the time given not returned");
+
+        Date afterResolution = new Date(System.currentTimeMillis() + 2 * CourseModificationsDb.RESOLUTION_MILLIS);
+        assertTrue(courseModificationsDb.getCourseIdsModifiedSince(afterResolution).isEmpty());
+
+        ______TS("deletion of a course recorded");
+
+        CourseModificationsDb.clearRecordedModifications();
+        courseModificationsDb.recordCourseModification("CMDbT.unrelated");
+        coursesDb.deleteCourse("CMDbT.course1");
+
+        courseIds = courseModificationsDb.getCourseIdsModifiedSince(beforeModifications);
+        assertTrue(courseIds.contains("CMDbT.course1"));
+        assertTrue(courseIds.contains("CMDbT.unrelated"));
+
+        ______TS("later modification recorded by another instance not overwritten by an earlier one");
+
+        Date later = new Date(System.currentTimeMillis() + 10 * CourseModificationsDb.RESOLUTION_MILLIS);
+        Entity laterModification = new Entity("CourseModification", "CMDbT.concurrent");
+        laterModification.setProperty("lastModifiedAt", later);
+        DatastoreServiceFactory.getDatastoreService().put(laterModification);
+
+        CourseModificationsDb.clearRecordedModifications();
+        courseModificationsDb.recordCourseModification("CMDbT.concurrent");
+
+        assertTrue(courseModificationsDb.getCourseIdsModifiedSince(later).contains("CMDbT.concurrent"));
+
+        ______TS("failure to record a modification neither thrown nor remembered");
+
+        @SuppressWarnings("unchecked")
+        ApiProxy.Delegate<ApiProxy.Environment> delegate = ApiProxy.getDelegate();
+        ApiProxy.setDelegate(new FailingDatastorePutDelegate(delegate));
+        try {
+            CourseModificationsDb.clearRecordedModifications();
+            courseModificationsDb.recordCourseModification("CMDbT.failed");
+        } finally {
+            ApiProxy.setDelegate(delegate);
+        }
+        assertFalse(courseModificationsDb.getCourseIdsModifiedSince(beforeModifications).contains("CMDbT.failed"));
+
+        // the modification is recorded again at once
+        courseModificationsDb.recordCourseModification("CMDbT.failed");
+        assertTrue(courseModificationsDb.getCourseIdsModifiedSince(beforeModifications).contains("CMDbT.failed"));
+
+        studentsDb.deleteStudent("CMDbT.course2", "cmdbt@email.tmt");
+    }
+
+    @AfterClass
+    public static void classTearDown() {
+        printTestClassFooter();
+    }
+
+    /**
+     * Fails every put to the datastore, and passes the other calls to the given delegate.
+     */
+    private static class FailingDatastorePutDelegate implements ApiProxy.Delegate<ApiProxy.Environment> {
+
+        private final ApiProxy.Delegate<ApiProxy.Environment> delegate;
+
+        FailingDatastorePutDelegate(ApiProxy.Delegate<ApiProxy.Environment> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public byte[] makeSyncCall(ApiProxy.Environment environment, String packageName, String methodName,
+                                   byte[] request) {
+            failIfDatastorePut(packageName, methodName);
+            return delegate.makeSyncCall(environment, packageName, methodName, request);
+        }
+
+        @Override
+        public Future<byte[]> makeAsyncCall(ApiProxy.Environment environment, String packageName,
+                                            String methodName, byte[] request, ApiProxy.ApiConfig apiConfig) {
+            failIfDatastorePut(packageName, methodName);
+            return delegate.makeAsyncCall(environment, packageName, methodName, request, apiConfig);
+        }
+
+        private static void failIfDatastorePut(String packageName, String methodName) {
+            if ("datastore_v3".equals(packageName) && "Put".equals(methodName)) {
+                throw new DatastoreFailureException("simulated failure");
+            }
+        }
+
+        @Override
+        public void log(ApiProxy.Environment environment, LogRecord record) {
+            delegate.log(environment, record);
+        }
+
+        @Override
+        public void flushLogs(ApiProxy.Environment environment) {
+            delegate.flushLogs(environment);
+        }
+
+        @Override
+        public List<Thread> getRequestThreads(ApiProxy.Environment environment) {
+            return delegate.getRequestThreads(environment);
+        }
+    }
+
+}
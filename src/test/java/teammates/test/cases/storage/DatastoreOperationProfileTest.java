@@ -0,0 +1,137 @@
+package teammates.test.cases.storage;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.DatastoreOperationProfile;
+import teammates.common.util.DatastoreOperationProfile.OperationType;
+import teammates.storage.api.StudentsDb;
+import teammates.storage.datastore.ProfiledPersistenceManager;
+import teammates.test.cases.BaseComponentTestCase;
+import teammates.test.driver.AssertHelper;
+
+import com.google.apphosting.api.ApiProxy;
+
+public class DatastoreOperationProfileTest extends BaseComponentTestCase {
+
+    private StudentsDb studentsDb = new StudentsDb();
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testSummary() {
+        DatastoreOperationProfile profile = new DatastoreOperationProfile();
+
+        ______TS("no operation");
+
+        assertTrue(profile.isEmpty());
+        assertEquals("queries: 0 (0ms), gets: 0 (0ms), puts: 0 (0ms), deletes: 0 (0ms)", profile.getSummary());
+
+        ______TS("operations counted and timed");
+
+        profile.record(OperationType.GET, "CoursesDb.getCourse", 2000000);
+        profile.record(OperationType.GET, "CoursesDb.getCourse", 1000000);
+        profile.record(OperationType.PUT, "CoursesDb.createCourse", 5000000);
+        profile.recordQuery("StudentsDb.getStudentForGoogleId", "Student where ID", 1, 4000000);
+
+        assertFalse(profile.isEmpty());
+        assertEquals(2, profile.getCount(OperationType.GET));
+        assertEquals(3, profile.getDurationMillis(OperationType.GET));
+        assertEquals(1, profile.getCount(OperationType.QUERY));
+        assertEquals(0, profile.getCount(OperationType.DELETE));
+        assertEquals("queries: 1 (4ms), gets: 2 (3ms), puts: 1 (5ms), deletes: 0 (0ms)", profile.getSummary());
+
+        ______TS("N+1 queries flagged at the threshold");
+
+        for (int i = 2; i < DatastoreOperationProfile.N_PLUS_ONE_THRESHOLD; i++) {
+            profile.recordQuery("StudentsDb.getStudentForGoogleId", "Student where ID", i, 0);
+        }
+        assertTrue(profile.getNPlusOneCallSites().isEmpty());
+
+        profile.recordQuery("StudentsDb.getStudentForGoogleId", "Student where ID", 0, 0);
+        assertEquals(Arrays.asList("StudentsDb.getStudentForGoogleId"), profile.getNPlusOneCallSites());
+        assertTrue(profile.getDuplicateQueryCallSites().isEmpty());
+
+        ______TS("duplicate queries flagged");
+
+        profile.recordQuery("StudentsDb.getStudentForGoogleId", "Student where ID", 1, 0);
+        assertEquals(Arrays.asList("StudentsDb.getStudentForGoogleId"), profile.getDuplicateQueryCallSites());
+        assertEquals("queries: 11 (4ms), gets: 2 (3ms), puts: 1 (5ms), deletes: 0 (0ms); "
+                     + "N+1: StudentsDb.getStudentForGoogleId x11; duplicates: StudentsDb.getStudentForGoogleId x2",
+                     profile.getSummary());
+    }
+
+    @Test
+    public void testProfiledQueries() {
+        boolean wasCallSiteCaptured = ProfiledPersistenceManager.isCallSiteCaptured();
+        try {
+            ProfiledPersistenceManager.setCallSiteCaptured(true);
+            testProfiledQueriesWithCallSites();
+            ProfiledPersistenceManager.setCallSiteCaptured(false);
+            testProfiledQueriesWithoutCallSites();
+        } finally {
+            ProfiledPersistenceManager.setCallSiteCaptured(wasCallSiteCaptured);
+        }
+    }
+
+    private void testProfiledQueriesWithCallSites() {
+        DatastoreOperationProfile profile = startNewProfile();
+        int queriesBefore = profile.getCount(OperationType.QUERY);
+
+        ______TS("queries of the storage layer recorded with their call site");
+
+        for (int i = 0; i < DatastoreOperationProfile.N_PLUS_ONE_THRESHOLD; i++) {
+            studentsDb.getStudentForGoogleId("profile.course", "profile.student" + i);
+        }
+
+        assertEquals(queriesBefore + DatastoreOperationProfile.N_PLUS_ONE_THRESHOLD,
+                     profile.getCount(OperationType.QUERY));
+        assertTrue(profile.getNPlusOneCallSites().contains("StudentsDb.getStudentForGoogleId"));
+        assertFalse(profile.getDuplicateQueryCallSites().contains("StudentsDb.getStudentForGoogleId"));
+
+        ______TS("same query with the same parameters recorded as duplicate");
+
+        studentsDb.getStudentForGoogleId("profile.course", "profile.student0");
+
+        assertTrue(profile.getDuplicateQueryCallSites().contains("StudentsDb.getStudentForGoogleId"));
+        assertTrue(profile.getSummary().contains("N+1: StudentsDb.getStudentForGoogleId x"));
+    }
+
+    private void testProfiledQueriesWithoutCallSites() {
+        DatastoreOperationProfile profile = startNewProfile();
+
+        ______TS("queries of the storage layer recorded by query without walking the stack");
+
+        for (int i = 0; i < DatastoreOperationProfile.N_PLUS_ONE_THRESHOLD; i++) {
+            studentsDb.getStudentForGoogleId("profile.course", "profile.student" + i);
+        }
+
+        assertEquals(DatastoreOperationProfile.N_PLUS_ONE_THRESHOLD, profile.getCount(OperationType.QUERY));
+        List<String> nPlusOneQueries = profile.getNPlusOneCallSites();
+        assertEquals(1, nPlusOneQueries.size());
+        assertFalse(nPlusOneQueries.get(0).contains("StudentsDb"));
+        AssertHelper.assertContains("ID == googleIdParam", nPlusOneQueries.get(0));
+        assertTrue(profile.getDuplicateQueryCallSites().isEmpty());
+
+        ______TS("same query with the same parameters recorded as duplicate");
+
+        studentsDb.getStudentForGoogleId("profile.course", "profile.student0");
+
+        assertEquals(nPlusOneQueries, profile.getDuplicateQueryCallSites());
+    }
+
+    private static DatastoreOperationProfile startNewProfile() {
+        // the environment is shared by the test classes, so the profile is started afresh as for a new request
+        ApiProxy.getCurrentEnvironment().getAttributes().remove(DatastoreOperationProfile.class.getName());
+        DatastoreOperationProfile profile = DatastoreOperationProfile.getCurrent();
+        assertNotNull(profile);
+        return profile;
+    }
+
+}
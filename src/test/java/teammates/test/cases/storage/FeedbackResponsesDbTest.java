@@ -1,5 +1,6 @@
 package teammates.test.cases.storage;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
@@ -207,6 +208,31 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
         assertNull(actual);
     }
     
+    @Test
+    public void testGetExistingFeedbackResponseIds() {
+        
+        ______TS("standard success case");
+        
+        FeedbackResponseAttributes expected = getResponseAttributes("response1ForQ1S1C1");
+        FeedbackResponseAttributes existing =
+                frDb.getFeedbackResponse(expected.feedbackQuestionId, expected.giver, expected.recipient);
+        String nonExistentId = expected.feedbackQuestionId + "%student1InCourse1@gmail.tmt%student3InCourse1@gmail.tmt";
+        
+        Set<String> existingIds = frDb.getExistingFeedbackResponseIds(Arrays.asList(existing.getId(), nonExistentId));
+        
+        assertEquals(1, existingIds.size());
+        assertTrue(existingIds.contains(existing.getId()));
+        
+        ______TS("null parameter");
+        
+        try {
+            frDb.getExistingFeedbackResponseIds(null);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
+        }
+    }
+    
     @Test
     public void testGetFeedbackResponsesForQuestion() {
         
@@ -1,7 +1,9 @@
 package teammates.test.cases.storage;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.testng.annotations.AfterClass;
@@ -195,6 +197,42 @@ public class InstructorsDbTest extends BaseComponentTestCase {
         }
     }
 
+    @Test
+    public void testGetExistingInstructorRegistrationKeys() {
+        
+        ______TS("Success: only the keys of existing instructors are returned");
+        
+        InstructorAttributes existing = instructorsDb.getInstructorForEmail("idOfTypicalCourse1",
+                                                                             "instructor1@course1.tmt");
+        String role = Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER;
+        InstructorAttributes nonExistent = new InstructorAttributes(null, "idOfTypicalCourse1", "Non Existent",
+                                                                    "non.existent@course1.tmt", role,
+                                                                    InstructorAttributes.DEFAULT_DISPLAY_NAME,
+                                                                    new InstructorPrivileges(role));
+        nonExistent.key = "non.existent.key";
+        InstructorAttributes withOutdatedKey = instructorsDb.getInstructorForEmail("idOfTypicalCourse1",
+                                                                                    "instructor2@course1.tmt");
+        withOutdatedKey.key = "outdated.key";
+        // the ID of an instructor keeps the original email once the email is edited
+        InstructorAttributes withEditedEmail = instructorsDb.getInstructorForEmail("idOfTypicalCourse1",
+                                                                                    "instructor3@course1.tmt");
+        withEditedEmail.email = "edited.email@course1.tmt";
+        
+        Set<String> existingKeys = instructorsDb.getExistingInstructorRegistrationKeys(
+                Arrays.asList(existing, nonExistent, withOutdatedKey, withEditedEmail));
+        
+        assertEquals(2, existingKeys.size());
+        assertTrue(existingKeys.contains(existing.key));
+        assertTrue(existingKeys.contains(withEditedEmail.key));
+        assertFalse(existingKeys.contains(nonExistent.key));
+        assertFalse(existingKeys.contains(withOutdatedKey.key));
+        
+        ______TS("Success: no instructors");
+        
+        assertTrue(instructorsDb.getExistingInstructorRegistrationKeys(new ArrayList<InstructorAttributes>())
+                                .isEmpty());
+    }
+    
     @Test
     public void testGetInstructorsForEmail() {
         
@@ -300,6 +338,73 @@ public class InstructorsDbTest extends BaseComponentTestCase {
         }
     }
     
+    @Test
+    public void testGetInstructorsForCourses() {
+        
+        ______TS("Success: get instructors of many courses at once");
+        
+        Map<String, List<InstructorAttributes>> retrieved = instructorsDb.getInstructorsForCourses(
+                Arrays.asList("idOfTypicalCourse1", "idOfTypicalCourse2", "non-exist-course"));
+        
+        assertEquals(2, retrieved.size());
+        assertEquals(instructorsDb.getInstructorsForCourse("idOfTypicalCourse1").size(),
+                     retrieved.get("idOfTypicalCourse1").size());
+        assertEquals(instructorsDb.getInstructorsForCourse("idOfTypicalCourse2").size(),
+                     retrieved.get("idOfTypicalCourse2").size());
+        assertFalse(retrieved.containsKey("non-exist-course"));
+        
+        ______TS("Failure: null parameters");
+
+        try {
+            instructorsDb.getInstructorsForCourses(null);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testGetRegisteredInstructorGoogleIdsForCourses() throws Exception {
+        
+        ______TS("Success: get a registered instructor of many courses at once");
+        
+        String role = Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER;
+        InstructorAttributes unregisteredInstructor = new InstructorAttributes(
+                null, "InstrDbT.unregistered-course", "Unregistered Instructor", "InstrDbT.unregistered@email.tmt",
+                role, InstructorAttributes.DEFAULT_DISPLAY_NAME, new InstructorPrivileges(role));
+        instructorsDb.createEntity(unregisteredInstructor);
+        List<String> courseIds = Arrays.asList("idOfTypicalCourse1", unregisteredInstructor.courseId, "non-exist-course");
+        
+        Map<String, String> retrieved = instructorsDb.getRegisteredInstructorGoogleIdsForCourses(courseIds);
+        
+        assertEquals(1, retrieved.size());
+        assertEquals("idOfTypicalCourse1",
+                     instructorsDb.getInstructorForGoogleId("idOfTypicalCourse1", retrieved.get("idOfTypicalCourse1"))
+                                  .courseId);
+        
+        ______TS("Success: cached Google IDs evicted when an instructor of the course is modified");
+        
+        unregisteredInstructor.googleId = "InstrDbT.newly-registered";
+        instructorsDb.updateInstructorByEmail(unregisteredInstructor);
+        
+        retrieved = instructorsDb.getRegisteredInstructorGoogleIdsForCourses(courseIds);
+        assertEquals(2, retrieved.size());
+        assertEquals(unregisteredInstructor.googleId, retrieved.get(unregisteredInstructor.courseId));
+        
+        instructorsDb.deleteInstructorsForCourse(unregisteredInstructor.courseId);
+        retrieved = instructorsDb.getRegisteredInstructorGoogleIdsForCourses(courseIds);
+        assertFalse(retrieved.containsKey(unregisteredInstructor.courseId));
+        
+        ______TS("Failure: null parameters");
+
+        try {
+            instructorsDb.getRegisteredInstructorGoogleIdsForCourses(null);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getMessage());
+        }
+    }
+    
     @Test
     public void testUpdateInstructorByGoogleId() throws Exception {
         
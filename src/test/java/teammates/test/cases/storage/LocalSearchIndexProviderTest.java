@@ -0,0 +1,200 @@
+package teammates.test.cases.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.InstructorPrivileges;
+import teammates.common.util.Const;
+import teammates.storage.search.CommentSearchQuery;
+import teammates.storage.search.InstructorSearchQuery;
+import teammates.storage.search.LocalSearchIndexProvider;
+import teammates.storage.search.SearchIndexProvider;
+import teammates.storage.search.StudentSearchQuery;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchQueryException;
+
+public class LocalSearchIndexProviderTest extends BaseComponentTestCase {
+
+    private static final String INDEX_NAME = "LocalSearchIndexProviderTest";
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testPutGetAndDeleteDocuments() {
+        SearchIndexProvider provider = new LocalSearchIndexProvider();
+
+        ______TS("put and get documents");
+
+        provider.putDocuments(INDEX_NAME, Arrays.asList(getStudentDocument("s1", "course1", "Alice Tan"),
+                                                        getStudentDocument("s2", "course1", "Bob Lim")));
+
+        assertEquals("Alice Tan", provider.getDocument(INDEX_NAME, "s1")
+                                          .getOnlyField(Const.SearchDocumentField.SEARCHABLE_TEXT).getText());
+        assertNull(provider.getDocument(INDEX_NAME, "non-existent"));
+        assertNull(provider.getDocument("otherIndex", "s1"));
+
+        ______TS("put replaces the existing document and its index entries");
+
+        provider.putDocuments(INDEX_NAME, Arrays.asList(getStudentDocument("s1", "course1", "Charlie Ng")));
+
+        assertEquals(0, search(provider, "searchableText:alice").size());
+        assertEquals(Arrays.asList("s1"), search(provider, "searchableText:charlie"));
+
+        ______TS("delete documents, ignoring non-existent ones");
+
+        provider.deleteDocuments(INDEX_NAME, "s1", "non-existent");
+
+        assertNull(provider.getDocument(INDEX_NAME, "s1"));
+        assertEquals(0, search(provider, "searchableText:charlie").size());
+        assertEquals(Arrays.asList("s2"), search(provider, ""));
+    }
+
+    @Test
+    public void testSearchDocuments() {
+        SearchIndexProvider provider = new LocalSearchIndexProvider();
+        provider.putDocuments(INDEX_NAME, Arrays.asList(
+                getStudentDocument("s1", "course1", "Alice Tan,alice.tan@gmail.tmt,Team 1"),
+                getStudentDocument("s2", "course1", "Bob Lim,bob@gmail.tmt,Team 2"),
+                getStudentDocument("s3", "course2", "Alice Wong,alice.wong@gmail.tmt,Team 1"),
+                getCommentDocument("c1", "course1", "ins1@course1.tmt", false, "Good work"),
+                getCommentDocument("c2", "course1", "ins2@course1.tmt", true, "Good effort"),
+                getCommentDocument("c3", "course1", "ins2@course1.tmt", false, "Good attempt")));
+
+        String role = Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER;
+        InstructorAttributes instructor = new InstructorAttributes(null, "course1", "Instructor 1", "ins1@course1.tmt",
+                                                                   role, true, InstructorAttributes.DEFAULT_DISPLAY_NAME,
+                                                                   new InstructorPrivileges(role));
+        List<InstructorAttributes> instructors = Arrays.asList(instructor);
+
+        ______TS("query restricted to the courses of the instructor");
+
+        assertEquals(Arrays.asList("s1"), search(provider, new StudentSearchQuery(instructors, "alice", "")));
+
+        ______TS("query of any of the words, or of a quoted phrase");
+
+        assertEquals(new HashSet<String>(Arrays.asList("s1", "s2")),
+                     new HashSet<String>(search(provider, new StudentSearchQuery(instructors, "alice bob", ""))));
+        assertEquals(0, search(provider, new StudentSearchQuery(instructors, "\"tan lim\"", "")).size());
+        assertEquals(Arrays.asList("s1"), search(provider, new StudentSearchQuery(instructors, "\"team 1\"", "")));
+
+        ______TS("query of an email, which is not split into words");
+
+        assertEquals(Arrays.asList("s3"),
+                     search(provider, new InstructorSearchQuery("alice.wong@gmail.tmt", "")));
+
+        ______TS("admin query across courses");
+
+        assertEquals(new HashSet<String>(Arrays.asList("s1", "s3")),
+                     new HashSet<String>(search(provider, new StudentSearchQuery("ALICE", ""))));
+
+        ______TS("query restricted to comments given by the instructor or visible to instructors");
+
+        assertEquals(new HashSet<String>(Arrays.asList("c1", "c2")),
+                     new HashSet<String>(search(provider, new CommentSearchQuery(instructors, "good", ""))));
+
+        ______TS("query with NOT and nested parentheses");
+
+        assertEquals(Arrays.asList("s2"), search(provider, "NOT (searchableText:alice OR giverEmail:ins1) "
+                                                           + "AND courseId:course1 AND searchableText:team"));
+
+        ______TS("unsupported query");
+
+        try {
+            search(provider, "2016-01-01 <= createdDate");
+            signalFailureToDetectException();
+        } catch (SearchQueryException e) {
+            ignoreExpectedException();
+        }
+    }
+
+    @Test
+    public void testSearchDocumentsWithCursor() {
+        SearchIndexProvider provider = new LocalSearchIndexProvider();
+        List<Document> documents = new ArrayList<Document>();
+        for (int i = 0; i < 45; i++) {
+            documents.add(getStudentDocument("s" + i, "course1", "Student " + i));
+        }
+        provider.putDocuments(INDEX_NAME, documents);
+
+        Set<String> foundIds = new HashSet<String>();
+        String cursor = "";
+        int numberOfPages = 0;
+        do {
+            Results<ScoredDocument> results = provider.searchDocuments(
+                    INDEX_NAME, new StudentSearchQuery("student", cursor).toQuery());
+            assertEquals(45, results.getNumberFound());
+            for (ScoredDocument document : results) {
+                assertTrue(foundIds.add(document.getId()));
+            }
+            cursor = results.getCursor() == null ? null : results.getCursor().toWebSafeString();
+            numberOfPages++;
+        } while (cursor != null);
+
+        assertEquals(3, numberOfPages);
+        assertEquals(45, foundIds.size());
+    }
+
+    private static List<String> search(SearchIndexProvider provider, String queryString) {
+        return getIds(provider.searchDocuments(INDEX_NAME, Query.newBuilder().build(queryString)));
+    }
+
+    private static List<String> search(SearchIndexProvider provider, StudentSearchQuery query) {
+        return getIds(provider.searchDocuments(INDEX_NAME, query.toQuery()));
+    }
+
+    private static List<String> search(SearchIndexProvider provider, InstructorSearchQuery query) {
+        return getIds(provider.searchDocuments(INDEX_NAME, query.toQuery()));
+    }
+
+    private static List<String> search(SearchIndexProvider provider, CommentSearchQuery query) {
+        return getIds(provider.searchDocuments(INDEX_NAME, query.toQuery()));
+    }
+
+    private static List<String> getIds(Results<ScoredDocument> results) {
+        List<String> ids = new ArrayList<String>();
+        for (ScoredDocument document : results) {
+            ids.add(document.getId());
+        }
+        return ids;
+    }
+
+    private static Document getStudentDocument(String id, String courseId, String searchableText) {
+        return Document.newBuilder()
+                       .setId(id)
+                       .addField(Field.newBuilder().setName(Const.SearchDocumentField.COURSE_ID).setText(courseId))
+                       .addField(Field.newBuilder().setName(Const.SearchDocumentField.SEARCHABLE_TEXT)
+                                                   .setText(searchableText))
+                       .build();
+    }
+
+    private static Document getCommentDocument(String id, String courseId, String giverEmail,
+                                               boolean isVisibleToInstructor, String searchableText) {
+        return Document.newBuilder()
+                       .setId(id)
+                       .addField(Field.newBuilder().setName(Const.SearchDocumentField.COURSE_ID).setText(courseId))
+                       .addField(Field.newBuilder().setName(Const.SearchDocumentField.GIVER_EMAIL)
+                                                   .setText(giverEmail))
+                       .addField(Field.newBuilder().setName(Const.SearchDocumentField.IS_VISIBLE_TO_INSTRUCTOR)
+                                                   .setText(String.valueOf(isVisibleToInstructor)))
+                       .addField(Field.newBuilder().setName(Const.SearchDocumentField.SEARCHABLE_TEXT)
+                                                   .setText(searchableText))
+                       .build();
+    }
+
+}
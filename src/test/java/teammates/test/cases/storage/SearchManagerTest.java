@@ -0,0 +1,58 @@
+package teammates.test.cases.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.storage.search.SearchManager;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+
+public class SearchManagerTest extends BaseComponentTestCase {
+
+    private static final String INDEX_NAME = "SearchManagerTest";
+    
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+    
+    @Test
+    public void testPutDocuments() {
+        
+        ______TS("more documents than a single put accepts");
+        
+        List<Document> documents = new ArrayList<Document>();
+        for (int i = 0; i < 450; i++) {
+            documents.add(Document.newBuilder()
+                                  .setId("doc" + i)
+                                  .addField(Field.newBuilder().setName("text").setText("document " + i))
+                                  .build());
+        }
+        
+        SearchManager.putDocuments(INDEX_NAME, documents);
+        
+        for (Document document : documents) {
+            assertNotNull(SearchManager.getDocument(INDEX_NAME, document.getId()));
+        }
+        
+        ______TS("single document replaces the existing one");
+        
+        Document updatedDocument = Document.newBuilder()
+                                           .setId("doc0")
+                                           .addField(Field.newBuilder().setName("text").setText("updated"))
+                                           .build();
+        SearchManager.putDocument(INDEX_NAME, updatedDocument);
+        
+        assertEquals("updated", SearchManager.getDocument(INDEX_NAME, "doc0").getOnlyField("text").getText());
+        
+        ______TS("no documents");
+        
+        SearchManager.putDocuments(INDEX_NAME, new ArrayList<Document>());
+    }
+    
+}
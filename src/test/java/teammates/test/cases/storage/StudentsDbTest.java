@@ -3,9 +3,13 @@ package teammates.test.cases.storage;
 import static teammates.common.util.FieldValidator.COURSE_ID_ERROR_MESSAGE;
 import static teammates.common.util.FieldValidator.REASON_INCORRECT_FORMAT;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import teammates.common.datatransfer.EntitiesChunk;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
@@ -289,6 +293,39 @@ public class StudentsDbTest extends BaseComponentTestCase {
       //       Reason: Difficult to reproduce a persistence delay during testing
     }
     
+    @Test
+    public void testGetStudentsForCourseInChunk() throws InvalidParametersException {
+        createNewStudent("chunk1@email.tmt");
+        createNewStudent("chunk2@email.tmt");
+        createNewStudent("chunk3@email.tmt");
+        int numberOfStudents = studentsDb.getStudentsForCourse("valid-course").size();
+
+        ______TS("chunks read from the cursor of the previous chunk");
+
+        Set<String> emails = new HashSet<String>();
+        EntitiesChunk<StudentAttributes> chunk = studentsDb.getStudentsForCourseInChunk("valid-course", null, 2);
+        assertEquals(2, chunk.entities.size());
+        while (true) {
+            for (StudentAttributes student : chunk.entities) {
+                emails.add(student.email);
+            }
+            if (!chunk.hasMore()) {
+                break;
+            }
+            chunk = studentsDb.getStudentsForCourseInChunk("valid-course", chunk.cursor, 2);
+        }
+        assertEquals(numberOfStudents, emails.size());
+        assertTrue(emails.contains("chunk3@email.tmt"));
+
+        ______TS("course without students");
+
+        chunk = studentsDb.getStudentsForCourseInChunk("non-existent-course", null, 2);
+        assertTrue(chunk.entities.isEmpty());
+        assertFalse(chunk.hasMore());
+
+        studentsDb.deleteStudentsForCourseWithoutDocument("valid-course");
+    }
+
     private StudentAttributes createNewStudent() throws InvalidParametersException {
         StudentAttributes s = new StudentAttributes();
         s.name = "valid student";
@@ -15,7 +15,8 @@ public class TestNgTest extends BaseTestCase {
     @Test
     public void checkTestsInTestNg() throws IOException {
         String testNgXml = FileHelper.readFile("./src/test/testng-travis.xml")
-                           + FileHelper.readFile("./src/test/testng-local.xml");
+                           + FileHelper.readFile("./src/test/testng-local.xml")
+                           + FileHelper.readFile("./src/test/testng-performance.xml");
         // <class name, package name>
         HashMap<String, String> testFiles = getTestFiles(testNgXml, "./src/test/java/teammates/test/cases");
              
@@ -0,0 +1,46 @@
+package teammates.test.cases.ui;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.ActionMetrics;
+import teammates.common.util.Const;
+import teammates.ui.controller.AdminActionMetricsPageAction;
+import teammates.ui.controller.AdminActionMetricsPageData;
+import teammates.ui.controller.ShowPageResult;
+
+public class AdminActionMetricsPageActionTest extends BaseActionTest {
+
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+        uri = Const.ActionURIs.ADMIN_ACTION_METRICS_PAGE;
+    }
+
+    @Test
+    public void testExecuteAndPostProcess() {
+        ActionMetrics.clear();
+        ActionMetrics.record(Const.ActionURIs.INSTRUCTOR_HOME_PAGE, 100, false, 5);
+        ActionMetrics.record(Const.ActionURIs.STUDENT_HOME_PAGE, 2000, true, 20);
+
+        gaeSimulation.loginAsAdmin("admin.user");
+
+        ______TS("metrics of the actions, from the slowest");
+
+        AdminActionMetricsPageAction action = getAction();
+        ShowPageResult result = (ShowPageResult) action.executeAndPostProcess();
+
+        assertEquals("/jsp/adminActionMetrics.jsp?error=false&user=admin.user", result.getDestinationWithParams());
+        AdminActionMetricsPageData data = (AdminActionMetricsPageData) result.data;
+        assertEquals(2, data.getActionMetrics().size());
+        assertEquals(Const.ActionURIs.STUDENT_HOME_PAGE, data.getActionMetrics().get(0).getActionUri());
+        assertEquals(1, data.getActionMetrics().get(0).getErrors());
+        assertEquals(Const.ActionURIs.INSTRUCTOR_HOME_PAGE, data.getActionMetrics().get(1).getActionUri());
+        assertEquals(5, data.getActionMetrics().get(1).getDatastoreCallsPerRequest());
+    }
+
+    private AdminActionMetricsPageAction getAction(String... params) {
+        return (AdminActionMetricsPageAction) gaeSimulation.getActionObject(uri, params);
+    }
+
+}
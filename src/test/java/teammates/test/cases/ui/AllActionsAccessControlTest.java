@@ -111,6 +111,18 @@ public class AllActionsAccessControlTest extends BaseActionTest {
         verifyOnlyAdminsCanAccess(submissionParams);
     }
     
+    @Test
+    public void testAdminActionMetrics() {
+        uri = Const.ActionURIs.ADMIN_ACTION_METRICS;
+        verifyOnlyAdminsCanAccess(submissionParams);
+    }
+    
+    @Test
+    public void testAdminActionMetricsPage() {
+        uri = Const.ActionURIs.ADMIN_ACTION_METRICS_PAGE;
+        verifyOnlyAdminsCanAccess(submissionParams);
+    }
+    
     @Test
     public void testAdminActivityLogPage() {
         uri = Const.ActionURIs.ADMIN_ACTIVITY_LOG_PAGE;
@@ -0,0 +1,68 @@
+package teammates.test.cases.ui.pagedata;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.util.ActivityLogEntry;
+import teammates.test.cases.BaseTestCase;
+import teammates.ui.controller.AdminActivityLogPageData;
+
+import com.google.appengine.api.log.AppLogLine;
+
+public class AdminActivityLogPageDataTest extends BaseTestCase {
+    
+    private static final String[] LOG_MESSAGES = {
+            "TEAMMATESLOG|||instructorHome|||Pageload|||true|||Instructor|||Instructor One|||ins1"
+                    + "|||ins1@gmail.com|||Message|||URL|||ins1%20151019143729608|||120",
+            "TEAMMATESLOG|||studentHome|||Pageload|||true|||Student|||Student One|||stu1"
+                    + "|||stu1@gmail.com|||Message|||URL|||stu1%20151019143729608|||30",
+            "TEAMMATESLOG|||studentHome|||Pageload|||false|||Student|||Student Two|||stu2"
+                    + "|||stu2@gmail.com|||Message|||URL|||stu2%20151019143729608|||30",
+            "TEAMMATESLOG|||studentHome|||Pageload|||true|||Student|||Test Student|||test"
+                    + "|||test@gmail.tmt|||Message|||URL|||test%20151019143729608|||30",
+            "TEAMMATESLOG|||studentHome|||Pageload|||true"
+    };
+    
+    private static final String[] QUERIES = {
+            "", "request:instructorhome", "response:pageload", "person:one", "role:student",
+            "request:studenthome and person:stu", "time:100", "invalid query"
+    };
+    
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+    }
+    
+    @Test
+    public void testIsLogMessageToParse() {
+        AccountAttributes admin = new AccountAttributes("admin", "Admin", false, "admin@gmail.com", "Institute");
+        
+        ______TS("log messages are discarded only if their entries are filtered out");
+        
+        for (String query : QUERIES) {
+            AdminActivityLogPageData data = new AdminActivityLogPageData(admin);
+            data.generateQueryParameters(query);
+            for (String logMessage : LOG_MESSAGES) {
+                AppLogLine appLog = new AppLogLine();
+                appLog.setLogMessage(logMessage);
+                ActivityLogEntry entry = data.filterLogs(new ActivityLogEntry(appLog));
+                boolean isShown = entry.toShow() && !entry.isTestingData();
+                if (!data.isLogMessageToParse(logMessage)) {
+                    assertFalse(query + " " + logMessage, isShown);
+                }
+            }
+        }
+        
+        ______TS("log messages are discarded by their leading fields");
+        
+        AdminActivityLogPageData data = new AdminActivityLogPageData(admin);
+        data.generateQueryParameters("request:instructorhome and person:one");
+        assertTrue(data.isLogMessageToParse(LOG_MESSAGES[0]));
+        assertFalse(data.isLogMessageToParse(LOG_MESSAGES[1]));
+        assertFalse(data.isLogMessageToParse(LOG_MESSAGES[2]));
+        assertFalse(data.isLogMessageToParse(LOG_MESSAGES[3]));
+        assertTrue(data.isLogMessageToParse(LOG_MESSAGES[4]));
+    }
+    
+}
@@ -91,6 +91,26 @@ public final class BackDoor {
         return makePostRequest(params);
     }
     
+    /**
+     * Removes the given data in bulk and persists it again in bulk, e.g. to seed a large
+     * data bundle for load testing quickly. The search documents of the data are also put.
+     * 
+     * @param dataBundle
+     * @return
+     */
+    public static String removeAndRestoreDataBundleInBulk(DataBundle dataBundle) {
+        String dataBundleJson = Utils.getTeammatesGson().toJson(dataBundle);
+        HashMap<String, Object> params = createParamMap(BackDoorServlet.OPERATION_REMOVE_DATABUNDLE_IN_BULK);
+        params.put(BackDoorServlet.PARAMETER_DATABUNDLE_JSON, dataBundleJson);
+        String status = makePostRequest(params);
+        if (!status.equals(Const.StatusCodes.BACKDOOR_STATUS_SUCCESS)) {
+            return status;
+        }
+        params = createParamMap(BackDoorServlet.OPERATION_PERSIST_DATABUNDLE_IN_BULK);
+        params.put(BackDoorServlet.PARAMETER_DATABUNDLE_JSON, dataBundleJson);
+        return makePostRequest(params);
+    }
+    
     /**
      * Removes and restores given data.
      * 